@@ -0,0 +1,97 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic input data for the benchmarks
+ */
+final class BenchmarkData {
+
+	static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+	static final Genotype HET = new Genotype(List.of(0, 1));
+	static final Genotype HOM_ALT = new Genotype(List.of(1, 1));
+	static final Genotype NO_CALL = new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL));
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Build pedigree with <code>size</code> members
+	 * <p>
+	 * A size of one gives an affected singleton, otherwise the pedigree starts with an unaffected founder couple. Further
+	 * members are children of the most recent couple, every fourth member marries into the family, founding the next
+	 * generation with the last child. Every other child is affected.
+	 */
+	static Pedigree pedigree(int size) {
+		if (size == 1)
+			return new Pedigree("fam", List.of(new Person("index", null, null, Sex.FEMALE, Disease.AFFECTED)));
+
+		List<Person> members = new ArrayList<>();
+		Person father = new Person("founder0", null, null, Sex.MALE, Disease.UNAFFECTED);
+		Person mother = new Person("founder1", null, null, Sex.FEMALE, Disease.UNAFFECTED);
+		members.add(father);
+		members.add(mother);
+		Person lastChild = null;
+		for (int i = 2; i < size; ++i) {
+			if (i % 4 == 0 && lastChild != null && i + 1 < size) {
+				final Sex sex = (lastChild.getSex() == Sex.MALE) ? Sex.FEMALE : Sex.MALE;
+				final Person spouse = new Person("founder" + i, null, null, sex, Disease.UNAFFECTED);
+				members.add(spouse);
+				father = (sex == Sex.MALE) ? spouse : lastChild;
+				mother = (sex == Sex.MALE) ? lastChild : spouse;
+			} else {
+				final Sex sex = (i % 3 == 0) ? Sex.FEMALE : Sex.MALE;
+				final Disease disease = (i % 2 == 0) ? Disease.AFFECTED : Disease.UNAFFECTED;
+				lastChild = new Person("child" + i, father, mother, sex, disease);
+				members.add(lastChild);
+			}
+		}
+		return new Pedigree("fam", members);
+	}
+
+	/**
+	 * Build <code>n</code> random {@link GenotypeCalls} for the members of <code>pedigree</code>
+	 * <p>
+	 * Each genotype is het. with probability <code>hetDensity</code>, otherwise mostly hom. ref. with some hom. alt.
+	 * and no-calls. 90% of the calls are autosomal, 8% X-chromosomal and 2% mitochondrial.
+	 */
+	static List<GenotypeCalls> calls(Pedigree pedigree, int n, double hetDensity, long seed) {
+		final Random rng = new Random(seed);
+		final List<String> names = pedigree.getNames();
+		List<GenotypeCalls> result = new ArrayList<>(n);
+		for (int i = 0; i < n; ++i) {
+			final double r = rng.nextDouble();
+			final ChromosomeType chromType = (r < 0.9) ? ChromosomeType.AUTOSOMAL :
+				(r < 0.98) ? ChromosomeType.X_CHROMOSOMAL : ChromosomeType.MITOCHONDRIAL;
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>(names.size());
+			for (String name : names)
+				entries.add(Map.entry(name, genotype(rng, hetDensity)));
+			result.add(new GenotypeCalls(chromType, entries));
+		}
+		return result;
+	}
+
+	private static Genotype genotype(Random rng, double hetDensity) {
+		if (rng.nextDouble() < hetDensity)
+			return HET;
+		final double r = rng.nextDouble();
+		if (r < 0.9)
+			return HOM_REF;
+		else if (r < 0.98)
+			return HOM_ALT;
+		else
+			return NO_CALL;
+	}
+
+}
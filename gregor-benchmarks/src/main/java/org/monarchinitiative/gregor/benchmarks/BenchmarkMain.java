@@ -0,0 +1,33 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar
+ * <p>
+ * Accepts the usual JMH command line options but writes the results as JSON to <code>jmh-result.json</code> unless
+ * <code>-rf</code> or <code>-rff</code> are given, such that runs can be compared for tracking regressions. For
+ * example, <code>java -jar benchmarks.jar MendelianChecker -p pedigreeSize=3,12</code>.
+ */
+public final class BenchmarkMain {
+
+	private BenchmarkMain() {
+	}
+
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		final CommandLineOptions cmdLine = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdLine);
+		if (!cmdLine.getResultFormat().hasValue())
+			builder = builder.resultFormat(ResultFormatType.JSON);
+		if (!cmdLine.getResult().hasValue())
+			builder = builder.result("jmh-result.json");
+		new Runner(builder.build()).run();
+	}
+
+}
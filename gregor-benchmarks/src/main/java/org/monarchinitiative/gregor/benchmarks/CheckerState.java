@@ -0,0 +1,71 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Pedigree, checker, calls, and their indexed genotypes shared by the checker benchmarks
+ */
+@State(Scope.Benchmark)
+public class CheckerState {
+
+	@Param({"1", "3", "5", "12", "50"})
+	public int pedigreeSize;
+
+	@Param({"0.05", "0.3"})
+	public double hetDensity;
+
+	Pedigree pedigree;
+	MendelianInheritanceChecker checker;
+	List<GenotypeCalls> calls;
+	IndexedGenotypes genotypes;
+
+	/**
+	 * Set up pedigree, checker and <code>nCalls</code> calls
+	 */
+	void setUp(int nCalls) {
+		pedigree = BenchmarkData.pedigree(pedigreeSize);
+		checker = new MendelianInheritanceChecker(pedigree);
+		calls = BenchmarkData.calls(pedigree, nCalls, hetDensity, 42);
+		genotypes = IndexedGenotypes.of(pedigree, calls);
+	}
+
+	/**
+	 * State for the per-site checks, these scale linearly with the number of calls
+	 */
+	public static class PerSite extends CheckerState {
+
+		@Param({"100", "10000", "1000000"})
+		public int nCalls;
+
+		@Setup
+		public void setUp() {
+			setUp(nCalls);
+		}
+
+	}
+
+	/**
+	 * State for checks involving compound het. inheritance, these scale quadratically with the number of het. calls
+	 */
+	public static class CompoundHet extends CheckerState {
+
+		@Param({"100", "1000", "10000"})
+		public int nCalls;
+
+		@Setup
+		public void setUp() {
+			setUp(nCalls);
+		}
+
+	}
+
+}
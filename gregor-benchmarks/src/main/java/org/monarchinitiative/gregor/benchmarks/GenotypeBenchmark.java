@@ -0,0 +1,45 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the construction of {@link Genotype} objects
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GenotypeBenchmark {
+
+	List<Integer> haploid = List.of(1);
+	List<Integer> het = List.of(0, 1);
+	List<Integer> partialNoCall = List.of(0, Genotype.NO_CALL);
+	List<Integer> multiAllelic = List.of(1, 2);
+
+	@Benchmark
+	public Genotype haploid() {
+		return new Genotype(haploid);
+	}
+
+	@Benchmark
+	public Genotype het() {
+		return new Genotype(het);
+	}
+
+	@Benchmark
+	public Genotype partialNoCall() {
+		return new Genotype(partialNoCall);
+	}
+
+	@Benchmark
+	public Genotype multiAllelic() {
+		return new Genotype(multiAllelic);
+	}
+
+}
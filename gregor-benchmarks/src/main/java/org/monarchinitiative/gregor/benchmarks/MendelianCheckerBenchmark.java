@@ -0,0 +1,111 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.IncompatiblePedigreeException;
+import org.monarchinitiative.gregor.mendel.impl.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link AbstractMendelianChecker} implementations
+ * <p>
+ * The checkers are constructed once per trial, so only the filtering is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MendelianCheckerBenchmark {
+
+	/**
+	 * Checkers for the per-site checks
+	 */
+	public static class PerSiteCheckers extends CheckerState.PerSite {
+
+		MendelianCheckerAD autosomalDominant;
+		MendelianCheckerARHom autosomalRecessiveHomAlt;
+		MendelianCheckerXD xDominant;
+		MendelianCheckerXRHom xRecessiveHomAlt;
+		InheritanceCheckerMT mitochondrial;
+
+		@Setup
+		public void setUpCheckers() {
+			autosomalDominant = new MendelianCheckerAD(checker);
+			autosomalRecessiveHomAlt = new MendelianCheckerARHom(checker);
+			xDominant = new MendelianCheckerXD(checker);
+			xRecessiveHomAlt = new MendelianCheckerXRHom(checker);
+			mitochondrial = new InheritanceCheckerMT(checker);
+		}
+
+	}
+
+	/**
+	 * Checkers for the checks involving compound het. inheritance
+	 */
+	public static class CompoundHetCheckers extends CheckerState.CompoundHet {
+
+		MendelianCheckerAR autosomalRecessive;
+		MendelianCheckerARCompoundHet autosomalRecessiveCompoundHet;
+		MendelianCheckerXR xRecessive;
+		MendelianCheckerXRCompoundHet xRecessiveCompoundHet;
+
+		@Setup
+		public void setUpCheckers() {
+			autosomalRecessive = new MendelianCheckerAR(checker);
+			autosomalRecessiveCompoundHet = new MendelianCheckerARCompoundHet(checker);
+			xRecessive = new MendelianCheckerXR(checker);
+			xRecessiveCompoundHet = new MendelianCheckerXRCompoundHet(checker);
+		}
+
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> autosomalDominant(PerSiteCheckers state) throws IncompatiblePedigreeException {
+		return state.autosomalDominant.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> autosomalRecessive(CompoundHetCheckers state) throws IncompatiblePedigreeException {
+		return state.autosomalRecessive.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> autosomalRecessiveCompoundHet(CompoundHetCheckers state)
+		throws IncompatiblePedigreeException {
+		return state.autosomalRecessiveCompoundHet.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> autosomalRecessiveHomAlt(PerSiteCheckers state) throws IncompatiblePedigreeException {
+		return state.autosomalRecessiveHomAlt.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> xDominant(PerSiteCheckers state) throws IncompatiblePedigreeException {
+		return state.xDominant.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> xRecessive(CompoundHetCheckers state) throws IncompatiblePedigreeException {
+		return state.xRecessive.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> xRecessiveCompoundHet(CompoundHetCheckers state) throws IncompatiblePedigreeException {
+		return state.xRecessiveCompoundHet.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> xRecessiveHomAlt(PerSiteCheckers state) throws IncompatiblePedigreeException {
+		return state.xRecessiveHomAlt.filterCompatibleRecords(state.calls);
+	}
+
+	@Benchmark
+	public List<GenotypeCalls> mitochondrial(PerSiteCheckers state) throws IncompatiblePedigreeException {
+		return state.mitochondrial.filterCompatibleRecords(state.calls);
+	}
+
+}
@@ -0,0 +1,52 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link MendelianInheritanceChecker} facade
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class MendelianInheritanceCheckerBenchmark {
+
+	@Benchmark
+	public Map<ModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritance(CheckerState.CompoundHet state)
+		throws IncompatiblePedigreeException {
+		return state.checker.checkMendelianInheritance(state.calls);
+	}
+
+	@Benchmark
+	public Map<SubModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritanceSub(CheckerState.CompoundHet state)
+		throws IncompatiblePedigreeException {
+		return state.checker.checkMendelianInheritanceSub(state.calls);
+	}
+
+	@Benchmark
+	public Map<SubModeOfInheritance, int[]> checkMendelianInheritanceSubIndexed(CheckerState.CompoundHet state)
+		throws IncompatiblePedigreeException {
+		return state.checker.checkMendelianInheritanceSub(IndexedGenotypes.of(state.pedigree, state.calls));
+	}
+
+	@Benchmark
+	public int[] filterCompatibleSitesSub(CheckerState.PerSite state) throws IncompatiblePedigreeException {
+		return state.checker.filterCompatibleSitesSub(state.genotypes, SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+	}
+
+	/**
+	 * Same as {@link #filterCompatibleSitesSub(CheckerState.PerSite)} but tolerating one violation, for comparing the
+	 * costs of the strict and the tolerant checks
+	 */
+	@Benchmark
+	public ToleratedSites filterToleratedSitesSub(CheckerState.PerSite state) throws IncompatiblePedigreeException {
+		return state.checker.filterToleratedSitesSub(state.genotypes, SubModeOfInheritance.AUTOSOMAL_DOMINANT, 1);
+	}
+
+}
@@ -0,0 +1,59 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.mendel.impl.ModePosteriorScorer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for scoring the sub modes of inheritance of an exome-sized batch of sites with
+ * {@link ModePosteriorScorer}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModePosteriorScorerBenchmark {
+
+	@Param({"1", "3", "5"})
+	public int pedigreeSize;
+
+	@Param({"50000"})
+	public int nSites;
+
+	ModePosteriorScorer scorer;
+	ChromosomeType[] chromTypes;
+	int[] phredLikelihoods;
+	double[] posteriors;
+
+	@Setup
+	public void setUp() {
+		scorer = new ModePosteriorScorer(BenchmarkData.pedigree(pedigreeSize));
+		final Random rng = new Random(42);
+		chromTypes = new ChromosomeType[nSites];
+		phredLikelihoods = new int[nSites * pedigreeSize * ModePosteriorScorer.N_GENOTYPES];
+		for (int site = 0; site < nSites; ++site) {
+			chromTypes[site] = (rng.nextInt(20) == 0) ? ChromosomeType.X_CHROMOSOMAL : ChromosomeType.AUTOSOMAL;
+			for (int member = 0; member < pedigreeSize; ++member) {
+				// the called genotype gets PL 0, the others random values as seen in real data
+				final int offset = (site * pedigreeSize + member) * ModePosteriorScorer.N_GENOTYPES;
+				final int called = rng.nextInt(ModePosteriorScorer.N_GENOTYPES);
+				for (int g = 0; g < ModePosteriorScorer.N_GENOTYPES; ++g)
+					phredLikelihoods[offset + g] = (g == called) ? 0 : rng.nextInt(200);
+			}
+		}
+		posteriors = new double[nSites * SubModeOfInheritance.values().length];
+	}
+
+	@Benchmark
+	public double[] score() {
+		scorer.score(chromTypes, phredLikelihoods, posteriors);
+		return posteriors;
+	}
+
+}
@@ -0,0 +1,70 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedFileReader;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for reading PED files with {@link PedFileReader}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PedFileReaderBenchmark {
+
+	@Param({"1000", "200000", "1000000"})
+	public int nIndividuals;
+
+	Path path;
+
+	/**
+	 * Write PED file with families of four
+	 */
+	@Setup
+	public void setUp() throws IOException {
+		path = Files.createTempFile("benchmark", ".ped");
+		try (BufferedWriter out = Files.newBufferedWriter(path)) {
+			out.write("#PEDIGREE\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE\n");
+			for (int i = 0; i < nIndividuals; i += 4) {
+				out.write("fam" + i + "\tfather" + i + "\t0\t0\t1\t1\n");
+				out.write("fam" + i + "\tmother" + i + "\t0\t0\t2\t1\n");
+				out.write("fam" + i + "\tson" + i + "\tfather" + i + "\tmother" + i + "\t1\t2\n");
+				out.write("fam" + i + "\tdaughter" + i + "\tfather" + i + "\tmother" + i + "\t2\t0\n");
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(path);
+	}
+
+	@Benchmark
+	public PedFileContents readPath() throws IOException, PedParseException {
+		return PedFileReader.read(path);
+	}
+
+	@Benchmark
+	public PedFileContents readStream() throws IOException, PedParseException {
+		try (InputStream in = Files.newInputStream(path)) {
+			return PedFileReader.read(in);
+		}
+	}
+
+	@Benchmark
+	public PedFileContents readParallel() throws IOException, PedParseException {
+		return PedFileReader.readParallel(path);
+	}
+
+}
@@ -0,0 +1,76 @@
+package org.monarchinitiative.gregor.benchmarks;
+
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.simulation.GenotypeSimulator;
+import org.monarchinitiative.gregor.simulation.PedigreeSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link MendelianInheritanceChecker} on simulated pedigrees and Mendelian-consistent calls
+ * <p>
+ * In contrast to {@link CheckerState}, the inputs contain consanguinity, missing parents, unknown sex and affection
+ * status, and one planted variant per sub-mode.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SimulatedCohortBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Cohort {
+
+		@Param({"3", "12", "50"})
+		public int pedigreeSize;
+
+		@Param({"10000"})
+		public int nSites;
+
+		public Pedigree pedigree;
+		public MendelianInheritanceChecker checker;
+		public List<GenotypeCalls> calls;
+		public IndexedGenotypes genotypes;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			pedigree = new PedigreeSimulator(42).simulate("fam", pedigreeSize);
+			checker = new MendelianInheritanceChecker(pedigree);
+			calls = new GenotypeSimulator(43).simulate(List.of(pedigree), nSites,
+				Map.of(SubModeOfInheritance.AUTOSOMAL_DOMINANT, 1, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, 1,
+					SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, 1, SubModeOfInheritance.X_DOMINANT, 1,
+					SubModeOfInheritance.X_RECESSIVE_HOM_ALT, 1, SubModeOfInheritance.MITOCHONDRIAL, 1));
+			genotypes = IndexedGenotypes.of(pedigree, calls);
+		}
+
+	}
+
+	@Benchmark
+	public Map<SubModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritanceSub(Cohort state)
+		throws IncompatiblePedigreeException {
+		return state.checker.checkMendelianInheritanceSub(state.calls);
+	}
+
+	@Benchmark
+	public Map<SubModeOfInheritance, int[]> checkMendelianInheritanceSubIndexed(Cohort state)
+		throws IncompatiblePedigreeException {
+		return state.checker.checkMendelianInheritanceSub(IndexedGenotypes.of(state.pedigree, state.calls));
+	}
+
+	@Benchmark
+	public int[] filterDominantSites(Cohort state) throws IncompatiblePedigreeException {
+		return state.checker.filterCompatibleSitesSub(state.genotypes, SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+	public int[] filterDominantSitesVectorApi(Cohort state) throws IncompatiblePedigreeException {
+		return state.checker.filterCompatibleSitesSub(state.genotypes, SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+	}
+
+}
@@ -0,0 +1,257 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.monarchinitiative.gregor.mendel.IncompatiblePedigreeException;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.mendel.impl.CompiledPedigree;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Checks all records of a {@link CallTable} for all families, in parallel by family and by gene
+ * <p>
+ * The site-wise sub modes of inheritance are checked on chunks of {@link #CHUNK_RECORDS} consecutive records. The
+ * compound heterozygous sub modes are checked per gene on the records overlapping the gene, with small genes batched
+ * into tasks of about {@link #GENE_BATCH_RECORDS} records. Without gene intervals, the compound heterozygous sub
+ * modes are not checked. All checks run on the index-based fast path of {@link MendelianInheritanceChecker}, so
+ * families with more than {@link CompiledPedigree#MAX_MEMBERS} members are skipped with a warning.
+ */
+final class BatchRunner {
+
+	/**
+	 * Number of records per task for the site-wise sub modes of inheritance
+	 */
+	static final int CHUNK_RECORDS = 1 << 14;
+	/**
+	 * Number of records per task for the compound heterozygous sub modes of inheritance, larger genes get a task of
+	 * their own
+	 */
+	static final int GENE_BATCH_RECORDS = 1 << 12;
+
+	/**
+	 * Sub modes of inheritance checked site by site
+	 */
+	static final List<SubModeOfInheritance> SITE_MODES;
+	/**
+	 * Sub modes of inheritance checked per gene
+	 */
+	static final List<SubModeOfInheritance> COMP_HET_MODES = List.of(
+		SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, SubModeOfInheritance.X_RECESSIVE_COMP_HET);
+
+	static {
+		List<SubModeOfInheritance> modes = new ArrayList<>();
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values())
+			if (mode != SubModeOfInheritance.ANY && !COMP_HET_MODES.contains(mode))
+				modes.add(mode);
+		SITE_MODES = List.copyOf(modes);
+	}
+
+	/**
+	 * The families to check
+	 */
+	private final List<Pedigree> pedigrees;
+	/**
+	 * The genotypes to check
+	 */
+	private final CallTable table;
+	/**
+	 * Gene intervals, <code>null</code> if none
+	 */
+	private final GeneIntervals genes;
+	/**
+	 * Stream for warnings and progress reports
+	 */
+	private final PrintStream log;
+	/**
+	 * Progress reporter of the current run
+	 */
+	private ProgressReporter progress;
+
+	BatchRunner(List<Pedigree> pedigrees, CallTable table, GeneIntervals genes, PrintStream log) {
+		this.pedigrees = pedigrees;
+		this.table = table;
+		this.genes = genes;
+		this.log = log;
+	}
+
+	/**
+	 * Run checks
+	 *
+	 * @param nThreads        number of worker threads
+	 * @param progressSeconds interval of progress reports, <code>0</code> to disable them
+	 * @return for each family name, in the order of the pedigrees, the set of compatible records for each sub mode of
+	 * inheritance
+	 * @throws InterruptedException if interrupted while waiting for the workers
+	 * @throws ExecutionException   if a check failed
+	 */
+	Map<String, Map<SubModeOfInheritance, BitSet>> run(int nThreads, int progressSeconds)
+		throws InterruptedException, ExecutionException {
+		final int[][] geneRecords = (genes == null) ? new int[0][] : recordsByGene();
+		final List<int[]> geneBatches = batchGenes(geneRecords);
+
+		Map<String, Map<SubModeOfInheritance, BitSet>> results = new LinkedHashMap<>();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (Pedigree pedigree : pedigrees) {
+			if (pedigree.getNMembers() > CompiledPedigree.MAX_MEMBERS) {
+				log.println("[gregor] WARNING: skipping family " + pedigree.getName() + " with more than "
+					+ CompiledPedigree.MAX_MEMBERS + " members");
+				continue;
+			}
+			final Family family = new Family(pedigree, columns(pedigree));
+			results.put(pedigree.getName(), family.compatible);
+			for (int begin = 0; begin < table.getNRecords(); begin += CHUNK_RECORDS)
+				tasks.add(family.siteTask(begin, Math.min(begin + CHUNK_RECORDS, table.getNRecords())));
+			for (int[] batch : geneBatches)
+				tasks.add(family.geneTask(geneRecords, batch));
+		}
+
+		progress = new ProgressReporter(log, tasks.size(), progressSeconds);
+		ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks))
+				future.get();
+		} finally {
+			executor.shutdownNow();
+			progress.close();
+		}
+		progress.report();
+		return results;
+	}
+
+	/**
+	 * @return progress reporter of the last run, <code>null</code> before the first run
+	 */
+	ProgressReporter getProgress() {
+		return progress;
+	}
+
+	/**
+	 * @return for each pedigree member, the VCF column of the member or <code>-1</code> if not in the VCF
+	 */
+	private int[] columns(Pedigree pedigree) {
+		final List<String> sampleNames = table.getSampleNames();
+		Map<String, Integer> sampleToColumn = new HashMap<>();
+		for (int i = 0; i < sampleNames.size(); ++i)
+			sampleToColumn.put(sampleNames.get(i), i);
+
+		final int[] result = new int[pedigree.getNMembers()];
+		int nMissing = 0;
+		for (int i = 0; i < result.length; ++i) {
+			result[i] = sampleToColumn.getOrDefault(pedigree.getMembers().get(i).getName(), -1);
+			if (result[i] < 0)
+				++nMissing;
+		}
+		if (nMissing > 0)
+			log.println("[gregor] WARNING: " + nMissing + " members of family " + pedigree.getName()
+				+ " are not in the VCF file, treating their genotypes as not observed");
+		return result;
+	}
+
+	/**
+	 * @return for each gene, the sorted numbers of the records overlapping it
+	 */
+	private int[][] recordsByGene() {
+		final int nRecords = table.getNRecords();
+		final int[][] overlaps = new int[nRecords][];
+		final int[] counts = new int[genes.size()];
+		for (int record = 0; record < nRecords; ++record) {
+			final VcfVariant variant = table.getVariant(record);
+			overlaps[record] = genes.overlapping(variant.contig(), variant.pos());
+			for (int gene : overlaps[record])
+				++counts[gene];
+		}
+
+		final int[][] result = new int[genes.size()][];
+		for (int gene = 0; gene < result.length; ++gene)
+			result[gene] = new int[counts[gene]];
+		Arrays.fill(counts, 0);
+		for (int record = 0; record < nRecords; ++record)
+			for (int gene : overlaps[record])
+				result[gene][counts[gene]++] = record;
+		return result;
+	}
+
+	/**
+	 * @return batches of numbers of genes with at least two records, of about {@link #GENE_BATCH_RECORDS} records
+	 */
+	private static List<int[]> batchGenes(int[][] geneRecords) {
+		List<int[]> result = new ArrayList<>();
+		List<Integer> batch = new ArrayList<>();
+		int nRecords = 0;
+		for (int gene = 0; gene < geneRecords.length; ++gene) {
+			if (geneRecords[gene].length < 2)
+				continue; // compound het. needs two variants
+			batch.add(gene);
+			nRecords += geneRecords[gene].length;
+			if (nRecords >= GENE_BATCH_RECORDS) {
+				result.add(batch.stream().mapToInt(Integer::intValue).toArray());
+				batch.clear();
+				nRecords = 0;
+			}
+		}
+		if (!batch.isEmpty())
+			result.add(batch.stream().mapToInt(Integer::intValue).toArray());
+		return result;
+	}
+
+	/**
+	 * Checker and results of one family
+	 */
+	private final class Family {
+
+		final MendelianInheritanceChecker checker;
+		final int[] columns;
+		final Map<SubModeOfInheritance, BitSet> compatible = new EnumMap<>(SubModeOfInheritance.class);
+
+		Family(Pedigree pedigree, int[] columns) {
+			this.checker = new MendelianInheritanceChecker(pedigree);
+			this.columns = columns;
+			for (SubModeOfInheritance mode : SITE_MODES)
+				compatible.put(mode, new BitSet());
+			for (SubModeOfInheritance mode : COMP_HET_MODES)
+				compatible.put(mode, new BitSet());
+		}
+
+		Callable<Void> siteTask(int begin, int end) {
+			return () -> {
+				final int[] records = new int[end - begin];
+				for (int i = 0; i < records.length; ++i)
+					records[i] = begin + i;
+				check(records, SITE_MODES);
+				progress.taskDone((long) records.length * SITE_MODES.size());
+				return null;
+			};
+		}
+
+		Callable<Void> geneTask(int[][] geneRecords, int[] batch) {
+			return () -> {
+				long nChecks = 0;
+				for (int gene : batch) {
+					check(geneRecords[gene], COMP_HET_MODES);
+					nChecks += (long) geneRecords[gene].length * COMP_HET_MODES.size();
+				}
+				progress.taskDone(nChecks);
+				return null;
+			};
+		}
+
+		private void check(int[] records, List<SubModeOfInheritance> modes) throws IncompatiblePedigreeException {
+			final IndexedGenotypes view = table.view(columns, records);
+			for (SubModeOfInheritance mode : modes) {
+				final int[] sites = checker.filterCompatibleSitesSub(view, mode);
+				final BitSet bits = compatible.get(mode);
+				synchronized (bits) {
+					for (int site : sites)
+						bits.set(records[site]);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,114 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory table of the genotype classes of all VCF samples at all records
+ * <p>
+ * Only the {@link GenotypeClass} of each genotype is kept, one byte per sample and record in blocks of
+ * {@link #BLOCK_RECORDS} records, such that no {@link GenotypeCalls} need to be retained and families can be checked
+ * on the index-based fast path through {@link #view(int[], int[])}.
+ */
+final class CallTable {
+
+	/**
+	 * Number of records per block of {@link #blocks}
+	 */
+	static final int BLOCK_RECORDS = 1 << 16;
+
+	/**
+	 * Names of the VCF samples, in column order
+	 */
+	private final List<String> sampleNames;
+	/**
+	 * Genotype classes, record-major within each block
+	 */
+	private final List<byte[]> blocks = new ArrayList<>();
+	/**
+	 * Coordinates of the records
+	 */
+	private final List<VcfVariant> variants = new ArrayList<>();
+	/**
+	 * Chromosome types of the records
+	 */
+	private final List<ChromosomeType> chromTypes = new ArrayList<>();
+
+	CallTable(List<String> sampleNames) {
+		this.sampleNames = List.copyOf(sampleNames);
+	}
+
+	/**
+	 * Append record, <code>gc</code> must have a {@link VcfVariant} payload as read by
+	 * {@link org.monarchinitiative.gregor.vcf.VcfGenotypeReader}
+	 */
+	void add(GenotypeCalls gc) {
+		final int record = variants.size();
+		final int offset = record % BLOCK_RECORDS;
+		if (offset == 0)
+			blocks.add(new byte[BLOCK_RECORDS * sampleNames.size()]);
+		final byte[] block = blocks.get(blocks.size() - 1);
+		final int nSamples = sampleNames.size();
+		for (int i = 0; i < nSamples; ++i)
+			block[offset * nSamples + i] = (byte) GenotypeClass.of(gc.getGenotypeForSample(sampleNames.get(i)));
+		variants.add((VcfVariant) gc.getPayload());
+		chromTypes.add(gc.getChromType());
+	}
+
+	/**
+	 * @return names of the VCF samples, in column order
+	 */
+	List<String> getSampleNames() {
+		return sampleNames;
+	}
+
+	/**
+	 * @return number of records
+	 */
+	int getNRecords() {
+		return variants.size();
+	}
+
+	/**
+	 * @return coordinates of record <code>record</code>
+	 */
+	VcfVariant getVariant(int record) {
+		return variants.get(record);
+	}
+
+	/**
+	 * @param columns for each pedigree member, the sample column in the VCF or <code>-1</code> if not in the VCF
+	 * @param records the records to include, in order
+	 * @return {@link IndexedGenotypes} view on <code>records</code> for the pedigree members
+	 */
+	IndexedGenotypes view(int[] columns, int[] records) {
+		final int nSamples = sampleNames.size();
+		return new IndexedGenotypes() {
+			@Override
+			public int getNSites() {
+				return records.length;
+			}
+
+			@Override
+			public ChromosomeType getChromType(int site) {
+				return chromTypes.get(records[site]);
+			}
+
+			@Override
+			public int getGenotypeClass(int site, int member) {
+				final int column = columns[member];
+				if (column < 0)
+					return GenotypeClass.NOT_OBSERVED;
+				final int record = records[site];
+				return blocks.get(record / BLOCK_RECORDS)[(record % BLOCK_RECORDS) * nSamples + column];
+			}
+		};
+	}
+
+}
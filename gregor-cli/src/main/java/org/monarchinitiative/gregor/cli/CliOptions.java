@@ -0,0 +1,123 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.monarchinitiative.gregor.vcf.ChromosomeClassifier;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line options of {@link GregorCli}
+ *
+ * @param ped             path to the PED file
+ * @param vcf             path to the VCF file, plain text or (b)gzip-compressed
+ * @param bed             path to the BED file with gene intervals, <code>null</code> if none
+ * @param output          path to the output file
+ * @param format          format of the output file
+ * @param threads         number of worker threads
+ * @param progressSeconds interval of progress reports in seconds, <code>0</code> to disable them
+ * @param classifier      classifier of the records, aware of the pseudoautosomal regions of the genome build if given
+ */
+record CliOptions(Path ped, Path vcf, Path bed, Path output, OutputFormat format, int threads, int progressSeconds,
+				  ChromosomeClassifier classifier) {
+
+	/**
+	 * Format of the output file
+	 */
+	enum OutputFormat {
+		/**
+		 * Copy of the input VCF with the compatible sub modes of inheritance in the <code>GREGOR</code> INFO field
+		 */
+		VCF,
+		/**
+		 * One line per family, sub mode of inheritance and compatible record
+		 */
+		TSV
+	}
+
+	static final String USAGE = String.join("\n",
+		"Usage: gregor-cli --ped FILE --vcf FILE --output FILE [options]",
+		"",
+		"Writes the records of the VCF file compatible with each sub mode of inheritance for each family of the PED",
+		"file. Compound heterozygous sub modes are only checked if gene intervals are given.",
+		"",
+		"  --ped FILE               PED file with the families",
+		"  --vcf FILE               VCF file with the genotypes, plain text or (b)gzip-compressed",
+		"  --output FILE            output file, gzip-compressed if the name ends with .gz",
+		"  --bed FILE               BED file with gene intervals, name in the fourth column",
+		"  --format vcf|tsv         output format, default: vcf",
+		"  --threads N              number of worker threads, default: number of processors",
+		"  --progress-seconds N     interval of progress reports on stderr, 0 to disable, default: 10",
+		"  --genome-build grch37|grch38",
+		"                           check calls in the pseudoautosomal regions of X and Y as autosomal",
+		"  --help                   show this help");
+
+	/**
+	 * Parse command line arguments
+	 *
+	 * @return the parsed {@link CliOptions}, <code>null</code> if help was requested
+	 * @throws IllegalArgumentException on invalid or missing arguments
+	 */
+	static CliOptions parse(String[] args) {
+		Path ped = null;
+		Path vcf = null;
+		Path bed = null;
+		Path output = null;
+		OutputFormat format = OutputFormat.VCF;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int progressSeconds = 10;
+		ChromosomeClassifier classifier = ChromosomeClassifier.CONTIG_NAME;
+
+		for (int i = 0; i < args.length; ++i) {
+			final String arg = args[i];
+			if (arg.equals("--help") || arg.equals("-h"))
+				return null;
+			if (i + 1 == args.length)
+				throw new IllegalArgumentException("Unknown argument or missing value: " + arg);
+			final String value = args[++i];
+			switch (arg) {
+				case "--ped" -> ped = Path.of(value);
+				case "--vcf" -> vcf = Path.of(value);
+				case "--bed" -> bed = Path.of(value);
+				case "--output" -> output = Path.of(value);
+				case "--format" -> {
+					try {
+						format = OutputFormat.valueOf(value.toUpperCase(Locale.ROOT));
+					} catch (IllegalArgumentException e) {
+						throw new IllegalArgumentException("Invalid output format: " + value);
+					}
+				}
+				case "--threads" -> threads = parsePositive(arg, value, 1);
+				case "--progress-seconds" -> progressSeconds = parsePositive(arg, value, 0);
+				case "--genome-build" -> {
+					switch (value.toLowerCase(Locale.ROOT)) {
+						case "grch37", "hg19" -> classifier = ChromosomeClassifier.GRCH37;
+						case "grch38", "hg38" -> classifier = ChromosomeClassifier.GRCH38;
+						default -> throw new IllegalArgumentException("Invalid genome build: " + value);
+					}
+				}
+				default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+			}
+		}
+
+		if (ped == null)
+			throw new IllegalArgumentException("Missing argument --ped");
+		if (vcf == null)
+			throw new IllegalArgumentException("Missing argument --vcf");
+		if (output == null)
+			throw new IllegalArgumentException("Missing argument --output");
+		return new CliOptions(ped, vcf, bed, output, format, threads, progressSeconds, classifier);
+	}
+
+	private static int parsePositive(String arg, String value, int min) {
+		final int result;
+		try {
+			result = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number for " + arg + ": " + value);
+		}
+		if (result < min)
+			throw new IllegalArgumentException("Value of " + arg + " must be at least " + min + " but was " + value);
+		return result;
+	}
+
+}
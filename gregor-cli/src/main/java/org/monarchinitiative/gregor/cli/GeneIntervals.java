@@ -0,0 +1,150 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Gene intervals from a BED file, for grouping records by gene
+ * <p>
+ * Intervals are 0-based and half-open as in BED, the name is taken from the fourth column if present. An
+ * <code>"chr"</code> prefix of the contig names is ignored, both here and in the queries.
+ */
+final class GeneIntervals {
+
+	/**
+	 * Names of the genes, indexed by gene number
+	 */
+	private final List<String> names;
+	/**
+	 * Intervals of each contig, sorted by begin position
+	 */
+	private final Map<String, ContigIntervals> contigs;
+
+	private GeneIntervals(List<String> names, Map<String, ContigIntervals> contigs) {
+		this.names = names;
+		this.contigs = contigs;
+	}
+
+	/**
+	 * Read gene intervals from BED file at <code>path</code>, which may be (b)gzip-compressed
+	 *
+	 * @throws IOException on problems reading the file or invalid lines
+	 */
+	static GeneIntervals read(Path path) throws IOException {
+		List<String> names = new ArrayList<>();
+		Map<String, List<int[]>> byContig = new HashMap<>();
+		try (BufferedReader in = VcfGenotypeReader.openText(Files.newInputStream(path))) {
+			String line;
+			int lineNo = 0;
+			while ((line = in.readLine()) != null) {
+				++lineNo;
+				if (line.isEmpty() || line.startsWith("#") || line.startsWith("track") || line.startsWith("browser"))
+					continue;
+				final String[] fields = line.split("\t");
+				if (fields.length < 3)
+					throw new IOException("Insufficient number of fields in BED line " + lineNo);
+				final int begin;
+				final int end;
+				try {
+					begin = Integer.parseInt(fields[1]);
+					end = Integer.parseInt(fields[2]);
+				} catch (NumberFormatException e) {
+					throw new IOException("Invalid position in BED line " + lineNo, e);
+				}
+				final String name = (fields.length > 3) ? fields[3] : fields[0] + ":" + begin + "-" + end;
+				byContig.computeIfAbsent(normalize(fields[0]), k -> new ArrayList<>())
+					.add(new int[]{begin, end, names.size()});
+				names.add(name);
+			}
+		}
+
+		Map<String, ContigIntervals> contigs = new HashMap<>();
+		for (Map.Entry<String, List<int[]>> entry : byContig.entrySet())
+			contigs.put(entry.getKey(), new ContigIntervals(entry.getValue()));
+		return new GeneIntervals(List.copyOf(names), contigs);
+	}
+
+	/**
+	 * @return number of genes
+	 */
+	int size() {
+		return names.size();
+	}
+
+	/**
+	 * @return name of gene number <code>gene</code>
+	 */
+	String getName(int gene) {
+		return names.get(gene);
+	}
+
+	/**
+	 * @param contig name of the contig
+	 * @param pos    1-based position
+	 * @return numbers of the genes overlapping <code>pos</code> on <code>contig</code>
+	 */
+	int[] overlapping(String contig, int pos) {
+		final ContigIntervals intervals = contigs.get(normalize(contig));
+		return (intervals == null) ? new int[0] : intervals.overlapping(pos);
+	}
+
+	private static String normalize(String contig) {
+		return contig.startsWith("chr") ? contig.substring(3) : contig;
+	}
+
+	/**
+	 * Intervals on one contig in arrays sorted by begin position
+	 */
+	private static final class ContigIntervals {
+
+		final int[] begins;
+		final int[] ends;
+		final int[] genes;
+		/**
+		 * Length of the longest interval, bounds the search to the left
+		 */
+		final int maxLength;
+
+		ContigIntervals(List<int[]> intervals) {
+			intervals.sort(Comparator.comparingInt(a -> a[0]));
+			begins = new int[intervals.size()];
+			ends = new int[intervals.size()];
+			genes = new int[intervals.size()];
+			int max = 0;
+			for (int i = 0; i < intervals.size(); ++i) {
+				begins[i] = intervals.get(i)[0];
+				ends[i] = intervals.get(i)[1];
+				genes[i] = intervals.get(i)[2];
+				max = Math.max(max, ends[i] - begins[i]);
+			}
+			maxLength = max;
+		}
+
+		int[] overlapping(int pos) {
+			// 1-based pos overlaps [begin, end) if begin < pos <= end, find last interval with begin < pos
+			int lo = 0;
+			int hi = begins.length;
+			while (lo < hi) {
+				final int mid = (lo + hi) >>> 1;
+				if (begins[mid] < pos)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			int[] result = new int[0];
+			for (int i = lo - 1; i >= 0 && begins[i] >= pos - maxLength - 1; --i)
+				if (ends[i] >= pos) {
+					result = Arrays.copyOf(result, result.length + 1);
+					result[result.length - 1] = genes[i];
+				}
+			return result;
+		}
+
+	}
+
+}
@@ -0,0 +1,141 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GregorException;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedFileReader;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Command line batch tool: checks all records of a VCF file against all families of a PED file
+ * <p>
+ * The genotypes are read once into a {@link CallTable} and all families are checked on it in parallel by a
+ * {@link BatchRunner}. The compatible records are written by a {@link ResultWriter}, either as a copy of the VCF file
+ * with a <code>GREGOR</code> INFO field or as a TSV file. Progress and throughput are reported on stderr.
+ */
+public final class GregorCli {
+
+	/**
+	 * Exit code on success
+	 */
+	static final int EXIT_OK = 0;
+	/**
+	 * Exit code on problems with the input or output files
+	 */
+	static final int EXIT_ERROR = 1;
+	/**
+	 * Exit code on invalid command line arguments
+	 */
+	static final int EXIT_USAGE = 2;
+
+	private GregorCli() {
+	}
+
+	public static void main(String[] args) {
+		System.exit(run(args, System.out, System.err));
+	}
+
+	/**
+	 * Run the tool
+	 *
+	 * @param args command line arguments
+	 * @param out  stream for the help text
+	 * @param log  stream for errors, warnings and progress reports
+	 * @return exit code
+	 */
+	static int run(String[] args, PrintStream out, PrintStream log) {
+		final CliOptions options;
+		try {
+			options = CliOptions.parse(args);
+		} catch (IllegalArgumentException e) {
+			log.println("[gregor] ERROR: " + e.getMessage());
+			log.println(CliOptions.USAGE);
+			return EXIT_USAGE;
+		}
+		if (options == null) {
+			out.println(CliOptions.USAGE);
+			return EXIT_OK;
+		}
+
+		try {
+			run(options, log);
+			return EXIT_OK;
+		} catch (IOException | GregorException e) {
+			log.println("[gregor] ERROR: " + e.getMessage());
+			return EXIT_ERROR;
+		} catch (ExecutionException e) {
+			log.println("[gregor] ERROR: " + e.getCause());
+			return EXIT_ERROR;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.println("[gregor] ERROR: interrupted");
+			return EXIT_ERROR;
+		}
+	}
+
+	private static void run(CliOptions options, PrintStream log)
+		throws IOException, GregorException, InterruptedException, ExecutionException {
+		final long start = System.nanoTime();
+		final List<Pedigree> pedigrees = readPedigrees(options);
+		final CallTable table = readCalls(options);
+		final GeneIntervals genes;
+		if (options.bed() != null) {
+			genes = GeneIntervals.read(options.bed());
+		} else {
+			genes = null;
+			log.println("[gregor] WARNING: no BED file given, not checking compound heterozygous sub modes");
+		}
+		log.println("[gregor] read " + pedigrees.size() + " families, " + table.getNRecords() + " records of "
+			+ table.getSampleNames().size() + " samples" + ((genes == null) ? "" : ", " + genes.size() + " genes"));
+
+		final BatchRunner runner = new BatchRunner(pedigrees, table, genes, log);
+		final Map<String, Map<SubModeOfInheritance, BitSet>> results = runner.run(options.threads(),
+			options.progressSeconds());
+
+		final ResultWriter writer = new ResultWriter(table, results);
+		switch (options.format()) {
+			case VCF -> writer.writeVcf(options.vcf(), options.output());
+			case TSV -> writer.writeTsv(options.output());
+		}
+
+		final double seconds = (System.nanoTime() - start) / 1e9;
+		log.println(String.format(Locale.ROOT, "[gregor] checked %d records for %d families in %.1f s, %.0f records/s",
+			table.getNRecords(), results.size(), seconds, table.getNRecords() / Math.max(seconds, 1e-9)));
+	}
+
+	/**
+	 * @return one {@link Pedigree} per family of the PED file, in order of first appearance
+	 */
+	private static List<Pedigree> readPedigrees(CliOptions options) throws IOException, GregorException {
+		final PedFileContents contents = PedFileReader.read(options.ped());
+		Set<String> names = new LinkedHashSet<>();
+		for (PedPerson person : contents.getIndividuals())
+			names.add(person.getPedigree());
+		List<Pedigree> result = new ArrayList<>();
+		for (String name : names)
+			result.add(new Pedigree(contents, name));
+		return result;
+	}
+
+	/**
+	 * @return {@link CallTable} with all records of the VCF file
+	 */
+	private static CallTable readCalls(CliOptions options) throws IOException, GregorException {
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(options.vcf(), options.classifier())) {
+			final CallTable table = new CallTable(reader.getSampleNames());
+			GenotypeCalls gc;
+			while ((gc = reader.next()) != null)
+				table.add(gc);
+			return table;
+		}
+	}
+
+}
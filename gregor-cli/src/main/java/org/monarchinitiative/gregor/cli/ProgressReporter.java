@@ -0,0 +1,99 @@
+package org.monarchinitiative.gregor.cli;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodic progress and throughput reports of a {@link BatchRunner} on a log stream
+ */
+final class ProgressReporter implements AutoCloseable {
+
+	/**
+	 * Stream to report to
+	 */
+	private final PrintStream log;
+	/**
+	 * Total number of tasks
+	 */
+	private final long nTasks;
+	/**
+	 * Number of finished tasks
+	 */
+	private final AtomicLong nTasksDone = new AtomicLong();
+	/**
+	 * Number of site checks of the finished tasks, one per site and sub mode of inheritance
+	 */
+	private final AtomicLong nSiteChecks = new AtomicLong();
+	/**
+	 * Start of the run, from {@link System#nanoTime()}
+	 */
+	private final long start = System.nanoTime();
+	/**
+	 * Scheduler of the periodic reports, <code>null</code> if disabled
+	 */
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * @param log             stream to report to
+	 * @param nTasks          total number of tasks
+	 * @param intervalSeconds interval between reports, <code>0</code> to disable periodic reports
+	 */
+	ProgressReporter(PrintStream log, long nTasks, int intervalSeconds) {
+		this.log = log;
+		this.nTasks = nTasks;
+		if (intervalSeconds > 0) {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "gregor-progress");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+		} else {
+			this.scheduler = null;
+		}
+	}
+
+	/**
+	 * Record that a task with <code>siteChecks</code> site checks is finished
+	 */
+	void taskDone(long siteChecks) {
+		nTasksDone.incrementAndGet();
+		nSiteChecks.addAndGet(siteChecks);
+	}
+
+	/**
+	 * @return seconds since construction
+	 */
+	double getElapsedSeconds() {
+		return (System.nanoTime() - start) / 1e9;
+	}
+
+	/**
+	 * @return number of site checks of the finished tasks
+	 */
+	long getNSiteChecks() {
+		return nSiteChecks.get();
+	}
+
+	/**
+	 * Write progress report to the log stream
+	 */
+	void report() {
+		final long done = nTasksDone.get();
+		final long checks = nSiteChecks.get();
+		final double seconds = getElapsedSeconds();
+		log.println(String.format(Locale.ROOT, "[gregor] %d/%d tasks (%.1f%%), %d site checks, %.0f site checks/s",
+			done, nTasks, (nTasks == 0) ? 100.0 : 100.0 * done / nTasks, checks, checks / Math.max(seconds, 1e-9)));
+	}
+
+	@Override
+	public void close() {
+		if (scheduler != null)
+			scheduler.shutdownNow();
+	}
+
+}
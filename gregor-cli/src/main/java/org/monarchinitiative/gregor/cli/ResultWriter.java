@@ -0,0 +1,155 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the results of a {@link BatchRunner} in one of the {@link CliOptions.OutputFormat}s
+ */
+final class ResultWriter {
+
+	/**
+	 * Header line of the <code>GREGOR</code> INFO field in VCF output
+	 */
+	static final String INFO_HEADER = "##INFO=<ID=GREGOR,Number=.,Type=String,Description=\"Compatible sub modes of "
+		+ "inheritance, one value per family, format: FAMILY:MODE|MODE\">";
+
+	/**
+	 * Column header of TSV output
+	 */
+	static final String TSV_HEADER = "#FAMILY\tSUB_MODE\tCHROM\tPOS\tID\tREF\tALT";
+
+	/**
+	 * Index of the INFO column in VCF records
+	 */
+	private static final int INFO_COLUMN = 7;
+
+	/**
+	 * The checked records
+	 */
+	private final CallTable table;
+	/**
+	 * For each family, the compatible records for each sub mode of inheritance
+	 */
+	private final Map<String, Map<SubModeOfInheritance, BitSet>> results;
+
+	ResultWriter(CallTable table, Map<String, Map<SubModeOfInheritance, BitSet>> results) {
+		this.table = table;
+		this.results = results;
+	}
+
+	/**
+	 * Write TSV with one line per family, sub mode of inheritance and compatible record to <code>output</code>
+	 *
+	 * @throws IOException on problems writing the file
+	 */
+	void writeTsv(Path output) throws IOException {
+		try (PrintWriter out = openOutput(output)) {
+			out.println(TSV_HEADER);
+			for (Map.Entry<String, Map<SubModeOfInheritance, BitSet>> family : results.entrySet())
+				for (Map.Entry<SubModeOfInheritance, BitSet> entry : family.getValue().entrySet()) {
+					final BitSet records = entry.getValue();
+					for (int record = records.nextSetBit(0); record >= 0; record = records.nextSetBit(record + 1)) {
+						final VcfVariant variant = table.getVariant(record);
+						out.println(String.join("\t", family.getKey(), entry.getKey().getAbbreviation(),
+							variant.contig(), Integer.toString(variant.pos()), variant.id(), variant.ref(),
+							variant.alt()));
+					}
+				}
+			if (out.checkError())
+				throw new IOException("Problem writing to " + output);
+		}
+	}
+
+	/**
+	 * Write copy of the VCF file at <code>input</code> to <code>output</code>, with the compatible sub modes of
+	 * inheritance of each family in the <code>GREGOR</code> INFO field
+	 *
+	 * @throws IOException on problems reading or writing the files
+	 */
+	void writeVcf(Path input, Path output) throws IOException {
+		try (BufferedReader in = VcfGenotypeReader.openText(Files.newInputStream(input));
+			 PrintWriter out = openOutput(output)) {
+			String line;
+			int record = 0;
+			while ((line = in.readLine()) != null) {
+				if (line.startsWith("##")) {
+					out.println(line);
+				} else if (line.startsWith("#")) {
+					out.println(INFO_HEADER);
+					out.println(line);
+				} else if (!line.isEmpty()) {
+					out.println(annotate(line, record++));
+				}
+			}
+			if (record != table.getNRecords())
+				throw new IOException("VCF file " + input + " changed while running, expected " + table.getNRecords()
+					+ " records but found " + record);
+			if (out.checkError())
+				throw new IOException("Problem writing to " + output);
+		}
+	}
+
+	/**
+	 * @return VCF <code>line</code> of record number <code>record</code> with the <code>GREGOR</code> INFO field,
+	 * unchanged if no family is compatible with the record
+	 */
+	private String annotate(String line, int record) {
+		final String value = infoValue(record);
+		if (value == null)
+			return line;
+
+		final String[] fields = line.split("\t", -1);
+		if (fields.length <= INFO_COLUMN)
+			return line;
+		final String info = fields[INFO_COLUMN];
+		fields[INFO_COLUMN] = (info.isEmpty() || info.equals(".")) ? "GREGOR=" + value : info + ";GREGOR=" + value;
+		return String.join("\t", fields);
+	}
+
+	/**
+	 * @return value of the <code>GREGOR</code> INFO field of record number <code>record</code>, <code>null</code> if
+	 * no family is compatible with the record
+	 */
+	private String infoValue(int record) {
+		StringBuilder builder = null;
+		for (Map.Entry<String, Map<SubModeOfInheritance, BitSet>> family : results.entrySet()) {
+			int nModes = 0;
+			for (Map.Entry<SubModeOfInheritance, BitSet> entry : family.getValue().entrySet()) {
+				if (!entry.getValue().get(record))
+					continue;
+				if (builder == null)
+					builder = new StringBuilder();
+				if (nModes++ == 0) {
+					if (builder.length() > 0)
+						builder.append(',');
+					builder.append(family.getKey()).append(':');
+				} else {
+					builder.append('|');
+				}
+				builder.append(entry.getKey().getAbbreviation());
+			}
+		}
+		return (builder == null) ? null : builder.toString();
+	}
+
+	/**
+	 * @return writer for <code>output</code>, gzip-compressed if the file name ends with <code>.gz</code>
+	 */
+	private static PrintWriter openOutput(Path output) throws IOException {
+		OutputStream stream = Files.newOutputStream(output);
+		if (output.getFileName().toString().endsWith(".gz"))
+			stream = new GZIPOutputStream(stream);
+		return new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+	}
+
+}
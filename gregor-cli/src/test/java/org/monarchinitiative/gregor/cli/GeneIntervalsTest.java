@@ -0,0 +1,51 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+public class GeneIntervalsTest {
+
+	@TempDir
+	Path tmp;
+
+	@Test
+	public void testOverlapping() throws IOException {
+		Path bed = Files.writeString(tmp.resolve("genes.bed"), """
+			track name=genes
+			chr1\t1000\t5000\tLONG
+			chr1\t100\t200\tA
+			1\t150\t300\tB
+			2\t100\t200\tC
+			""");
+		GeneIntervals genes = GeneIntervals.read(bed);
+		Assertions.assertEquals(4, genes.size());
+		Assertions.assertEquals("LONG", genes.getName(0));
+
+		Assertions.assertArrayEquals(new int[0], genes.overlapping("1", 100));
+		Assertions.assertArrayEquals(new int[]{1}, sorted(genes.overlapping("1", 101)));
+		Assertions.assertArrayEquals(new int[]{1, 2}, sorted(genes.overlapping("chr1", 200)));
+		Assertions.assertArrayEquals(new int[]{2}, sorted(genes.overlapping("1", 201)));
+		Assertions.assertArrayEquals(new int[]{0}, sorted(genes.overlapping("1", 4000)));
+		Assertions.assertArrayEquals(new int[]{3}, sorted(genes.overlapping("chr2", 150)));
+		Assertions.assertArrayEquals(new int[0], genes.overlapping("3", 150));
+	}
+
+	@Test
+	public void testInvalidLine() throws IOException {
+		Path bed = Files.writeString(tmp.resolve("genes.bed"), "1\tx\t200\n");
+		Assertions.assertThrows(IOException.class, () -> GeneIntervals.read(bed));
+	}
+
+	private static int[] sorted(int[] values) {
+		int[] result = values.clone();
+		Arrays.sort(result);
+		return result;
+	}
+
+}
@@ -0,0 +1,121 @@
+package org.monarchinitiative.gregor.cli;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class GregorCliTest {
+
+	static final String PED = """
+		fam1\tfather\t0\t0\t1\t1
+		fam1\tmother\t0\t0\t2\t1
+		fam1\tson\tfather\tmother\t1\t2
+		fam2\tsolo\t0\t0\t2\t2
+		""";
+
+	static final String VCF = """
+		##fileformat=VCFv4.2
+		#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tfather\tmother\tson\tsolo
+		1\t100\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/0\t0/1\t0/0
+		1\t200\t.\tA\tC\t.\tPASS\tDP=10\tGT\t0/1\t0/1\t1/1\t0/0
+		1\t300\t.\tA\tC\t.\tPASS\t.\tGT\t0/1\t0/0\t0/1\t0/0
+		1\t400\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/1\t0/1\t0/0
+		""";
+
+	static final String BED = """
+		1\t250\t500\tGENE1
+		""";
+
+	@TempDir
+	Path tmp;
+
+	Path ped;
+	Path vcf;
+	Path bed;
+	ByteArrayOutputStream log;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		ped = Files.writeString(tmp.resolve("in.ped"), PED);
+		vcf = Files.writeString(tmp.resolve("in.vcf"), VCF);
+		bed = Files.writeString(tmp.resolve("genes.bed"), BED);
+		log = new ByteArrayOutputStream();
+	}
+
+	private int run(String... args) {
+		return GregorCli.run(args, new PrintStream(new ByteArrayOutputStream()),
+			new PrintStream(log, true, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testTsv() throws IOException {
+		Path output = tmp.resolve("out.tsv");
+		Assertions.assertEquals(GregorCli.EXIT_OK, run("--ped", ped.toString(), "--vcf", vcf.toString(), "--output",
+			output.toString(), "--format", "tsv", "--threads", "2", "--progress-seconds", "0"));
+
+		List<String> lines = Files.readAllLines(output);
+		Assertions.assertEquals(ResultWriter.TSV_HEADER, lines.get(0));
+		Assertions.assertTrue(lines.contains("fam1\tAD\t1\t100\t.\tA\tC"));
+		Assertions.assertTrue(lines.contains("fam1\tAR_HOM_ALT\t1\t200\t.\tA\tC"));
+		Assertions.assertFalse(lines.contains("fam1\tAD\t1\t300\t.\tA\tC"));
+		Assertions.assertTrue(lines.stream().noneMatch(l -> l.contains("COMP_HET")));
+		Assertions.assertTrue(log.toString(StandardCharsets.UTF_8).contains("not checking compound heterozygous"));
+	}
+
+	@Test
+	public void testCompoundHeterozygousWithBed() throws IOException {
+		Path output = tmp.resolve("out.tsv");
+		Assertions.assertEquals(GregorCli.EXIT_OK, run("--ped", ped.toString(), "--vcf", vcf.toString(), "--bed",
+			bed.toString(), "--output", output.toString(), "--format", "tsv", "--progress-seconds", "0"));
+
+		List<String> compHet = Files.readAllLines(output).stream().filter(l -> l.contains("\tAR_COMP_HET\t"))
+			.collect(Collectors.toList());
+		Assertions.assertEquals(List.of("fam1\tAR_COMP_HET\t1\t300\t.\tA\tC", "fam1\tAR_COMP_HET\t1\t400\t.\tA\tC"),
+			compHet);
+	}
+
+	@Test
+	public void testVcf() throws IOException {
+		Path output = tmp.resolve("out.vcf.gz");
+		Assertions.assertEquals(GregorCli.EXIT_OK, run("--ped", ped.toString(), "--vcf", vcf.toString(), "--output",
+			output.toString(), "--progress-seconds", "0"));
+
+		List<String> lines;
+		try (BufferedReader in = VcfGenotypeReader.openText(Files.newInputStream(output))) {
+			lines = in.lines().collect(Collectors.toList());
+		}
+		Assertions.assertEquals(7, lines.size());
+		Assertions.assertEquals(ResultWriter.INFO_HEADER, lines.get(1));
+		Assertions.assertTrue(lines.get(2).startsWith("#CHROM"));
+		Assertions.assertEquals("GREGOR=fam1:AD|DN", lines.get(3).split("\t")[7]);
+		Assertions.assertTrue(lines.get(4).split("\t")[7].startsWith("DP=10;GREGOR=fam1:"));
+		Assertions.assertTrue(lines.get(4).split("\t")[7].contains("AR_HOM_ALT"));
+	}
+
+	@Test
+	public void testUsageError() {
+		Assertions.assertEquals(GregorCli.EXIT_USAGE, run("--ped", ped.toString()));
+		Assertions.assertEquals(GregorCli.EXIT_USAGE, run("--ped", ped.toString(), "--vcf", vcf.toString(),
+			"--output", "out.tsv", "--threads", "0"));
+		Assertions.assertEquals(GregorCli.EXIT_OK, run("--help"));
+	}
+
+	@Test
+	public void testMissingFile() {
+		Assertions.assertEquals(GregorCli.EXIT_ERROR, run("--ped", ped.toString(), "--vcf",
+			tmp.resolve("missing.vcf").toString(), "--output", tmp.resolve("out.tsv").toString()));
+	}
+
+}
@@ -0,0 +1,298 @@
+package org.monarchinitiative.gregor.server;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.IncompatiblePedigreeException;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.pedigree.*;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+
+import java.io.Serial;
+import java.util.*;
+
+/**
+ * Handles the payloads of check requests to {@link GregorServer}, independent of the HTTP transport
+ * <p>
+ * A request is a JSON object of the form
+ * <pre>
+ * {
+ *   "pedigree": {"name": "fam", "members": [["father", "0", "0", "1", "1"], ["mother", "0", "0", "2", "1"],
+ *                                           ["son", "father", "mother", "1", "2"]]},
+ *   "samples": ["son", "father", "mother"],
+ *   "sites": [["1", "100"], ["X", "201"]],
+ *   "modes": ["AD", "XR_HOM_ALT"]
+ * }
+ * </pre>
+ * The members are given as in the columns 2-6 of a PED file. Instead of <code>"pedigree"</code>, a request may give
+ * the <code>"fingerprint"</code> returned for an earlier request, which avoids sending and parsing the pedigree
+ * again as long as its checker is cached. <code>"samples"</code> gives the order of the genotypes of each site and
+ * defaults to the order of the members, samples that are no members are ignored and members that are no samples are
+ * not observed. Each site is a contig name, from which the {@link ChromosomeType} is derived, and one character per
+ * sample: <code>'0'</code> for hom. ref., <code>'1'</code> for het., <code>'2'</code> for hom. alt. (or hemizygous
+ * alt.), and <code>'.'</code> for a no-call. <code>"modes"</code> gives the abbreviations of the
+ * {@link SubModeOfInheritance}s to check and defaults to all.
+ * <p>
+ * The response gives the fingerprint of the pedigree and, for each sub mode of inheritance, the 0-based indices of
+ * the compatible sites:
+ * <pre>
+ * {"pedigree":"fam","fingerprint":"...","results":{"AD":[0],"XR_HOM_ALT":[1]}}
+ * </pre>
+ * Checks run on the index-based fast path of {@link MendelianInheritanceChecker}, so pedigrees with more than
+ * {@link org.monarchinitiative.gregor.mendel.impl.CompiledPedigree#MAX_MEMBERS} members are rejected.
+ */
+final class CheckService {
+
+	/**
+	 * Sub modes of inheritance by abbreviation
+	 */
+	private static final Map<String, SubModeOfInheritance> MODES_BY_ABBREVIATION;
+
+	static {
+		Map<String, SubModeOfInheritance> map = new LinkedHashMap<>();
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values())
+			if (mode != SubModeOfInheritance.ANY)
+				map.put(mode.getAbbreviation(), mode);
+		MODES_BY_ABBREVIATION = Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Cache of the checkers
+	 */
+	private final CheckerCache cache;
+
+	/**
+	 * @param cache cache of the checkers
+	 */
+	CheckService(CheckerCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * @return the checker cache
+	 */
+	CheckerCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Handle check request
+	 *
+	 * @param body JSON request
+	 * @return JSON response
+	 * @throws RequestException on invalid requests
+	 */
+	String check(String body) throws RequestException {
+		final Map<String, Object> request;
+		try {
+			request = asObject(Json.parse(body), "request");
+		} catch (IllegalArgumentException e) {
+			throw new RequestException(400, e.getMessage());
+		}
+
+		final String fingerprint;
+		final MendelianInheritanceChecker checker;
+		if (request.get("pedigree") != null) {
+			final Pedigree pedigree = parsePedigree(asObject(request.get("pedigree"), "pedigree"));
+			fingerprint = CheckerCache.fingerprint(pedigree);
+			checker = cache.getOrCreate(fingerprint, pedigree);
+		} else if (request.get("fingerprint") != null) {
+			fingerprint = asString(request.get("fingerprint"), "fingerprint");
+			checker = cache.get(fingerprint);
+			if (checker == null)
+				throw new RequestException(404, "Unknown pedigree fingerprint " + fingerprint
+					+ ", resend the pedigree");
+		} else {
+			throw new RequestException(400, "Missing pedigree or fingerprint");
+		}
+
+		final Pedigree pedigree = checker.getPedigree();
+		final IndexedGenotypes genotypes = parseSites(pedigree, request);
+		final List<SubModeOfInheritance> modes = parseModes(request.get("modes"));
+
+		StringBuilder builder = new StringBuilder(64 + 8 * genotypes.getNSites());
+		builder.append("{\"pedigree\":");
+		Json.quote(builder, pedigree.getName());
+		builder.append(",\"fingerprint\":\"").append(fingerprint).append("\",\"results\":{");
+		try {
+			for (int i = 0; i < modes.size(); ++i) {
+				final SubModeOfInheritance mode = modes.get(i);
+				if (i > 0)
+					builder.append(',');
+				builder.append('"').append(mode.getAbbreviation()).append("\":[");
+				final int[] sites = checker.filterCompatibleSitesSub(genotypes, mode);
+				for (int j = 0; j < sites.length; ++j) {
+					if (j > 0)
+						builder.append(',');
+					builder.append(sites[j]);
+				}
+				builder.append(']');
+			}
+		} catch (IncompatiblePedigreeException e) {
+			throw new RequestException(422, e.getMessage());
+		}
+		return builder.append("}}").toString();
+	}
+
+	private static Pedigree parsePedigree(Map<String, Object> json) throws RequestException {
+		final String name = asString(json.get("name"), "pedigree name");
+		List<PedPerson> persons = new ArrayList<>();
+		for (Object member : asArray(json.get("members"), "pedigree members")) {
+			final List<Object> fields = asArray(member, "pedigree member");
+			if (fields.size() != 5)
+				throw new RequestException(400, "Pedigree member must have 5 fields but has " + fields.size());
+			try {
+				persons.add(new PedPerson(name, asField(fields.get(0)), asField(fields.get(1)),
+					asField(fields.get(2)), Sex.toSex(asField(fields.get(3))),
+					Disease.toDisease(asField(fields.get(4)))));
+			} catch (PedParseException e) {
+				throw new RequestException(400, e.getMessage());
+			}
+		}
+		if (persons.isEmpty())
+			throw new RequestException(400, "Pedigree has no members");
+		try {
+			return new Pedigree(new PedFileContents(List.of(), persons), name);
+		} catch (PedParseException e) {
+			throw new RequestException(400, e.getMessage());
+		}
+	}
+
+	private static IndexedGenotypes parseSites(Pedigree pedigree, Map<String, Object> request)
+		throws RequestException {
+		// Member index for each sample column, -1 for samples that are no members
+		final int[] sampleToMember;
+		if (request.get("samples") == null) {
+			sampleToMember = new int[pedigree.getNMembers()];
+			for (int i = 0; i < sampleToMember.length; ++i)
+				sampleToMember[i] = i;
+		} else {
+			final List<Object> samples = asArray(request.get("samples"), "samples");
+			sampleToMember = new int[samples.size()];
+			for (int i = 0; i < sampleToMember.length; ++i) {
+				final Pedigree.IndexedPerson person = pedigree.getNameToMember().get(asString(samples.get(i),
+					"sample"));
+				sampleToMember[i] = (person == null) ? -1 : person.idx();
+			}
+		}
+
+		final List<Object> sites = asArray(request.get("sites"), "sites");
+		final int nMembers = pedigree.getNMembers();
+		final int nSites = sites.size();
+		final ChromosomeType[] chromTypes = new ChromosomeType[nSites];
+		final byte[] classes = new byte[nSites * nMembers];
+		Arrays.fill(classes, (byte) GenotypeClass.NOT_OBSERVED);
+		for (int site = 0; site < nSites; ++site) {
+			final List<Object> fields = asArray(sites.get(site), "site");
+			if (fields.size() != 2)
+				throw new RequestException(400, "Site " + site + " must have 2 fields but has " + fields.size());
+			chromTypes[site] = VcfGenotypeReader.toChromType(asString(fields.get(0), "contig"));
+			final String gts = asString(fields.get(1), "genotypes");
+			if (gts.length() != sampleToMember.length)
+				throw new RequestException(400, "Site " + site + " has " + gts.length() + " genotypes but there are "
+					+ sampleToMember.length + " samples");
+			for (int i = 0; i < sampleToMember.length; ++i)
+				if (sampleToMember[i] >= 0)
+					classes[site * nMembers + sampleToMember[i]] = (byte) toGenotypeClass(gts.charAt(i), site);
+		}
+
+		return new IndexedGenotypes() {
+			@Override
+			public int getNSites() {
+				return nSites;
+			}
+
+			@Override
+			public ChromosomeType getChromType(int site) {
+				return chromTypes[site];
+			}
+
+			@Override
+			public int getGenotypeClass(int site, int member) {
+				return classes[site * nMembers + member];
+			}
+		};
+	}
+
+	private static int toGenotypeClass(char c, int site) throws RequestException {
+		return switch (c) {
+			case '0' -> GenotypeClass.HOM_REF;
+			case '1' -> GenotypeClass.HET;
+			case '2' -> GenotypeClass.HOM_ALT;
+			case '.' -> GenotypeClass.NOT_OBSERVED;
+			default -> throw new RequestException(400, "Invalid genotype '" + c + "' at site " + site);
+		};
+	}
+
+	private static List<SubModeOfInheritance> parseModes(Object json) throws RequestException {
+		if (json == null)
+			return List.copyOf(MODES_BY_ABBREVIATION.values());
+		List<SubModeOfInheritance> result = new ArrayList<>();
+		for (Object value : asArray(json, "modes")) {
+			final SubModeOfInheritance mode = MODES_BY_ABBREVIATION.get(asString(value, "mode"));
+			if (mode == null)
+				throw new RequestException(400, "Unknown sub mode of inheritance " + value + ", expected one of "
+					+ MODES_BY_ABBREVIATION.keySet());
+			result.add(mode);
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> asObject(Object json, String what) throws RequestException {
+		if (!(json instanceof Map))
+			throw new RequestException(400, "Expected object for " + what);
+		return (Map<String, Object>) json;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> asArray(Object json, String what) throws RequestException {
+		if (!(json instanceof List))
+			throw new RequestException(400, "Expected array for " + what);
+		return (List<Object>) json;
+	}
+
+	private static String asString(Object json, String what) throws RequestException {
+		if (!(json instanceof String))
+			throw new RequestException(400, "Expected string for " + what);
+		return (String) json;
+	}
+
+	/**
+	 * @return PED field from a string or an integral number
+	 */
+	private static String asField(Object json) throws RequestException {
+		if (json instanceof Long)
+			return json.toString();
+		return asString(json, "pedigree member field");
+	}
+
+	/**
+	 * Invalid request, with the HTTP status code to respond with
+	 */
+	static final class RequestException extends Exception {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * HTTP status code
+		 */
+		private final int status;
+
+		RequestException(int status, String msg) {
+			super(msg);
+			this.status = status;
+		}
+
+		/**
+		 * @return HTTP status code
+		 */
+		int getStatus() {
+			return status;
+		}
+
+	}
+
+}
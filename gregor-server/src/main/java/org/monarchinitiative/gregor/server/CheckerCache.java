@@ -0,0 +1,125 @@
+package org.monarchinitiative.gregor.server;
+
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of {@link MendelianInheritanceChecker}s, keyed by pedigree fingerprint
+ * <p>
+ * Constructing a checker compiles the pedigree, which dominates the time of small requests. The fingerprint is a
+ * SHA-256 hash over the pedigree name and the name, parents, sex and disease state of each member in order, so
+ * requests for the same family share one checker and clients may refer to a cached pedigree by its fingerprint only.
+ */
+final class CheckerCache {
+
+	/**
+	 * Maximal number of cached checkers
+	 */
+	private final int capacity;
+	/**
+	 * Checkers in access order, guarded by <code>this</code>
+	 */
+	private final LinkedHashMap<String, MendelianInheritanceChecker> checkers;
+	/**
+	 * Number of lookups that found a cached checker, guarded by <code>this</code>
+	 */
+	private long nHits;
+	/**
+	 * Number of lookups that constructed a new checker, guarded by <code>this</code>
+	 */
+	private long nMisses;
+
+	/**
+	 * @param capacity maximal number of cached checkers
+	 */
+	CheckerCache(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive but was " + capacity);
+		this.capacity = capacity;
+		this.checkers = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, MendelianInheritanceChecker> eldest) {
+				return size() > CheckerCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * @return cached checker for <code>fingerprint</code>, <code>null</code> if none
+	 */
+	synchronized MendelianInheritanceChecker get(String fingerprint) {
+		final MendelianInheritanceChecker result = checkers.get(fingerprint);
+		if (result != null)
+			++nHits;
+		return result;
+	}
+
+	/**
+	 * @return cached checker for <code>pedigree</code>, constructed and cached if none
+	 */
+	MendelianInheritanceChecker getOrCreate(String fingerprint, Pedigree pedigree) {
+		synchronized (this) {
+			final MendelianInheritanceChecker result = checkers.get(fingerprint);
+			if (result != null) {
+				++nHits;
+				return result;
+			}
+		}
+		// Construct outside the lock, a concurrent construction for the same pedigree just wastes some work
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		synchronized (this) {
+			++nMisses;
+			final MendelianInheritanceChecker previous = checkers.putIfAbsent(fingerprint, checker);
+			return (previous == null) ? checker : previous;
+		}
+	}
+
+	/**
+	 * @return number of cached checkers
+	 */
+	synchronized int size() {
+		return checkers.size();
+	}
+
+	/**
+	 * @return number of lookups that found a cached checker
+	 */
+	synchronized long getNHits() {
+		return nHits;
+	}
+
+	/**
+	 * @return number of lookups that constructed a new checker
+	 */
+	synchronized long getNMisses() {
+		return nMisses;
+	}
+
+	/**
+	 * @return fingerprint of <code>pedigree</code>, as lower-case hex string
+	 */
+	static String fingerprint(Pedigree pedigree) {
+		StringBuilder builder = new StringBuilder(pedigree.getName());
+		for (Person person : pedigree.getMembers())
+			builder.append('\n').append(person.getName())
+				.append('\t').append((person.getFather() == null) ? "0" : person.getFather().getName())
+				.append('\t').append((person.getMother() == null) ? "0" : person.getMother().getName())
+				.append('\t').append(person.getSex().toInt())
+				.append('\t').append(person.getDisease().toInt());
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(builder.toString().getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e); // required on every Java platform
+		}
+	}
+
+}
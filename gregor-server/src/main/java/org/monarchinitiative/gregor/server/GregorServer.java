@@ -0,0 +1,164 @@
+package org.monarchinitiative.gregor.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.monarchinitiative.gregor.concurrent.TaskScope;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Embedded local HTTP service for checking genotypes against pedigrees with warm, cached checkers
+ * <p>
+ * Avoids the JVM startup and checker construction for every case of an annotation pipeline. The service has two
+ * endpoints:
+ * <ul>
+ * <li><code>POST /check</code> checks the sites of a JSON request, see {@link CheckService} for the payloads.</li>
+ * <li><code>GET /health</code> returns the size and hit counts of the checker cache.</li>
+ * </ul>
+ * Requests are handled on virtual threads if the runtime supports them (Java 21 and later) and on a cached thread
+ * pool otherwise, see {@link TaskScope#newThreadPerTaskExecutor(String)}.
+ */
+public final class GregorServer implements AutoCloseable {
+
+	/**
+	 * Default port to listen on
+	 */
+	public static final int DEFAULT_PORT = 8080;
+	/**
+	 * Default number of cached checkers
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 1024;
+
+	private static final String USAGE = "Usage: gregor-server [--host HOST] [--port N] [--cache-size N]";
+
+	/**
+	 * The underlying HTTP server
+	 */
+	private final HttpServer server;
+	/**
+	 * Executor of the request handlers
+	 */
+	private final ExecutorService executor;
+	/**
+	 * Handler of check requests
+	 */
+	private final CheckService service;
+
+	private GregorServer(HttpServer server, ExecutorService executor, CheckService service) {
+		this.server = server;
+		this.executor = executor;
+		this.service = service;
+	}
+
+	/**
+	 * Start server
+	 *
+	 * @param address   address to listen on, port <code>0</code> for an ephemeral port
+	 * @param cacheSize maximal number of cached checkers
+	 * @return the running server
+	 * @throws IOException if the server cannot be bound to <code>address</code>
+	 */
+	public static GregorServer start(InetSocketAddress address, int cacheSize) throws IOException {
+		final CheckService service = new CheckService(new CheckerCache(cacheSize));
+		final HttpServer server = HttpServer.create(address, 0);
+		final ExecutorService executor = TaskScope.newThreadPerTaskExecutor("gregor-server");
+		final GregorServer result = new GregorServer(server, executor, service);
+		server.createContext("/check", result::handleCheck);
+		server.createContext("/health", result::handleHealth);
+		server.setExecutor(executor);
+		server.start();
+		return result;
+	}
+
+	/**
+	 * @return port the server listens on
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Stop server, waiting for at most one second for running requests
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdownNow();
+	}
+
+	private void handleCheck(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			if (!"POST".equals(exchange.getRequestMethod())) {
+				exchange.getResponseHeaders().set("Allow", "POST");
+				respond(exchange, 405, error("Method not allowed"));
+				return;
+			}
+			final String body;
+			try (InputStream in = exchange.getRequestBody()) {
+				body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			}
+			try {
+				respond(exchange, 200, service.check(body));
+			} catch (CheckService.RequestException e) {
+				respond(exchange, e.getStatus(), error(e.getMessage()));
+			} catch (RuntimeException e) {
+				respond(exchange, 500, error(e.toString()));
+			}
+		}
+	}
+
+	private void handleHealth(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			final CheckerCache cache = service.getCache();
+			respond(exchange, 200, "{\"status\":\"ok\",\"cachedCheckers\":" + cache.size() + ",\"cacheHits\":"
+				+ cache.getNHits() + ",\"cacheMisses\":" + cache.getNMisses() + "}");
+		}
+	}
+
+	private static String error(String msg) {
+		StringBuilder builder = new StringBuilder("{\"error\":");
+		Json.quote(builder, String.valueOf(msg));
+		return builder.append('}').toString();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+		final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		String host = "127.0.0.1";
+		int port = DEFAULT_PORT;
+		int cacheSize = DEFAULT_CACHE_SIZE;
+		for (int i = 0; i < args.length; ++i) {
+			if (i + 1 == args.length) {
+				System.err.println(USAGE);
+				System.exit(2);
+			}
+			switch (args[i]) {
+				case "--host" -> host = args[++i];
+				case "--port" -> port = Integer.parseInt(args[++i]);
+				case "--cache-size" -> cacheSize = Integer.parseInt(args[++i]);
+				default -> {
+					System.err.println("Unknown argument: " + args[i]);
+					System.err.println(USAGE);
+					System.exit(2);
+				}
+			}
+		}
+
+		final GregorServer server = start(new InetSocketAddress(host, port), cacheSize);
+		Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+		System.err.println("[gregor] listening on http://" + host + ":" + server.getPort());
+	}
+
+}
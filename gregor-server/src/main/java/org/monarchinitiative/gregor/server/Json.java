@@ -0,0 +1,214 @@
+package org.monarchinitiative.gregor.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and string quoting for the request and response payloads of {@link GregorServer}
+ * <p>
+ * Objects are read into {@link Map}s, arrays into {@link List}s, strings into {@link String}s, numbers into
+ * {@link Long}s or {@link Double}s, and <code>true</code>, <code>false</code> and <code>null</code> into
+ * {@link Boolean}s and <code>null</code>.
+ */
+final class Json {
+
+	/**
+	 * The text to parse
+	 */
+	private final String text;
+	/**
+	 * Current position in {@link #text}
+	 */
+	private int pos;
+
+	private Json(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Parse JSON document
+	 *
+	 * @param text the JSON document
+	 * @return the parsed value
+	 * @throws IllegalArgumentException if <code>text</code> is not valid JSON
+	 */
+	static Object parse(String text) {
+		Json json = new Json(text);
+		final Object result = json.readValue();
+		json.skipWhitespace();
+		if (json.pos != text.length())
+			throw json.error("Trailing characters");
+		return result;
+	}
+
+	/**
+	 * Append <code>s</code> to <code>builder</code> as a quoted and escaped JSON string
+	 */
+	static void quote(StringBuilder builder, String s) {
+		builder.append('"');
+		for (int i = 0; i < s.length(); ++i) {
+			final char c = s.charAt(i);
+			switch (c) {
+				case '"' -> builder.append("\\\"");
+				case '\\' -> builder.append("\\\\");
+				case '\n' -> builder.append("\\n");
+				case '\r' -> builder.append("\\r");
+				case '\t' -> builder.append("\\t");
+				default -> {
+					if (c < 0x20)
+						builder.append(String.format("\\u%04x", (int) c));
+					else
+						builder.append(c);
+				}
+			}
+		}
+		builder.append('"');
+	}
+
+	private Object readValue() {
+		skipWhitespace();
+		if (pos == text.length())
+			throw error("Unexpected end of input");
+		final char c = text.charAt(pos);
+		return switch (c) {
+			case '{' -> readObject();
+			case '[' -> readArray();
+			case '"' -> readString();
+			case 't' -> readLiteral("true", Boolean.TRUE);
+			case 'f' -> readLiteral("false", Boolean.FALSE);
+			case 'n' -> readLiteral("null", null);
+			default -> {
+				if (c == '-' || (c >= '0' && c <= '9'))
+					yield readNumber();
+				throw error("Unexpected character '" + c + "'");
+			}
+		};
+	}
+
+	private Map<String, Object> readObject() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		++pos; // '{'
+		skipWhitespace();
+		if (consume('}'))
+			return result;
+		do {
+			skipWhitespace();
+			if (pos == text.length() || text.charAt(pos) != '"')
+				throw error("Expected object key");
+			final String key = readString();
+			skipWhitespace();
+			if (!consume(':'))
+				throw error("Expected ':'");
+			result.put(key, readValue());
+			skipWhitespace();
+		} while (consume(','));
+		if (!consume('}'))
+			throw error("Expected ',' or '}'");
+		return result;
+	}
+
+	private List<Object> readArray() {
+		List<Object> result = new ArrayList<>();
+		++pos; // '['
+		skipWhitespace();
+		if (consume(']'))
+			return result;
+		do {
+			result.add(readValue());
+			skipWhitespace();
+		} while (consume(','));
+		if (!consume(']'))
+			throw error("Expected ',' or ']'");
+		return result;
+	}
+
+	private String readString() {
+		++pos; // '"'
+		StringBuilder builder = null;
+		int start = pos;
+		while (pos < text.length()) {
+			final char c = text.charAt(pos);
+			if (c == '"') {
+				final String tail = text.substring(start, pos++);
+				return (builder == null) ? tail : builder.append(tail).toString();
+			} else if (c == '\\') {
+				if (builder == null)
+					builder = new StringBuilder();
+				builder.append(text, start, pos);
+				if (pos + 1 == text.length())
+					break;
+				final char escaped = text.charAt(pos + 1);
+				pos += 2;
+				switch (escaped) {
+					case '"', '\\', '/' -> builder.append(escaped);
+					case 'b' -> builder.append('\b');
+					case 'f' -> builder.append('\f');
+					case 'n' -> builder.append('\n');
+					case 'r' -> builder.append('\r');
+					case 't' -> builder.append('\t');
+					case 'u' -> {
+						if (pos + 4 > text.length())
+							throw error("Invalid unicode escape");
+						try {
+							builder.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+						} catch (NumberFormatException e) {
+							throw error("Invalid unicode escape");
+						}
+						pos += 4;
+					}
+					default -> throw error("Invalid escape '\\" + escaped + "'");
+				}
+				start = pos;
+			} else {
+				++pos;
+			}
+		}
+		throw error("Unterminated string");
+	}
+
+	private Object readNumber() {
+		final int start = pos;
+		boolean integral = true;
+		while (pos < text.length()) {
+			final char c = text.charAt(pos);
+			if (c == '.' || c == 'e' || c == 'E')
+				integral = false;
+			else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9')))
+				break;
+			++pos;
+		}
+		final String number = text.substring(start, pos);
+		try {
+			return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+		} catch (NumberFormatException e) {
+			throw error("Invalid number " + number);
+		}
+	}
+
+	private Object readLiteral(String literal, Object value) {
+		if (!text.startsWith(literal, pos))
+			throw error("Unexpected token");
+		pos += literal.length();
+		return value;
+	}
+
+	private boolean consume(char c) {
+		if (pos < text.length() && text.charAt(pos) == c) {
+			++pos;
+			return true;
+		}
+		return false;
+	}
+
+	private void skipWhitespace() {
+		while (pos < text.length() && Character.isWhitespace(text.charAt(pos)))
+			++pos;
+	}
+
+	private IllegalArgumentException error(String msg) {
+		return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + msg);
+	}
+
+}
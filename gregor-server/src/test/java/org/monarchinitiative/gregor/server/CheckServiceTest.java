@@ -0,0 +1,119 @@
+package org.monarchinitiative.gregor.server;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class CheckServiceTest {
+
+	static final String TRIO = """
+		{"name": "fam", "members": [["father", "0", "0", 1, 1], ["mother", "0", "0", 2, 1],
+		                            ["son", "father", "mother", 1, 2]]}""";
+
+	CheckService service;
+
+	@BeforeEach
+	public void setUp() {
+		service = new CheckService(new CheckerCache(2));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> results(String response) {
+		return (Map<String, Object>) ((Map<String, Object>) Json.parse(response)).get("results");
+	}
+
+	@Test
+	public void testCheck() throws CheckService.RequestException {
+		// de novo het., hom. alt. from het. parents, and hemizygous on X from het. mother
+		final String response = service.check("{\"pedigree\": " + TRIO + ", \"sites\": [[\"1\", \"001\"], "
+			+ "[\"1\", \"112\"], [\"X\", \"012\"]]}");
+		Map<String, Object> results = results(response);
+		Assertions.assertEquals(List.of("AD", "AR_COMP_HET", "AR_HOM_ALT", "XR_COMP_HET", "XR_HOM_ALT", "XD", "MT", "YL",
+			"DN"), List.copyOf(results.keySet()));
+		Assertions.assertEquals(List.of(0L), results.get("AD"));
+		Assertions.assertEquals(List.of(0L), results.get("DN"));
+		Assertions.assertEquals(List.of(1L), results.get("AR_HOM_ALT"));
+		Assertions.assertEquals(List.of(2L), results.get("XR_HOM_ALT"));
+	}
+
+	@Test
+	public void testSamplesAndModes() throws CheckService.RequestException {
+		final String response = service.check("{\"pedigree\": " + TRIO + ", \"samples\": [\"son\", \"other\", "
+			+ "\"father\"], \"sites\": [[\"1\", \"110\"], [\"1\", \"211\"]], \"modes\": [\"AD\", \"AR_HOM_ALT\"]}");
+		Map<String, Object> results = results(response);
+		Assertions.assertEquals(List.of("AD", "AR_HOM_ALT"), List.copyOf(results.keySet()));
+		// mother not observed
+		Assertions.assertEquals(List.of(0L), results.get("AD"));
+		Assertions.assertEquals(List.of(1L), results.get("AR_HOM_ALT"));
+	}
+
+	@Test
+	public void testFingerprint() throws CheckService.RequestException {
+		final String first = service.check("{\"pedigree\": " + TRIO + ", \"sites\": [[\"1\", \"001\"]]}");
+		final String fingerprint = (String) ((Map<?, ?>) Json.parse(first)).get("fingerprint");
+		Assertions.assertEquals(64, fingerprint.length());
+		Assertions.assertEquals(1, service.getCache().getNMisses());
+
+		final String second = service.check("{\"fingerprint\": \"" + fingerprint + "\", \"sites\": [[\"1\", "
+			+ "\"001\"]]}");
+		Assertions.assertEquals(first, second);
+		Assertions.assertEquals(1, service.getCache().getNHits());
+
+		CheckService.RequestException e = Assertions.assertThrows(CheckService.RequestException.class,
+			() -> service.check("{\"fingerprint\": \"abc\", \"sites\": []}"));
+		Assertions.assertEquals(404, e.getStatus());
+	}
+
+	@Test
+	public void testCacheEviction() throws CheckService.RequestException {
+		for (String name : Arrays.asList("a", "b", "a", "c"))
+			service.check("{\"pedigree\": {\"name\": \"" + name + "\", \"members\": [[\"x\", \"0\", \"0\", 1, 2]]}, "
+				+ "\"sites\": []}");
+		Assertions.assertEquals(2, service.getCache().size());
+		Assertions.assertEquals(3, service.getCache().getNMisses());
+		Assertions.assertEquals(1, service.getCache().getNHits());
+		// "b" was least recently used
+		Assertions.assertThrows(CheckService.RequestException.class, () -> service.check("{\"fingerprint\": \""
+			+ fingerprintOf("b") + "\", \"sites\": []}"));
+	}
+
+	private String fingerprintOf(String name) throws CheckService.RequestException {
+		final String response = new CheckService(new CheckerCache(1)).check("{\"pedigree\": {\"name\": \"" + name
+			+ "\", \"members\": [[\"x\", \"0\", \"0\", 1, 2]]}, \"sites\": []}");
+		return (String) ((Map<?, ?>) Json.parse(response)).get("fingerprint");
+	}
+
+	@Test
+	public void testInvalidRequests() {
+		for (String request : List.of("{", "[]", "{\"sites\": []}", "{\"pedigree\": " + TRIO + "}",
+			"{\"pedigree\": " + TRIO + ", \"sites\": [[\"1\", \"01\"]]}",
+			"{\"pedigree\": " + TRIO + ", \"sites\": [[\"1\", \"01x\"]]}",
+			"{\"pedigree\": " + TRIO + ", \"sites\": [], \"modes\": [\"XY\"]}",
+			"{\"pedigree\": {\"name\": \"fam\", \"members\": [[\"son\", \"father\", \"0\", 1, 2]]}, \"sites\": []}")) {
+			CheckService.RequestException e = Assertions.assertThrows(CheckService.RequestException.class,
+				() -> service.check(request), request);
+			Assertions.assertEquals(400, e.getStatus(), request);
+		}
+	}
+
+	@Test
+	public void testRepeatedRequests() throws CheckService.RequestException {
+		// trio and a gene with 20 variants, checked with the cached checker after the first request
+		StringBuilder request = new StringBuilder("{\"pedigree\": " + TRIO + ", \"sites\": [");
+		for (int i = 0; i < 20; ++i)
+			request.append((i == 0) ? "" : ", ").append("[\"1\", \"").append(i % 3).append((i / 3) % 3)
+				.append((i / 9) % 3).append("\"]");
+		final String body = request.append("]}").toString();
+
+		final String first = service.check(body);
+		for (int i = 0; i < 100; ++i)
+			Assertions.assertEquals(first, service.check(body));
+		Assertions.assertEquals(1, service.getCache().getNMisses());
+		Assertions.assertEquals(100, service.getCache().getNHits());
+	}
+
+}
@@ -0,0 +1,68 @@
+package org.monarchinitiative.gregor.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+public class GregorServerTest {
+
+	GregorServer server;
+	HttpClient client;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		server = GregorServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+		client = HttpClient.newHttpClient();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		server.close();
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder builder, String path)
+		throws IOException, InterruptedException {
+		return client.send(builder.uri(URI.create("http://127.0.0.1:" + server.getPort() + path)).build(),
+			HttpResponse.BodyHandlers.ofString());
+	}
+
+	@Test
+	public void testCheck() throws IOException, InterruptedException {
+		final String body = "{\"pedigree\": " + CheckServiceTest.TRIO + ", \"sites\": [[\"1\", \"001\"]], "
+			+ "\"modes\": [\"AD\"]}";
+		HttpResponse<String> response = send(HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.ofString(body)),
+			"/check");
+		Assertions.assertEquals(200, response.statusCode());
+		Assertions.assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(null));
+		Assertions.assertEquals(Map.of("AD", List.of(0L)), ((Map<?, ?>) Json.parse(response.body()))
+			.get("results"));
+
+		response = send(HttpRequest.newBuilder().GET(), "/health");
+		Assertions.assertEquals(200, response.statusCode());
+		Assertions.assertEquals(1L, ((Map<?, ?>) Json.parse(response.body())).get("cachedCheckers"));
+	}
+
+	@Test
+	public void testErrors() throws IOException, InterruptedException {
+		HttpResponse<String> response = send(HttpRequest.newBuilder().GET(), "/check");
+		Assertions.assertEquals(405, response.statusCode());
+
+		response = send(HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.ofString("{\"sites\": []}")),
+			"/check");
+		Assertions.assertEquals(400, response.statusCode());
+		Assertions.assertTrue(((Map<?, ?>) Json.parse(response.body())).get("error").toString()
+			.contains("Missing pedigree"));
+	}
+
+}
@@ -0,0 +1,324 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Differential fuzzer comparing an inheritance checking engine against the reference checkers
+ * <p>
+ * Random pedigrees come from {@link PedigreeSimulator}. Genotypes come either from {@link GenotypeSimulator} or are
+ * drawn uniformly from a pool of diploid, haploid, partially called and multi-allelic genotypes, so that both plausible
+ * and pathological inputs are covered. For each input, both engines are run for every {@link SubModeOfInheritance}.
+ * The first disagreement is minimized by greedily removing calls and pedigree members and by replacing genotypes with
+ * hom. ref. while the disagreement for the same sub mode persists.
+ * <p>
+ * By default, {@link #REFERENCE}, the {@link GenotypeCalls}-based checkers, is compared against {@link #INDEXED}, the
+ * index-based fast path of {@link MendelianInheritanceChecker}.
+ */
+public final class DifferentialFuzzer {
+
+	/**
+	 * Engine for filtering calls for compatibility with a sub mode of inheritance
+	 */
+	@FunctionalInterface
+	public interface Engine {
+
+		/**
+		 * @return sorted indices of the calls in <code>calls</code> that are compatible with <code>subMode</code>
+		 * @throws IncompatiblePedigreeException if <code>calls</code> do not fit to <code>pedigree</code>
+		 */
+		int[] filter(Pedigree pedigree, List<GenotypeCalls> calls, SubModeOfInheritance subMode)
+			throws IncompatiblePedigreeException;
+
+	}
+
+	/**
+	 * The {@link GenotypeCalls}-based checkers behind {@link MendelianInheritanceChecker#filterCompatibleRecordsSub}
+	 */
+	public static final Engine REFERENCE = (pedigree, calls, subMode) -> {
+		final List<GenotypeCalls> compatible = new MendelianInheritanceChecker(pedigree)
+			.filterCompatibleRecordsSub(calls, subMode);
+		Map<GenotypeCalls, Integer> indices = new IdentityHashMap<>();
+		for (int i = 0; i < calls.size(); ++i)
+			indices.put(calls.get(i), i);
+		return compatible.stream().mapToInt(indices::get).sorted().distinct().toArray();
+	};
+
+	/**
+	 * The index-based fast path behind {@link MendelianInheritanceChecker#filterCompatibleSitesSub}
+	 */
+	public static final Engine INDEXED = (pedigree, calls, subMode) -> new MendelianInheritanceChecker(pedigree)
+		.filterCompatibleSitesSub(IndexedGenotypes.of(pedigree, calls), subMode);
+
+	/**
+	 * Disagreement of the engines
+	 *
+	 * @param pedigree the pedigree
+	 * @param calls    the calls given to both engines
+	 * @param subMode  the sub mode of inheritance that the engines disagree on
+	 * @param expected result of the reference engine
+	 * @param actual   result of the engine under test
+	 */
+	public record Counterexample(Pedigree pedigree, List<GenotypeCalls> calls, SubModeOfInheritance subMode,
+								 int[] expected, int[] actual) {
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append(subMode).append(": expected ").append(Arrays.toString(expected)).append(" but was ")
+				.append(Arrays.toString(actual)).append('\n');
+			for (Person p : pedigree.getMembers())
+				builder.append(p.getName()).append('\t')
+					.append((p.getFather() == null) ? "0" : p.getFather().getName()).append('\t')
+					.append((p.getMother() == null) ? "0" : p.getMother().getName()).append('\t')
+					.append(p.getSex()).append('\t').append(p.getDisease()).append('\n');
+			for (int i = 0; i < calls.size(); ++i) {
+				builder.append(i).append('\t').append(calls.get(i).getChromType());
+				for (Person p : pedigree.getMembers())
+					builder.append('\t').append(calls.get(i).getGenotypeForSample(p.getName()).getAlleleNumbers());
+				builder.append('\n');
+			}
+			return builder.toString();
+		}
+
+	}
+
+	private static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+
+	private static final List<Genotype> GENOTYPES = List.of(
+		HOM_REF,
+		new Genotype(List.of(0, 1)),
+		new Genotype(List.of(1, 1)),
+		new Genotype(List.of(1, 2)),
+		new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL)),
+		new Genotype(List.of(0, Genotype.NO_CALL)),
+		new Genotype(List.of(Genotype.NO_CALL, 1)),
+		new Genotype(List.of(0)),
+		new Genotype(List.of(1)),
+		new Genotype(List.of(Genotype.NO_CALL))
+	);
+
+	private static final ChromosomeType[] CHROM_TYPES = {ChromosomeType.AUTOSOMAL, ChromosomeType.X_CHROMOSOMAL,
+		ChromosomeType.Y_CHROMOSOMAL, ChromosomeType.MITOCHONDRIAL};
+
+	/**
+	 * Largest number of members of the generated pedigrees
+	 */
+	private static final int MAX_MEMBERS = 16;
+	/**
+	 * Largest number of calls of the generated inputs
+	 */
+	private static final int MAX_CALLS = 12;
+
+	/**
+	 * Source of randomness
+	 */
+	private final Random rng;
+	/**
+	 * The engine giving the expected results
+	 */
+	private final Engine reference;
+	/**
+	 * The engine under test
+	 */
+	private final Engine candidate;
+	/**
+	 * Number of inputs checked so far
+	 */
+	private long nInputs;
+
+	/**
+	 * Construct fuzzer comparing {@link #INDEXED} against {@link #REFERENCE}
+	 */
+	public DifferentialFuzzer(long seed) {
+		this(seed, REFERENCE, INDEXED);
+	}
+
+	/**
+	 * Construct fuzzer comparing <code>candidate</code> against <code>reference</code>
+	 */
+	public DifferentialFuzzer(long seed, Engine reference, Engine candidate) {
+		this.rng = new Random(seed);
+		this.reference = reference;
+		this.candidate = candidate;
+	}
+
+	/**
+	 * Check random inputs until the engines disagree or <code>budget</code> is used up
+	 *
+	 * @param budget wall-clock time to spend
+	 * @return the minimized {@link Counterexample}, empty if the engines agreed on all inputs
+	 * @throws IncompatiblePedigreeException if an engine rejects a generated input
+	 */
+	public Optional<Counterexample> run(Duration budget) throws IncompatiblePedigreeException {
+		final long deadline = System.nanoTime() + budget.toNanos();
+		do {
+			final Pedigree pedigree = randomPedigree();
+			final Counterexample counterexample = check(pedigree, randomCalls(pedigree));
+			++nInputs;
+			if (counterexample != null)
+				return Optional.of(minimize(counterexample));
+		} while (System.nanoTime() < deadline);
+		return Optional.empty();
+	}
+
+	/**
+	 * @return number of inputs checked by {@link #run(Duration)} so far
+	 */
+	public long getNInputs() {
+		return nInputs;
+	}
+
+	/**
+	 * Run both engines on <code>calls</code> for all sub modes of inheritance
+	 *
+	 * @return {@link Counterexample} for the first sub mode the engines disagree on, <code>null</code> if they agree
+	 * @throws IncompatiblePedigreeException if an engine rejects the input
+	 */
+	public Counterexample check(Pedigree pedigree, List<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		for (SubModeOfInheritance subMode : SubModeOfInheritance.values()) {
+			final Counterexample counterexample = check(pedigree, calls, subMode);
+			if (counterexample != null)
+				return counterexample;
+		}
+		return null;
+	}
+
+	private Counterexample check(Pedigree pedigree, List<GenotypeCalls> calls, SubModeOfInheritance subMode)
+		throws IncompatiblePedigreeException {
+		final int[] expected = reference.filter(pedigree, calls, subMode);
+		final int[] actual = candidate.filter(pedigree, calls, subMode);
+		if (Arrays.equals(expected, actual))
+			return null;
+		return new Counterexample(pedigree, List.copyOf(calls), subMode, expected, actual);
+	}
+
+	/**
+	 * Minimize <code>counterexample</code>, keeping the disagreement on its sub mode of inheritance
+	 *
+	 * @return the smallest {@link Counterexample} found
+	 * @throws IncompatiblePedigreeException if an engine rejects a reduced input
+	 */
+	public Counterexample minimize(Counterexample counterexample) throws IncompatiblePedigreeException {
+		final SubModeOfInheritance subMode = counterexample.subMode();
+		Counterexample current = counterexample;
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+
+			// drop calls
+			for (int i = current.calls().size() - 1; i >= 0; --i) {
+				List<GenotypeCalls> calls = new ArrayList<>(current.calls());
+				calls.remove(i);
+				final Counterexample next = check(current.pedigree(), calls, subMode);
+				if (next != null) {
+					current = next;
+					progress = true;
+				}
+			}
+
+			// drop pedigree members
+			for (int i = current.pedigree().getNMembers() - 1; i >= 0 && current.pedigree().getNMembers() > 1; --i) {
+				final String name = current.pedigree().getMembers().get(i).getName();
+				List<GenotypeCalls> calls = new ArrayList<>();
+				for (GenotypeCalls gc : current.calls())
+					calls.add(withoutSample(gc, name));
+				final Counterexample next = check(withoutMember(current.pedigree(), name), calls, subMode);
+				if (next != null) {
+					current = next;
+					progress = true;
+				}
+			}
+
+			// simplify genotypes
+			for (int i = 0; i < current.calls().size(); ++i) {
+				for (String name : current.pedigree().getNames()) {
+					if (current.calls().get(i).getGenotypeForSample(name) == HOM_REF)
+						continue;
+					List<GenotypeCalls> calls = new ArrayList<>(current.calls());
+					calls.set(i, withGenotype(calls.get(i), name, HOM_REF));
+					final Counterexample next = check(current.pedigree(), calls, subMode);
+					if (next != null) {
+						current = next;
+						progress = true;
+					}
+				}
+			}
+		}
+		return current;
+	}
+
+	private Pedigree randomPedigree() {
+		PedigreeSimulator simulator = new PedigreeSimulator(rng);
+		simulator.setConsanguinityRate(rng.nextDouble() * 0.3);
+		simulator.setMissingParentRate(rng.nextDouble() * 0.3);
+		simulator.setUnknownSexRate(rng.nextDouble() * 0.3);
+		simulator.setUnknownDiseaseRate(rng.nextDouble() * 0.3);
+		simulator.setAffectedRate(rng.nextDouble());
+		return simulator.simulate("fam", 1 + rng.nextInt(MAX_MEMBERS));
+	}
+
+	private List<GenotypeCalls> randomCalls(Pedigree pedigree) {
+		final int nCalls = 1 + rng.nextInt(MAX_CALLS);
+		if (rng.nextBoolean()) {
+			GenotypeSimulator simulator = new GenotypeSimulator(rng);
+			simulator.setNoCallRate(rng.nextDouble() * 0.3);
+			simulator.setDeNovoRate(rng.nextDouble() * 0.3);
+			simulator.setChromosomeFractions(0.3, 0.1, 0.1);
+			return simulator.simulate(List.of(pedigree), nCalls);
+		}
+
+		List<GenotypeCalls> result = new ArrayList<>(nCalls);
+		for (int i = 0; i < nCalls; ++i) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (String name : pedigree.getNames())
+				entries.add(Map.entry(name, GENOTYPES.get(rng.nextInt(GENOTYPES.size()))));
+			result.add(new GenotypeCalls(CHROM_TYPES[rng.nextInt(CHROM_TYPES.length)], entries));
+		}
+		return result;
+	}
+
+	/**
+	 * @return <code>pedigree</code> without member <code>name</code>, its children lose that parent
+	 */
+	private static Pedigree withoutMember(Pedigree pedigree, String name) {
+		Map<String, Person> rebuilt = new HashMap<>();
+		List<Person> members = new ArrayList<>();
+		for (Person p : pedigree.getMembers())
+			if (!p.getName().equals(name))
+				members.add(rebuild(p, name, rebuilt));
+		return new Pedigree(pedigree.getName(), members);
+	}
+
+	private static Person rebuild(Person p, String removed, Map<String, Person> rebuilt) {
+		if (p == null || p.getName().equals(removed))
+			return null;
+		Person result = rebuilt.get(p.getName());
+		if (result == null) {
+			result = new Person(p.getName(), rebuild(p.getFather(), removed, rebuilt),
+				rebuild(p.getMother(), removed, rebuilt), p.getSex(), p.getDisease(), p.getExtraFields());
+			rebuilt.put(p.getName(), result);
+		}
+		return result;
+	}
+
+	private static GenotypeCalls withoutSample(GenotypeCalls gc, String name) {
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+		for (Map.Entry<String, Genotype> entry : gc)
+			if (!entry.getKey().equals(name))
+				entries.add(entry);
+		return new GenotypeCalls(gc.getChromType(), entries, gc.getPayload());
+	}
+
+	private static GenotypeCalls withGenotype(GenotypeCalls gc, String name, Genotype gt) {
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+		for (Map.Entry<String, Genotype> entry : gc)
+			entries.add(entry.getKey().equals(name) ? Map.entry(name, gt) : entry);
+		return new GenotypeCalls(gc.getChromType(), entries, gc.getPayload());
+	}
+
+}
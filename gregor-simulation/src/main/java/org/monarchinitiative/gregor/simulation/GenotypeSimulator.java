@@ -0,0 +1,489 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.util.*;
+
+/**
+ * Simulates {@link GenotypeCalls} for the members of one or more {@link Pedigree}s
+ * <p>
+ * Background sites are simulated by mendelian transmission: founders (and members with missing parents) draw their
+ * alleles from the population with a per-site alternative allele frequency, every other member inherits one random
+ * allele from each parent. X-chromosomal sites are hemizygous in males, who inherit their allele from the mother,
+ * Y-chromosomal sites are haploid in males, who inherit their allele from the father, and not called in females,
+ * mitochondrial sites are haploid and maternally inherited. Each transmitted reference allele mutates with probability
+ * {@link #getDeNovoRate()} and each genotype is replaced by a no-call with probability {@link #getNoCallRate()}.
+ * <p>
+ * In addition, causal variants can be planted. These are constructed to be compatible with a given
+ * {@link SubModeOfInheritance} in each pedigree, provided the pedigree's affection pattern admits the mode at all (e.g.,
+ * an affected female with unaffected father rules out X-recessive inheritance).
+ * <p>
+ * The payload of each call is a {@link VcfVariant} on contig <code>1</code>, <code>X</code>, <code>Y</code>, or
+ * <code>MT</code>. Planted variants have the ID <code>"planted_&lt;sub mode&gt;"</code>, all others have the ID
+ * <code>"."</code>.
+ */
+public final class GenotypeSimulator {
+
+	private static final Genotype REF = new Genotype(List.of(0));
+	private static final Genotype ALT = new Genotype(List.of(1));
+	private static final Genotype NO_CALL = new Genotype(List.of(Genotype.NO_CALL));
+	private static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET = new Genotype(List.of(0, 1));
+	private static final Genotype HOM_ALT = new Genotype(List.of(1, 1));
+	private static final Genotype DIPLOID_NO_CALL = new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL));
+
+	/**
+	 * Source of randomness
+	 */
+	private final Random rng;
+	/**
+	 * Probability of a genotype not being called
+	 */
+	private double noCallRate = 0.01;
+	/**
+	 * Probability of a transmitted reference allele mutating
+	 */
+	private double deNovoRate = 1e-4;
+	/**
+	 * Smallest alternative allele frequency
+	 */
+	private double minAlleleFrequency = 0.001;
+	/**
+	 * Largest alternative allele frequency
+	 */
+	private double maxAlleleFrequency = 0.5;
+	/**
+	 * Fraction of X-chromosomal sites
+	 */
+	private double xFraction = 0.05;
+	/**
+	 * Fraction of mitochondrial sites
+	 */
+	private double mtFraction = 0.01;
+	/**
+	 * Fraction of Y-chromosomal sites
+	 */
+	private double yFraction = 0;
+
+	/**
+	 * Construct simulator with the given random seed
+	 */
+	public GenotypeSimulator(long seed) {
+		this(new Random(seed));
+	}
+
+	/**
+	 * Construct simulator drawing from <code>rng</code>
+	 */
+	public GenotypeSimulator(Random rng) {
+		this.rng = rng;
+	}
+
+	/**
+	 * @return names of the members of <code>pedigrees</code>, the samples of the simulated calls
+	 */
+	public static List<String> getSampleNames(List<Pedigree> pedigrees) {
+		List<String> result = new ArrayList<>();
+		for (Pedigree pedigree : pedigrees)
+			result.addAll(pedigree.getNames());
+		return result;
+	}
+
+	/**
+	 * Simulate background sites
+	 *
+	 * @param pedigrees the pedigrees to simulate calls for
+	 * @param nSites    number of sites to simulate
+	 * @return simulated calls, ordered by contig and position
+	 */
+	public List<GenotypeCalls> simulate(List<Pedigree> pedigrees, int nSites) {
+		return simulate(pedigrees, nSites, Map.of());
+	}
+
+	/**
+	 * Simulate background sites with planted causal variants
+	 *
+	 * @param pedigrees the pedigrees to simulate calls for
+	 * @param nSites    number of background sites to simulate
+	 * @param nPlanted  number of causal variants to plant for each {@link SubModeOfInheritance}, see
+	 *                  {@link #plant(List, SubModeOfInheritance)}
+	 * @return simulated calls, ordered by contig and position, the planted ones at random positions
+	 */
+	public List<GenotypeCalls> simulate(List<Pedigree> pedigrees, int nSites,
+										Map<SubModeOfInheritance, Integer> nPlanted) {
+		final Transmission transmission = new Transmission(pedigrees);
+		final int nX = (int) Math.round(nSites * xFraction);
+		final int nMT = (int) Math.round(nSites * mtFraction);
+		final int nY = Math.min((int) Math.round(nSites * yFraction), nSites - nX - nMT);
+		final int nAutosomal = nSites - nX - nMT - nY;
+
+		List<GenotypeCalls> result = new ArrayList<>(nSites);
+		for (ChromosomeType chromType : List.of(ChromosomeType.AUTOSOMAL, ChromosomeType.X_CHROMOSOMAL,
+			ChromosomeType.Y_CHROMOSOMAL, ChromosomeType.MITOCHONDRIAL)) {
+			final int n = (chromType == ChromosomeType.AUTOSOMAL) ? nAutosomal :
+				(chromType == ChromosomeType.X_CHROMOSOMAL) ? nX :
+				(chromType == ChromosomeType.Y_CHROMOSOMAL) ? nY : nMT;
+			List<Genotype[]> sites = new ArrayList<>(n);
+			List<String> ids = new ArrayList<>(n);
+			for (int i = 0; i < n; ++i) {
+				sites.add(transmission.simulate(chromType));
+				ids.add(".");
+			}
+			for (Map.Entry<SubModeOfInheritance, Integer> entry : nPlanted.entrySet()) {
+				if (chromTypeOf(entry.getKey()) != chromType)
+					continue;
+				for (int i = 0; i < entry.getValue(); ++i) {
+					// keep the sites of a compound het. pair next to each other
+					final int pos = rng.nextInt(sites.size() + 1);
+					final List<Genotype[]> planted = plantGenotypes(transmission, entry.getKey());
+					sites.addAll(pos, planted);
+					ids.addAll(pos, Collections.nCopies(planted.size(), "planted_" + entry.getKey().name()));
+				}
+			}
+			for (int i = 0; i < sites.size(); ++i)
+				result.add(toCalls(transmission, chromType, sites.get(i), ids.get(i), i + 1));
+		}
+		return result;
+	}
+
+	/**
+	 * Plant causal variant compatible with <code>subMode</code>
+	 * <p>
+	 * Affected members carry the variant in the genotype required by the mode, unaffected carriers (e.g., parents of
+	 * affected in the recessive modes) are heterozygous, and all other members are homozygous reference. No-calls and
+	 * de novo mutations are not applied.
+	 *
+	 * @param pedigrees the pedigrees to plant the variant in
+	 * @param subMode   the sub mode of inheritance to plant a variant for
+	 * @return the planted call, two calls for {@link SubModeOfInheritance#AUTOSOMAL_RECESSIVE_COMP_HET}
+	 * @throws IllegalArgumentException if <code>subMode</code> is not supported, i.e. {@link SubModeOfInheritance#ANY}
+	 *                                  or {@link SubModeOfInheritance#X_RECESSIVE_COMP_HET}
+	 */
+	public List<GenotypeCalls> plant(List<Pedigree> pedigrees, SubModeOfInheritance subMode) {
+		final Transmission transmission = new Transmission(pedigrees);
+		final ChromosomeType chromType = chromTypeOf(subMode);
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (Genotype[] genotypes : plantGenotypes(transmission, subMode))
+			result.add(toCalls(transmission, chromType, genotypes, "planted_" + subMode.name(), result.size() + 1));
+		return result;
+	}
+
+	private List<Genotype[]> plantGenotypes(Transmission transmission, SubModeOfInheritance subMode) {
+		final List<Person> members = transmission.members;
+		final Genotype[] first = new Genotype[members.size()];
+		final Genotype[] second = new Genotype[members.size()];
+		for (int i = 0; i < members.size(); ++i) {
+			final Person p = members.get(i);
+			final boolean affected = p.getDisease() == Disease.AFFECTED;
+			final boolean unaffected = p.getDisease() == Disease.UNAFFECTED;
+			final boolean male = p.getSex() == Sex.MALE;
+			switch (subMode) {
+				case AUTOSOMAL_DOMINANT:
+					first[i] = affected ? HET : HOM_REF;
+					break;
+				case AUTOSOMAL_RECESSIVE_HOM_ALT:
+					first[i] = affected ? HOM_ALT : transmission.isParentOfAffected(i) ? HET : HOM_REF;
+					break;
+				case AUTOSOMAL_RECESSIVE_COMP_HET:
+					if (affected) {
+						first[i] = second[i] = HET;
+					} else if (unaffected && transmission.isParentOfAffected(i)) {
+						// fathers carry the first variant, mothers the second one
+						first[i] = male ? HET : HOM_REF;
+						second[i] = male ? HOM_REF : HET;
+					} else {
+						first[i] = second[i] = HOM_REF;
+					}
+					break;
+				case X_DOMINANT:
+					if (male)
+						first[i] = affected ? ALT : REF;
+					else
+						first[i] = affected ? HET : HOM_REF;
+					break;
+				case X_RECESSIVE_HOM_ALT:
+					if (male)
+						first[i] = affected ? ALT : REF;
+					else
+						first[i] = affected ? HOM_ALT : transmission.isParentOfAffected(i) ? HET : HOM_REF;
+					break;
+				case MITOCHONDRIAL:
+					if (affected)
+						first[i] = (p.getMother() != null && p.getMother().isUnaffected()) ? HET : ALT;
+					else
+						first[i] = transmission.isParentOfAffected(i) && !male ? HET : REF;
+					break;
+				default:
+					throw new IllegalArgumentException("Cannot plant variants for " + subMode);
+			}
+		}
+		return (subMode == SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET) ? List.of(first, second) :
+			List.<Genotype[]>of(first);
+	}
+
+	private static ChromosomeType chromTypeOf(SubModeOfInheritance subMode) {
+		switch (subMode) {
+			case AUTOSOMAL_DOMINANT:
+			case AUTOSOMAL_RECESSIVE_HOM_ALT:
+			case AUTOSOMAL_RECESSIVE_COMP_HET:
+				return ChromosomeType.AUTOSOMAL;
+			case X_DOMINANT:
+			case X_RECESSIVE_HOM_ALT:
+				return ChromosomeType.X_CHROMOSOMAL;
+			case MITOCHONDRIAL:
+				return ChromosomeType.MITOCHONDRIAL;
+			default:
+				throw new IllegalArgumentException("Cannot plant variants for " + subMode);
+		}
+	}
+
+	private static GenotypeCalls toCalls(Transmission transmission, ChromosomeType chromType, Genotype[] genotypes,
+										 String id, int pos) {
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>(genotypes.length);
+		for (int i = 0; i < genotypes.length; ++i)
+			entries.add(Map.entry(transmission.members.get(i).getName(), genotypes[i]));
+		final String contig = (chromType == ChromosomeType.X_CHROMOSOMAL) ? "X" :
+			(chromType == ChromosomeType.Y_CHROMOSOMAL) ? "Y" : (chromType == ChromosomeType.MITOCHONDRIAL) ? "MT" : "1";
+		return new GenotypeCalls(chromType, entries, new VcfVariant(contig, pos, id, "A", "C"));
+	}
+
+	/**
+	 * Transmission of alleles through the members of the pedigrees
+	 * <p>
+	 * Parents that are not members of the pedigrees are simulated as well, members are processed such that parents come
+	 * before their children.
+	 */
+	private final class Transmission {
+
+		/**
+		 * The members of all pedigrees, in order
+		 */
+		final List<Person> members = new ArrayList<>();
+		/**
+		 * Members and non-member parents, parents before their children
+		 */
+		final List<Person> order = new ArrayList<>();
+		/**
+		 * Index of each person's father and mother in {@link #order}, <code>-1</code> if missing
+		 */
+		final int[] father;
+		final int[] mother;
+		/**
+		 * Index of each member in {@link #order}
+		 */
+		final int[] memberToOrder;
+		/**
+		 * Members that are parents of an affected member
+		 */
+		final Set<Person> parentsOfAffected = Collections.newSetFromMap(new IdentityHashMap<>());
+		/**
+		 * Buffers for the alleles of the current site, by index in {@link #order}
+		 */
+		final int[] allele0;
+		final int[] allele1;
+
+		Transmission(List<Pedigree> pedigrees) {
+			Map<Person, Integer> index = new IdentityHashMap<>();
+			for (Pedigree pedigree : pedigrees)
+				for (Person p : pedigree.getMembers()) {
+					members.add(p);
+					visit(p, index);
+					if (p.getDisease() == Disease.AFFECTED) {
+						if (p.getFather() != null)
+							parentsOfAffected.add(p.getFather());
+						if (p.getMother() != null)
+							parentsOfAffected.add(p.getMother());
+					}
+				}
+			father = new int[order.size()];
+			mother = new int[order.size()];
+			for (int i = 0; i < order.size(); ++i) {
+				final Person p = order.get(i);
+				father[i] = (p.getFather() == null) ? -1 : index.get(p.getFather());
+				mother[i] = (p.getMother() == null) ? -1 : index.get(p.getMother());
+			}
+			memberToOrder = members.stream().mapToInt(index::get).toArray();
+			allele0 = new int[order.size()];
+			allele1 = new int[order.size()];
+		}
+
+		private void visit(Person p, Map<Person, Integer> index) {
+			if (index.containsKey(p))
+				return;
+			if (p.getFather() != null)
+				visit(p.getFather(), index);
+			if (p.getMother() != null)
+				visit(p.getMother(), index);
+			index.put(p, order.size());
+			order.add(p);
+		}
+
+		boolean isParentOfAffected(int member) {
+			return parentsOfAffected.contains(members.get(member));
+		}
+
+		/**
+		 * @return simulated genotypes of the members at a new site
+		 */
+		Genotype[] simulate(ChromosomeType chromType) {
+			final double af = minAlleleFrequency + rng.nextDouble() * (maxAlleleFrequency - minAlleleFrequency);
+			for (int i = 0; i < order.size(); ++i) {
+				final Person p = order.get(i);
+				switch (chromType) {
+					case MITOCHONDRIAL:
+						allele0[i] = inherit(mother[i], true, af);
+						break;
+					case Y_CHROMOSOMAL:
+						// females have no Y chromosome, their allele is not used
+						allele0[i] = (p.getSex() == Sex.FEMALE) ? 0 : inherit(father[i], true, af);
+						break;
+					case X_CHROMOSOMAL:
+						if (p.getSex() == Sex.MALE) {
+							allele0[i] = inherit(mother[i], false, af);
+						} else {
+							// a father passes on his only X chromosome
+							allele0[i] = inherit(father[i], true, af);
+							allele1[i] = inherit(mother[i], false, af);
+						}
+						break;
+					default:
+						allele0[i] = inherit(father[i], false, af);
+						allele1[i] = inherit(mother[i], false, af);
+				}
+			}
+
+			Genotype[] result = new Genotype[members.size()];
+			for (int m = 0; m < members.size(); ++m) {
+				final int i = memberToOrder[m];
+				final boolean haploid = chromType == ChromosomeType.MITOCHONDRIAL
+					|| chromType == ChromosomeType.Y_CHROMOSOMAL
+					|| (chromType == ChromosomeType.X_CHROMOSOMAL && members.get(m).getSex() == Sex.MALE);
+				if (rng.nextDouble() < noCallRate
+					|| (chromType == ChromosomeType.Y_CHROMOSOMAL && members.get(m).getSex() == Sex.FEMALE))
+					result[m] = haploid ? NO_CALL : DIPLOID_NO_CALL;
+				else if (haploid)
+					result[m] = (allele0[i] == 0) ? REF : ALT;
+				else
+					result[m] = (allele0[i] + allele1[i] == 0) ? HOM_REF : (allele0[i] + allele1[i] == 1) ? HET :
+						HOM_ALT;
+			}
+			return result;
+		}
+
+		/**
+		 * @param parent      index of the parent, <code>-1</code> to draw from the population
+		 * @param firstAllele whether to pass on the parent's first allele rather than a random one
+		 * @param af          the alternative allele frequency
+		 * @return the inherited allele, with de novo mutation applied
+		 */
+		private int inherit(int parent, boolean firstAllele, double af) {
+			if (parent < 0)
+				return (rng.nextDouble() < af) ? 1 : 0;
+			final int allele = (firstAllele || rng.nextBoolean()) ? allele0[parent] : allele1[parent];
+			if (allele == 0 && rng.nextDouble() < deNovoRate)
+				return 1;
+			return allele;
+		}
+
+	}
+
+	/**
+	 * @return probability of a genotype not being called
+	 */
+	public double getNoCallRate() {
+		return noCallRate;
+	}
+
+	public void setNoCallRate(double noCallRate) {
+		this.noCallRate = PedigreeSimulator.checkProbability("noCallRate", noCallRate);
+	}
+
+	/**
+	 * @return probability of a transmitted reference allele mutating
+	 */
+	public double getDeNovoRate() {
+		return deNovoRate;
+	}
+
+	public void setDeNovoRate(double deNovoRate) {
+		this.deNovoRate = PedigreeSimulator.checkProbability("deNovoRate", deNovoRate);
+	}
+
+	/**
+	 * @return smallest alternative allele frequency
+	 */
+	public double getMinAlleleFrequency() {
+		return minAlleleFrequency;
+	}
+
+	/**
+	 * @return largest alternative allele frequency
+	 */
+	public double getMaxAlleleFrequency() {
+		return maxAlleleFrequency;
+	}
+
+	/**
+	 * Set range to draw the per-site alternative allele frequency from, uniformly
+	 */
+	public void setAlleleFrequencyRange(double min, double max) {
+		PedigreeSimulator.checkProbability("min", min);
+		PedigreeSimulator.checkProbability("max", max);
+		if (min > max)
+			throw new IllegalArgumentException("Empty allele frequency range [" + min + ", " + max + "]");
+		this.minAlleleFrequency = min;
+		this.maxAlleleFrequency = max;
+	}
+
+	/**
+	 * @return fraction of X-chromosomal sites
+	 */
+	public double getXFraction() {
+		return xFraction;
+	}
+
+	/**
+	 * @return fraction of mitochondrial sites
+	 */
+	public double getMTFraction() {
+		return mtFraction;
+	}
+
+	/**
+	 * @return fraction of Y-chromosomal sites
+	 */
+	public double getYFraction() {
+		return yFraction;
+	}
+
+	/**
+	 * Set fractions of X-chromosomal and mitochondrial sites, without Y-chromosomal sites, the remaining sites are
+	 * autosomal
+	 */
+	public void setChromosomeFractions(double xFraction, double mtFraction) {
+		setChromosomeFractions(xFraction, mtFraction, 0);
+	}
+
+	/**
+	 * Set fractions of X-chromosomal, mitochondrial, and Y-chromosomal sites, the remaining sites are autosomal
+	 */
+	public void setChromosomeFractions(double xFraction, double mtFraction, double yFraction) {
+		PedigreeSimulator.checkProbability("xFraction", xFraction);
+		PedigreeSimulator.checkProbability("mtFraction", mtFraction);
+		PedigreeSimulator.checkProbability("yFraction", yFraction);
+		if (xFraction + mtFraction + yFraction > 1)
+			throw new IllegalArgumentException("xFraction + mtFraction + yFraction must not exceed 1");
+		this.xFraction = xFraction;
+		this.mtFraction = mtFraction;
+		this.yFraction = yFraction;
+	}
+
+}
@@ -0,0 +1,307 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates random multigenerational {@link Pedigree}s
+ * <p>
+ * A pedigree grows from a founder couple. Each couple gets between one and {@link #getMaxChildren()} children, some of
+ * the children found a couple of the next generation, either with a new founder marrying into the family or, with
+ * probability {@link #getConsanguinityRate()}, with an unmarried relative of the same generation that is not a full
+ * sibling. Children without such a relative stay single and may be picked by a relative of a later sibship.
+ * Afterwards, parents are dropped, sex is set to unknown for non-parents, and affection status is assigned according to
+ * the configured rates. At least one member is affected.
+ * <p>
+ * Member names are <code>"&lt;pedigree name&gt;_&lt;i&gt;"</code> and members are ordered such that parents come
+ * before their children.
+ */
+public final class PedigreeSimulator {
+
+	/**
+	 * Source of randomness
+	 */
+	private final Random rng;
+	/**
+	 * Largest number of children per couple
+	 */
+	private int maxChildren = 4;
+	/**
+	 * Probability of a child founding a couple of the next generation
+	 */
+	private double marriageRate = 0.6;
+	/**
+	 * Probability of a new couple being consanguineous
+	 */
+	private double consanguinityRate = 0.1;
+	/**
+	 * Probability of each parent of a non-founder being missing
+	 */
+	private double missingParentRate = 0.05;
+	/**
+	 * Probability of a non-parent having unknown sex
+	 */
+	private double unknownSexRate = 0.05;
+	/**
+	 * Probability of a member being affected, if the affection status is known
+	 */
+	private double affectedRate = 0.3;
+	/**
+	 * Probability of a member having unknown affection status
+	 */
+	private double unknownDiseaseRate = 0.05;
+
+	/**
+	 * Construct simulator with the given random seed
+	 */
+	public PedigreeSimulator(long seed) {
+		this(new Random(seed));
+	}
+
+	/**
+	 * Construct simulator drawing from <code>rng</code>
+	 */
+	public PedigreeSimulator(Random rng) {
+		this.rng = rng;
+	}
+
+	/**
+	 * Simulate pedigree
+	 *
+	 * @param name     name of the pedigree, also used as prefix of the member names
+	 * @param nMembers number of members, a single member is an affected singleton
+	 * @return the simulated {@link Pedigree}
+	 * @throws IllegalArgumentException if <code>nMembers</code> is not positive
+	 */
+	public Pedigree simulate(String name, int nMembers) {
+		if (nMembers < 1)
+			throw new IllegalArgumentException("Pedigree must have at least one member but was " + nMembers);
+
+		List<Node> nodes = new ArrayList<>(nMembers);
+		if (nMembers == 1) {
+			nodes.add(new Node(0, null, null, randomSex(), 0));
+			nodes.get(0).disease = Disease.AFFECTED;
+			return toPedigree(name, nodes);
+		}
+
+		Deque<Node[]> couples = new ArrayDeque<>();
+		couples.add(new Node[]{addFounder(nodes, Sex.MALE, 0), addFounder(nodes, Sex.FEMALE, 0)});
+		while (nodes.size() < nMembers) {
+			if (couples.isEmpty()) {
+				// all couples had their children, let someone marry into the family
+				final Node node = nodes.get(rng.nextInt(nodes.size()));
+				node.married = true;
+				if (node.sex == Sex.MALE)
+					couples.add(new Node[]{node, addFounder(nodes, Sex.FEMALE, node.generation)});
+				else
+					couples.add(new Node[]{addFounder(nodes, Sex.MALE, node.generation), node});
+				continue;
+			}
+
+			final Node[] couple = couples.poll();
+			final int generation = Math.max(couple[0].generation, couple[1].generation) + 1;
+			final int nChildren = 1 + rng.nextInt(maxChildren);
+			List<Node> children = new ArrayList<>();
+			for (int i = 0; i < nChildren && nodes.size() < nMembers; ++i) {
+				final Node child = new Node(nodes.size(), couple[0], couple[1], randomSex(), generation);
+				nodes.add(child);
+				children.add(child);
+			}
+			couple[0].isParent = couple[1].isParent = true;
+
+			for (Node child : children) {
+				if (child.married || rng.nextDouble() >= marriageRate)
+					continue;
+				Node spouse = null;
+				if (rng.nextDouble() < consanguinityRate) {
+					// stay single if there is no relative yet, a cousin from a later sibship may pick this child
+					spouse = findRelative(nodes, child);
+					if (spouse == null)
+						continue;
+				}
+				if (spouse == null && nodes.size() < nMembers)
+					spouse = addFounder(nodes, opposite(child.sex), child.generation);
+				if (spouse == null)
+					continue;
+				child.married = true;
+				couples.add((child.sex == Sex.MALE) ? new Node[]{child, spouse} : new Node[]{spouse, child});
+			}
+		}
+
+		for (Node node : nodes) {
+			if (node.father != null && rng.nextDouble() < missingParentRate)
+				node.father = null;
+			if (node.mother != null && rng.nextDouble() < missingParentRate)
+				node.mother = null;
+			if (!node.isParent && rng.nextDouble() < unknownSexRate)
+				node.sex = Sex.UNKNOWN;
+			if (rng.nextDouble() < unknownDiseaseRate)
+				node.disease = Disease.UNKNOWN;
+			else if (rng.nextDouble() < affectedRate)
+				node.disease = Disease.AFFECTED;
+		}
+		if (nodes.stream().noneMatch(node -> node.disease == Disease.AFFECTED))
+			nodes.get(nodes.size() - 1).disease = Disease.AFFECTED;
+
+		return toPedigree(name, nodes);
+	}
+
+	/**
+	 * @return unmarried member of the same generation and opposite sex that is not a full sibling of
+	 * <code>node</code>, <code>null</code> if there is none
+	 */
+	private Node findRelative(List<Node> nodes, Node node) {
+		List<Node> candidates = new ArrayList<>();
+		for (Node other : nodes)
+			if (!other.married && other.generation == node.generation && other.sex == opposite(node.sex)
+				&& other.father != null && (other.father != node.father || other.mother != node.mother))
+				candidates.add(other);
+		if (candidates.isEmpty())
+			return null;
+		final Node result = candidates.get(rng.nextInt(candidates.size()));
+		result.married = node.married = true;
+		return result;
+	}
+
+	private Node addFounder(List<Node> nodes, Sex sex, int generation) {
+		final Node node = new Node(nodes.size(), null, null, sex, generation);
+		node.married = true;
+		nodes.add(node);
+		return node;
+	}
+
+	private Sex randomSex() {
+		return rng.nextBoolean() ? Sex.MALE : Sex.FEMALE;
+	}
+
+	private static Sex opposite(Sex sex) {
+		return (sex == Sex.MALE) ? Sex.FEMALE : Sex.MALE;
+	}
+
+	private static Pedigree toPedigree(String name, List<Node> nodes) {
+		Person[] persons = new Person[nodes.size()];
+		for (Node node : nodes)
+			persons[node.idx] = new Person(name + "_" + node.idx,
+				(node.father == null) ? null : persons[node.father.idx],
+				(node.mother == null) ? null : persons[node.mother.idx], node.sex, node.disease);
+		return new Pedigree(name, List.of(persons));
+	}
+
+	/**
+	 * Mutable pedigree member during simulation
+	 */
+	private static final class Node {
+
+		final int idx;
+		final int generation;
+		Node father;
+		Node mother;
+		Sex sex;
+		Disease disease = Disease.UNAFFECTED;
+		boolean isParent;
+		boolean married;
+
+		Node(int idx, Node father, Node mother, Sex sex, int generation) {
+			this.idx = idx;
+			this.father = father;
+			this.mother = mother;
+			this.sex = sex;
+			this.generation = generation;
+		}
+
+	}
+
+	/**
+	 * @return largest number of children per couple
+	 */
+	public int getMaxChildren() {
+		return maxChildren;
+	}
+
+	public void setMaxChildren(int maxChildren) {
+		if (maxChildren < 1)
+			throw new IllegalArgumentException("maxChildren must be positive but was " + maxChildren);
+		this.maxChildren = maxChildren;
+	}
+
+	/**
+	 * @return probability of a child founding a couple of the next generation
+	 */
+	public double getMarriageRate() {
+		return marriageRate;
+	}
+
+	public void setMarriageRate(double marriageRate) {
+		this.marriageRate = checkProbability("marriageRate", marriageRate);
+	}
+
+	/**
+	 * @return probability of a new couple being consanguineous
+	 */
+	public double getConsanguinityRate() {
+		return consanguinityRate;
+	}
+
+	public void setConsanguinityRate(double consanguinityRate) {
+		this.consanguinityRate = checkProbability("consanguinityRate", consanguinityRate);
+	}
+
+	/**
+	 * @return probability of each parent of a non-founder being missing
+	 */
+	public double getMissingParentRate() {
+		return missingParentRate;
+	}
+
+	public void setMissingParentRate(double missingParentRate) {
+		this.missingParentRate = checkProbability("missingParentRate", missingParentRate);
+	}
+
+	/**
+	 * @return probability of a non-parent having unknown sex
+	 */
+	public double getUnknownSexRate() {
+		return unknownSexRate;
+	}
+
+	public void setUnknownSexRate(double unknownSexRate) {
+		this.unknownSexRate = checkProbability("unknownSexRate", unknownSexRate);
+	}
+
+	/**
+	 * @return probability of a member being affected, if the affection status is known
+	 */
+	public double getAffectedRate() {
+		return affectedRate;
+	}
+
+	public void setAffectedRate(double affectedRate) {
+		this.affectedRate = checkProbability("affectedRate", affectedRate);
+	}
+
+	/**
+	 * @return probability of a member having unknown affection status
+	 */
+	public double getUnknownDiseaseRate() {
+		return unknownDiseaseRate;
+	}
+
+	public void setUnknownDiseaseRate(double unknownDiseaseRate) {
+		this.unknownDiseaseRate = checkProbability("unknownDiseaseRate", unknownDiseaseRate);
+	}
+
+	static double checkProbability(String name, double value) {
+		if (!(value >= 0 && value <= 1))
+			throw new IllegalArgumentException(name + " must be in [0, 1] but was " + value);
+		return value;
+	}
+
+}
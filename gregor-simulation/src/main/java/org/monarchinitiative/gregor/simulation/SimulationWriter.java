@@ -0,0 +1,86 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.pedigree.PedFileWriter;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes simulated pedigrees and calls as PED and VCF files
+ */
+public final class SimulationWriter {
+
+	private SimulationWriter() {
+	}
+
+	/**
+	 * Write the members of <code>pedigrees</code> as PED file to <code>path</code>
+	 *
+	 * @throws IOException on failures during writing
+	 */
+	public static void writePed(List<Pedigree> pedigrees, Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING)) {
+			PedFileWriter.writePedigrees(pedigrees, List.of(), channel);
+		}
+	}
+
+	/**
+	 * Write <code>calls</code> as VCF file to <code>path</code>
+	 * <p>
+	 * The calls must have a {@link VcfVariant} payload, as the ones from {@link GenotypeSimulator}.
+	 *
+	 * @param sampleNames names of the samples, in column order
+	 * @param calls       the calls to write
+	 * @param path        destination path
+	 * @throws IOException on failures during writing
+	 */
+	public static void writeVcf(List<String> sampleNames, List<GenotypeCalls> calls, Path path) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			out.write("##fileformat=VCFv4.2\n");
+			out.write("##FORMAT=<ID=GT,Number=1,Type=String,Description=\"Genotype\">\n");
+			out.write("#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT");
+			for (String name : sampleNames) {
+				out.write('\t');
+				out.write(name);
+			}
+			out.write('\n');
+
+			StringBuilder line = new StringBuilder();
+			for (GenotypeCalls gc : calls) {
+				final VcfVariant variant = (VcfVariant) gc.getPayload();
+				line.setLength(0);
+				line.append(variant.contig()).append('\t').append(variant.pos()).append('\t').append(variant.id())
+					.append('\t').append(variant.ref()).append('\t').append(variant.alt()).append("\t.\tPASS\t.\tGT");
+				for (String name : sampleNames) {
+					line.append('\t');
+					appendGenotype(line, gc.getGenotypeForSample(name));
+				}
+				out.append(line).append('\n');
+			}
+		}
+	}
+
+	private static void appendGenotype(StringBuilder line, Genotype gt) {
+		final List<Integer> alleles = gt.getAlleleNumbers();
+		for (int i = 0; i < alleles.size(); ++i) {
+			if (i > 0)
+				line.append('/');
+			if (alleles.get(i) == Genotype.NO_CALL)
+				line.append('.');
+			else
+				line.append(alleles.get(i));
+		}
+	}
+
+}
@@ -0,0 +1,54 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.mendel.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Runs the {@link DifferentialFuzzer} on the index-based fast path
+ * <p>
+ * The time budget defaults to a few seconds and can be raised for local runs with the system property
+ * <code>gregor.fuzz.seconds</code>, e.g., <code>mvn -pl gregor-simulation test -Dtest=DifferentialFuzzerTest
+ * -Dgregor.fuzz.seconds=600</code>. The seed is fixed so that failures reproduce, and can be changed with
+ * <code>gregor.fuzz.seed</code> to explore other inputs.
+ */
+public class DifferentialFuzzerTest {
+
+	@Test
+	public void testIndexedAgreesWithReference() throws IncompatiblePedigreeException {
+		final long seconds = Long.getLong("gregor.fuzz.seconds", 3);
+		final long seed = Long.getLong("gregor.fuzz.seed", 42);
+		DifferentialFuzzer fuzzer = new DifferentialFuzzer(seed);
+		Optional<DifferentialFuzzer.Counterexample> counterexample = fuzzer.run(Duration.ofSeconds(seconds));
+		Assertions.assertTrue(fuzzer.getNInputs() > 0);
+		Assertions.assertTrue(counterexample.isEmpty(),
+			() -> "seed " + seed + " gave counterexample\n" + counterexample.get());
+	}
+
+	@Test
+	public void testMinimize() throws IncompatiblePedigreeException {
+		// broken engine dropping all dominant calls with a het. genotype
+		DifferentialFuzzer.Engine broken = (pedigree, calls, subMode) -> {
+			final int[] result = DifferentialFuzzer.REFERENCE.filter(pedigree, calls, subMode);
+			if (subMode != SubModeOfInheritance.AUTOSOMAL_DOMINANT)
+				return result;
+			return Arrays.stream(result)
+				.filter(i -> calls.get(i).getSampleToGenotype().values().stream().noneMatch(Genotype::isHet))
+				.toArray();
+		};
+		DifferentialFuzzer fuzzer = new DifferentialFuzzer(42, DifferentialFuzzer.REFERENCE, broken);
+		DifferentialFuzzer.Counterexample counterexample = fuzzer.run(Duration.ofSeconds(10)).orElseThrow();
+
+		Assertions.assertEquals(SubModeOfInheritance.AUTOSOMAL_DOMINANT, counterexample.subMode());
+		Assertions.assertEquals(1, counterexample.calls().size());
+		Assertions.assertArrayEquals(new int[]{0}, counterexample.expected());
+		Assertions.assertArrayEquals(new int[0], counterexample.actual());
+		Assertions.assertEquals(1, counterexample.calls().get(0).getSampleToGenotype().values().stream()
+			.filter(Genotype::isHet).count(), counterexample::toString);
+	}
+
+}
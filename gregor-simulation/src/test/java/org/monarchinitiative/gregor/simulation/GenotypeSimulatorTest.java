@@ -0,0 +1,166 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileReader;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+import org.monarchinitiative.gregor.vcf.VcfParseException;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+public class GenotypeSimulatorTest {
+
+	@TempDir
+	Path tmpDir;
+
+	@Test
+	public void testTransmission() {
+		Pedigree pedigree = new PedigreeSimulator(1).simulate("fam", 20);
+		GenotypeSimulator simulator = new GenotypeSimulator(2);
+		simulator.setNoCallRate(0.0);
+		simulator.setDeNovoRate(0.0);
+		simulator.setChromosomeFractions(0.2, 0.1, 0.05);
+		List<GenotypeCalls> calls = simulator.simulate(List.of(pedigree), 2000);
+		Assertions.assertEquals(2000, calls.size());
+
+		int nHet = 0;
+		for (GenotypeCalls gc : calls) {
+			for (Person p : pedigree.getMembers()) {
+				final Genotype gt = gc.getGenotypeForSample(p.getName());
+				if (gt.isHet())
+					++nHet;
+				final boolean haploid = gc.getChromType() == ChromosomeType.MITOCHONDRIAL
+					|| gc.getChromType() == ChromosomeType.Y_CHROMOSOMAL
+					|| (gc.getChromType() == ChromosomeType.X_CHROMOSOMAL && p.getSex() == Sex.MALE);
+				Assertions.assertEquals(haploid ? 1 : 2, gt.getPloidy());
+				// every alternative allele of a child must come from a parent
+				final int nAlt = (int) gt.getAlleleNumbers().stream().filter(a -> a == 1).count();
+				if (gc.getChromType() == ChromosomeType.AUTOSOMAL && p.getFather() != null && p.getMother() != null) {
+					Assertions.assertTrue(nAlt <= countAlt(gc, p.getFather()) + countAlt(gc, p.getMother()));
+					Assertions.assertTrue(nAlt >= (gc.getGenotypeForSample(p.getFather().getName()).isHomAlt() ? 1 : 0));
+				}
+				if (gc.getChromType() == ChromosomeType.MITOCHONDRIAL && p.getMother() != null)
+					Assertions.assertEquals(countAlt(gc, p.getMother()), nAlt);
+				// the Y chromosome is passed from father to son, females are not called
+				if (gc.getChromType() == ChromosomeType.Y_CHROMOSOMAL && p.getSex() == Sex.FEMALE)
+					Assertions.assertTrue(gt.isNotObserved());
+				else if (gc.getChromType() == ChromosomeType.Y_CHROMOSOMAL && p.getFather() != null)
+					Assertions.assertEquals(countAlt(gc, p.getFather()), nAlt);
+			}
+		}
+		Assertions.assertTrue(nHet > 0);
+		Assertions.assertEquals(100, calls.stream().filter(gc -> gc.getChromType() == ChromosomeType.Y_CHROMOSOMAL)
+			.count());
+	}
+
+	private static int countAlt(GenotypeCalls gc, Person p) {
+		return (int) gc.getGenotypeForSample(p.getName()).getAlleleNumbers().stream().filter(a -> a == 1).count();
+	}
+
+	@Test
+	public void testPlantedAreCompatible() throws IncompatiblePedigreeException {
+		PedigreeSimulator pedigreeSimulator = new PedigreeSimulator(3);
+		GenotypeSimulator simulator = new GenotypeSimulator(4);
+		List<SubModeOfInheritance> modes = List.of(SubModeOfInheritance.AUTOSOMAL_DOMINANT,
+			SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET,
+			SubModeOfInheritance.X_DOMINANT, SubModeOfInheritance.X_RECESSIVE_HOM_ALT,
+			SubModeOfInheritance.MITOCHONDRIAL);
+		for (int nMembers : new int[]{1, 3, 5, 12}) {
+			for (int round = 0; round < 50; ++round) {
+				Pedigree pedigree = pedigreeSimulator.simulate("fam", nMembers);
+				MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+				for (SubModeOfInheritance mode : modes) {
+					if (!isAdmissible(pedigree, mode))
+						continue;
+					List<GenotypeCalls> planted = simulator.plant(List.of(pedigree), mode);
+					Assertions.assertEquals(new HashSet<>(planted),
+						new HashSet<>(checker.filterCompatibleRecordsSub(planted, mode)), mode + " in " + pedigree);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return whether <code>mode</code> can be compatible with the affection pattern of <code>pedigree</code> at all
+	 */
+	private static boolean isAdmissible(Pedigree pedigree, SubModeOfInheritance mode) {
+		for (Person p : pedigree.getMembers()) {
+			if (p.getDisease() != Disease.AFFECTED)
+				continue;
+			// X-recessive: fathers of affected females must be affected, mothers must be heterozygous carriers and
+			// thus cannot be affected themselves
+			if (mode == SubModeOfInheritance.X_RECESSIVE_HOM_ALT && p.getSex() == Sex.FEMALE
+				&& ((p.getFather() != null && p.getFather().getDisease() == Disease.UNAFFECTED)
+				|| (p.getMother() != null && p.getMother().getDisease() == Disease.AFFECTED)))
+				return false;
+			// compound het.: parents that are affected carry both variants and cannot pass on just one
+			if (mode == SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET
+				&& ((p.getFather() != null && !p.getFather().isUnaffected())
+				|| (p.getMother() != null && !p.getMother().isUnaffected())))
+				return false;
+		}
+		return true;
+	}
+
+	@Test
+	public void testSimulateWithPlanted() throws IncompatiblePedigreeException {
+		Person father = new Person("father", null, null, Sex.MALE, Disease.UNAFFECTED);
+		Person mother = new Person("mother", null, null, Sex.FEMALE, Disease.UNAFFECTED);
+		Person son = new Person("son", father, mother, Sex.MALE, Disease.AFFECTED);
+		Pedigree pedigree = new Pedigree("fam", List.of(father, mother, son));
+
+		GenotypeSimulator simulator = new GenotypeSimulator(5);
+		List<GenotypeCalls> calls = simulator.simulate(List.of(pedigree), 1000,
+			Map.of(SubModeOfInheritance.AUTOSOMAL_DOMINANT, 3, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, 1));
+		Assertions.assertEquals(1005, calls.size());
+
+		List<GenotypeCalls> plantedAD = new ArrayList<>();
+		for (GenotypeCalls gc : calls)
+			if (((VcfVariant) gc.getPayload()).id().equals("planted_AUTOSOMAL_DOMINANT"))
+				plantedAD.add(gc);
+		Assertions.assertEquals(3, plantedAD.size());
+		List<GenotypeCalls> compatible = new MendelianInheritanceChecker(pedigree)
+			.filterCompatibleRecordsSub(calls, SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+		Assertions.assertTrue(compatible.containsAll(plantedAD));
+	}
+
+	@Test
+	public void testWriteVcfAndPed() throws IOException, VcfParseException, PedParseException {
+		List<Pedigree> pedigrees = List.of(new PedigreeSimulator(6).simulate("fam1", 5),
+			new PedigreeSimulator(7).simulate("fam2", 3));
+		List<String> samples = GenotypeSimulator.getSampleNames(pedigrees);
+		List<GenotypeCalls> calls = new GenotypeSimulator(8).simulate(pedigrees, 100);
+
+		Path vcf = tmpDir.resolve("sim.vcf");
+		Path ped = tmpDir.resolve("sim.ped");
+		SimulationWriter.writeVcf(samples, calls, vcf);
+		SimulationWriter.writePed(pedigrees, ped);
+
+		Assertions.assertEquals(8, PedFileReader.read(ped).getIndividuals().size());
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(vcf)) {
+			Assertions.assertEquals(samples, reader.getSampleNames());
+			for (GenotypeCalls expected : calls) {
+				GenotypeCalls actual = reader.next();
+				Assertions.assertEquals(expected.getChromType(), actual.getChromType());
+				Assertions.assertEquals(expected.getPayload(), actual.getPayload());
+				for (String sample : samples)
+					Assertions.assertEquals(expected.getGenotypeForSample(sample), actual.getGenotypeForSample(sample));
+			}
+			Assertions.assertNull(reader.next());
+		}
+	}
+
+}
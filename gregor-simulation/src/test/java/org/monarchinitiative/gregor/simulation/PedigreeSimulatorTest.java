@@ -0,0 +1,88 @@
+package org.monarchinitiative.gregor.simulation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class PedigreeSimulatorTest {
+
+	@Test
+	public void testStructure() {
+		PedigreeSimulator simulator = new PedigreeSimulator(42);
+		for (int nMembers = 1; nMembers <= 60; ++nMembers) {
+			for (int round = 0; round < 20; ++round) {
+				Pedigree pedigree = simulator.simulate("fam", nMembers);
+				List<Person> members = pedigree.getMembers();
+				Assertions.assertEquals(nMembers, members.size());
+				Assertions.assertEquals(nMembers, new HashSet<>(pedigree.getNames()).size());
+				Assertions.assertTrue(members.stream().anyMatch(p -> p.getDisease() == Disease.AFFECTED));
+				for (int i = 0; i < members.size(); ++i) {
+					Person p = members.get(i);
+					if (p.getFather() != null) {
+						Assertions.assertEquals(Sex.MALE, p.getFather().getSex());
+						Assertions.assertTrue(members.indexOf(p.getFather()) < i);
+					}
+					if (p.getMother() != null) {
+						Assertions.assertEquals(Sex.FEMALE, p.getMother().getSex());
+						Assertions.assertTrue(members.indexOf(p.getMother()) < i);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testConsanguinity() {
+		PedigreeSimulator simulator = new PedigreeSimulator(42);
+		simulator.setConsanguinityRate(0.5);
+		simulator.setMarriageRate(1.0);
+		simulator.setMissingParentRate(0.0);
+		boolean found = false;
+		for (int round = 0; round < 50 && !found; ++round) {
+			for (Person p : simulator.simulate("fam", 30).getMembers()) {
+				if (p.getFather() == null || p.getMother() == null)
+					continue;
+				Set<Person> paternalAncestors = ancestors(p.getFather(), new HashSet<>());
+				for (Person ancestor : ancestors(p.getMother(), new HashSet<>()))
+					if (paternalAncestors.contains(ancestor))
+						found = true;
+			}
+		}
+		Assertions.assertTrue(found);
+	}
+
+	private static Set<Person> ancestors(Person p, Set<Person> result) {
+		for (Person parent : new Person[]{p.getFather(), p.getMother()})
+			if (parent != null && result.add(parent))
+				ancestors(parent, result);
+		return result;
+	}
+
+	@Test
+	public void testUnknowns() {
+		PedigreeSimulator simulator = new PedigreeSimulator(42);
+		simulator.setUnknownSexRate(0.5);
+		simulator.setUnknownDiseaseRate(0.5);
+		simulator.setMissingParentRate(0.5);
+		List<Person> members = simulator.simulate("fam", 50).getMembers();
+		Assertions.assertTrue(members.stream().anyMatch(p -> p.getSex() == Sex.UNKNOWN));
+		Assertions.assertTrue(members.stream().anyMatch(p -> p.getDisease() == Disease.UNKNOWN));
+		Assertions.assertTrue(members.stream().anyMatch(p -> (p.getFather() == null) != (p.getMother() == null)));
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		PedigreeSimulator simulator = new PedigreeSimulator(42);
+		Assertions.assertThrows(IllegalArgumentException.class, () -> simulator.simulate("fam", 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> simulator.setAffectedRate(1.5));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> simulator.setMaxChildren(0));
+	}
+
+}
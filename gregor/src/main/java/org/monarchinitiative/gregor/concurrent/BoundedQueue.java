@@ -0,0 +1,156 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue
+ * <p>
+ * Array-based ring buffer after D. Vyukov, where each slot carries a sequence number telling producers and consumers
+ * whether the slot is free for the lap at hand. {@link #offer(Object)} and {@link #poll()} never block; the blocking
+ * {@link #put(Object)} and {@link #take()} spin briefly and then park with exponential back-off, which gives
+ * backpressure without locks. Pipelines pass batches through the queue, so the waiting is amortized over many items.
+ *
+ * @param <E> type of the elements
+ */
+final class BoundedQueue<E> {
+
+	/**
+	 * Number of spins before parking in {@link #backOff(int)}
+	 */
+	private static final int SPINS = 64;
+	/**
+	 * Maximal park time in {@link #backOff(int)}
+	 */
+	private static final long MAX_PARK_NANOS = 1_000_000;
+
+	/**
+	 * The elements
+	 */
+	private final AtomicReferenceArray<E> buffer;
+	/**
+	 * Sequence number of each slot
+	 */
+	private final AtomicLongArray sequences;
+	/**
+	 * Mask for computing the slot of a position, capacity minus one
+	 */
+	private final int mask;
+	/**
+	 * Position of the next {@link #offer(Object)}
+	 */
+	private final AtomicLong enqueuePos = new AtomicLong();
+	/**
+	 * Position of the next {@link #poll()}
+	 */
+	private final AtomicLong dequeuePos = new AtomicLong();
+
+	/**
+	 * @param capacity minimal capacity, rounded up to the next power of two and at least two, as with a single slot
+	 *                 the sequence numbers of a full and an empty queue coincide
+	 */
+	BoundedQueue(int capacity) {
+		if (capacity < 1 || capacity > (1 << 30))
+			throw new IllegalArgumentException("Invalid capacity " + capacity);
+		final int size = (capacity <= 2) ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+		this.buffer = new AtomicReferenceArray<>(size);
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; ++i)
+			sequences.set(i, i);
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return capacity of the queue
+	 */
+	int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * Add <code>e</code> if the queue is not full
+	 *
+	 * @return whether <code>e</code> was added
+	 */
+	boolean offer(E e) {
+		long pos = enqueuePos.get();
+		int slot;
+		while (true) {
+			slot = (int) (pos & mask);
+			final long diff = sequences.get(slot) - pos;
+			if (diff == 0) {
+				if (enqueuePos.compareAndSet(pos, pos + 1))
+					break;
+				pos = enqueuePos.get();
+			} else if (diff < 0) {
+				return false; // full
+			} else {
+				pos = enqueuePos.get();
+			}
+		}
+		buffer.lazySet(slot, e);
+		sequences.set(slot, pos + 1);
+		return true;
+	}
+
+	/**
+	 * Remove head of the queue if any
+	 *
+	 * @return the removed head, <code>null</code> if the queue is empty
+	 */
+	E poll() {
+		long pos = dequeuePos.get();
+		int slot;
+		while (true) {
+			slot = (int) (pos & mask);
+			final long diff = sequences.get(slot) - (pos + 1);
+			if (diff == 0) {
+				if (dequeuePos.compareAndSet(pos, pos + 1))
+					break;
+				pos = dequeuePos.get();
+			} else if (diff < 0) {
+				return null; // empty
+			} else {
+				pos = dequeuePos.get();
+			}
+		}
+		final E result = buffer.get(slot);
+		buffer.lazySet(slot, null);
+		sequences.set(slot, pos + mask + 1);
+		return result;
+	}
+
+	/**
+	 * Add <code>e</code>, waiting while the queue is full
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	void put(E e) throws InterruptedException {
+		for (int attempt = 0; !offer(e); ++attempt)
+			backOff(attempt);
+	}
+
+	/**
+	 * Remove head of the queue, waiting while the queue is empty
+	 *
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	E take() throws InterruptedException {
+		E result;
+		for (int attempt = 0; (result = poll()) == null; ++attempt)
+			backOff(attempt);
+		return result;
+	}
+
+	private static void backOff(int attempt) throws InterruptedException {
+		if (Thread.interrupted())
+			throw new InterruptedException();
+		if (attempt < SPINS)
+			Thread.onSpinWait();
+		else
+			LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1_000L << Math.min(attempt - SPINS, 10)));
+	}
+
+}
@@ -0,0 +1,190 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Checks many families concurrently with one task per family and one task per gene
+ * <p>
+ * Each family task loads the calls of its family through a {@link CallsLoader}, e.g., by reading the VCF slice of the
+ * family, and checks the site-wise sub modes of inheritance. The compound heterozygous sub modes are then checked in
+ * one task per gene group of the calls. All tasks run in one {@link TaskScope}, so family tasks waiting on I/O do
+ * not block a thread pool, while the CPU-heavy gene tasks of all families share a bounded number of permits. The first
+ * failure cancels all other tasks.
+ */
+public final class FamilyScheduler {
+
+	/**
+	 * Loads the calls of one family
+	 */
+	@FunctionalInterface
+	public interface CallsLoader {
+
+		/**
+		 * @return the calls of the members of <code>pedigree</code>
+		 * @throws Exception on problems loading the calls, cancels the whole check
+		 */
+		List<GenotypeCalls> load(Pedigree pedigree) throws Exception;
+
+	}
+
+	/**
+	 * Groups the calls of one family for the compound heterozygous check, typically by gene
+	 */
+	@FunctionalInterface
+	public interface GeneGrouping {
+
+		/**
+		 * Single group with all calls
+		 */
+		GeneGrouping NONE = List::of;
+
+		/**
+		 * @return groups of <code>calls</code>, a call may be in more than one group
+		 */
+		Collection<List<GenotypeCalls>> group(List<GenotypeCalls> calls);
+
+	}
+
+	/**
+	 * Compound heterozygous sub modes of inheritance, checked per gene group
+	 */
+	private static final Set<SubModeOfInheritance> COMP_HET_MODES = EnumSet.of(
+		SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, SubModeOfInheritance.X_RECESSIVE_COMP_HET);
+
+	/**
+	 * Permits for the gene tasks
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * Construct scheduler with one permit for gene tasks per available processor
+	 */
+	public FamilyScheduler() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * @param maxGeneTasks maximal number of concurrently running gene tasks
+	 */
+	public FamilyScheduler(int maxGeneTasks) {
+		if (maxGeneTasks < 1)
+			throw new IllegalArgumentException("Number of gene tasks must be positive but was " + maxGeneTasks);
+		this.permits = new Semaphore(maxGeneTasks);
+	}
+
+	/**
+	 * Check all families for all sub modes of inheritance
+	 *
+	 * @param pedigrees the families to check
+	 * @param loader    loads the calls of each family
+	 * @param grouping  groups the calls of each family for the compound heterozygous check
+	 * @return for each family name, in the order of <code>pedigrees</code>, the compatible calls for each sub mode of
+	 * inheritance as from {@link MendelianInheritanceChecker#checkMendelianInheritanceSub(Collection)}, except that
+	 * the compound heterozygous calls are the union over the gene groups, in the order of the loaded calls
+	 * @throws ExecutionException   with the first exception of loading or checking as cause
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public Map<String, Map<SubModeOfInheritance, List<GenotypeCalls>>> check(List<Pedigree> pedigrees,
+		CallsLoader loader, GeneGrouping grouping) throws InterruptedException, ExecutionException {
+		final List<Family> families = new ArrayList<>(pedigrees.size());
+		// one scope for all tasks, the family tasks fork their gene tasks into it
+		try (TaskScope<Void> scope = new TaskScope<>(permits)) {
+			for (Pedigree pedigree : pedigrees) {
+				final Family family = new Family(pedigree);
+				families.add(family);
+				scope.fork(() -> {
+					checkFamily(family, loader, grouping, scope);
+					return null;
+				});
+			}
+			scope.join();
+		}
+
+		Map<String, Map<SubModeOfInheritance, List<GenotypeCalls>>> result = new LinkedHashMap<>();
+		for (Family family : families)
+			result.put(family.pedigree.getName(), family.getResult());
+		return result;
+	}
+
+	/**
+	 * Load and check the calls of <code>family</code>, forking one task per gene group into <code>scope</code>
+	 */
+	private void checkFamily(Family family, CallsLoader loader, GeneGrouping grouping, TaskScope<Void> scope)
+		throws Exception {
+		final List<GenotypeCalls> calls = loader.load(family.pedigree);
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(family.pedigree);
+		family.calls = calls;
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values())
+			if (mode == SubModeOfInheritance.ANY)
+				family.result.put(mode, List.copyOf(calls));
+			else if (!COMP_HET_MODES.contains(mode))
+				family.result.put(mode, checker.filterCompatibleRecordsSub(calls, mode));
+
+		final List<List<GenotypeCalls>> genes = new ArrayList<>(grouping.group(calls));
+		family.geneResults = new ArrayList<>(Collections.nCopies(genes.size(), null));
+		for (int i = 0; i < genes.size(); ++i) {
+			final int gene = i;
+			scope.forkBounded(() -> {
+				Map<SubModeOfInheritance, List<GenotypeCalls>> map = new EnumMap<>(SubModeOfInheritance.class);
+				for (SubModeOfInheritance mode : COMP_HET_MODES)
+					map.put(mode, checker.filterCompatibleRecordsSub(genes.get(gene), mode));
+				family.geneResults.set(gene, map);
+				return null;
+			});
+		}
+	}
+
+	/**
+	 * Calls and results of one family, filled by its tasks and read after joining them
+	 */
+	private static final class Family {
+
+		/**
+		 * The family
+		 */
+		final Pedigree pedigree;
+		/**
+		 * The loaded calls
+		 */
+		List<GenotypeCalls> calls;
+		/**
+		 * Compatible calls for each site-wise sub mode of inheritance
+		 */
+		final Map<SubModeOfInheritance, List<GenotypeCalls>> result = new EnumMap<>(SubModeOfInheritance.class);
+		/**
+		 * Compatible calls for each compound heterozygous sub mode of inheritance, for each gene group
+		 */
+		List<Map<SubModeOfInheritance, List<GenotypeCalls>>> geneResults;
+
+		Family(Pedigree pedigree) {
+			this.pedigree = pedigree;
+		}
+
+		/**
+		 * @return compatible calls for each sub mode of inheritance, with the union of the gene groups for the
+		 * compound heterozygous ones
+		 */
+		Map<SubModeOfInheritance, List<GenotypeCalls>> getResult() {
+			for (SubModeOfInheritance mode : COMP_HET_MODES) {
+				Set<GenotypeCalls> compatible = Collections.newSetFromMap(new IdentityHashMap<>());
+				for (Map<SubModeOfInheritance, List<GenotypeCalls>> geneResult : geneResults)
+					compatible.addAll(geneResult.get(mode));
+				List<GenotypeCalls> list = new ArrayList<>();
+				for (GenotypeCalls gc : calls)
+					if (compatible.remove(gc))
+						list.add(gc);
+				result.put(mode, Collections.unmodifiableList(list));
+			}
+			return Collections.unmodifiableMap(result);
+		}
+
+	}
+
+}
@@ -0,0 +1,617 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.IncompatiblePedigreeException;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.mendel.impl.CompiledPedigree;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Streaming check of the sub modes of inheritance of many families, from reading the calls to writing the results
+ * <p>
+ * Instead of loading all calls, checking them and writing them in strict phases, the calls flow in batches through
+ * the stages
+ * <ol>
+ * <li>read: one thread pulls raw records from a {@link Source},</li>
+ * <li>decode: {@link Stage#DECODE} workers turn the raw records into {@link GenotypeCalls},</li>
+ * <li>comp-het grouping: one thread restores the input order and cuts the batches at gene boundaries, so that all
+ * calls of a gene end up in the same batch,</li>
+ * <li>classify: {@link Stage#CLASSIFY} workers build the {@link IndexedGenotypes} of each family,</li>
+ * <li>check: {@link Stage#CHECK} workers check the site-wise sub modes of inheritance and, per gene, the compound
+ * heterozygous ones,</li>
+ * <li>output: one thread restores the input order and passes the batches to a {@link Sink}.</li>
+ * </ol>
+ * The stages are connected by bounded lock-free queues, so a slow stage blocks the stages before it and memory stays
+ * flat however large the input. The stages that restore the input order also bound the number of batches in flight
+ * before them, so that a worker stuck on one batch does not let the batches after it pile up. The workers run in a
+ * {@link TaskScope}, and the first failing stage cancels all others.
+ * <p>
+ * Calls for which the gene key function returns <code>null</code>, e.g., intergenic ones, are not compatible with the
+ * compound heterozygous sub modes of inheritance. Without gene key function, this holds for all calls.
+ */
+public final class InheritancePipeline {
+
+	/**
+	 * Source of raw records, e.g., VCF lines
+	 *
+	 * @param <R> type of the raw records
+	 */
+	@FunctionalInterface
+	public interface Source<R> {
+
+		/**
+		 * @return the next raw record, <code>null</code> at the end of the input
+		 * @throws Exception on problems reading, cancels the pipeline
+		 */
+		R next() throws Exception;
+
+	}
+
+	/**
+	 * Decodes raw records into {@link GenotypeCalls}, called concurrently
+	 *
+	 * @param <R> type of the raw records
+	 */
+	@FunctionalInterface
+	public interface Decoder<R> {
+
+		/**
+		 * @return the {@link GenotypeCalls} of <code>raw</code>
+		 * @throws Exception on problems decoding, cancels the pipeline
+		 */
+		GenotypeCalls decode(R raw) throws Exception;
+
+	}
+
+	/**
+	 * Receives the checked batches, in input order and from a single thread
+	 */
+	@FunctionalInterface
+	public interface Sink {
+
+		/**
+		 * @param calls      the calls of the batch
+		 * @param compatible for each family name, in the order of the checkers, and each {@link SubModeOfInheritance}
+		 *                   except {@link SubModeOfInheritance#ANY}, the indices of the compatible calls in
+		 *                   <code>calls</code>
+		 * @throws Exception on problems writing, cancels the pipeline
+		 */
+		void write(List<GenotypeCalls> calls, Map<String, Map<SubModeOfInheritance, BitSet>> compatible)
+			throws Exception;
+
+	}
+
+	/**
+	 * Stages of the pipeline that run with more than one worker
+	 */
+	public enum Stage {
+		/**
+		 * Decoding raw records into {@link GenotypeCalls}
+		 */
+		DECODE,
+		/**
+		 * Building {@link IndexedGenotypes} for each family
+		 */
+		CLASSIFY,
+		/**
+		 * Checking the sub modes of inheritance
+		 */
+		CHECK
+	}
+
+	/**
+	 * Helper class for building {@link InheritancePipeline} objects
+	 */
+	public static final class Builder {
+
+		/**
+		 * Checkers of the families
+		 */
+		private final List<MendelianInheritanceChecker> checkers = new ArrayList<>();
+		/**
+		 * Gene of a call, <code>null</code> for none
+		 */
+		private Function<GenotypeCalls, ?> geneKey = gc -> null;
+		/**
+		 * Number of workers of each {@link Stage}
+		 */
+		private final Map<Stage, Integer> workers = new EnumMap<>(Stage.class);
+		/**
+		 * Number of calls per batch
+		 */
+		private int batchSize = 1024;
+		/**
+		 * Number of batches each queue can hold
+		 */
+		private int queueCapacity = 16;
+
+		public Builder() {
+			final int nProcessors = Runtime.getRuntime().availableProcessors();
+			workers.put(Stage.DECODE, Math.max(1, nProcessors / 4));
+			workers.put(Stage.CLASSIFY, Math.max(1, nProcessors / 4));
+			workers.put(Stage.CHECK, Math.max(1, nProcessors / 2));
+		}
+
+		public InheritancePipeline build() {
+			if (checkers.isEmpty())
+				throw new IllegalStateException("No pedigree added to pipeline");
+			return new InheritancePipeline(this);
+		}
+
+		/**
+		 * Add family to check
+		 */
+		public void addPedigree(Pedigree pedigree) {
+			addChecker(new MendelianInheritanceChecker(pedigree));
+		}
+
+		/**
+		 * Add family to check, with the checker's {@link org.monarchinitiative.gregor.mendel.InheritanceMetrics}
+		 */
+		public void addChecker(MendelianInheritanceChecker checker) {
+			for (MendelianInheritanceChecker other : checkers)
+				if (other.getPedigree().getName().equals(checker.getPedigree().getName()))
+					throw new IllegalArgumentException("Duplicate pedigree " + checker.getPedigree().getName());
+			checkers.add(checker);
+		}
+
+		/**
+		 * Set gene key function for the compound heterozygous check
+		 * <p>
+		 * Consecutive calls with equal, non-<code>null</code> keys form a gene, so the calls must be sorted by gene,
+		 * e.g., by position with one gene key per interval.
+		 */
+		public void setGeneKey(Function<GenotypeCalls, ?> geneKey) {
+			this.geneKey = Objects.requireNonNull(geneKey);
+		}
+
+		public void setWorkers(Stage stage, int nWorkers) {
+			if (nWorkers < 1)
+				throw new IllegalArgumentException("Number of workers must be positive but was " + nWorkers);
+			workers.put(stage, nWorkers);
+		}
+
+		/**
+		 * Set number of calls per batch, batches are larger where a gene does not fit into one
+		 */
+		public void setBatchSize(int batchSize) {
+			if (batchSize < 1)
+				throw new IllegalArgumentException("Batch size must be positive but was " + batchSize);
+			this.batchSize = batchSize;
+		}
+
+		/**
+		 * Set number of batches that each queue between two stages can hold
+		 */
+		public void setQueueCapacity(int queueCapacity) {
+			if (queueCapacity < 1)
+				throw new IllegalArgumentException("Queue capacity must be positive but was " + queueCapacity);
+			this.queueCapacity = queueCapacity;
+		}
+
+	}
+
+	/**
+	 * Site-wise sub modes of inheritance
+	 */
+	private static final List<SubModeOfInheritance> SITE_MODES;
+	/**
+	 * Compound heterozygous sub modes of inheritance, checked per gene
+	 */
+	private static final List<SubModeOfInheritance> COMP_HET_MODES = List.of(
+		SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, SubModeOfInheritance.X_RECESSIVE_COMP_HET);
+
+	static {
+		List<SubModeOfInheritance> modes = new ArrayList<>();
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values())
+			if (mode != SubModeOfInheritance.ANY && !COMP_HET_MODES.contains(mode))
+				modes.add(mode);
+		SITE_MODES = List.copyOf(modes);
+	}
+
+	/**
+	 * Batch of calls passed between the stages
+	 */
+	private static final class Chunk {
+
+		/**
+		 * Marks the end of the input
+		 */
+		static final Chunk END = new Chunk(-1);
+
+		/**
+		 * Position of the batch in the output of the stage that created it
+		 */
+		final long seq;
+		/**
+		 * Raw records, until decoded
+		 */
+		List<Object> raw;
+		/**
+		 * The calls
+		 */
+		List<GenotypeCalls> calls;
+		/**
+		 * Start (inclusive) and end (exclusive) offset of each gene in {@link #calls}
+		 */
+		int[] geneBounds;
+		/**
+		 * Indexed genotypes of each family, <code>null</code> for families checked on the legacy path
+		 */
+		IndexedGenotypes[] genotypes;
+		/**
+		 * Calls restricted to the members of each family checked on the legacy path, <code>null</code> for the others
+		 */
+		List<List<GenotypeCalls>> familyCalls;
+		/**
+		 * Result of each family
+		 */
+		Map<String, Map<SubModeOfInheritance, BitSet>> compatible;
+
+		Chunk(long seq) {
+			this.seq = seq;
+		}
+
+	}
+
+	/**
+	 * Checkers of the families
+	 */
+	private final List<MendelianInheritanceChecker> checkers;
+	/**
+	 * Gene of a call, <code>null</code> for none
+	 */
+	private final Function<GenotypeCalls, ?> geneKey;
+	/**
+	 * Number of workers of each {@link Stage}
+	 */
+	private final Map<Stage, Integer> workers;
+	/**
+	 * Number of calls per batch
+	 */
+	private final int batchSize;
+	/**
+	 * Number of batches each queue can hold
+	 */
+	private final int queueCapacity;
+
+	private InheritancePipeline(Builder builder) {
+		this.checkers = List.copyOf(builder.checkers);
+		this.geneKey = builder.geneKey;
+		this.workers = new EnumMap<>(builder.workers);
+		this.batchSize = builder.batchSize;
+		this.queueCapacity = builder.queueCapacity;
+	}
+
+	/**
+	 * Run pipeline on the records of <code>reader</code>, decoding the VCF lines concurrently
+	 *
+	 * @return number of processed calls
+	 * @throws ExecutionException   with the first exception of a stage as cause
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public long run(VcfGenotypeReader reader, Sink sink) throws InterruptedException, ExecutionException {
+		return run(reader::nextLine, reader::parse, sink);
+	}
+
+	/**
+	 * Run pipeline on all records of <code>source</code>
+	 *
+	 * @param source  source of the raw records
+	 * @param decoder decoder of the raw records
+	 * @param sink    receives the checked batches
+	 * @param <R>     type of the raw records
+	 * @return number of processed calls
+	 * @throws ExecutionException   with the first exception of a stage as cause
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	@SuppressWarnings("unchecked")
+	public <R> long run(Source<R> source, Decoder<R> decoder, Sink sink)
+		throws InterruptedException, ExecutionException {
+		final int nDecode = workers.get(Stage.DECODE);
+		final int nClassify = workers.get(Stage.CLASSIFY);
+		final int nCheck = workers.get(Stage.CHECK);
+		final BoundedQueue<Chunk> toDecode = new BoundedQueue<>(queueCapacity);
+		final BoundedQueue<Chunk> toGroup = new BoundedQueue<>(queueCapacity);
+		final BoundedQueue<Chunk> toClassify = new BoundedQueue<>(queueCapacity);
+		final BoundedQueue<Chunk> toCheck = new BoundedQueue<>(queueCapacity);
+		final BoundedQueue<Chunk> toOutput = new BoundedQueue<>(queueCapacity);
+		final AtomicInteger decoding = new AtomicInteger(nDecode);
+		final AtomicInteger classifying = new AtomicInteger(nClassify);
+		final AtomicInteger checking = new AtomicInteger(nCheck);
+		final AtomicLong nCalls = new AtomicLong();
+		// batches between reading and grouping, and between grouping and writing, including the ones waiting to be
+		// put back into input order
+		final Semaphore readWindow = new Semaphore(2 * queueCapacity);
+		final Semaphore groupWindow = new Semaphore(3 * queueCapacity);
+
+		try (TaskScope<Void> scope = new TaskScope<>()) {
+			scope.fork(() -> {
+				read(source, toDecode, nDecode, readWindow);
+				return null;
+			});
+			for (int i = 0; i < nDecode; ++i)
+				scope.fork(() -> {
+					for (Chunk chunk = toDecode.take(); chunk != Chunk.END; chunk = toDecode.take()) {
+						List<GenotypeCalls> calls = new ArrayList<>(chunk.raw.size());
+						for (Object raw : chunk.raw)
+							calls.add(decoder.decode((R) raw));
+						chunk.raw = null;
+						chunk.calls = calls;
+						toGroup.put(chunk);
+					}
+					finish(decoding, toGroup, 1);
+					return null;
+				});
+			scope.fork(() -> {
+				group(toGroup, toClassify, nClassify, readWindow, groupWindow);
+				return null;
+			});
+			for (int i = 0; i < nClassify; ++i)
+				scope.fork(() -> {
+					for (Chunk chunk = toClassify.take(); chunk != Chunk.END; chunk = toClassify.take()) {
+						classify(chunk);
+						toCheck.put(chunk);
+					}
+					finish(classifying, toCheck, nCheck);
+					return null;
+				});
+			for (int i = 0; i < nCheck; ++i)
+				scope.fork(() -> {
+					for (Chunk chunk = toCheck.take(); chunk != Chunk.END; chunk = toCheck.take()) {
+						check(chunk);
+						toOutput.put(chunk);
+					}
+					finish(checking, toOutput, 1);
+					return null;
+				});
+			scope.fork(() -> {
+				nCalls.set(write(toOutput, sink, groupWindow));
+				return null;
+			});
+			scope.join();
+		}
+		return nCalls.get();
+	}
+
+	/**
+	 * Mark end of a worker of a stage, the last one passes <code>nNext</code> end markers to the next stage
+	 */
+	private static void finish(AtomicInteger running, BoundedQueue<Chunk> next, int nNext)
+		throws InterruptedException {
+		if (running.decrementAndGet() == 0)
+			for (int i = 0; i < nNext; ++i)
+				next.put(Chunk.END);
+	}
+
+	/**
+	 * Read batches of raw records, each holding a permit of <code>window</code> until grouped
+	 */
+	private <R> void read(Source<R> source, BoundedQueue<Chunk> out, int nNext, Semaphore window) throws Exception {
+		long seq = 0;
+		Chunk chunk = new Chunk(seq++);
+		chunk.raw = new ArrayList<>(batchSize);
+		for (R raw = source.next(); raw != null; raw = source.next()) {
+			chunk.raw.add(raw);
+			if (chunk.raw.size() == batchSize) {
+				window.acquire();
+				out.put(chunk);
+				chunk = new Chunk(seq++);
+				chunk.raw = new ArrayList<>(batchSize);
+			}
+		}
+		if (!chunk.raw.isEmpty()) {
+			window.acquire();
+			out.put(chunk);
+		}
+		for (int i = 0; i < nNext; ++i)
+			out.put(Chunk.END);
+	}
+
+	/**
+	 * Restore input order and cut batches at gene boundaries
+	 * <p>
+	 * Releases the permit of <code>inWindow</code> of each read batch once its calls are taken over, and acquires a
+	 * permit of <code>outWindow</code> for each new batch, held until written. Read batches are released in input
+	 * order, so the one needed next always fits into the window.
+	 */
+	private void group(BoundedQueue<Chunk> in, BoundedQueue<Chunk> out, int nNext, Semaphore inWindow,
+		Semaphore outWindow) throws InterruptedException {
+		final Map<Long, Chunk> pending = new HashMap<>();
+		long nextIn = 0;
+		long nextOut = 0;
+		List<GenotypeCalls> calls = new ArrayList<>();
+		List<Integer> genes = new ArrayList<>();
+		Object lastKey = null;
+		int geneStart = -1;
+		for (Chunk chunk = in.take(); chunk != Chunk.END; chunk = in.take()) {
+			pending.put(chunk.seq, chunk);
+			while ((chunk = pending.remove(nextIn)) != null) {
+				++nextIn;
+				for (GenotypeCalls gc : chunk.calls) {
+					final Object key = geneKey.apply(gc);
+					if (key == null || !key.equals(lastKey)) {
+						// gene boundary, the only place where batches are cut
+						if (geneStart >= 0) {
+							genes.add(geneStart);
+							genes.add(calls.size());
+							geneStart = -1;
+						}
+						if (calls.size() >= batchSize) {
+							outWindow.acquire();
+							out.put(newBatch(nextOut++, calls, genes));
+							calls = new ArrayList<>();
+							genes = new ArrayList<>();
+						}
+						if (key != null)
+							geneStart = calls.size();
+					}
+					calls.add(gc);
+					lastKey = key;
+				}
+				inWindow.release();
+			}
+		}
+		if (geneStart >= 0) {
+			genes.add(geneStart);
+			genes.add(calls.size());
+		}
+		if (!calls.isEmpty()) {
+			outWindow.acquire();
+			out.put(newBatch(nextOut, calls, genes));
+		}
+		for (int i = 0; i < nNext; ++i)
+			out.put(Chunk.END);
+	}
+
+	private static Chunk newBatch(long seq, List<GenotypeCalls> calls, List<Integer> genes) {
+		Chunk chunk = new Chunk(seq);
+		chunk.calls = calls;
+		chunk.geneBounds = genes.stream().mapToInt(Integer::intValue).toArray();
+		return chunk;
+	}
+
+	private void classify(Chunk chunk) {
+		chunk.genotypes = new IndexedGenotypes[checkers.size()];
+		chunk.familyCalls = new ArrayList<>(Collections.nCopies(checkers.size(), null));
+		for (int i = 0; i < checkers.size(); ++i) {
+			final Pedigree pedigree = checkers.get(i).getPedigree();
+			if (pedigree.getMembers().size() <= CompiledPedigree.MAX_MEMBERS)
+				chunk.genotypes[i] = IndexedGenotypes.of(pedigree, chunk.calls);
+			else
+				chunk.familyCalls.set(i, restrict(chunk.calls, pedigree));
+		}
+	}
+
+	/**
+	 * @return <code>calls</code> with the genotypes of the members of <code>pedigree</code> only, as required by the
+	 * {@link GenotypeCalls}-based path
+	 */
+	private static List<GenotypeCalls> restrict(List<GenotypeCalls> calls, Pedigree pedigree) {
+		List<GenotypeCalls> result = new ArrayList<>(calls.size());
+		for (GenotypeCalls gc : calls) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (Map.Entry<String, Genotype> entry : gc)
+				if (pedigree.hasPerson(entry.getKey()))
+					entries.add(entry);
+			result.add(new GenotypeCalls(gc.getChromType(), entries, gc.getPayload()));
+		}
+		return result;
+	}
+
+	private void check(Chunk chunk) throws IncompatiblePedigreeException {
+		chunk.compatible = new LinkedHashMap<>();
+		for (int i = 0; i < checkers.size(); ++i) {
+			final MendelianInheritanceChecker checker = checkers.get(i);
+			final IndexedGenotypes genotypes = chunk.genotypes[i];
+			Map<SubModeOfInheritance, BitSet> result = new EnumMap<>(SubModeOfInheritance.class);
+			for (SubModeOfInheritance mode : SITE_MODES)
+				result.put(mode, (genotypes == null)
+					? legacyCheck(checker, chunk.familyCalls.get(i), 0, chunk.calls.size(), mode)
+					: toBitSet(checker.filterCompatibleSitesSub(genotypes, mode), 0));
+			for (SubModeOfInheritance mode : COMP_HET_MODES) {
+				BitSet bits = new BitSet();
+				for (int g = 0; g < chunk.geneBounds.length; g += 2) {
+					final int from = chunk.geneBounds[g];
+					final int to = chunk.geneBounds[g + 1];
+					bits.or((genotypes == null)
+						? legacyCheck(checker, chunk.familyCalls.get(i), from, to, mode)
+						: toBitSet(checker.filterCompatibleSitesSub(subView(genotypes, from, to), mode), from));
+				}
+				result.put(mode, bits);
+			}
+			chunk.compatible.put(checker.getPedigree().getName(), Collections.unmodifiableMap(result));
+		}
+		chunk.genotypes = null;
+		chunk.familyCalls = null;
+	}
+
+	/**
+	 * Check sites <code>from</code> (inclusive) to <code>to</code> (exclusive) of <code>calls</code> on the
+	 * {@link GenotypeCalls}-based path, for pedigrees too large for the index-based one
+	 */
+	private static BitSet legacyCheck(MendelianInheritanceChecker checker, List<GenotypeCalls> calls, int from,
+		int to, SubModeOfInheritance mode) throws IncompatiblePedigreeException {
+		final Set<GenotypeCalls> compatible = Collections.newSetFromMap(new IdentityHashMap<>());
+		compatible.addAll(checker.filterCompatibleRecordsSub(calls.subList(from, to), mode));
+		BitSet result = new BitSet();
+		for (int site = from; site < to; ++site)
+			if (compatible.contains(calls.get(site)))
+				result.set(site);
+		return result;
+	}
+
+	private static BitSet toBitSet(int[] sites, int offset) {
+		BitSet result = new BitSet();
+		for (int site : sites)
+			result.set(site + offset);
+		return result;
+	}
+
+	/**
+	 * @return view on sites <code>from</code> (inclusive) to <code>to</code> (exclusive) of <code>genotypes</code>
+	 */
+	private static IndexedGenotypes subView(IndexedGenotypes genotypes, int from, int to) {
+		return new IndexedGenotypes() {
+			@Override
+			public int getNSites() {
+				return to - from;
+			}
+
+			@Override
+			public ChromosomeType getChromType(int site) {
+				return genotypes.getChromType(from + site);
+			}
+
+			@Override
+			public int getGenotypeClass(int site, int member) {
+				return genotypes.getGenotypeClass(from + site, member);
+			}
+
+			@Override
+			public int getGenotypeQuality(int site, int member) {
+				return genotypes.getGenotypeQuality(from + site, member);
+			}
+
+			@Override
+			public int getReadDepth(int site, int member) {
+				return genotypes.getReadDepth(from + site, member);
+			}
+		};
+	}
+
+	/**
+	 * Restore input order and pass the batches to <code>sink</code>, releasing the permit of <code>window</code> of
+	 * each written batch
+	 *
+	 * @return number of written calls
+	 */
+	private static long write(BoundedQueue<Chunk> in, Sink sink, Semaphore window) throws Exception {
+		final Map<Long, Chunk> pending = new HashMap<>();
+		long next = 0;
+		long nCalls = 0;
+		for (Chunk chunk = in.take(); chunk != Chunk.END; chunk = in.take()) {
+			pending.put(chunk.seq, chunk);
+			while ((chunk = pending.remove(next)) != null) {
+				++next;
+				sink.write(Collections.unmodifiableList(chunk.calls), Collections.unmodifiableMap(chunk.compatible));
+				nCalls += chunk.calls.size();
+				window.release();
+			}
+		}
+		return nCalls;
+	}
+
+}
@@ -0,0 +1,242 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Structured scope of concurrent tasks with one thread per task
+ * <p>
+ * Tasks are forked into the scope and joined together: {@link #join()} returns the results in fork order or, on the
+ * first failing task, cancels all other tasks and throws. Closing the scope cancels unfinished tasks and waits for
+ * their threads to end, so no task outlives its scope. Tasks may fork further tasks into their own scope, e.g., a
+ * family task forking one task per gene, and {@link #join()} also waits for these. Scopes may also be nested, and
+ * cancelling the outer task interrupts its {@link #join()}, which cancels the inner tasks.
+ * <p>
+ * Each task runs on a virtual thread if the runtime supports them (Java 21 and later), so tasks blocking on I/O are
+ * cheap and no thread pool needs to be sized. CPU-heavy tasks forked with {@link #forkBounded(Callable)} additionally
+ * hold a permit of a {@link Semaphore} shared between scopes, bounding their concurrency, e.g., to the number of
+ * processors. The permit is acquired before the task is submitted, so without virtual threads, at most one platform
+ * thread per permit runs bounded tasks.
+ *
+ * @param <T> result type of the tasks
+ */
+public final class TaskScope<T> implements AutoCloseable {
+
+	/**
+	 * Permits for tasks forked by {@link #forkBounded(Callable)}, <code>null</code> if there are none
+	 */
+	private final Semaphore permits;
+	/**
+	 * Executor starting one thread per task
+	 */
+	private final ExecutorService executor;
+	/**
+	 * Futures of the finished tasks, in order of completion
+	 */
+	private final BlockingQueue<Future<T>> completed = new LinkedBlockingQueue<>();
+	/**
+	 * Futures of the forked tasks, in fork order, guarded by itself
+	 */
+	private final List<Future<T>> futures = new ArrayList<>();
+	/**
+	 * Whether {@link #join()} has been called
+	 */
+	private boolean joining;
+	/**
+	 * Whether {@link #join()} has returned or thrown
+	 */
+	private volatile boolean joined;
+
+	/**
+	 * Construct scope for tasks forked with {@link #fork(Callable)} only
+	 */
+	public TaskScope() {
+		this(null);
+	}
+
+	/**
+	 * Construct scope
+	 *
+	 * @param permits permits for tasks forked by {@link #forkBounded(Callable)}, may be shared with other scopes
+	 */
+	public TaskScope(Semaphore permits) {
+		this.permits = permits;
+		this.executor = newThreadPerTaskExecutor("gregor-task");
+	}
+
+	/**
+	 * Fork task that mainly waits, e.g., on I/O, without limit on the concurrency
+	 *
+	 * @throws IllegalStateException if the scope has already been joined
+	 */
+	public void fork(Callable<T> task) {
+		checkNotJoined();
+		submit(new Task(task));
+	}
+
+	/**
+	 * Fork CPU-heavy task, which holds a permit of the scope's {@link Semaphore} until it ends
+	 * <p>
+	 * Blocks until a permit is available.
+	 *
+	 * @throws IllegalStateException if the scope has already been joined or has no {@link Semaphore}
+	 * @throws InterruptedException  if interrupted while waiting for a permit
+	 */
+	public void forkBounded(Callable<T> task) throws InterruptedException {
+		checkNotJoined();
+		if (permits == null)
+			throw new IllegalStateException("Task scope has no permits for bounded tasks");
+		permits.acquire();
+		// exactly one of the task and its cancellation before the start releases the permit
+		final AtomicBoolean claimed = new AtomicBoolean();
+		submit(new Task(() -> {
+			if (!claimed.compareAndSet(false, true))
+				throw new CancellationException();
+			try {
+				return task.call();
+			} finally {
+				permits.release();
+			}
+		}) {
+			@Override
+			protected void done() {
+				if (claimed.compareAndSet(false, true))
+					permits.release();
+				super.done();
+			}
+		});
+	}
+
+	private void submit(Task task) {
+		synchronized (futures) {
+			futures.add(task);
+		}
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			task.cancel(false);
+			throw e;
+		}
+	}
+
+	/**
+	 * Wait for all forked tasks, including the ones forked by tasks while waiting
+	 *
+	 * @return results of the tasks, in fork order
+	 * @throws ExecutionException   with the exception of the first failing task as cause, after cancelling all other
+	 *                              tasks
+	 * @throws InterruptedException if interrupted while waiting, after cancelling all tasks
+	 * @throws IllegalStateException if the scope has already been joined
+	 */
+	public List<T> join() throws InterruptedException, ExecutionException {
+		checkNotJoined();
+		if (joining)
+			throw new IllegalStateException("Task scope is already being joined");
+		joining = true;
+		try {
+			// a task forks before it completes, so its forks are counted before its completion is taken
+			for (int n = 0; n < nForked(); ++n) {
+				final Future<T> future = completed.take();
+				if (!future.isCancelled())
+					future.get(); // throws on failure
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			cancelAll();
+			throw e;
+		} finally {
+			joined = true;
+		}
+
+		List<T> result = new ArrayList<>(nForked());
+		for (Future<T> future : snapshot())
+			result.add(future.get());
+		return result;
+	}
+
+	/**
+	 * Cancel unfinished tasks and wait for the threads of all tasks to end
+	 */
+	@Override
+	public void close() {
+		cancelAll();
+		executor.shutdownNow();
+		boolean interrupted = false;
+		while (true) {
+			try {
+				if (executor.awaitTermination(1, TimeUnit.DAYS))
+					break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private int nForked() {
+		synchronized (futures) {
+			return futures.size();
+		}
+	}
+
+	private List<Future<T>> snapshot() {
+		synchronized (futures) {
+			return new ArrayList<>(futures);
+		}
+	}
+
+	private void cancelAll() {
+		for (Future<T> future : snapshot())
+			future.cancel(true);
+	}
+
+	private void checkNotJoined() {
+		if (joined)
+			throw new IllegalStateException("Task scope has already been joined");
+	}
+
+	/**
+	 * Forked task, queued in {@link #completed} when done
+	 */
+	private class Task extends FutureTask<T> {
+
+		Task(Callable<T> callable) {
+			super(callable);
+		}
+
+		@Override
+		protected void done() {
+			completed.add(this);
+		}
+
+	}
+
+	/**
+	 * Create executor that starts a new thread per task
+	 * <p>
+	 * The threads are virtual threads if the runtime supports them (Java 21 and later). Otherwise, they are daemon
+	 * platform threads from a cached pool, named <code>namePrefix</code> followed by a number.
+	 *
+	 * @param namePrefix name prefix of the platform threads
+	 * @return the executor
+	 */
+	public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+		try {
+			final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) method.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			// Virtual threads are not available before Java 21 (or only with --enable-preview in Java 19 and 20)
+			final AtomicInteger nThreads = new AtomicInteger();
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, namePrefix + "-" + nThreads.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+}
@@ -19,6 +19,11 @@ public final class GenotypeCalls implements Iterable<Entry<String, Genotype>> {
 
 	private final static Genotype GT_NO_CALL = new Genotype(List.of(Genotype.NO_CALL));
 
+	/**
+	 * Value of a missing genotype quality or read depth
+	 */
+	public static final int MISSING_QUALITY = -1;
+
 	/**
 	 * Type of the chromosome that the variant lies on (autosomal, X-chromosomal, etc.)
 	 */
@@ -35,6 +40,14 @@ public final class GenotypeCalls implements Iterable<Entry<String, Genotype>> {
 	 * A payload object for later easier reidentification
 	 */
 	private final Object payload;
+	/**
+	 * Genotype quality (<code>GQ</code>) by sample number, <code>null</code> if not available
+	 */
+	private final int[] genotypeQualities;
+	/**
+	 * Read depth (<code>DP</code>) by sample number, <code>null</code> if not available
+	 */
+	private final int[] readDepths;
 
 	/**
 	 * Initialize {@link GenotypeCalls} with mapping from sample to genotype
@@ -57,6 +70,28 @@ public final class GenotypeCalls implements Iterable<Entry<String, Genotype>> {
 	 */
 	public GenotypeCalls(ChromosomeType chromType, Iterable<? extends Entry<String, Genotype>> sampleToGenotype,
 						 Object payload) {
+		this(chromType, sampleToGenotype, payload, null, null);
+	}
+
+	/**
+	 * Initialize {@link GenotypeCalls} with mapping from sample to genotype, "payload" object and per-sample quality
+	 * values
+	 * <p>
+	 * The quality values are used for masking genotypes with {@link QualityThresholds} while checking, without
+	 * building new {@link Genotype} objects. Missing values are given as {@link #MISSING_QUALITY}.
+	 *
+	 * @param chromType         type of the chromosome of this genotype call site
+	 * @param sampleToGenotype  {@link Iterable} with mapping from sample name to {@link Genotype}
+	 * @param payload           An arbitrary payload object, see
+	 *                          {@link #GenotypeCalls(ChromosomeType, Iterable, Object)}
+	 * @param genotypeQualities genotype quality (<code>GQ</code>) of each sample in the order of
+	 *                          <code>sampleToGenotype</code>, <code>null</code> if not available
+	 * @param readDepths        read depth (<code>DP</code>) of each sample in the order of
+	 *                          <code>sampleToGenotype</code>, <code>null</code> if not available
+	 * @throws IllegalArgumentException if the number of quality values does not match the number of samples
+	 */
+	public GenotypeCalls(ChromosomeType chromType, Iterable<? extends Entry<String, Genotype>> sampleToGenotype,
+						 Object payload, int[] genotypeQualities, int[] readDepths) {
 		this.chromType = chromType;
 
 		Map<String, Genotype> temp = new LinkedHashMap<>();
@@ -66,6 +101,14 @@ public final class GenotypeCalls implements Iterable<Entry<String, Genotype>> {
 		this.sampleToGenotype = Collections.unmodifiableMap(temp);
 		this.sampleNames = List.copyOf(this.sampleToGenotype.keySet());
 		this.payload = payload;
+		if (genotypeQualities != null && genotypeQualities.length != sampleNames.size())
+			throw new IllegalArgumentException("Expected " + sampleNames.size() + " genotype qualities but got "
+				+ genotypeQualities.length);
+		if (readDepths != null && readDepths.length != sampleNames.size())
+			throw new IllegalArgumentException("Expected " + sampleNames.size() + " read depths but got "
+				+ readDepths.length);
+		this.genotypeQualities = (genotypeQualities == null) ? null : genotypeQualities.clone();
+		this.readDepths = (readDepths == null) ? null : readDepths.clone();
 	}
 
 	/**
@@ -97,6 +140,53 @@ public final class GenotypeCalls implements Iterable<Entry<String, Genotype>> {
 		return sampleToGenotype.get(sampleNames.get(sampleNo));
 	}
 
+	/**
+	 * @return whether genotype qualities or read depths are available
+	 */
+	public boolean hasQualities() {
+		return genotypeQualities != null || readDepths != null;
+	}
+
+	/**
+	 * @param sampleNo 0-based sample number
+	 * @return genotype quality (<code>GQ</code>) of the sample, {@link #MISSING_QUALITY} if not available
+	 */
+	public int getGenotypeQualityBySampleNo(int sampleNo) {
+		return (genotypeQualities == null) ? MISSING_QUALITY : genotypeQualities[sampleNo];
+	}
+
+	/**
+	 * @param sampleNo 0-based sample number
+	 * @return read depth (<code>DP</code>) of the sample, {@link #MISSING_QUALITY} if not available
+	 */
+	public int getReadDepthBySampleNo(int sampleNo) {
+		return (readDepths == null) ? MISSING_QUALITY : readDepths[sampleNo];
+	}
+
+	/**
+	 * @param sample name of the sample
+	 * @return genotype quality (<code>GQ</code>) of the sample, {@link #MISSING_QUALITY} if not available or the
+	 * sample is unknown
+	 */
+	public int getGenotypeQualityForSample(String sample) {
+		if (genotypeQualities == null)
+			return MISSING_QUALITY;
+		final int sampleNo = sampleNames.indexOf(sample);
+		return (sampleNo < 0) ? MISSING_QUALITY : genotypeQualities[sampleNo];
+	}
+
+	/**
+	 * @param sample name of the sample
+	 * @return read depth (<code>DP</code>) of the sample, {@link #MISSING_QUALITY} if not available or the sample is
+	 * unknown
+	 */
+	public int getReadDepthForSample(String sample) {
+		if (readDepths == null)
+			return MISSING_QUALITY;
+		final int sampleNo = sampleNames.indexOf(sample);
+		return (sampleNo < 0) ? MISSING_QUALITY : readDepths[sampleNo];
+	}
+
 	/**
 	 * @return type of the chromosome
 	 */
@@ -0,0 +1,84 @@
+package org.monarchinitiative.gregor.mendel;
+
+/**
+ * Compact integer encoding of the zygosity flags of a {@link Genotype}
+ * <p>
+ * The mendelian checkers only ever query {@link Genotype#isHet()}, {@link Genotype#isHomRef()},
+ * {@link Genotype#isHomAlt()} and {@link Genotype#isNotObserved()}. These flags are not mutually exclusive (e.g.,
+ * <code>0/.</code> is both het. and hom. ref.), so a genotype class is the bit set of these four flags and fits into
+ * four bits. This allows for storing genotypes in packed, index-based form without losing any information relevant for
+ * the inheritance checks.
+ */
+public final class GenotypeClass {
+
+	/**
+	 * flag for {@link Genotype#isHet()}
+	 */
+	public static final int HET = 1;
+	/**
+	 * flag for {@link Genotype#isHomRef()}
+	 */
+	public static final int HOM_REF = 2;
+	/**
+	 * flag for {@link Genotype#isHomAlt()}
+	 */
+	public static final int HOM_ALT = 4;
+	/**
+	 * flag for {@link Genotype#isNotObserved()}
+	 */
+	public static final int NOT_OBSERVED = 8;
+
+	/**
+	 * Number of bits used by one genotype class
+	 */
+	public static final int BITS = 4;
+
+	private GenotypeClass() {
+	}
+
+	/**
+	 * @param gt the {@link Genotype} to encode
+	 * @return genotype class of <code>gt</code>
+	 */
+	public static int of(Genotype gt) {
+		int result = 0;
+		if (gt.isHet())
+			result |= HET;
+		if (gt.isHomRef())
+			result |= HOM_REF;
+		if (gt.isHomAlt())
+			result |= HOM_ALT;
+		if (gt.isNotObserved())
+			result |= NOT_OBSERVED;
+		return result;
+	}
+
+	/**
+	 * @return <code>true</code> if the genotype class <code>cls</code> is heterozygous
+	 */
+	public static boolean isHet(int cls) {
+		return (cls & HET) != 0;
+	}
+
+	/**
+	 * @return <code>true</code> if the genotype class <code>cls</code> is homozygous ref
+	 */
+	public static boolean isHomRef(int cls) {
+		return (cls & HOM_REF) != 0;
+	}
+
+	/**
+	 * @return <code>true</code> if the genotype class <code>cls</code> is homozygous alt
+	 */
+	public static boolean isHomAlt(int cls) {
+		return (cls & HOM_ALT) != 0;
+	}
+
+	/**
+	 * @return <code>true</code> if the genotype class <code>cls</code> is not observed
+	 */
+	public static boolean isNotObserved(int cls) {
+		return (cls & NOT_OBSERVED) != 0;
+	}
+
+}
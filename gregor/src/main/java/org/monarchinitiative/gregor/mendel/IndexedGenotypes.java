@@ -0,0 +1,116 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.util.List;
+
+/**
+ * Read-only, index-based view on the {@link GenotypeClass genotype classes} of the members of a {@link Pedigree} at a
+ * number of sites
+ * <p>
+ * In contrast to a {@link List} of {@link GenotypeCalls}, no objects need to be materialized for accessing a genotype,
+ * members are addressed by their index in {@link Pedigree#getMembers()} and sites by their 0-based position in the
+ * view. This is the input of the index-based fast path of {@link MendelianInheritanceChecker}.
+ */
+public interface IndexedGenotypes {
+
+	/**
+	 * @return number of sites in the view
+	 */
+	int getNSites();
+
+	/**
+	 * @param site 0-based site index
+	 * @return type of the chromosome the site lies on
+	 */
+	ChromosomeType getChromType(int site);
+
+	/**
+	 * @param site   0-based site index
+	 * @param member 0-based index of the pedigree member
+	 * @return {@link GenotypeClass} of the member at the site, {@link GenotypeClass#NOT_OBSERVED} if there is no
+	 * genotype for the member
+	 */
+	int getGenotypeClass(int site, int member);
+
+	/**
+	 * @param site   0-based site index
+	 * @param member 0-based index of the pedigree member
+	 * @return genotype quality (<code>GQ</code>) of the member at the site, {@link GenotypeCalls#MISSING_QUALITY} if
+	 * not available
+	 */
+	default int getGenotypeQuality(int site, int member) {
+		return GenotypeCalls.MISSING_QUALITY;
+	}
+
+	/**
+	 * @param site   0-based site index
+	 * @param member 0-based index of the pedigree member
+	 * @return read depth (<code>DP</code>) of the member at the site, {@link GenotypeCalls#MISSING_QUALITY} if not
+	 * available
+	 */
+	default int getReadDepth(int site, int member) {
+		return GenotypeCalls.MISSING_QUALITY;
+	}
+
+	/**
+	 * Build {@link IndexedGenotypes} from a {@link List} of {@link GenotypeCalls}.
+	 * <p>
+	 * The genotype classes are looked up once on construction so the view can be evaluated repeatedly, e.g., with a
+	 * series of {@link QualityThresholds}. Quality values are copied if any of the calls has them.
+	 *
+	 * @param pedigree the {@link Pedigree} whose members define the member indices
+	 * @param calls    the {@link GenotypeCalls} defining the sites, in order
+	 * @return {@link IndexedGenotypes} view of <code>calls</code>
+	 */
+	static IndexedGenotypes of(Pedigree pedigree, List<GenotypeCalls> calls) {
+		final List<String> names = pedigree.getNames();
+		final int nMembers = names.size();
+		final int nSites = calls.size();
+		final ChromosomeType[] chromTypes = new ChromosomeType[nSites];
+		final byte[] classes = new byte[nSites * nMembers];
+		final boolean hasQualities = calls.stream().anyMatch(GenotypeCalls::hasQualities);
+		final int[] qualities = hasQualities ? new int[nSites * nMembers] : null;
+		final int[] depths = hasQualities ? new int[nSites * nMembers] : null;
+		for (int site = 0; site < nSites; ++site) {
+			final GenotypeCalls gc = calls.get(site);
+			chromTypes[site] = gc.getChromType();
+			for (int member = 0; member < nMembers; ++member) {
+				final String name = names.get(member);
+				classes[site * nMembers + member] = (byte) GenotypeClass.of(gc.getGenotypeForSample(name));
+				if (hasQualities) {
+					qualities[site * nMembers + member] = gc.getGenotypeQualityForSample(name);
+					depths[site * nMembers + member] = gc.getReadDepthForSample(name);
+				}
+			}
+		}
+
+		return new IndexedGenotypes() {
+			@Override
+			public int getNSites() {
+				return nSites;
+			}
+
+			@Override
+			public ChromosomeType getChromType(int site) {
+				return chromTypes[site];
+			}
+
+			@Override
+			public int getGenotypeClass(int site, int member) {
+				return classes[site * nMembers + member];
+			}
+
+			@Override
+			public int getGenotypeQuality(int site, int member) {
+				return hasQualities ? qualities[site * nMembers + member] : GenotypeCalls.MISSING_QUALITY;
+			}
+
+			@Override
+			public int getReadDepth(int site, int member) {
+				return hasQualities ? depths[site * nMembers + member] : GenotypeCalls.MISSING_QUALITY;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,58 @@
+package org.monarchinitiative.gregor.mendel;
+
+/**
+ * Listener for throughput and latency metrics of a {@link MendelianInheritanceChecker}
+ * <p>
+ * Pass an implementation to {@link MendelianInheritanceChecker#MendelianInheritanceChecker(org.monarchinitiative.gregor.pedigree.Pedigree,
+ * InheritanceMetrics)} to forward the numbers to the metrics system of choice. All methods have empty default
+ * implementations, so implementations only override what they are interested in. The methods are called synchronously
+ * from the checking thread and thus should return quickly; implementations must be thread-safe if the checker is shared
+ * between threads.
+ * <p>
+ * With {@link #NOOP}, the default, the checker does not even take the timings, so there is no measurable overhead.
+ */
+public interface InheritanceMetrics {
+
+	/**
+	 * Metrics listener that ignores everything
+	 */
+	InheritanceMetrics NOOP = new InheritanceMetrics() {
+	};
+
+	/**
+	 * Called after filtering records for compatibility with a sub mode of inheritance
+	 * <p>
+	 * Filtering for a {@link ModeOfInheritance} that combines several sub modes, e.g.
+	 * {@link ModeOfInheritance#AUTOSOMAL_RECESSIVE}, reports each sub mode separately.
+	 *
+	 * @param subMode      the {@link SubModeOfInheritance} checked for
+	 * @param nCallsIn     number of calls or sites given for filtering
+	 * @param nCallsPassed number of calls or sites found compatible with <code>subMode</code>
+	 * @param nanos        elapsed wall-clock time in nanoseconds
+	 */
+	default void filtered(SubModeOfInheritance subMode, int nCallsIn, int nCallsPassed, long nanos) {
+	}
+
+	/**
+	 * Called after a compound heterozygous checker has collected its candidate pairs
+	 *
+	 * @param subMode     {@link SubModeOfInheritance#AUTOSOMAL_RECESSIVE_COMP_HET} or
+	 *                    {@link SubModeOfInheritance#X_RECESSIVE_COMP_HET}
+	 * @param nCandidates number of candidate pairs of variants, or of het. calls in the single sample case
+	 */
+	default void compoundHetCandidates(SubModeOfInheritance subMode, int nCandidates) {
+	}
+
+	/**
+	 * Called after checking the sample names of the calls given for filtering against the pedigree
+	 * <p>
+	 * The checker remembers the last sample name list found compatible, calls with an equal list of sample names are
+	 * hits and need not be checked again.
+	 *
+	 * @param nHits   number of calls whose sample names were found in the cache
+	 * @param nMisses number of calls whose sample names had to be checked against the pedigree
+	 */
+	default void sampleNameCache(int nHits, int nMisses) {
+	}
+
+}
@@ -0,0 +1,552 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.monarchinitiative.gregor.mendel.impl.*;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.PedigreeQueryDecorator;
+
+import java.util.*;
+
+/**
+ * Facade class for checking lists of {@link GenotypeCalls} for compatibility with mendelian inheritance
+ *
+ * @author <a href="mailto:manuel.holtgrewe@bihealth.de">Manuel Holtgrewe</a>
+ */
+public final class MendelianInheritanceChecker {
+
+	/**
+	 * Pedigree to use for mendelian inheritance checking
+	 */
+	private final Pedigree pedigree;
+    /**
+	 * Mendelian compatibility checker for each sub mode of inheritance
+	 */
+	private final Map<SubModeOfInheritance, AbstractMendelianChecker> checkers;
+	/**
+	 * Index-based checker for {@link IndexedGenotypes}, <code>null</code> if the pedigree is too large
+	 */
+	private final IndexedMendelianChecker indexedChecker;
+	/**
+	 * Listener for throughput and latency metrics
+	 */
+	private final InheritanceMetrics metrics;
+	/**
+	 * Whether {@link #metrics} is not {@link InheritanceMetrics#NOOP}, timings are only taken if so
+	 */
+	private final boolean metricsEnabled;
+	/**
+	 * Handling of no-calls for {@link SubModeOfInheritance#DE_NOVO}
+	 */
+	private final NoCallPolicy noCallPolicy;
+	/**
+	 * Names of the pedigree members, for checking the samples of {@link GenotypeCalls}
+	 */
+	private final Set<String> memberNames;
+	/**
+	 * Sample names of the last {@link GenotypeCalls} found compatible with the pedigree, <code>null</code> if none yet
+	 */
+	private volatile List<String> lastCompatibleSampleNames;
+
+	/**
+	 * Construct checker with the pedigree to use
+	 *
+	 * @param pedigree The pedigree to use for the mendelian inheritance checking
+	 */
+	public MendelianInheritanceChecker(Pedigree pedigree) {
+		this(pedigree, InheritanceMetrics.NOOP);
+	}
+
+	/**
+	 * Construct checker with the pedigree to use, reporting to <code>metrics</code>
+	 *
+	 * @param pedigree The pedigree to use for the mendelian inheritance checking
+	 * @param metrics  {@link InheritanceMetrics} to report to, {@link InheritanceMetrics#NOOP} to disable metrics
+	 */
+	public MendelianInheritanceChecker(Pedigree pedigree, InheritanceMetrics metrics) {
+		this(pedigree, metrics, NoCallPolicy.IGNORE);
+	}
+
+	/**
+	 * Construct checker with the pedigree to use, reporting to <code>metrics</code>
+	 *
+	 * @param pedigree     The pedigree to use for the mendelian inheritance checking
+	 * @param metrics      {@link InheritanceMetrics} to report to, {@link InheritanceMetrics#NOOP} to disable metrics
+	 * @param noCallPolicy handling of no-calls of the parents and unaffected siblings for
+	 *                     {@link SubModeOfInheritance#DE_NOVO}
+	 */
+	public MendelianInheritanceChecker(Pedigree pedigree, InheritanceMetrics metrics, NoCallPolicy noCallPolicy) {
+		this.pedigree = pedigree;
+		this.metrics = Objects.requireNonNull(metrics);
+		this.noCallPolicy = Objects.requireNonNull(noCallPolicy);
+		this.metricsEnabled = metrics != InheritanceMetrics.NOOP;
+		this.memberNames = Set.copyOf(pedigree.getNames());
+
+		Map<SubModeOfInheritance, AbstractMendelianChecker> map = new EnumMap<>(SubModeOfInheritance.class);
+		map.put(SubModeOfInheritance.AUTOSOMAL_DOMINANT, new MendelianCheckerAD(this));
+		map.put(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, new MendelianCheckerARCompoundHet(this));
+		map.put(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, new MendelianCheckerARHom(this));
+		map.put(SubModeOfInheritance.X_DOMINANT, new MendelianCheckerXD(this));
+		map.put(SubModeOfInheritance.X_RECESSIVE_COMP_HET, new MendelianCheckerXRCompoundHet(this));
+		map.put(SubModeOfInheritance.X_RECESSIVE_HOM_ALT, new MendelianCheckerXRHom(this));
+		map.put(SubModeOfInheritance.MITOCHONDRIAL, new InheritanceCheckerMT(this));
+		map.put(SubModeOfInheritance.Y_LINKED, new MendelianCheckerYL(this));
+		map.put(SubModeOfInheritance.DE_NOVO, new MendelianCheckerDeNovo(this));
+		this.checkers = map;
+		this.indexedChecker = (pedigree.getNMembers() <= CompiledPedigree.MAX_MEMBERS) ?
+			new IndexedMendelianChecker(pedigree, noCallPolicy) : null;
+	}
+
+	/**
+	 * Perform checking for compatible mode of inheritance
+	 *
+	 * @param calls          {@link Collection} of {@link GenotypeCalls} objects to perform the mode of inheritance check for in
+	 *                       case of non-recessive mode of inheritance
+	 * @param recessiveCalls {@link Collection} of {@link GenotypeCalls} objects to perform the mode of
+	 *                       inheritance check for in case of recessive mode of inheritance
+	 * @return {@link Map} that, for each {@link ModeOfInheritance}, contains the {@link Collection} of compatible
+	 * {@link GenotypeCalls} from <code>list</code>
+	 * @throws IncompatiblePedigreeException if the individuals in <code>calls</code> do not fit to the pedigree
+	 */
+	public Map<ModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritance(
+		Collection<GenotypeCalls> calls, Collection<GenotypeCalls> recessiveCalls) throws IncompatiblePedigreeException {
+		checkCompatibleWithPedigree(calls);
+		final List<List<GenotypeCalls>> partition = partitionByChromType(calls);
+		final List<List<GenotypeCalls>> recessivePartition;
+		if (recessiveCalls == calls) {
+			recessivePartition = partition;
+		} else {
+			checkCompatibleWithPedigree(recessiveCalls);
+			recessivePartition = partitionByChromType(recessiveCalls);
+		}
+
+		Map<ModeOfInheritance, List<GenotypeCalls>> map = new LinkedHashMap<>();
+		for (ModeOfInheritance mode : ModeOfInheritance.values()) {
+			if (mode == ModeOfInheritance.ANY) {
+				map.put(mode, List.copyOf(calls));
+			} else {
+				if (mode == ModeOfInheritance.AUTOSOMAL_RECESSIVE || mode == ModeOfInheritance.X_RECESSIVE) {
+					map.put(mode, filterCompatibleRecords(recessiveCalls, recessivePartition, mode));
+				} else {
+					map.put(mode, filterCompatibleRecords(calls, partition, mode));
+				}
+			}
+		}
+		return map;
+	}
+
+	public Map<ModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritance(
+		Collection<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		return Collections.unmodifiableMap(checkMendelianInheritance(calls, calls));
+	}
+
+
+	/**
+	 * Perform checking for compatible sub mode of inheritance
+	 * <p>
+	 * The calls are partitioned by {@link ChromosomeType} once, and each checker only sees the calls on its
+	 * chromosome, through {@link AbstractMendelianChecker#filterCompatibleRecordsOnChromosome(List)}.
+	 *
+	 * @param calls                 {@link Collection} of {@link GenotypeCalls} objects to perform the mode of inheritance check for
+	 * @param compHetRecessiveCalls {@link Collection} of {@link GenotypeCalls} objects to perform the mode of
+	 *                              inheritance check for in case of compound het. recessive mode of inheritance
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the {@link Collection} of compatible
+	 * {@link GenotypeCalls} from <code>list</code>
+	 * @throws IncompatiblePedigreeException if the individuals in <code>calls</code> do not fit to the pedigree
+	 */
+	public Map<SubModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritanceSub(
+		Collection<GenotypeCalls> calls, Collection<GenotypeCalls> compHetRecessiveCalls) throws IncompatiblePedigreeException {
+		checkCompatibleWithPedigree(calls);
+		final List<List<GenotypeCalls>> partition = partitionByChromType(calls);
+		final List<List<GenotypeCalls>> compHetPartition;
+		if (compHetRecessiveCalls == calls) {
+			compHetPartition = partition;
+		} else {
+			checkCompatibleWithPedigree(compHetRecessiveCalls);
+			compHetPartition = partitionByChromType(compHetRecessiveCalls);
+		}
+
+		Map<SubModeOfInheritance, List<GenotypeCalls>> map = new LinkedHashMap<>();
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+			if (mode == SubModeOfInheritance.ANY) {
+				map.put(mode, List.copyOf(calls));
+			} else {
+				final int chromType = checkers.get(mode).getChromType().ordinal();
+				if (mode == SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET || mode == SubModeOfInheritance.X_RECESSIVE_COMP_HET) {
+					map.put(mode, filterOnChromosome(mode, compHetPartition.get(chromType)));
+				} else {
+					map.put(mode, filterOnChromosome(mode, partition.get(chromType)));
+				}
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Partition <code>calls</code> by {@link ChromosomeType} in two passes, counting first so that each partition is
+	 * allocated with its final size
+	 *
+	 * @return the calls on each {@link ChromosomeType}, indexed by ordinal, in the order of <code>calls</code>
+	 */
+	private static List<List<GenotypeCalls>> partitionByChromType(Collection<GenotypeCalls> calls) {
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		int[] sizes = new int[chromTypes.length];
+		for (GenotypeCalls gc : calls)
+			++sizes[gc.getChromType().ordinal()];
+		GenotypeCalls[][] partitions = new GenotypeCalls[chromTypes.length][];
+		for (int i = 0; i < chromTypes.length; ++i)
+			partitions[i] = new GenotypeCalls[sizes[i]];
+		int[] next = new int[chromTypes.length];
+		for (GenotypeCalls gc : calls) {
+			final int i = gc.getChromType().ordinal();
+			partitions[i][next[i]++] = gc;
+		}
+
+		List<List<GenotypeCalls>> result = new ArrayList<>(chromTypes.length);
+		for (GenotypeCalls[] partition : partitions)
+			result.add(Collections.unmodifiableList(Arrays.asList(partition)));
+		return result;
+	}
+
+	public Map<SubModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritanceSub(
+		Collection<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		return Collections.unmodifiableMap(checkMendelianInheritanceSub(calls, calls));
+	}
+
+	/**
+	 * Perform checking for compatible sub mode of inheritance on the index-based fast path
+	 * <p>
+	 * This gives the same results as {@link #checkMendelianInheritanceSub(Collection)} but works directly on
+	 * {@link IndexedGenotypes}, e.g., a memory-mapped {@link org.monarchinitiative.gregor.store.GenotypeStore}, without
+	 * materializing any {@link GenotypeCalls}.
+	 *
+	 * @param genotypes the genotypes to check, members indexed as in the pedigree
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the sorted indices of the compatible
+	 * sites in <code>genotypes</code>
+	 * @throws IncompatiblePedigreeException if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS} members
+	 */
+	public Map<SubModeOfInheritance, int[]> checkMendelianInheritanceSub(IndexedGenotypes genotypes)
+		throws IncompatiblePedigreeException {
+		return getIndexedChecker().checkMendelianInheritanceSub(genotypes);
+	}
+
+	/**
+	 * Filters sites in <code>genotypes</code> for compatibility with <code>subMode</code> on the index-based fast path
+	 *
+	 * @param genotypes the genotypes to check, members indexed as in the pedigree
+	 * @param subMode   {@link SubModeOfInheritance} to check for
+	 * @return sorted indices of the sites in <code>genotypes</code> that are compatible with <code>subMode</code>
+	 * @throws IncompatiblePedigreeException if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS} members
+	 */
+	public int[] filterCompatibleSitesSub(IndexedGenotypes genotypes, SubModeOfInheritance subMode)
+		throws IncompatiblePedigreeException {
+		final IndexedMendelianChecker checker = getIndexedChecker();
+		if (subMode == SubModeOfInheritance.ANY)
+			return checker.filterCompatibleSites(genotypes, subMode);
+		final InheritanceCheckEvent event = new InheritanceCheckEvent();
+		event.begin();
+		final long start = metricsEnabled ? System.nanoTime() : 0;
+		final int[] result = checker.filterCompatibleSites(genotypes, subMode);
+		report(event, start, subMode, genotypes.getNSites(), result.length);
+		return result;
+	}
+
+	/**
+	 * Perform checking for compatible sub mode of inheritance on the index-based fast path, taking only genotypes
+	 * passing <code>thresholds</code> into account
+	 * <p>
+	 * Genotypes below the thresholds are masked to {@link GenotypeClass#NOT_OBSERVED} as they are read, see
+	 * {@link QualityThresholds#mask(IndexedGenotypes)}, so <code>genotypes</code> can be checked with a series of
+	 * thresholds without building any new genotypes.
+	 *
+	 * @param genotypes  the genotypes to check, members indexed as in the pedigree
+	 * @param thresholds the {@link QualityThresholds} for masking genotypes
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the sorted indices of the compatible
+	 * sites in <code>genotypes</code>
+	 * @throws IncompatiblePedigreeException if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS} members
+	 */
+	public Map<SubModeOfInheritance, int[]> checkMendelianInheritanceSub(IndexedGenotypes genotypes,
+																		 QualityThresholds thresholds) throws IncompatiblePedigreeException {
+		return checkMendelianInheritanceSub(thresholds.mask(genotypes));
+	}
+
+	/**
+	 * Filters sites in <code>genotypes</code> for compatibility with <code>subMode</code> on the index-based fast path,
+	 * taking only genotypes passing <code>thresholds</code> into account
+	 *
+	 * @param genotypes  the genotypes to check, members indexed as in the pedigree
+	 * @param subMode    {@link SubModeOfInheritance} to check for
+	 * @param thresholds the {@link QualityThresholds} for masking genotypes
+	 * @return sorted indices of the sites in <code>genotypes</code> that are compatible with <code>subMode</code>
+	 * @throws IncompatiblePedigreeException if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS} members
+	 */
+	public int[] filterCompatibleSitesSub(IndexedGenotypes genotypes, SubModeOfInheritance subMode,
+										  QualityThresholds thresholds) throws IncompatiblePedigreeException {
+		return filterCompatibleSitesSub(thresholds.mask(genotypes), subMode);
+	}
+
+	/**
+	 * Perform tolerant checking for compatible sub mode of inheritance on the index-based fast path
+	 * <p>
+	 * Instead of rejecting a site at the first genotype that breaks the rule of a sub mode, e.g. a miscalled parent,
+	 * the violations are counted in the same pass and sites with at most <code>maxViolations</code> are accepted.
+	 * Sites without the carrier that a rule requires are never accepted. The sites without violations are the ones of
+	 * {@link #checkMendelianInheritanceSub(IndexedGenotypes)}, see {@link ToleratedSites#strictSites()}. The compound
+	 * heterozygous sub modes are checked strictly.
+	 * <p>
+	 * A budget of <code>0</code> costs the same as the strict check. A positive budget costs more, as the members of
+	 * a site must be read past its first violation: with a budget of <code>1</code>, the check takes about 1.1 to 3
+	 * times as long as the strict one, depending on the pedigree and on whether the Vector API is available.
+	 *
+	 * @param genotypes     the genotypes to check, members indexed as in the pedigree
+	 * @param maxViolations largest number of violations to accept at a site
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the accepted sites in
+	 * <code>genotypes</code> with their number of violations
+	 * @throws IncompatiblePedigreeException if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS} members
+	 * @throws IllegalArgumentException      if <code>maxViolations</code> is negative
+	 */
+	public Map<SubModeOfInheritance, ToleratedSites> checkMendelianInheritanceSub(IndexedGenotypes genotypes,
+																				  int maxViolations) throws IncompatiblePedigreeException {
+		return getIndexedChecker().checkMendelianInheritanceSub(genotypes, maxViolations);
+	}
+
+	/**
+	 * Filters sites in <code>genotypes</code> for compatibility with <code>subMode</code> on the index-based fast path,
+	 * tolerating up to <code>maxViolations</code> violations, see
+	 * {@link #checkMendelianInheritanceSub(IndexedGenotypes, int)}
+	 *
+	 * @param genotypes     the genotypes to check, members indexed as in the pedigree
+	 * @param subMode       {@link SubModeOfInheritance} to check for
+	 * @param maxViolations largest number of violations to accept at a site
+	 * @return the accepted sites in <code>genotypes</code> with their number of violations
+	 * @throws IncompatiblePedigreeException if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS} members
+	 * @throws IllegalArgumentException      if <code>maxViolations</code> is negative
+	 */
+	public ToleratedSites filterToleratedSitesSub(IndexedGenotypes genotypes, SubModeOfInheritance subMode,
+												  int maxViolations) throws IncompatiblePedigreeException {
+		return getIndexedChecker().filterToleratedSites(genotypes, subMode, maxViolations);
+	}
+
+	/**
+	 * Perform checking for compatible sub mode of inheritance, taking only genotypes passing <code>thresholds</code>
+	 * into account
+	 * <p>
+	 * Unless <code>thresholds</code> mask nothing, this runs on the index-based fast path with the quality values of
+	 * the {@link GenotypeCalls}. For a series of thresholds, build the {@link IndexedGenotypes} once and use
+	 * {@link #checkMendelianInheritanceSub(IndexedGenotypes, QualityThresholds)}.
+	 *
+	 * @param calls      {@link Collection} of {@link GenotypeCalls} objects to perform the mode of inheritance check for
+	 * @param thresholds the {@link QualityThresholds} for masking genotypes
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the {@link Collection} of compatible
+	 * {@link GenotypeCalls} from <code>list</code>
+	 * @throws IncompatiblePedigreeException if the individuals in <code>calls</code> do not fit to the pedigree or, with
+	 *                                       masking, if the pedigree has more than {@link CompiledPedigree#MAX_MEMBERS}
+	 *                                       members
+	 */
+	public Map<SubModeOfInheritance, List<GenotypeCalls>> checkMendelianInheritanceSub(
+		Collection<GenotypeCalls> calls, QualityThresholds thresholds) throws IncompatiblePedigreeException {
+		if (thresholds.equals(QualityThresholds.NONE))
+			return checkMendelianInheritanceSub(calls);
+		checkCompatibleWithPedigree(calls);
+		final List<GenotypeCalls> list = List.copyOf(calls);
+		final Map<SubModeOfInheritance, int[]> sites = checkMendelianInheritanceSub(IndexedGenotypes.of(pedigree, list),
+			thresholds);
+
+		Map<SubModeOfInheritance, List<GenotypeCalls>> map = new LinkedHashMap<>();
+		for (Map.Entry<SubModeOfInheritance, int[]> entry : sites.entrySet()) {
+			GenotypeCalls[] compatible = new GenotypeCalls[entry.getValue().length];
+			for (int i = 0; i < compatible.length; ++i)
+				compatible[i] = list.get(entry.getValue()[i]);
+			map.put(entry.getKey(), List.of(compatible));
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	private IndexedMendelianChecker getIndexedChecker() throws IncompatiblePedigreeException {
+		if (indexedChecker == null)
+			throw new IncompatiblePedigreeException("Pedigree has more than " + CompiledPedigree.MAX_MEMBERS
+				+ " members, too large for index-based checking");
+		return indexedChecker;
+	}
+
+	/**
+	 * Filters records in <code>calls</code> for compatibility with <code>mode</code>
+	 *
+	 * @param calls List of {@link GenotypeCalls} to filter
+	 * @param mode  {@link ModeOfInheritance} to check for
+	 * @return List of {@link GenotypeCalls} from <code>calls</code> that are compatible with <code>mode</code>
+	 * @throws IncompatiblePedigreeException if the individuals in <code>calls</code> do not fit to the pedigree
+	 */
+	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls, ModeOfInheritance mode)
+		throws IncompatiblePedigreeException {
+		// Check for compatibility of calls with pedigree
+		checkCompatibleWithPedigree(calls);
+		// Filter down to the compatible records
+		if (mode == ModeOfInheritance.ANY)
+			return List.copyOf(calls);
+		return filterCompatibleRecords(calls, partitionByChromType(calls), mode);
+	}
+
+	/**
+	 * Filters records in <code>calls</code> for compatibility with <code>mode</code>, passing each checker the calls
+	 * on its chromosome type only
+	 *
+	 * @param partition <code>calls</code> partitioned by {@link #partitionByChromType(Collection)}
+	 */
+	private List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls,
+		List<List<GenotypeCalls>> partition, ModeOfInheritance mode) throws IncompatiblePedigreeException {
+		switch (mode) {
+			case AUTOSOMAL_DOMINANT:
+				return filterPartition(SubModeOfInheritance.AUTOSOMAL_DOMINANT, partition);
+			case AUTOSOMAL_RECESSIVE:
+				return union(calls, filterPartition(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, partition),
+					filterPartition(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, partition));
+			case X_DOMINANT:
+				return filterPartition(SubModeOfInheritance.X_DOMINANT, partition);
+			case X_RECESSIVE:
+				return union(calls, filterPartition(SubModeOfInheritance.X_RECESSIVE_HOM_ALT, partition),
+					filterPartition(SubModeOfInheritance.X_RECESSIVE_COMP_HET, partition));
+			case MITOCHONDRIAL:
+				return filterPartition(SubModeOfInheritance.MITOCHONDRIAL, partition);
+			default:
+			case ANY:
+				return List.copyOf(calls);
+		}
+	}
+
+	/**
+	 * @return the calls from <code>calls</code> that are in <code>calls1</code> or <code>calls2</code>, in order
+	 */
+	private static List<GenotypeCalls> union(Collection<GenotypeCalls> calls, List<GenotypeCalls> calls1,
+		List<GenotypeCalls> calls2) {
+		final Set<GenotypeCalls> set1 = new HashSet<>(calls1);
+		final Set<GenotypeCalls> set2 = new HashSet<>(calls2);
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (GenotypeCalls c : calls)
+			if (set1.contains(c) || set2.contains(c))
+				result.add(c);
+		return Collections.unmodifiableList(result);
+	}
+
+	/**
+	 * Filters records in <code>calls</code> for compatibility with <code>subMode</code>
+	 *
+	 * @param calls   List of {@link GenotypeCalls} to filter
+	 * @param subMode {@link SubModeOfInheritance} to check for
+	 * @return List of {@link GenotypeCalls} from <code>calls</code> that are compatible with <code>mode</code>
+	 * @throws IncompatiblePedigreeException if the individuals in <code>calls</code> do not fit to the pedigree
+	 */
+	public List<GenotypeCalls> filterCompatibleRecordsSub(Collection<GenotypeCalls> calls,
+																   SubModeOfInheritance subMode) throws IncompatiblePedigreeException {
+		// Check for compatibility of calls with pedigree
+		checkCompatibleWithPedigree(calls);
+		// Filter down to the compatible records
+		if (subMode == SubModeOfInheritance.ANY)
+			return List.copyOf(calls);
+		else
+			return filter(subMode, calls);
+	}
+
+	/**
+	 * Filter <code>calls</code> with the checker for <code>subMode</code>, reporting to {@link #metrics} and as
+	 * {@link InheritanceCheckEvent}
+	 */
+	private List<GenotypeCalls> filter(SubModeOfInheritance subMode, Collection<GenotypeCalls> calls)
+		throws IncompatiblePedigreeException {
+		final InheritanceCheckEvent event = new InheritanceCheckEvent();
+		event.begin();
+		final long start = metricsEnabled ? System.nanoTime() : 0;
+		final List<GenotypeCalls> result = checkers.get(subMode).filterCompatibleRecords(calls);
+		report(event, start, subMode, calls.size(), result.size());
+		return result;
+	}
+
+	/**
+	 * Same as {@link #filterOnChromosome(SubModeOfInheritance, List)} with the partition of the checker for
+	 * <code>subMode</code>
+	 *
+	 * @param partition calls partitioned by {@link #partitionByChromType(Collection)}
+	 */
+	private List<GenotypeCalls> filterPartition(SubModeOfInheritance subMode, List<List<GenotypeCalls>> partition)
+		throws IncompatiblePedigreeException {
+		return filterOnChromosome(subMode, partition.get(checkers.get(subMode).getChromType().ordinal()));
+	}
+
+	/**
+	 * Same as {@link #filter(SubModeOfInheritance, Collection)} for <code>calls</code> that are all on the chromosome
+	 * type of the checker for <code>subMode</code>
+	 */
+	private List<GenotypeCalls> filterOnChromosome(SubModeOfInheritance subMode, List<GenotypeCalls> calls)
+		throws IncompatiblePedigreeException {
+		final InheritanceCheckEvent event = new InheritanceCheckEvent();
+		event.begin();
+		final long start = metricsEnabled ? System.nanoTime() : 0;
+		final List<GenotypeCalls> result = checkers.get(subMode).filterCompatibleRecordsOnChromosome(calls);
+		report(event, start, subMode, calls.size(), result.size());
+		return result;
+	}
+
+	/**
+	 * Report filtering that started at <code>start</code> to {@link #metrics}, end <code>event</code> and commit it if it
+	 * is to be recorded
+	 */
+	private void report(InheritanceCheckEvent event, long start, SubModeOfInheritance subMode, int nCallsIn,
+						int nCallsPassed) {
+		if (metricsEnabled)
+			metrics.filtered(subMode, nCallsIn, nCallsPassed, System.nanoTime() - start);
+		event.end();
+		if (event.shouldCommit()) {
+			event.pedigreeName = pedigree.getName();
+			event.subMode = subMode.name();
+			event.nCallsIn = nCallsIn;
+			event.nCallsPassed = nCallsPassed;
+			event.commit();
+		}
+	}
+
+	/**
+	 * @return {@link Pedigree} to use
+	 */
+	public Pedigree getPedigree() {
+		return pedigree;
+	}
+
+	/**
+	 * @return handling of no-calls for {@link SubModeOfInheritance#DE_NOVO}
+	 */
+	public NoCallPolicy getNoCallPolicy() {
+		return noCallPolicy;
+	}
+
+	/**
+	 * @return {@link InheritanceMetrics} this checker reports to
+	 */
+	public InheritanceMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Check that the samples of all <code>calls</code> are members of this pedigree
+	 * <p>
+	 * Calls usually all have the same samples, so the last compatible list of sample names is remembered and equal
+	 * lists are not checked again.
+	 *
+	 * @throws IncompatiblePedigreeException if any call has a sample that is not a member of this pedigree
+	 */
+	private void checkCompatibleWithPedigree(Collection<GenotypeCalls> calls) throws IncompatiblePedigreeException {
+		List<String> last = lastCompatibleSampleNames;
+		int nHits = 0;
+		for (GenotypeCalls gc : calls) {
+			final List<String> sampleNames = gc.getSampleNames();
+			if (sampleNames == last || sampleNames.equals(last)) {
+				++nHits;
+				continue;
+			}
+			if (!memberNames.containsAll(sampleNames))
+				throw new IncompatiblePedigreeException("GenotypeCalls not compatible with pedigree");
+			last = sampleNames;
+		}
+		lastCompatibleSampleNames = last;
+		if (metricsEnabled)
+			metrics.sampleNameCache(nHits, calls.size() - nHits);
+	}
+
+}
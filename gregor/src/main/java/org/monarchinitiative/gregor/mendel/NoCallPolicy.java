@@ -0,0 +1,22 @@
+package org.monarchinitiative.gregor.mendel;
+
+/**
+ * Handling of not observed genotypes of members that must not carry a variant
+ * <p>
+ * Used by the {@link SubModeOfInheritance#DE_NOVO} check for the parents and unaffected siblings of the affected
+ * child. Only genotypes without any called allele are no-calls here. Partially called genotypes such as
+ * <code>0/.</code> are het. as well as hom. ref. (see {@link GenotypeClass}) and always count as carrying the variant,
+ * under both policies, since the missing allele may be the variant.
+ */
+public enum NoCallPolicy {
+
+	/**
+	 * members must be called hom. ref., a no-call rejects the site
+	 */
+	REJECT,
+	/**
+	 * members must not be called with the variant, a no-call is accepted, a partial call is not
+	 */
+	IGNORE;
+
+}
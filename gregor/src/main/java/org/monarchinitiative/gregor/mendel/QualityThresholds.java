@@ -0,0 +1,81 @@
+package org.monarchinitiative.gregor.mendel;
+
+/**
+ * Minimal genotype quality and read depth for taking a genotype into account when checking
+ * <p>
+ * Genotypes below either threshold are masked to {@link GenotypeClass#NOT_OBSERVED} while evaluating, as if they were
+ * no-calls, see {@link MendelianInheritanceChecker#checkMendelianInheritanceSub(IndexedGenotypes, QualityThresholds)}.
+ * Missing values ({@link GenotypeCalls#MISSING_QUALITY}) never mask a genotype. Masking works on a view of the
+ * genotypes, so checking the same genotypes with a series of thresholds does not allocate per genotype.
+ *
+ * @param minGenotypeQuality smallest genotype quality (<code>GQ</code>) of genotypes to take into account
+ * @param minReadDepth       smallest read depth (<code>DP</code>) of genotypes to take into account
+ */
+public record QualityThresholds(int minGenotypeQuality, int minReadDepth) {
+
+	/**
+	 * Thresholds that do not mask any genotype
+	 */
+	public static final QualityThresholds NONE = new QualityThresholds(0, 0);
+
+	/**
+	 * @throws IllegalArgumentException if a threshold is negative
+	 */
+	public QualityThresholds {
+		if (minGenotypeQuality < 0 || minReadDepth < 0)
+			throw new IllegalArgumentException("Negative quality threshold: GQ " + minGenotypeQuality + ", DP "
+				+ minReadDepth);
+	}
+
+	/**
+	 * @param genotypeQuality genotype quality, {@link GenotypeCalls#MISSING_QUALITY} if not available
+	 * @param readDepth       read depth, {@link GenotypeCalls#MISSING_QUALITY} if not available
+	 * @return whether a genotype with the given quality values is masked
+	 */
+	public boolean isMasked(int genotypeQuality, int readDepth) {
+		// missing values are negative, non-short-circuit operators as the outcome is unpredictable
+		return ((genotypeQuality < minGenotypeQuality) & (genotypeQuality >= 0))
+			| ((readDepth < minReadDepth) & (readDepth >= 0));
+	}
+
+	/**
+	 * @param genotypes the genotypes to mask
+	 * @return view of <code>genotypes</code> with the genotypes masked by these thresholds reported as
+	 * {@link GenotypeClass#NOT_OBSERVED}, <code>genotypes</code> itself for {@link #NONE}
+	 */
+	public IndexedGenotypes mask(IndexedGenotypes genotypes) {
+		if (minGenotypeQuality == 0 && minReadDepth == 0)
+			return genotypes;
+		return new IndexedGenotypes() {
+			@Override
+			public int getNSites() {
+				return genotypes.getNSites();
+			}
+
+			@Override
+			public ChromosomeType getChromType(int site) {
+				return genotypes.getChromType(site);
+			}
+
+			@Override
+			public int getGenotypeClass(int site, int member) {
+				final int cls = genotypes.getGenotypeClass(site, member);
+				if (cls == GenotypeClass.NOT_OBSERVED)
+					return cls;
+				return isMasked(genotypes.getGenotypeQuality(site, member), genotypes.getReadDepth(site, member)) ?
+					GenotypeClass.NOT_OBSERVED : cls;
+			}
+
+			@Override
+			public int getGenotypeQuality(int site, int member) {
+				return genotypes.getGenotypeQuality(site, member);
+			}
+
+			@Override
+			public int getReadDepth(int site, int member) {
+				return genotypes.getReadDepth(site, member);
+			}
+		};
+	}
+
+}
@@ -40,6 +40,14 @@ public enum SubModeOfInheritance {
 	 * mitochondrial inheritance
 	 */
 	MITOCHONDRIAL,
+	/**
+	 * Y-linked inheritance
+	 */
+	Y_LINKED,
+	/**
+	 * de novo variant in an affected child, absent from the parents and unaffected siblings
+	 */
+	DE_NOVO,
 	/**
 	 * value for encoding uninitialized values
 	 */
@@ -65,16 +73,18 @@ public enum SubModeOfInheritance {
             case X_RECESSIVE_COMP_HET -> "XR_COMP_HET";
             case X_RECESSIVE_HOM_ALT -> "XR_HOM_ALT";
             case MITOCHONDRIAL -> "MT";
+            case Y_LINKED -> "YL";
+            case DE_NOVO -> "DN";
             default -> null;
         };
 	}
 
 	/**
-	 * @return coarsened value from {@link ModeOfInheritance}
+	 * @return coarsened value from {@link ModeOfInheritance}, {@link ModeOfInheritance#ANY} for {@link #Y_LINKED}
 	 */
 	public ModeOfInheritance toModeOfInheritance() {
         return switch (this) {
-            case AUTOSOMAL_DOMINANT -> ModeOfInheritance.AUTOSOMAL_DOMINANT;
+            case AUTOSOMAL_DOMINANT, DE_NOVO -> ModeOfInheritance.AUTOSOMAL_DOMINANT;
             case AUTOSOMAL_RECESSIVE_COMP_HET, AUTOSOMAL_RECESSIVE_HOM_ALT -> ModeOfInheritance.AUTOSOMAL_RECESSIVE;
             case X_DOMINANT -> ModeOfInheritance.X_DOMINANT;
             case X_RECESSIVE_COMP_HET, X_RECESSIVE_HOM_ALT -> ModeOfInheritance.X_RECESSIVE;
@@ -0,0 +1,49 @@
+package org.monarchinitiative.gregor.mendel;
+
+/**
+ * Sites accepted by a tolerant check together with the number of rule violations of each
+ * <p>
+ * A violation is a member whose genotype breaks the rule of the sub mode of inheritance (e.g., an affected member
+ * called hom. ref. for autosomal dominant inheritance). Sites without the carrier that the rule requires (e.g., no
+ * affected member carrying the variant) are never accepted, whatever the budget. Sites with zero violations are
+ * exactly the sites accepted by the strict check, so a tolerant result also contains the strict one, see
+ * {@link #strictSites()}.
+ *
+ * @param sites      sorted indices of the accepted sites
+ * @param violations number of violations at each site in <code>sites</code>, at the same position
+ */
+public record ToleratedSites(int[] sites, int[] violations) {
+
+	/**
+	 * @throws IllegalArgumentException if the arrays have different lengths
+	 */
+	public ToleratedSites {
+		if (sites.length != violations.length)
+			throw new IllegalArgumentException("Got " + sites.length + " sites but " + violations.length
+				+ " violation counts");
+	}
+
+	/**
+	 * @return number of accepted sites
+	 */
+	public int size() {
+		return sites.length;
+	}
+
+	/**
+	 * @return sorted indices of the accepted sites without any violation
+	 */
+	public int[] strictSites() {
+		int n = 0;
+		for (int v : violations)
+			if (v == 0)
+				++n;
+		int[] result = new int[n];
+		n = 0;
+		for (int i = 0; i < sites.length; ++i)
+			if (violations[i] == 0)
+				result[n++] = sites[i];
+		return result;
+	}
+
+}
@@ -1,11 +1,13 @@
 package org.monarchinitiative.gregor.mendel.impl;
 
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
 import org.monarchinitiative.gregor.mendel.GenotypeCalls;
 import org.monarchinitiative.gregor.mendel.IncompatiblePedigreeException;
 import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
 import org.monarchinitiative.gregor.pedigree.Pedigree;
 import org.monarchinitiative.gregor.pedigree.PedigreeQueryDecorator;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -37,6 +39,11 @@ public abstract class AbstractMendelianChecker {
 		this.queryDecorator = new PedigreeQueryDecorator(this.pedigree);
 	}
 
+	/**
+	 * @return type of the chromosome whose calls this checker considers, calls on other chromosomes never pass
+	 */
+	public abstract ChromosomeType getChromType();
+
 	/**
 	 * Filter list of {@link GenotypeCalls} for fitting to mode
 	 *
@@ -44,7 +51,27 @@ public abstract class AbstractMendelianChecker {
 	 * @return Filtered {@link List} of {@link GenotypeCalls} objects, subset of <code>calls</code>
 	 * @throws IncompatiblePedigreeException if <code>calls</code> is incompatible with the pedigree
 	 */
-	public abstract List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
+	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
+		throws IncompatiblePedigreeException {
+		final ChromosomeType chromType = getChromType();
+		List<GenotypeCalls> onChromosome = new ArrayList<>();
+		for (GenotypeCalls gc : calls)
+			if (gc.getChromType() == chromType)
+				onChromosome.add(gc);
+		return filterCompatibleRecordsOnChromosome(onChromosome);
+	}
+
+	/**
+	 * Filter list of {@link GenotypeCalls} that are all on {@link #getChromType()} for fitting to mode
+	 * <p>
+	 * In contrast to {@link #filterCompatibleRecords(Collection)}, the chromosome types of the calls are not checked,
+	 * e.g., for calls that are already partitioned by {@link ChromosomeType}.
+	 *
+	 * @param calls The list of calls to check for compatibility, all on {@link #getChromType()}
+	 * @return Filtered {@link List} of {@link GenotypeCalls} objects, subset of <code>calls</code>
+	 * @throws IncompatiblePedigreeException if <code>calls</code> is incompatible with the pedigree
+	 */
+	public abstract List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls)
 		throws IncompatiblePedigreeException;
 
 }
@@ -0,0 +1,238 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+
+import java.util.Arrays;
+
+/**
+ * Per-member form of a {@link SiteRule} for evaluating it on genotype class columns
+ * <p>
+ * A site is compatible if, for every member <code>m</code>, the {@link GenotypeClass} <code>cls</code> of the member
+ * satisfies <code>(cls &amp; checked[m]) == expected[m]</code>, and at least one member has
+ * <code>(cls &amp; witness[m]) != 0</code>. This covers all per-site rules: members that must not have a flag (e.g.,
+ * affected members must not be hom. ref.), members that must have a flag, and the requirement that some (e.g.,
+ * affected) member carries the variant. The constraints can be evaluated for many sites at once with the members in
+ * the outer loop, see {@link ColumnarKernel}, or on the genotype class masks of one site, see
+ * {@link #isCompatible(long, long, long, long)}.
+ */
+final class ClassConstraints {
+
+	/**
+	 * Violation count of sites that the rule does not apply to, larger than any count for a {@link CompiledPedigree}
+	 */
+	static final byte NOT_APPLICABLE = Byte.MAX_VALUE;
+
+	/**
+	 * Flags checked for each member
+	 */
+	private final byte[] checked;
+	/**
+	 * Expected value of the checked flags for each member
+	 */
+	private final byte[] expected;
+	/**
+	 * Flags of which one member must have at least one
+	 */
+	private final byte[] witness;
+	/**
+	 * Members with any constraint, in increasing order
+	 */
+	private int[] members = new int[0];
+	/**
+	 * For each {@link GenotypeClass} flag, by bit index, mask of the members that must not have it
+	 */
+	private final long[] forbiddenMasks = new long[GenotypeClass.BITS];
+	/**
+	 * For each {@link GenotypeClass} flag, by bit index, mask of the members that must have it
+	 */
+	private final long[] requiredMasks = new long[GenotypeClass.BITS];
+	/**
+	 * For each {@link GenotypeClass} flag, by bit index, mask of the members of which one must have it
+	 */
+	private final long[] witnessMasks = new long[GenotypeClass.BITS];
+	/**
+	 * Whether the rule can be satisfied at all, the pedigree itself may contradict it
+	 */
+	private boolean satisfiable = true;
+
+	ClassConstraints(int nMembers) {
+		this.checked = new byte[nMembers];
+		this.expected = new byte[nMembers];
+		this.witness = new byte[nMembers];
+	}
+
+	/**
+	 * Forbid <code>flags</code> for the members in the mask <code>members</code>
+	 */
+	ClassConstraints forbid(long members, int flags) {
+		for (int m = 0; m < checked.length; ++m)
+			if ((members & (1L << m)) != 0)
+				checked[m] |= (byte) flags;
+		return update();
+	}
+
+	/**
+	 * Require all of <code>flags</code> for the members in the mask <code>members</code>
+	 */
+	ClassConstraints requireAll(long members, int flags) {
+		for (int m = 0; m < checked.length; ++m)
+			if ((members & (1L << m)) != 0) {
+				checked[m] |= (byte) flags;
+				expected[m] |= (byte) flags;
+			}
+		return update();
+	}
+
+	/**
+	 * Require one of the members in the mask <code>members</code> to have one of <code>flags</code>
+	 */
+	ClassConstraints requireAny(long members, int flags) {
+		for (int m = 0; m < witness.length; ++m)
+			if ((members & (1L << m)) != 0)
+				witness[m] |= (byte) flags;
+		return update();
+	}
+
+	/**
+	 * Mark rule as not satisfiable
+	 */
+	ClassConstraints never() {
+		satisfiable = false;
+		return this;
+	}
+
+	private ClassConstraints update() {
+		int n = 0;
+		int[] result = new int[checked.length];
+		Arrays.fill(forbiddenMasks, 0L);
+		Arrays.fill(requiredMasks, 0L);
+		Arrays.fill(witnessMasks, 0L);
+		for (int m = 0; m < checked.length; ++m) {
+			if (checked[m] != 0 || witness[m] != 0)
+				result[n++] = m;
+			for (int f = 0; f < GenotypeClass.BITS; ++f) {
+				if ((checked[m] & (1 << f)) != 0) {
+					if ((expected[m] & (1 << f)) != 0)
+						requiredMasks[f] |= 1L << m;
+					else
+						forbiddenMasks[f] |= 1L << m;
+				}
+				if ((witness[m] & (1 << f)) != 0)
+					witnessMasks[f] |= 1L << m;
+			}
+		}
+		members = Arrays.copyOf(result, n);
+		return this;
+	}
+
+	/**
+	 * @return whether any site can be compatible
+	 */
+	boolean isSatisfiable() {
+		return satisfiable;
+	}
+
+	/**
+	 * @return members with any constraint, in increasing order; the others can be skipped
+	 */
+	int[] getMembers() {
+		return members;
+	}
+
+	/**
+	 * @return the flags checked for member <code>m</code>
+	 */
+	byte getChecked(int m) {
+		return checked[m];
+	}
+
+	/**
+	 * @return the expected value of the checked flags of member <code>m</code>
+	 */
+	byte getExpected(int m) {
+		return expected[m];
+	}
+
+	/**
+	 * @return the flags of member <code>m</code> of which one member must have one
+	 */
+	byte getWitness(int m) {
+		return witness[m];
+	}
+
+	/**
+	 * Evaluate the constraints at one site
+	 *
+	 * @param columns genotype class of each member (first index) at each site (second index)
+	 * @param site    index of the site in the columns
+	 * @return whether the site is compatible, regardless of its chromosome type
+	 */
+	boolean isCompatible(byte[][] columns, int site) {
+		if (!satisfiable)
+			return false;
+		boolean witnessed = false;
+		for (int m : members) {
+			final byte cls = columns[m][site];
+			if ((cls & checked[m]) != expected[m])
+				return false;
+			witnessed |= (cls & witness[m]) != 0;
+		}
+		return witnessed;
+	}
+
+	/**
+	 * Evaluate the constraints on the genotype class masks of one site, bit <code>m</code> of each mask being set if
+	 * member <code>m</code> has the flag
+	 *
+	 * @return whether the site is compatible, regardless of its chromosome type
+	 */
+	boolean isCompatible(long het, long homRef, long homAlt, long notObserved) {
+		if (!satisfiable)
+			return false;
+		// the bit indices of the flags, see GenotypeClass
+		return satisfies(0, het) && satisfies(1, homRef) && satisfies(2, homAlt) && satisfies(3, notObserved)
+			&& ((het & witnessMasks[0]) | (homRef & witnessMasks[1]) | (homAlt & witnessMasks[2])
+			| (notObserved & witnessMasks[3])) != 0;
+	}
+
+	/**
+	 * @return whether the members with flag <code>f</code>, given as <code>mask</code>, satisfy the constraints on it
+	 */
+	private boolean satisfies(int f, long mask) {
+		return (mask & forbiddenMasks[f]) == 0 && (requiredMasks[f] & ~mask) == 0;
+	}
+
+	/**
+	 * Count the violations at one site: each member with <code>(cls &amp; checked[m]) != expected[m]</code> is one
+	 * violation. A missing witness, e.g., no affected carrier at all, is not a violation that a budget can cover: such a
+	 * site is never compatible, and its count is <code>maxViolations + 1</code>.
+	 * <p>
+	 * With <code>maxViolations == 0</code>, this is {@link #isCompatible(byte[][], int)} and stops at the first
+	 * violation. With a positive budget, counting stops once the count exceeds <code>maxViolations</code>, but the
+	 * sites within the budget read all constrained members, so a tolerant check is slower than the strict one: about
+	 * 1.1 to 3 times as slow with a budget of <code>1</code>, depending on the pedigree and the kernel.
+	 *
+	 * @param columns       genotype class of each member (first index) at each site (second index)
+	 * @param site          index of the site in the columns
+	 * @param maxViolations number of violations up to which to count exactly
+	 * @return number of violations, at most <code>maxViolations + 1</code> and exactly that if the witness is missing;
+	 * <code>0</code> iff {@link #isCompatible(byte[][], int)}, {@link #NOT_APPLICABLE} if the rule is not
+	 * satisfiable
+	 */
+	int countViolations(byte[][] columns, int site, int maxViolations) {
+		if (!satisfiable)
+			return NOT_APPLICABLE;
+		if (maxViolations == 0)
+			return isCompatible(columns, site) ? 0 : 1;
+		int violations = 0;
+		boolean witnessed = false;
+		for (int m : members) {
+			final byte cls = columns[m][site];
+			if ((cls & checked[m]) != expected[m] && ++violations > maxViolations)
+				return violations;
+			witnessed |= (cls & witness[m]) != 0;
+		}
+		return witnessed ? violations : maxViolations + 1;
+	}
+
+}
@@ -0,0 +1,79 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+/**
+ * Evaluates {@link ClassConstraints} on a block of sites in columnar layout
+ * <p>
+ * The genotype classes are given as one column per pedigree member, so that implementations can process many sites
+ * at once. Use {@link #get()} for the fastest implementation available in the running JVM.
+ */
+interface ColumnarKernel {
+
+	/**
+	 * @return {@link VectorColumnarKernel} if the <code>jdk.incubator.vector</code> module is present in the boot
+	 * layer (i.e., the JVM was started with <code>--add-modules jdk.incubator.vector</code>), the
+	 * {@link ScalarColumnarKernel} otherwise
+	 */
+	static ColumnarKernel get() {
+		return Holder.KERNEL;
+	}
+
+	/**
+	 * Filter the sites of a block
+	 *
+	 * @param columns     genotype class of each member (first index) at each site (second index)
+	 * @param chromTypes  {@link org.monarchinitiative.gregor.mendel.ChromosomeType} ordinal of each site
+	 * @param nSites      number of sites in the block
+	 * @param chromType   ordinal of the chromosome type that the rule applies to
+	 * @param constraints the rule to evaluate
+	 * @param result      bit set of the compatible sites, <code>(nSites + 63) / 64</code> words are overwritten
+	 */
+	void filter(byte[][] columns, byte[] chromTypes, int nSites, byte chromType, ClassConstraints constraints,
+		long[] result);
+
+	/**
+	 * Count the rule violations at the sites of a block, see
+	 * {@link ClassConstraints#countViolations(byte[][], int, int)}
+	 * <p>
+	 * This is the tolerant form of {@link #filter(byte[][], byte[], int, byte, ClassConstraints, long[])}: a site is
+	 * compatible iff its count is <code>0</code>.
+	 *
+	 * @param columns       genotype class of each member (first index) at each site (second index)
+	 * @param chromTypes    {@link org.monarchinitiative.gregor.mendel.ChromosomeType} ordinal of each site
+	 * @param nSites        number of sites in the block
+	 * @param chromType     ordinal of the chromosome type that the rule applies to
+	 * @param constraints   the rule to evaluate
+	 * @param maxViolations number of violations up to which to count exactly, at most
+	 *                      {@link CompiledPedigree#MAX_MEMBERS} <code>+ 1</code>
+	 * @param violations    number of violations at each site, <code>maxViolations + 1</code> for sites with more
+	 *                      and {@link ClassConstraints#NOT_APPLICABLE} for sites on other chromosome types; the first
+	 *                      <code>nSites</code> entries are overwritten
+	 */
+	void count(byte[][] columns, byte[] chromTypes, int nSites, byte chromType, ClassConstraints constraints,
+		int maxViolations, byte[] violations);
+
+	/**
+	 * Lazy selection of the kernel
+	 */
+	final class Holder {
+
+		private static final ColumnarKernel KERNEL = select();
+
+		private Holder() {
+		}
+
+		private static ColumnarKernel select() {
+			if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+				try {
+					// only load the class if its module is there
+					return (ColumnarKernel) Class.forName(ColumnarKernel.class.getPackageName()
+						+ ".VectorColumnarKernel").getDeclaredConstructor().newInstance();
+				} catch (ReflectiveOperationException | LinkageError e) {
+					// fall through to the scalar kernel
+				}
+			}
+			return new ScalarColumnarKernel();
+		}
+
+	}
+
+}
@@ -0,0 +1,263 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.PedigreeQueryDecorator;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index-based representation of a {@link Pedigree} for the fast path of the mendelian checkers
+ * <p>
+ * Members are addressed by their index in {@link Pedigree#getMembers()}. Sets of members are represented as
+ * <code>long</code> bit masks (bit <code>i</code> set for member <code>i</code>) such that most per-site checks
+ * collapse into a handful of bit operations. Consequently, at most {@link #MAX_MEMBERS} members are supported.
+ * <p>
+ * Parents that are not members of the pedigree have the index <code>-1</code>, their genotypes are treated as not
+ * observed, just as {@link org.monarchinitiative.gregor.mendel.GenotypeCalls#getGenotypeForSample(String)} does.
+ */
+public final class CompiledPedigree {
+
+	/**
+	 * Largest supported number of pedigree members
+	 */
+	public static final int MAX_MEMBERS = Long.SIZE;
+
+	/**
+	 * The compiled pedigree
+	 */
+	private final Pedigree pedigree;
+	/**
+	 * Number of members
+	 */
+	private final int nMembers;
+	/**
+	 * Mask of affected members
+	 */
+	private final long affected;
+	/**
+	 * Mask of unaffected members
+	 */
+	private final long unaffected;
+	/**
+	 * Mask of male members
+	 */
+	private final long male;
+	/**
+	 * Mask of female members
+	 */
+	private final long female;
+	/**
+	 * Mask of unaffected members that are parents of an affected member
+	 */
+	private final long unaffectedParentsOfAffected;
+	/**
+	 * Mask of members that are parents of an affected female
+	 */
+	private final long parentsOfAffectedFemales;
+	/**
+	 * Mask of affected members that have an unaffected mother
+	 */
+	private final long affectedWithUnaffectedMother;
+	/**
+	 * Whether each member has a father, regardless of him being a member
+	 */
+	private final boolean[] hasFather;
+	/**
+	 * Whether each member has a mother, regardless of her being a member
+	 */
+	private final boolean[] hasMother;
+	/**
+	 * Index of each member's father, <code>-1</code> if not a member
+	 */
+	private final int[] father;
+	/**
+	 * Index of each member's mother, <code>-1</code> if not a member
+	 */
+	private final int[] mother;
+	/**
+	 * Indices of each member's unaffected full siblings
+	 */
+	private final int[][] unaffectedSiblings;
+
+	/**
+	 * Compile the given {@link Pedigree}
+	 *
+	 * @param pedigree the pedigree to compile
+	 * @throws IllegalArgumentException if <code>pedigree</code> has more than {@link #MAX_MEMBERS} members
+	 */
+	public CompiledPedigree(Pedigree pedigree) {
+		if (pedigree.getNMembers() > MAX_MEMBERS)
+			throw new IllegalArgumentException("Pedigree " + pedigree.getName() + " has more than " + MAX_MEMBERS
+				+ " members");
+		this.pedigree = pedigree;
+		this.nMembers = pedigree.getNMembers();
+
+		final List<Person> members = pedigree.getMembers();
+		final PedigreeQueryDecorator queryDecorator = new PedigreeQueryDecorator(pedigree);
+		final Set<String> parentsOfAffectedFemales = queryDecorator.getAffectedFemaleParentNames();
+		final Map<Person, List<Person>> siblings = queryDecorator.buildSiblings();
+
+		long affected = 0;
+		long unaffected = 0;
+		long male = 0;
+		long female = 0;
+		long unaffectedParentsOfAffected = 0;
+		long femaleParents = 0;
+		long affectedWithUnaffectedMother = 0;
+		this.hasFather = new boolean[nMembers];
+		this.hasMother = new boolean[nMembers];
+		this.father = new int[nMembers];
+		this.mother = new int[nMembers];
+		this.unaffectedSiblings = new int[nMembers][];
+		for (int i = 0; i < nMembers; ++i) {
+			final Person p = members.get(i);
+			final long bit = 1L << i;
+			if (p.getDisease() == Disease.AFFECTED)
+				affected |= bit;
+			else if (p.getDisease() == Disease.UNAFFECTED)
+				unaffected |= bit;
+			if (p.getSex() == Sex.MALE)
+				male |= bit;
+			else if (p.getSex() == Sex.FEMALE)
+				female |= bit;
+			if (parentsOfAffectedFemales.contains(p.getName()))
+				femaleParents |= bit;
+
+			hasFather[i] = p.getFather() != null;
+			hasMother[i] = p.getMother() != null;
+			father[i] = hasFather[i] ? indexOf(p.getFather().getName()) : -1;
+			mother[i] = hasMother[i] ? indexOf(p.getMother().getName()) : -1;
+
+			if (p.getDisease() == Disease.AFFECTED) {
+				if (hasFather[i] && p.getFather().getDisease() == Disease.UNAFFECTED && father[i] >= 0)
+					unaffectedParentsOfAffected |= 1L << father[i];
+				if (hasMother[i] && p.getMother().getDisease() == Disease.UNAFFECTED && mother[i] >= 0)
+					unaffectedParentsOfAffected |= 1L << mother[i];
+				if (hasMother[i] && p.getMother().isUnaffected())
+					affectedWithUnaffectedMother |= bit;
+			}
+
+			final List<Person> sibs = siblings.containsKey(p) ? siblings.get(p) : List.of();
+			unaffectedSiblings[i] = sibs.stream()
+				.filter(sibling -> sibling.getDisease() == Disease.UNAFFECTED)
+				.mapToInt(sibling -> indexOf(sibling.getName()))
+				.toArray();
+		}
+		this.affected = affected;
+		this.unaffected = unaffected;
+		this.male = male;
+		this.female = female;
+		this.unaffectedParentsOfAffected = unaffectedParentsOfAffected;
+		this.parentsOfAffectedFemales = femaleParents;
+		this.affectedWithUnaffectedMother = affectedWithUnaffectedMother;
+	}
+
+	private int indexOf(String name) {
+		final Pedigree.IndexedPerson entry = pedigree.getNameToMember().get(name);
+		return (entry == null) ? -1 : entry.idx();
+	}
+
+	/**
+	 * @return the compiled {@link Pedigree}
+	 */
+	public Pedigree getPedigree() {
+		return pedigree;
+	}
+
+	/**
+	 * @return number of members
+	 */
+	public int getNMembers() {
+		return nMembers;
+	}
+
+	/**
+	 * @return mask of affected members
+	 */
+	public long getAffected() {
+		return affected;
+	}
+
+	/**
+	 * @return mask of unaffected members
+	 */
+	public long getUnaffected() {
+		return unaffected;
+	}
+
+	/**
+	 * @return mask of male members
+	 */
+	public long getMale() {
+		return male;
+	}
+
+	/**
+	 * @return mask of female members
+	 */
+	public long getFemale() {
+		return female;
+	}
+
+	/**
+	 * @return mask of unaffected members that are parents of an affected member
+	 */
+	public long getUnaffectedParentsOfAffected() {
+		return unaffectedParentsOfAffected;
+	}
+
+	/**
+	 * @return mask of members that are parents of an affected female
+	 */
+	public long getParentsOfAffectedFemales() {
+		return parentsOfAffectedFemales;
+	}
+
+	/**
+	 * @return mask of affected members that have an unaffected mother
+	 */
+	public long getAffectedWithUnaffectedMother() {
+		return affectedWithUnaffectedMother;
+	}
+
+	/**
+	 * @return whether member <code>i</code> has a father, regardless of him being a member
+	 */
+	public boolean hasFather(int i) {
+		return hasFather[i];
+	}
+
+	/**
+	 * @return whether member <code>i</code> has a mother, regardless of her being a member
+	 */
+	public boolean hasMother(int i) {
+		return hasMother[i];
+	}
+
+	/**
+	 * @return index of the father of member <code>i</code>, <code>-1</code> if he is not a member
+	 */
+	public int getFather(int i) {
+		return father[i];
+	}
+
+	/**
+	 * @return index of the mother of member <code>i</code>, <code>-1</code> if she is not a member
+	 */
+	public int getMother(int i) {
+		return mother[i];
+	}
+
+	/**
+	 * @return indices of the unaffected full siblings of member <code>i</code>
+	 */
+	public int[] getUnaffectedSiblings(int i) {
+		return unaffectedSiblings[i];
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event for one run of a compound heterozygous checker
+ * <p>
+ * Only invocations taking at least the threshold are recorded, 10 ms by default. The threshold can be changed in the
+ * recording settings for the event <code>org.monarchinitiative.gregor.CompoundHetCheck</code>, as for
+ * {@link InheritanceCheckEvent}. The payload of the first call, e.g., a gene or variant annotation, helps to find the
+ * inputs with many candidate pairs.
+ */
+@Name("org.monarchinitiative.gregor.CompoundHetCheck")
+@Label("Compound Het. Check")
+@Description("Search for compound heterozygous pairs of variants")
+@Category("Gregor")
+@Threshold("10 ms")
+@StackTrace(false)
+public final class CompoundHetCheckEvent extends Event {
+
+	@Label("Pedigree")
+	public String pedigreeName;
+
+	@Label("Sub-Mode of Inheritance")
+	public String subMode;
+
+	@Label("First Payload")
+	@Description("Payload of the first call given for filtering")
+	public String firstPayload;
+
+	@Label("Input Size")
+	@Description("Number of calls on the chromosome type of the sub mode of inheritance")
+	public int nCallsIn;
+
+	@Label("Candidate Pairs")
+	@Description("Number of candidate pairs of variants, or of het. calls in the single sample case")
+	public int nCandidates;
+
+	@Label("Output Size")
+	@Description("Number of calls compatible with compound het. inheritance")
+	public int nCallsPassed;
+
+}
@@ -0,0 +1,239 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index-based implementation of {@link MendelianCheckerARCompoundHet} and {@link MendelianCheckerXRCompoundHet}
+ * <p>
+ * Works on site indices into an {@link IndexedGenotypes} instead of {@link org.monarchinitiative.gregor.mendel.GenotypeCalls}
+ * objects and gives the same set of compatible sites as the reference implementations. The result is returned as
+ * sorted array of site indices.
+ */
+final class IndexedCompoundHetChecker {
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * The pedigree to check against
+	 */
+	private final CompiledPedigree pedigree;
+
+	IndexedCompoundHetChecker(CompiledPedigree pedigree) {
+		this.pedigree = pedigree;
+	}
+
+	/**
+	 * @param gts   the genotypes
+	 * @param sites indices of the autosomal sites in <code>gts</code> to check, in order
+	 * @return sorted indices of sites compatible with autosomal recessive compound het. inheritance
+	 */
+	int[] filterAutosomal(IndexedGenotypes gts, int[] sites) {
+		if (pedigree.getNMembers() == 1)
+			return filterSingleSample(gts, sites);
+
+		final BitSet result = new BitSet();
+		boolean noParent = true;
+		for (int p = 0; p < pedigree.getNMembers(); ++p) {
+			if (isAffected(p) && (pedigree.hasFather(p) || pedigree.hasMother(p))) {
+				collectWithParents(gts, sites, p, result);
+				noParent = false;
+			}
+		}
+		// If no parent was available (e.g. only siblings)
+		if (noParent) {
+			for (int p = 0; p < pedigree.getNMembers(); ++p)
+				if (isAffected(p))
+					collectWithoutParents(gts, sites, p, result);
+		}
+		return result.stream().toArray();
+	}
+
+	/**
+	 * @param gts   the genotypes
+	 * @param sites indices of the X-chromosomal sites in <code>gts</code> to check, in order
+	 * @return sorted indices of sites compatible with X recessive compound het. inheritance
+	 */
+	int[] filterX(IndexedGenotypes gts, int[] sites) {
+		if (pedigree.getNMembers() == 1) {
+			if (pedigree.getPedigree().getMembers().get(0).getSex() == Sex.MALE)
+				return EMPTY;
+			return filterSingleSample(gts, sites);
+		}
+		// MendelianCheckerXRCompoundHet restricts its X-chromosomal calls to autosomal ones in the multi-sample case,
+		// so no candidates can ever be found there.
+		return EMPTY;
+	}
+
+	/**
+	 * In the single sample case, two or more heterozygous variants are compatible with compound het. inheritance
+	 */
+	private int[] filterSingleSample(IndexedGenotypes gts, int[] sites) {
+		int[] result = new int[sites.length];
+		int n = 0;
+		for (int site : sites)
+			if (GenotypeClass.isHet(gts.getGenotypeClass(site, 0)))
+				result[n++] = site;
+		return (n > 1) ? Arrays.copyOf(result, n) : EMPTY;
+	}
+
+	private void collectWithParents(IndexedGenotypes gts, int[] sites, int p, BitSet result) {
+		final boolean hasFather = pedigree.hasFather(p);
+		final boolean hasMother = pedigree.hasMother(p);
+		final int father = pedigree.getFather(p);
+		final int mother = pedigree.getMother(p);
+
+		int[] paternal = new int[sites.length];
+		int[] maternal = new int[sites.length];
+		int nPaternal = 0;
+		int nMaternal = 0;
+		for (int site : sites) {
+			final int gtP = gts.getGenotypeClass(site, p);
+			if (!isHetOrNotObserved(gtP))
+				continue;
+			final int gtF = classOf(gts, site, father);
+			final int gtM = classOf(gts, site, mother);
+			// heterozygous or not observed in child and father, not hom. alt. or het. in mother
+			if ((!hasFather || isHetOrNotObserved(gtF))
+				&& (!hasMother || GenotypeClass.isNotObserved(gtM) || GenotypeClass.isHomRef(gtM)))
+				paternal[nPaternal++] = site;
+			// heterozygous or not observed in child and mother, not hom. alt. or het. in father
+			if ((!hasMother || isHetOrNotObserved(gtM))
+				&& (!hasFather || GenotypeClass.isNotObserved(gtF) || GenotypeClass.isHomRef(gtF)))
+				maternal[nMaternal++] = site;
+		}
+
+		for (int i = 0; i < nPaternal; ++i) {
+			final int pat = paternal[i];
+			if (isNotObservedInTrio(gts, pat, p, hasFather, father, hasMother, mother))
+				continue; // exclude if not observed in all from paternal
+			for (int j = 0; j < nMaternal; ++j) {
+				final int mat = maternal[j];
+				if (pat == mat)
+					continue; // exclude if variants are identical
+				if (isNotObservedInTrio(gts, mat, p, hasFather, father, hasMother, mother))
+					continue; // exclude if not observed in all from maternal
+				checkCandidate(gts, pat, mat, result);
+			}
+		}
+	}
+
+	private void collectWithoutParents(IndexedGenotypes gts, int[] sites, int p, BitSet result) {
+		int[] candidates = new int[sites.length];
+		int n = 0;
+		for (int site : sites)
+			if (isHetOrNotObserved(gts.getGenotypeClass(site, p)))
+				candidates[n++] = site;
+
+		for (int i = 0; i < n; ++i)
+			for (int j = 0; j < n; ++j) {
+				if (i == j)
+					continue; // exclude if variants are identical
+				if (GenotypeClass.isNotObserved(gts.getGenotypeClass(candidates[i], p))
+					&& GenotypeClass.isNotObserved(gts.getGenotypeClass(candidates[j], p)))
+					continue;
+				checkCandidate(gts, candidates[i], candidates[j], result);
+			}
+	}
+
+	private boolean isNotObservedInTrio(IndexedGenotypes gts, int site, int p, boolean hasFather, int father,
+										boolean hasMother, int mother) {
+		return GenotypeClass.isNotObserved(gts.getGenotypeClass(site, p))
+			&& (!hasFather || GenotypeClass.isNotObserved(classOf(gts, site, father)))
+			&& (!hasMother || GenotypeClass.isNotObserved(classOf(gts, site, mother)));
+	}
+
+	/**
+	 * Check candidate pair and add both sites to <code>result</code> if compatible
+	 */
+	private void checkCandidate(IndexedGenotypes gts, int pat, int mat, BitSet result) {
+		if (result.get(pat) && result.get(mat))
+			return; // nothing to gain
+		if (isCompatibleWithTriosAroundAffected(gts, pat, mat) && isCompatibleWithUnaffected(gts, pat, mat)) {
+			result.set(pat);
+			result.set(mat);
+		}
+	}
+
+	private boolean isCompatibleWithTriosAroundAffected(IndexedGenotypes gts, int pat, int mat) {
+		for (int p = 0; p < pedigree.getNMembers(); ++p) {
+			// We have to check this for paternal, maternal and vice versa. Paternal maternal inheritance can be
+			// different for other parents in the pedigree.
+			if (isAffected(p) && isIncompatibleAroundAffected(gts, p, pat, mat)
+				&& isIncompatibleAroundAffected(gts, p, mat, pat))
+				return false;
+		}
+		return true;
+	}
+
+	private boolean isIncompatibleAroundAffected(IndexedGenotypes gts, int p, int paternal, int maternal) {
+		final int homozygous = GenotypeClass.HOM_ALT | GenotypeClass.HOM_REF;
+		// None of the genotypes from the paternal or maternal call lists may be homozygous in the index
+		if ((gts.getGenotypeClass(paternal, p) & homozygous) != 0)
+			return true;
+		if ((gts.getGenotypeClass(maternal, p) & homozygous) != 0)
+			return true;
+		// The paternal variant may not be homozygous in the father of p, if any
+		if (pedigree.hasFather(p) && (classOf(gts, paternal, pedigree.getFather(p)) & homozygous) != 0)
+			return true;
+		// The maternal variant may not be homozygous in the mother of p, if any
+		if (pedigree.hasMother(p) && (classOf(gts, maternal, pedigree.getMother(p)) & homozygous) != 0)
+			return true;
+		// None of the unaffected siblings may have the same genotypes as p
+		for (int sibling : pedigree.getUnaffectedSiblings(p))
+			if (GenotypeClass.isHet(gts.getGenotypeClass(paternal, sibling))
+				&& GenotypeClass.isHet(gts.getGenotypeClass(maternal, sibling)))
+				return true;
+		return false;
+	}
+
+	private boolean isCompatibleWithUnaffected(IndexedGenotypes gts, int pat, int mat) {
+		final long unaffected = pedigree.getUnaffected();
+		for (int p = 0; p < pedigree.getNMembers(); ++p) {
+			if ((unaffected & (1L << p)) == 0)
+				continue;
+			final int pGT = gts.getGenotypeClass(pat, p);
+			final int mGT = gts.getGenotypeClass(mat, p);
+			// None of the genotypes from the paternal or maternal call lists may be homozygous in the index
+			if (GenotypeClass.isHomAlt(pGT) || GenotypeClass.isHomAlt(mGT))
+				return false;
+
+			// If an unaffected person is compound het. for a pair of variants and the parents of p each contribute
+			// one variant, then it cannot be a cause of autosomal recessive disease since p is unaffected.
+			if (GenotypeClass.isHet(pGT) && GenotypeClass.isHet(mGT) && pedigree.hasFather(p)
+				&& pedigree.hasMother(p)) {
+				final int ppGT = classOf(gts, pat, pedigree.getFather(p));
+				final int mpGT = classOf(gts, pat, pedigree.getMother(p));
+				final int pmGT = classOf(gts, mat, pedigree.getFather(p));
+				final int mmGT = classOf(gts, mat, pedigree.getMother(p));
+				if (GenotypeClass.isHet(ppGT) && GenotypeClass.isHomRef(mpGT) && GenotypeClass.isHomRef(pmGT)
+					&& GenotypeClass.isHet(mmGT))
+					return false;
+				if (GenotypeClass.isHomRef(ppGT) && GenotypeClass.isHet(mpGT) && GenotypeClass.isHet(pmGT)
+					&& GenotypeClass.isHomRef(mmGT))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isAffected(int p) {
+		return (pedigree.getAffected() & (1L << p)) != 0;
+	}
+
+	private static boolean isHetOrNotObserved(int cls) {
+		return (cls & (GenotypeClass.HET | GenotypeClass.NOT_OBSERVED)) != 0;
+	}
+
+	/**
+	 * @return genotype class of <code>member</code>, {@link GenotypeClass#NOT_OBSERVED} for non-members
+	 */
+	private static int classOf(IndexedGenotypes gts, int site, int member) {
+		return (member < 0) ? GenotypeClass.NOT_OBSERVED : gts.getGenotypeClass(site, member);
+	}
+
+}
@@ -0,0 +1,387 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.mendel.NoCallPolicy;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.mendel.ToleratedSites;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Index-based fast path for checking {@link IndexedGenotypes} for compatibility with mendelian inheritance
+ * <p>
+ * Gives the same results as the {@link AbstractMendelianChecker} implementations but works on site indices. The
+ * per-site sub modes are evaluated in blocks of sites: the genotype classes of a block are transposed into one column
+ * per member once, and the {@link ClassConstraints} of each {@link SiteRule} are evaluated on the columns by the
+ * {@link ColumnarKernel} of the running JVM, using SIMD instructions where the Vector API is available. Compound
+ * heterozygous sub modes are delegated to the {@link IndexedCompoundHetChecker}.
+ * <p>
+ * The tolerant checks count the violations of each rule instead of filtering, in the same single pass over the
+ * columns, and accept the sites within a budget of violations. Counting stops once a site exceeds the budget, so a
+ * budget of <code>0</code> costs the same as filtering, but a positive budget reads more members per site and is
+ * slower, see {@link ClassConstraints#countViolations(byte[][], int, int)}.
+ */
+public final class IndexedMendelianChecker {
+
+	/**
+	 * Number of sites transposed into columns at once, a multiple of 64
+	 */
+	private static final int BLOCK_SIZE = 1024;
+
+	/**
+	 * The compiled pedigree to check against
+	 */
+	private final CompiledPedigree pedigree;
+	/**
+	 * Rule for each per-site sub mode of inheritance
+	 */
+	private final Map<SubModeOfInheritance, SiteRule> siteRules;
+	/**
+	 * Checker for the compound het. sub modes of inheritance
+	 */
+	private final IndexedCompoundHetChecker compHetChecker;
+	/**
+	 * Kernel for evaluating the {@link SiteRule}s
+	 */
+	private final ColumnarKernel kernel = ColumnarKernel.get();
+	/**
+	 * Buffers of the current block of each thread, the checker may be shared between threads
+	 */
+	private final ThreadLocal<Block> blocks;
+
+	/**
+	 * Genotype classes of a block of sites in columnar layout, and the result of one rule on them
+	 */
+	private static final class Block {
+
+		/**
+		 * Genotype class of each member (first index) at each site of the block (second index)
+		 */
+		final byte[][] columns;
+		/**
+		 * {@link ChromosomeType} ordinal of each site of the block
+		 */
+		final byte[] chromTypes = new byte[BLOCK_SIZE];
+		/**
+		 * Bit set of the compatible sites of the block
+		 */
+		final long[] compatible = new long[BLOCK_SIZE / Long.SIZE];
+		/**
+		 * Number of violations of one rule at each site of the block
+		 */
+		final byte[] violations = new byte[BLOCK_SIZE];
+		/**
+		 * Result of the further alternatives of a rule, see {@link SiteRule#getConstraints()}
+		 */
+		final long[] alternativeCompatible = new long[BLOCK_SIZE / Long.SIZE];
+		final byte[] alternativeViolations = new byte[BLOCK_SIZE];
+
+		Block(int nMembers) {
+			this.columns = new byte[nMembers][BLOCK_SIZE];
+		}
+
+	}
+
+	/**
+	 * Construct checker for the given pedigree
+	 *
+	 * @param pedigree the {@link Pedigree} to check against
+	 * @throws IllegalArgumentException if <code>pedigree</code> has more than {@link CompiledPedigree#MAX_MEMBERS}
+	 *                                  members
+	 */
+	public IndexedMendelianChecker(Pedigree pedigree) {
+		this(pedigree, NoCallPolicy.IGNORE);
+	}
+
+	/**
+	 * Construct checker for the given pedigree
+	 *
+	 * @param pedigree     the {@link Pedigree} to check against
+	 * @param noCallPolicy handling of no-calls for {@link SubModeOfInheritance#DE_NOVO}
+	 * @throws IllegalArgumentException if <code>pedigree</code> has more than {@link CompiledPedigree#MAX_MEMBERS}
+	 *                                  members
+	 */
+	public IndexedMendelianChecker(Pedigree pedigree, NoCallPolicy noCallPolicy) {
+		this.pedigree = new CompiledPedigree(pedigree);
+		this.siteRules = SiteRules.build(this.pedigree, noCallPolicy);
+		this.compHetChecker = new IndexedCompoundHetChecker(this.pedigree);
+		final int nMembers = this.pedigree.getNMembers();
+		this.blocks = ThreadLocal.withInitial(() -> new Block(nMembers));
+	}
+
+	/**
+	 * @return the {@link CompiledPedigree} used for checking
+	 */
+	public CompiledPedigree getCompiledPedigree() {
+		return pedigree;
+	}
+
+	/**
+	 * Perform checking for all sub modes of inheritance
+	 *
+	 * @param gts the genotypes to check, members indexed as in the pedigree
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the sorted indices of the compatible
+	 * sites in <code>gts</code>
+	 */
+	public Map<SubModeOfInheritance, int[]> checkMendelianInheritanceSub(IndexedGenotypes gts) {
+		final int nSites = gts.getNSites();
+		final SubModeOfInheritance[] modes = siteRules.keySet().toArray(new SubModeOfInheritance[0]);
+		final SiteRule[] rules = siteRules.values().toArray(new SiteRule[0]);
+		final BitSet[] passed = new BitSet[modes.length];
+		for (int i = 0; i < modes.length; ++i)
+			passed[i] = new BitSet(nSites);
+		final Block block = blocks.get();
+
+		for (int from = 0; from < nSites; from += BLOCK_SIZE) {
+			final int n = load(gts, from, block);
+			for (int i = 0; i < rules.length; ++i) {
+				evaluate(rules[i], block, n);
+				for (int w = 0; w < (n + 63) >>> 6; ++w)
+					for (long word = block.compatible[w]; word != 0; word &= word - 1)
+						passed[i].set(from + (w << 6) + Long.numberOfTrailingZeros(word));
+			}
+		}
+
+		Map<SubModeOfInheritance, int[]> perSite = new EnumMap<>(SubModeOfInheritance.class);
+		for (int i = 0; i < modes.length; ++i)
+			perSite.put(modes[i], passed[i].stream().toArray());
+
+		Map<SubModeOfInheritance, int[]> result = new LinkedHashMap<>();
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+			switch (mode) {
+				case ANY -> result.put(mode, allSites(nSites));
+				case AUTOSOMAL_RECESSIVE_COMP_HET, X_RECESSIVE_COMP_HET ->
+					result.put(mode, filterCompatibleSites(gts, mode));
+				default -> result.put(mode, perSite.get(mode));
+			}
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Filter sites in <code>gts</code> for compatibility with <code>subMode</code>
+	 *
+	 * @param gts     the genotypes to check, members indexed as in the pedigree
+	 * @param subMode {@link SubModeOfInheritance} to check for
+	 * @return sorted indices of the sites in <code>gts</code> compatible with <code>subMode</code>
+	 */
+	public int[] filterCompatibleSites(IndexedGenotypes gts, SubModeOfInheritance subMode) {
+		final int nSites = gts.getNSites();
+		switch (subMode) {
+			case ANY:
+				return allSites(nSites);
+			case AUTOSOMAL_RECESSIVE_COMP_HET:
+				return compHetChecker.filterAutosomal(gts, sitesOnChromosome(gts, ChromosomeType.AUTOSOMAL));
+			case X_RECESSIVE_COMP_HET:
+				return compHetChecker.filterX(gts, sitesOnChromosome(gts, ChromosomeType.X_CHROMOSOMAL));
+			default:
+				final SiteRule rule = siteRules.get(subMode);
+				final Block block = blocks.get();
+				int[] result = new int[nSites];
+				int n = 0;
+				for (int from = 0; from < nSites; from += BLOCK_SIZE) {
+					final int nBlock = load(gts, from, block);
+					evaluate(rule, block, nBlock);
+					for (int w = 0; w < (nBlock + 63) >>> 6; ++w)
+						for (long word = block.compatible[w]; word != 0; word &= word - 1)
+							result[n++] = from + (w << 6) + Long.numberOfTrailingZeros(word);
+				}
+				return Arrays.copyOf(result, n);
+		}
+	}
+
+	/**
+	 * Perform tolerant checking for all sub modes of inheritance
+	 * <p>
+	 * The per-site sub modes accept the sites with at most <code>maxViolations</code> violations of their rule, see
+	 * {@link ClassConstraints#countViolations(byte[][], int, int)}. The compound heterozygous sub modes span two sites
+	 * and are checked strictly, their sites and those of {@link SubModeOfInheritance#ANY} are reported without
+	 * violations.
+	 *
+	 * @param gts           the genotypes to check, members indexed as in the pedigree
+	 * @param maxViolations largest number of violations to accept at a site, <code>0</code> for the strict check
+	 * @return {@link Map} that, for each {@link SubModeOfInheritance}, contains the accepted sites in
+	 * <code>gts</code> with their number of violations
+	 * @throws IllegalArgumentException if <code>maxViolations</code> is negative
+	 */
+	public Map<SubModeOfInheritance, ToleratedSites> checkMendelianInheritanceSub(IndexedGenotypes gts,
+		int maxViolations) {
+		final int budget = checkBudget(maxViolations);
+		final int nSites = gts.getNSites();
+		final SubModeOfInheritance[] modes = siteRules.keySet().toArray(new SubModeOfInheritance[0]);
+		final SiteRule[] rules = siteRules.values().toArray(new SiteRule[0]);
+		final Accepted[] accepted = new Accepted[modes.length];
+		for (int i = 0; i < modes.length; ++i)
+			accepted[i] = new Accepted();
+		final Block block = blocks.get();
+
+		for (int from = 0; from < nSites; from += BLOCK_SIZE) {
+			final int n = load(gts, from, block);
+			for (int i = 0; i < rules.length; ++i) {
+				count(rules[i], block, n, budget);
+				accepted[i].addAll(block.violations, from, n, budget);
+			}
+		}
+
+		Map<SubModeOfInheritance, ToleratedSites> perSite = new EnumMap<>(SubModeOfInheritance.class);
+		for (int i = 0; i < modes.length; ++i)
+			perSite.put(modes[i], accepted[i].toToleratedSites());
+
+		Map<SubModeOfInheritance, ToleratedSites> result = new LinkedHashMap<>();
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+			switch (mode) {
+				case ANY, AUTOSOMAL_RECESSIVE_COMP_HET, X_RECESSIVE_COMP_HET -> result.put(mode,
+					withoutViolations(filterCompatibleSites(gts, mode)));
+				default -> result.put(mode, perSite.get(mode));
+			}
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Filter sites in <code>gts</code> for compatibility with <code>subMode</code>, tolerating up to
+	 * <code>maxViolations</code> violations, see {@link #checkMendelianInheritanceSub(IndexedGenotypes, int)}
+	 *
+	 * @param gts           the genotypes to check, members indexed as in the pedigree
+	 * @param subMode       {@link SubModeOfInheritance} to check for
+	 * @param maxViolations largest number of violations to accept at a site, <code>0</code> for the strict check
+	 * @return the accepted sites in <code>gts</code> with their number of violations
+	 * @throws IllegalArgumentException if <code>maxViolations</code> is negative
+	 */
+	public ToleratedSites filterToleratedSites(IndexedGenotypes gts, SubModeOfInheritance subMode,
+		int maxViolations) {
+		final int budget = checkBudget(maxViolations);
+		final SiteRule rule = siteRules.get(subMode);
+		if (rule == null)
+			return withoutViolations(filterCompatibleSites(gts, subMode));
+		final Block block = blocks.get();
+		final Accepted accepted = new Accepted();
+		for (int from = 0; from < gts.getNSites(); from += BLOCK_SIZE) {
+			final int n = load(gts, from, block);
+			count(rule, block, n, budget);
+			accepted.addAll(block.violations, from, n, budget);
+		}
+		return accepted.toToleratedSites();
+	}
+
+	/**
+	 * Growing arrays of accepted sites and their number of violations
+	 */
+	private static final class Accepted {
+
+		private int[] sites = new int[64];
+		private int[] violations = new int[64];
+		private int n;
+
+		/**
+		 * Add the first <code>nBlock</code> sites of a block starting at site <code>from</code> with at most
+		 * <code>maxViolations</code> violations
+		 */
+		void addAll(byte[] blockViolations, int from, int nBlock, int maxViolations) {
+			if (n + nBlock > sites.length) {
+				final int capacity = Math.max(2 * sites.length, n + nBlock);
+				sites = Arrays.copyOf(sites, capacity);
+				violations = Arrays.copyOf(violations, capacity);
+			}
+			for (int i = 0; i < nBlock; ++i) {
+				final int v = blockViolations[i];
+				sites[n] = from + i;
+				violations[n] = v;
+				// overwrite the slot unless accepted, avoiding a branch per site
+				n += (v <= maxViolations) ? 1 : 0;
+			}
+		}
+
+		ToleratedSites toToleratedSites() {
+			return new ToleratedSites(Arrays.copyOf(sites, n), Arrays.copyOf(violations, n));
+		}
+
+	}
+
+	/**
+	 * @return <code>maxViolations</code>, capped at the largest possible number of violations
+	 * @throws IllegalArgumentException if <code>maxViolations</code> is negative
+	 */
+	private static int checkBudget(int maxViolations) {
+		if (maxViolations < 0)
+			throw new IllegalArgumentException("Negative violation budget: " + maxViolations);
+		return Math.min(maxViolations, CompiledPedigree.MAX_MEMBERS + 1);
+	}
+
+	private static ToleratedSites withoutViolations(int[] sites) {
+		return new ToleratedSites(sites, new int[sites.length]);
+	}
+
+	/**
+	 * Load the sites of <code>gts</code> starting at <code>from</code> into <code>block</code>
+	 *
+	 * @return number of loaded sites
+	 */
+	private int load(IndexedGenotypes gts, int from, Block block) {
+		final int n = Math.min(BLOCK_SIZE, gts.getNSites() - from);
+		for (int i = 0; i < n; ++i)
+			block.chromTypes[i] = (byte) gts.getChromType(from + i).ordinal();
+		for (int m = 0; m < pedigree.getNMembers(); ++m) {
+			final byte[] column = block.columns[m];
+			for (int i = 0; i < n; ++i)
+				column[i] = (byte) gts.getGenotypeClass(from + i, m);
+		}
+		return n;
+	}
+
+	/**
+	 * Evaluate <code>rule</code> on the first <code>n</code> sites of <code>block</code> into
+	 * {@link Block#compatible}
+	 */
+	private void evaluate(SiteRule rule, Block block, int n) {
+		final byte chromType = (byte) rule.getChromType().ordinal();
+		final ClassConstraints[] alternatives = rule.getConstraints();
+		kernel.filter(block.columns, block.chromTypes, n, chromType, alternatives[0], block.compatible);
+		for (int i = 1; i < alternatives.length; ++i) {
+			kernel.filter(block.columns, block.chromTypes, n, chromType, alternatives[i], block.alternativeCompatible);
+			for (int w = 0; w < (n + 63) >>> 6; ++w)
+				block.compatible[w] |= block.alternativeCompatible[w];
+		}
+	}
+
+	/**
+	 * Count the violations of <code>rule</code> on the first <code>n</code> sites of <code>block</code> into
+	 * {@link Block#violations}, up to <code>maxViolations + 1</code>; with several alternatives, the smallest count
+	 * of any of them
+	 */
+	private void count(SiteRule rule, Block block, int n, int maxViolations) {
+		final byte chromType = (byte) rule.getChromType().ordinal();
+		final ClassConstraints[] alternatives = rule.getConstraints();
+		kernel.count(block.columns, block.chromTypes, n, chromType, alternatives[0], maxViolations, block.violations);
+		for (int i = 1; i < alternatives.length; ++i) {
+			kernel.count(block.columns, block.chromTypes, n, chromType, alternatives[i], maxViolations,
+				block.alternativeViolations);
+			for (int site = 0; site < n; ++site)
+				block.violations[site] = (byte) Math.min(block.violations[site], block.alternativeViolations[site]);
+		}
+	}
+
+	private static int[] sitesOnChromosome(IndexedGenotypes gts, ChromosomeType chromType) {
+		int[] result = new int[gts.getNSites()];
+		int n = 0;
+		for (int site = 0; site < gts.getNSites(); ++site)
+			if (gts.getChromType(site) == chromType)
+				result[n++] = site;
+		return Arrays.copyOf(result, n);
+	}
+
+	private static int[] allSites(int nSites) {
+		int[] result = new int[nSites];
+		for (int i = 0; i < nSites; ++i)
+			result[i] = i;
+		return result;
+	}
+
+}
@@ -0,0 +1,36 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import jdk.jfr.*;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+
+/**
+ * JDK Flight Recorder event for filtering calls for one sub mode of inheritance in
+ * {@link MendelianInheritanceChecker}
+ * <p>
+ * Only invocations taking at least the threshold are recorded, 10 ms by default. The threshold can be changed in the
+ * recording settings, e.g., with <code>&lt;setting name="threshold"&gt;1 ms&lt;/setting&gt;</code> for the event
+ * <code>org.monarchinitiative.gregor.InheritanceCheck</code> in a <code>.jfc</code> file.
+ */
+@Name("org.monarchinitiative.gregor.InheritanceCheck")
+@Label("Inheritance Check")
+@Description("Filtering of genotype calls for compatibility with a sub mode of inheritance")
+@Category("Gregor")
+@Threshold("10 ms")
+@StackTrace(false)
+public final class InheritanceCheckEvent extends Event {
+
+	@Label("Pedigree")
+	public String pedigreeName;
+
+	@Label("Sub-Mode of Inheritance")
+	public String subMode;
+
+	@Label("Input Size")
+	@Description("Number of calls or sites given for filtering")
+	public int nCallsIn;
+
+	@Label("Output Size")
+	@Description("Number of calls or sites compatible with the sub mode of inheritance")
+	public int nCallsPassed;
+
+}
@@ -5,9 +5,7 @@ import org.monarchinitiative.gregor.pedigree.Disease;
 import org.monarchinitiative.gregor.pedigree.Pedigree;
 import org.monarchinitiative.gregor.pedigree.Person;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Helper class for checking a {@link GenotypeCalls} for compatibility with a
@@ -39,20 +37,18 @@ public class InheritanceCheckerMT extends AbstractMendelianChecker {
 	}
 
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
-		throws IncompatiblePedigreeException {
-
-		// Filter to calls on the mitochondrion
-		Stream<GenotypeCalls> mitoCalls = calls.stream()
-			.filter(call -> call.getChromType() == ChromosomeType.MITOCHONDRIAL);
+	public ChromosomeType getChromType() {
+		return ChromosomeType.MITOCHONDRIAL;
+	}
 
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls)
+		throws IncompatiblePedigreeException {
 		// Filter to calls compatible with mitochondrial inheritance
-		Stream<GenotypeCalls> compatibleCalls;
 		if (this.pedigree.getNMembers() == 1)
-			compatibleCalls = mitoCalls.filter(this::isCompatibleSingleton);
+			return calls.stream().filter(this::isCompatibleSingleton).toList();
 		else
-			compatibleCalls = mitoCalls.filter(this::isCompatibleFamily);
-		return compatibleCalls.toList();
+			return calls.stream().filter(this::isCompatibleFamily).toList();
 	}
 
 	/**
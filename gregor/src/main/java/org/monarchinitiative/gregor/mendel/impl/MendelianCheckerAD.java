@@ -7,9 +7,7 @@ import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
 import org.monarchinitiative.gregor.pedigree.Disease;
 import org.monarchinitiative.gregor.pedigree.Person;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Implementation of Mendelian compatibility check for autosomal dominant case
@@ -31,17 +29,17 @@ public class MendelianCheckerAD extends AbstractMendelianChecker {
 	}
 
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls) {
-		// Filter to calls on autosomal chromosomes
-		Stream<GenotypeCalls> autosomalCalls = calls.stream()
-			.filter(call -> call.getChromType() == ChromosomeType.AUTOSOMAL);
+	public ChromosomeType getChromType() {
+		return ChromosomeType.AUTOSOMAL;
+	}
+
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls) {
 		// Filter to calls compatible with AD inheritance
-		Stream<GenotypeCalls> compatibleCalls;
 		if (this.pedigree.getNMembers() == 1)
-			compatibleCalls = autosomalCalls.filter(this::isCompatibleSingleton);
+			return calls.stream().filter(this::isCompatibleSingleton).toList();
 		else
-			compatibleCalls = autosomalCalls.filter(this::isCompatibleFamily);
-		return compatibleCalls.toList();
+			return calls.stream().filter(this::isCompatibleFamily).toList();
 	}
 
 	/**
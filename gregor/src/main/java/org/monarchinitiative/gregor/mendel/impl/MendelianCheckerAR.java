@@ -1,5 +1,6 @@
 package org.monarchinitiative.gregor.mendel.impl;
 
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
 import org.monarchinitiative.gregor.mendel.GenotypeCalls;
 import org.monarchinitiative.gregor.mendel.IncompatiblePedigreeException;
 import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
@@ -31,11 +32,16 @@ public class MendelianCheckerAR extends AbstractMendelianChecker {
 	}
 
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
+	public ChromosomeType getChromType() {
+		return ChromosomeType.AUTOSOMAL;
+	}
+
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls)
 		throws IncompatiblePedigreeException {
 		// Apply homozygous and compound heterozygous checker, then select distinct records
-		Stream<GenotypeCalls> joint = Stream.concat(checkerCompound.filterCompatibleRecords(calls).stream(),
-			checkerHom.filterCompatibleRecords(calls).stream());
+		Stream<GenotypeCalls> joint = Stream.concat(checkerCompound.filterCompatibleRecordsOnChromosome(calls).stream(),
+			checkerHom.filterCompatibleRecordsOnChromosome(calls).stream());
 		return joint.distinct().toList();
 	}
 
@@ -6,7 +6,6 @@ import org.monarchinitiative.gregor.pedigree.Pedigree;
 import org.monarchinitiative.gregor.pedigree.Person;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 // TODO: also return no-call/not-observed variant
 
@@ -35,31 +34,59 @@ public class MendelianCheckerARCompoundHet extends AbstractMendelianChecker {
 		this.siblings = queryDecorator.buildSiblings();
 	}
 
+	@Override
+	public ChromosomeType getChromType() {
+		return ChromosomeType.AUTOSOMAL;
+	}
+
 	/**
 	 * @param calls Genotypes for all pedigree members at all sites of the 'unit' being investigated (e.g., a gene, or a regulon).
 	 * @return Genotypes for all variants that are compatible with autosomal recessive compound heterozygous inheritance.
 	 */
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls)
 		throws IncompatiblePedigreeException {
-		List<GenotypeCalls> autosomalCalls = calls.stream()
-				.filter(call -> call.getChromType() == ChromosomeType.AUTOSOMAL)
-				.collect(Collectors.toList());
-		return pedigree.getNMembers() == 1 ?
-				filterCompatibleRecordsSingleSample(autosomalCalls) :
-				filterCompatibleRecordsMultiSample(autosomalCalls);
+		final CompoundHetCheckEvent event = new CompoundHetCheckEvent();
+		event.begin();
+		final List<GenotypeCalls> result = pedigree.getNMembers() == 1 ?
+				filterCompatibleRecordsSingleSample(calls, event) :
+				filterCompatibleRecordsMultiSample(calls, event);
+		report(parent, event, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, calls, result);
+		return result;
+	}
+
+	/**
+	 * End <code>event</code> and report its candidate count to the metrics of <code>parent</code>, commit it if it is
+	 * to be recorded
+	 */
+	static void report(MendelianInheritanceChecker parent, CompoundHetCheckEvent event, SubModeOfInheritance subMode,
+					   List<GenotypeCalls> calls, List<GenotypeCalls> result) {
+		event.end();
+		parent.getMetrics().compoundHetCandidates(subMode, event.nCandidates);
+		if (event.shouldCommit()) {
+			event.pedigreeName = parent.getPedigree().getName();
+			event.subMode = subMode.name();
+			event.firstPayload = calls.isEmpty() ? null : String.valueOf(calls.get(0).getPayload());
+			event.nCallsIn = calls.size();
+			event.nCallsPassed = result.size();
+			event.commit();
+		}
 	}
 
 	/**
 	 * In the single sample case, if we find two or more heterozygous variants, then there is compatibility with
 	 * autosomal recessive compound heterozygous inheritance.
+	 *
+	 * @param event the event to set the number of candidates in
 	 */
-	List<GenotypeCalls> filterCompatibleRecordsSingleSample(Collection<GenotypeCalls> calls) {
+	List<GenotypeCalls> filterCompatibleRecordsSingleSample(Collection<GenotypeCalls> calls,
+															CompoundHetCheckEvent event) {
 		List<GenotypeCalls> builder = new ArrayList<>();
 		for (GenotypeCalls gc : calls) {
 			if (gc.getGenotypeBySampleNo(0).isHet())
 				builder.add(gc);
 		}
+		event.nCandidates = builder.size();
 
 		if (builder.size() > 1)
 			return builder;
@@ -67,9 +94,11 @@ public class MendelianCheckerARCompoundHet extends AbstractMendelianChecker {
 			return List.of();
 	}
 
-	private List<GenotypeCalls> filterCompatibleRecordsMultiSample(Collection<GenotypeCalls> calls) {
+	private List<GenotypeCalls> filterCompatibleRecordsMultiSample(Collection<GenotypeCalls> calls,
+																  CompoundHetCheckEvent event) {
 		// First, collect candidate genotype call lists from trios around affected individuals
 		ArrayList<Candidate> candidates = collectTrioCandidates(calls);
+		event.nCandidates = candidates.size();
 
 		// Then, check the candidates for all trios around affected individuals
 		Set<GenotypeCalls> result = new HashSet<>();
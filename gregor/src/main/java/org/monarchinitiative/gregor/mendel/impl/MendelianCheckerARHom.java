@@ -35,13 +35,17 @@ public class MendelianCheckerARHom extends AbstractMendelianChecker {
 	}
 
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls) throws IncompatiblePedigreeException{
+	public ChromosomeType getChromType() {
+		return ChromosomeType.AUTOSOMAL;
+	}
+
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls) throws IncompatiblePedigreeException{
 		// Determine compatibility checking method based on the number of pedigree members
 		Predicate<GenotypeCalls> compatibilityChecker = (this.pedigree.getNMembers() == 1) ?
 				this::isCompatibleSingleton : this::isCompatibleFamily;
-		// Stream the calls, filter by chromosome type and compatibility
+		// Stream the calls, filter by compatibility
 		return calls.stream()
-				.filter(call -> call.getChromType() == ChromosomeType.AUTOSOMAL)
 				.filter(compatibilityChecker)
 				.toList();
 	}
@@ -0,0 +1,115 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.mendel.NoCallPolicy;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Person;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of compatibility check for de novo variants
+ *
+ * <h2>Compatibility Check</h2>
+ * <p>
+ * The candidate children are the affected individuals with both parents in the pedigree. A {@link Genotype} is
+ * compatible if it is heterozygous in a candidate child while the parents and unaffected full siblings of that child
+ * do not carry it. Each child is checked against its own parents and siblings only, so an affected child can also be
+ * the parent of another affected child in three-generation pedigrees. Whether members without an observed call count
+ * as not carrying the variant is given by the {@link NoCallPolicy} of the parent {@link MendelianInheritanceChecker};
+ * partially called genotypes such as <code>0/.</code> always count as carrying it. Pedigrees without a candidate
+ * child, in particular singletons, have no compatible calls.
+ */
+public class MendelianCheckerDeNovo extends AbstractMendelianChecker {
+
+	/**
+	 * Names of the candidate children by the names of their parents and unaffected siblings, full siblings share an
+	 * entry
+	 */
+	private final Map<List<String>, List<String>> childrenByControls;
+	/**
+	 * Handling of no-calls of the parents and unaffected siblings
+	 */
+	private final NoCallPolicy noCallPolicy;
+
+	public MendelianCheckerDeNovo(MendelianInheritanceChecker parent) {
+		super(parent);
+		this.noCallPolicy = parent.getNoCallPolicy();
+
+		final Map<Person, List<Person>> siblings = queryDecorator.buildSiblings();
+		Map<List<String>, List<String>> childrenByControls = new LinkedHashMap<>();
+		for (Person p : pedigree.getMembers()) {
+			if (p.getDisease() != Disease.AFFECTED || p.getFather() == null || p.getMother() == null
+				|| !pedigree.hasPerson(p.getFather().getName()) || !pedigree.hasPerson(p.getMother().getName()))
+				continue;
+			Set<String> controls = new LinkedHashSet<>();
+			controls.add(p.getFather().getName());
+			controls.add(p.getMother().getName());
+			for (Person sibling : siblings.getOrDefault(p, List.of()))
+				if (sibling.getDisease() == Disease.UNAFFECTED)
+					controls.add(sibling.getName());
+			childrenByControls.computeIfAbsent(List.copyOf(controls), k -> new ArrayList<>()).add(p.getName());
+		}
+		this.childrenByControls = Collections.unmodifiableMap(childrenByControls);
+	}
+
+	@Override
+	public ChromosomeType getChromType() {
+		return ChromosomeType.AUTOSOMAL;
+	}
+
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls) {
+		if (childrenByControls.isEmpty())
+			return List.of();
+		// Filter to calls that are compatible with a de novo variant
+		return calls.stream()
+			.filter(this::isCompatible)
+			.toList();
+	}
+
+	/**
+	 * @return whether <code>calls</code> is het. in a candidate child and not carried by its parents and unaffected
+	 * siblings
+	 */
+	private boolean isCompatible(GenotypeCalls calls) {
+		for (Map.Entry<List<String>, List<String>> entry : childrenByControls.entrySet())
+			if (isNotCarried(calls, entry.getKey()) && isHetInAny(calls, entry.getValue()))
+				return true;
+		return false;
+	}
+
+	private boolean isNotCarried(GenotypeCalls calls, List<String> controls) {
+		for (String name : controls)
+			if (!isNotCarrier(calls.getGenotypeForSample(name)))
+				return false;
+		return true;
+	}
+
+	private static boolean isHetInAny(GenotypeCalls calls, List<String> children) {
+		for (String name : children)
+			if (calls.getGenotypeForSample(name).isHet())
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return whether <code>gt</code> shows no variant allele, taking {@link #noCallPolicy} into account; partial calls
+	 * are het. and thus carriers
+	 */
+	private boolean isNotCarrier(Genotype gt) {
+		if (gt.isHet() || gt.isHomAlt())
+			return false;
+		return gt.isHomRef() || noCallPolicy == NoCallPolicy.IGNORE;
+	}
+
+}
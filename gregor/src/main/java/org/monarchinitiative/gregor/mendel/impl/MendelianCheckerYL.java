@@ -0,0 +1,120 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.Person;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of Mendelian compatibility check for Y-linked inheritance
+ *
+ * <h2>Compatibility Check</h2>
+ * <p>
+ * Females are ignored, all other individuals are treated as males. Affected males must not be homozygous reference
+ * and at least one of them must carry the variant, i.e., be called heterozygous or homozygous alternative (males may
+ * be called het. in the case of mis-calls). Unaffected males must not carry the variant. As the Y chromosome is
+ * passed from father to son, the father of an affected son and the son of an affected father must not be homozygous
+ * reference, and the father of an unaffected son and the son of an unaffected father must not carry the variant.
+ * <p>
+ * In the case of a single individual, we require that the individual is not female and carries the variant.
+ */
+public class MendelianCheckerYL extends AbstractMendelianChecker {
+
+	/**
+	 * Names of the affected males, one of which must carry the variant
+	 */
+	private final List<String> affectedMales;
+	/**
+	 * Names of the members that must not be hom. ref.
+	 */
+	private final List<String> notHomRef;
+	/**
+	 * Names of the members that must not carry the variant
+	 */
+	private final List<String> notCarrier;
+
+	public MendelianCheckerYL(MendelianInheritanceChecker parent) {
+		super(parent);
+
+		Set<String> affectedMales = new LinkedHashSet<>();
+		Set<String> notHomRef = new LinkedHashSet<>();
+		Set<String> notCarrier = new LinkedHashSet<>();
+		for (Person p : pedigree.getMembers()) {
+			if (p.getSex() == Sex.FEMALE)
+				continue;
+			if (p.getDisease() == Disease.AFFECTED) {
+				affectedMales.add(p.getName());
+				notHomRef.add(p.getName());
+			} else if (p.getDisease() == Disease.UNAFFECTED) {
+				notCarrier.add(p.getName());
+			}
+
+			final Person father = p.getFather();
+			if (father == null || !pedigree.hasPerson(father.getName()))
+				continue;
+			if (p.getDisease() == Disease.AFFECTED)
+				notHomRef.add(father.getName());
+			else if (p.getDisease() == Disease.UNAFFECTED)
+				notCarrier.add(father.getName());
+			if (father.getDisease() == Disease.AFFECTED)
+				notHomRef.add(p.getName());
+			else if (father.getDisease() == Disease.UNAFFECTED)
+				notCarrier.add(p.getName());
+		}
+		this.affectedMales = List.copyOf(affectedMales);
+		this.notHomRef = List.copyOf(notHomRef);
+		this.notCarrier = List.copyOf(notCarrier);
+	}
+
+	@Override
+	public ChromosomeType getChromType() {
+		return ChromosomeType.Y_CHROMOSOMAL;
+	}
+
+	@Override
+	public List<GenotypeCalls> filterCompatibleRecordsOnChromosome(List<GenotypeCalls> calls) {
+		// Filter to calls compatible with YL inheritance
+		return calls.stream()
+			.filter((this.pedigree.getNMembers() == 1) ? this::isCompatibleSingleton : this::isCompatibleFamily)
+			.toList();
+	}
+
+	/**
+	 * @return whether <code>calls</code> is compatible with YL inheritance in the case of a single individual in the
+	 * pedigree
+	 */
+	private boolean isCompatibleSingleton(GenotypeCalls calls) {
+		if (calls.getNSamples() == 0 || pedigree.getMembers().get(0).getSex() == Sex.FEMALE)
+			return false;
+		return isCarrier(calls.getGenotypeBySampleNo(0));
+	}
+
+	/**
+	 * @return whether <code>calls</code> is compatible with YL inheritance in the case of multiple individuals in the
+	 * pedigree
+	 */
+	private boolean isCompatibleFamily(GenotypeCalls calls) {
+		for (String name : notHomRef)
+			if (calls.getGenotypeForSample(name).isHomRef())
+				return false;
+		for (String name : notCarrier)
+			if (isCarrier(calls.getGenotypeForSample(name)))
+				return false;
+		for (String name : affectedMales)
+			if (isCarrier(calls.getGenotypeForSample(name)))
+				return true;
+		return false;
+	}
+
+	private static boolean isCarrier(Genotype gt) {
+		return gt.isHet() || gt.isHomAlt();
+	}
+
+}
@@ -0,0 +1,328 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.NoCallPolicy;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Posterior probability of each per-site {@link SubModeOfInheritance} from genotype likelihoods
+ * <p>
+ * Instead of the pass/fail of the checkers, each site is scored from the phred-scaled genotype likelihoods
+ * (<code>PL</code>) of the pedigree members. The biallelic genotypes (hom. ref., het., hom. alt.) of all members span
+ * <code>3^n</code> configurations. Their prior probability follows a Mendelian transmission model: founders are in
+ * Hardy-Weinberg equilibrium for the alternative allele frequency, children inherit one allele from each parent on
+ * the autosomes, males their X from the mother and their Y from the father, and everybody their mitochondria from the
+ * mother, each with a small de novo rate. Under a sub mode, the prior is restricted to the configurations its
+ * {@link SiteRule} accepts, the same rules as on the index-based fast path, and renormalized, while
+ * {@link SubModeOfInheritance#ANY} keeps the unrestricted prior as the background model. The posterior of a sub
+ * mode is its marginal likelihood relative to those of all sub modes for the chromosome type of the site, with
+ * uniform prior over the sub modes.
+ * <p>
+ * The restricted priors are tabulated once per chromosome type on construction, so scoring a site computes the
+ * log-likelihood of each configuration over primitive arrays, scales it into linear space by its maximum, and takes
+ * one dot product per sub mode. This is exact but exponential in the number of members, hence limited to
+ * {@link #MAX_MEMBERS}, and fast for nuclear families. The compound heterozygous sub modes are not scored per site.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class ModePosteriorScorer {
+
+	/**
+	 * Largest supported number of pedigree members
+	 */
+	public static final int MAX_MEMBERS = 8;
+	/**
+	 * Default frequency of the alternative allele in the founders
+	 */
+	public static final double DEFAULT_ALT_ALLELE_FREQUENCY = 1e-3;
+	/**
+	 * Default probability of a de novo genotype per member and site
+	 */
+	public static final double DEFAULT_DE_NOVO_RATE = 1e-8;
+	/**
+	 * Number of likelihoods per member and site, for hom. ref., het. and hom. alt.
+	 */
+	public static final int N_GENOTYPES = 3;
+
+	/**
+	 * The {@link SubModeOfInheritance} values, by ordinal
+	 */
+	private static final SubModeOfInheritance[] SUB_MODES = SubModeOfInheritance.values();
+	/**
+	 * Factor for converting phred-scaled to natural log-scaled likelihoods
+	 */
+	private static final double PHRED_TO_LN = -Math.log(10) / 10;
+
+	/**
+	 * Number of pedigree members
+	 */
+	private final int nMembers;
+	/**
+	 * Number of genotype configurations, <code>3^nMembers</code>
+	 */
+	private final int nConfigs;
+	/**
+	 * Ordinals of the sub modes scored on each chromosome type, by {@link ChromosomeType} ordinal
+	 */
+	private final int[][] modes;
+	/**
+	 * Prior probability of each configuration under each sub mode of {@link #modes}, by {@link ChromosomeType}
+	 * ordinal
+	 */
+	private final double[][][] priors;
+
+	/**
+	 * Construct scorer with {@link #DEFAULT_ALT_ALLELE_FREQUENCY} and {@link #DEFAULT_DE_NOVO_RATE}
+	 *
+	 * @param pedigree the {@link Pedigree} to score for
+	 * @throws IllegalArgumentException if <code>pedigree</code> has more than {@link #MAX_MEMBERS} members
+	 */
+	public ModePosteriorScorer(Pedigree pedigree) {
+		this(pedigree, DEFAULT_ALT_ALLELE_FREQUENCY, DEFAULT_DE_NOVO_RATE);
+	}
+
+	/**
+	 * @param pedigree           the {@link Pedigree} to score for
+	 * @param altAlleleFrequency frequency of the alternative allele in the founders
+	 * @param deNovoRate         probability of a de novo genotype per member and site
+	 * @throws IllegalArgumentException if <code>pedigree</code> has more than {@link #MAX_MEMBERS} members or a
+	 *                                  probability is not in <code>(0, 1)</code>
+	 */
+	public ModePosteriorScorer(Pedigree pedigree, double altAlleleFrequency, double deNovoRate) {
+		if (pedigree.getNMembers() > MAX_MEMBERS)
+			throw new IllegalArgumentException("Pedigree " + pedigree.getName() + " has more than " + MAX_MEMBERS
+				+ " members");
+		if (!(altAlleleFrequency > 0 && altAlleleFrequency < 1))
+			throw new IllegalArgumentException("Invalid alternative allele frequency " + altAlleleFrequency);
+		if (!(deNovoRate > 0 && deNovoRate < 1))
+			throw new IllegalArgumentException("Invalid de novo rate " + deNovoRate);
+
+		final CompiledPedigree compiled = new CompiledPedigree(pedigree);
+		final Map<SubModeOfInheritance, SiteRule> rules = SiteRules.build(compiled, NoCallPolicy.IGNORE);
+		this.nMembers = compiled.getNMembers();
+		int n = 1;
+		for (int i = 0; i < nMembers; ++i)
+			n *= N_GENOTYPES;
+		this.nConfigs = n;
+
+		// Genotype class masks of each configuration, member i has genotype (config / 3^i) % 3
+		long[] het = new long[nConfigs];
+		long[] homRef = new long[nConfigs];
+		long[] homAlt = new long[nConfigs];
+		for (int config = 0; config < nConfigs; ++config) {
+			for (int i = 0, rest = config; i < nMembers; ++i, rest /= N_GENOTYPES) {
+				switch (rest % N_GENOTYPES) {
+					case 0 -> homRef[config] |= 1L << i;
+					case 1 -> het[config] |= 1L << i;
+					default -> homAlt[config] |= 1L << i;
+				}
+			}
+		}
+
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		this.modes = new int[chromTypes.length][];
+		this.priors = new double[chromTypes.length][][];
+		for (ChromosomeType chromType : chromTypes) {
+			final double[] mendelian = mendelianPriors(compiled, chromType, altAlleleFrequency, deNovoRate);
+			List<Integer> modeList = new ArrayList<>();
+			List<double[]> priorList = new ArrayList<>();
+			for (Map.Entry<SubModeOfInheritance, SiteRule> entry : rules.entrySet()) {
+				final SiteRule rule = entry.getValue();
+				if (rule.getChromType() != chromType)
+					continue;
+				double[] prior = new double[nConfigs];
+				double sum = 0;
+				for (int config = 0; config < nConfigs; ++config) {
+					if (rule.isCompatible(het[config], homRef[config], homAlt[config], 0)) {
+						prior[config] = mendelian[config];
+						sum += prior[config];
+					}
+				}
+				// sub modes that no configuration is compatible with are not scored
+				if (sum == 0)
+					continue;
+				for (int config = 0; config < nConfigs; ++config)
+					prior[config] /= sum;
+				modeList.add(entry.getKey().ordinal());
+				priorList.add(prior);
+			}
+			modeList.add(SubModeOfInheritance.ANY.ordinal());
+			priorList.add(mendelian);
+			modes[chromType.ordinal()] = modeList.stream().mapToInt(Integer::intValue).toArray();
+			priors[chromType.ordinal()] = priorList.toArray(new double[0][]);
+		}
+	}
+
+	/**
+	 * @return prior probability of each configuration under the Mendelian transmission model for
+	 * <code>chromType</code>
+	 */
+	private double[] mendelianPriors(CompiledPedigree pedigree, ChromosomeType chromType, double altAlleleFrequency,
+									 double deNovoRate) {
+		double[] result = new double[nConfigs];
+		int[] genotypes = new int[nMembers];
+		double sum = 0;
+		for (int config = 0; config < nConfigs; ++config) {
+			for (int i = 0, rest = config; i < nMembers; ++i, rest /= N_GENOTYPES)
+				genotypes[i] = rest % N_GENOTYPES;
+			double p = 1;
+			for (int i = 0; i < nMembers; ++i) {
+				final int father = pedigree.getFather(i);
+				final int mother = pedigree.getMother(i);
+				final double transmission = transmission(chromType, (pedigree.getMale() & (1L << i)) != 0,
+					(pedigree.getFemale() & (1L << i)) != 0, genotypes[i], (father < 0) ? -1 : genotypes[father],
+					(mother < 0) ? -1 : genotypes[mother], altAlleleFrequency);
+				p *= (1 - deNovoRate) * transmission + deNovoRate / N_GENOTYPES;
+			}
+			result[config] = p;
+			sum += p;
+		}
+		for (int config = 0; config < nConfigs; ++config)
+			result[config] /= sum;
+		return result;
+	}
+
+	/**
+	 * @param genotype       number of alternative alleles of the member
+	 * @param fatherGenotype number of alternative alleles of the father, <code>-1</code> if not a member
+	 * @param motherGenotype number of alternative alleles of the mother, <code>-1</code> if not a member
+	 * @return probability of <code>genotype</code> given the genotypes of the parents, parents that are not members
+	 * pass on the alternative allele with probability <code>altAlleleFrequency</code>
+	 */
+	private static double transmission(ChromosomeType chromType, boolean male, boolean female, int genotype,
+									   int fatherGenotype, int motherGenotype, double altAlleleFrequency) {
+		// hemizygous genotypes are hom., so the alternative allele is passed on with probability genotype / 2
+		final double fromFather = (fatherGenotype < 0) ? altAlleleFrequency : fatherGenotype / 2.0;
+		final double fromMother = (motherGenotype < 0) ? altAlleleFrequency : motherGenotype / 2.0;
+		return switch (chromType) {
+			case AUTOSOMAL -> diploid(genotype, fromFather, fromMother);
+			case X_CHROMOSOMAL -> male ? haploid(genotype, fromMother) : diploid(genotype, fromFather, fromMother);
+			case Y_CHROMOSOMAL -> female ? ((genotype == 0) ? 1 : 0) : haploid(genotype, fromFather);
+			case MITOCHONDRIAL -> (motherGenotype < 0) ? haploid(genotype, altAlleleFrequency) :
+				((genotype == motherGenotype) ? 1 : 0);
+		};
+	}
+
+	private static double diploid(int genotype, double p1, double p2) {
+		return switch (genotype) {
+			case 0 -> (1 - p1) * (1 - p2);
+			case 1 -> p1 * (1 - p2) + (1 - p1) * p2;
+			default -> p1 * p2;
+		};
+	}
+
+	private static double haploid(int genotype, double p) {
+		return switch (genotype) {
+			case 0 -> 1 - p;
+			case 1 -> 0;
+			default -> p;
+		};
+	}
+
+	/**
+	 * @return number of pedigree members, the likelihoods of each site are given for each of them
+	 */
+	public int getNMembers() {
+		return nMembers;
+	}
+
+	/**
+	 * Score one site
+	 *
+	 * @param chromType         type of the chromosome the site lies on
+	 * @param phredLikelihoods  the {@link #N_GENOTYPES} phred-scaled likelihoods of each member as in
+	 *                          {@link #score(ChromosomeType[], int[], double[])}
+	 * @return posterior probability of each {@link SubModeOfInheritance}, by ordinal
+	 */
+	public double[] score(ChromosomeType chromType, int[] phredLikelihoods) {
+		double[] result = new double[SUB_MODES.length];
+		score(new ChromosomeType[]{chromType}, phredLikelihoods, result);
+		return result;
+	}
+
+	/**
+	 * Score a batch of sites
+	 * <p>
+	 * The likelihoods of each member are given in the order of the <code>PL</code> field for biallelic sites: hom.
+	 * ref., het., and hom. alt. Hemizygous calls are given with a large het. value, members without likelihoods with
+	 * all zeros.
+	 *
+	 * @param chromTypes       type of the chromosome of each site
+	 * @param phredLikelihoods the {@link #N_GENOTYPES} phred-scaled likelihoods of each member at each site, at
+	 *                         <code>(site * nMembers + member) * N_GENOTYPES</code>, members as in
+	 *                         {@link Pedigree#getMembers()}
+	 * @param posteriors       the posterior probability of each {@link SubModeOfInheritance} at each site is written
+	 *                         to <code>site * SubModeOfInheritance.values().length + ordinal</code>; sub modes not
+	 *                         applicable on the chromosome type are <code>0</code>, the compound heterozygous ones
+	 *                         {@link Double#NaN}
+	 * @throws IllegalArgumentException if the array lengths do not match the number of sites
+	 */
+	public void score(ChromosomeType[] chromTypes, int[] phredLikelihoods, double[] posteriors) {
+		final int nSites = chromTypes.length;
+		if (phredLikelihoods.length != nSites * nMembers * N_GENOTYPES)
+			throw new IllegalArgumentException("Expected " + nSites * nMembers * N_GENOTYPES + " likelihoods but got "
+				+ phredLikelihoods.length);
+		if (posteriors.length != nSites * SUB_MODES.length)
+			throw new IllegalArgumentException("Expected room for " + nSites * SUB_MODES.length
+				+ " posteriors but got " + posteriors.length);
+
+		final double[] likelihoods = new double[nConfigs];
+		for (int site = 0; site < nSites; ++site) {
+			configLikelihoods(phredLikelihoods, site * nMembers * N_GENOTYPES, likelihoods);
+
+			final int out = site * SUB_MODES.length;
+			Arrays.fill(posteriors, out, out + SUB_MODES.length, 0);
+			posteriors[out + SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET.ordinal()] = Double.NaN;
+			posteriors[out + SubModeOfInheritance.X_RECESSIVE_COMP_HET.ordinal()] = Double.NaN;
+			final int[] siteModes = modes[chromTypes[site].ordinal()];
+			final double[][] sitePriors = priors[chromTypes[site].ordinal()];
+			double total = 0;
+			for (int k = 0; k < siteModes.length; ++k) {
+				final double[] prior = sitePriors[k];
+				double marginal = 0;
+				for (int config = 0; config < nConfigs; ++config)
+					marginal += prior[config] * likelihoods[config];
+				posteriors[out + siteModes[k]] = marginal;
+				total += marginal;
+			}
+			for (int mode : siteModes)
+				posteriors[out + mode] /= total;
+		}
+	}
+
+	/**
+	 * Compute the likelihood of each configuration from the member likelihoods starting at <code>offset</code>,
+	 * scaled such that the largest one is <code>1</code>
+	 */
+	private void configLikelihoods(int[] phredLikelihoods, int offset, double[] result) {
+		// expand the sums of log-likelihoods one member at a time, the last member ends up most significant
+		result[0] = 0;
+		int size = 1;
+		for (int i = nMembers - 1; i >= 0; --i) {
+			final int base = offset + i * N_GENOTYPES;
+			final double homRef = phredLikelihoods[base] * PHRED_TO_LN;
+			final double het = phredLikelihoods[base + 1] * PHRED_TO_LN;
+			final double homAlt = phredLikelihoods[base + 2] * PHRED_TO_LN;
+			for (int k = size - 1; k >= 0; --k) {
+				final double value = result[k];
+				result[N_GENOTYPES * k] = value + homRef;
+				result[N_GENOTYPES * k + 1] = value + het;
+				result[N_GENOTYPES * k + 2] = value + homAlt;
+			}
+			size *= N_GENOTYPES;
+		}
+
+		double max = Double.NEGATIVE_INFINITY;
+		for (int config = 0; config < nConfigs; ++config)
+			max = Math.max(max, result[config]);
+		for (int config = 0; config < nConfigs; ++config)
+			result[config] = Math.exp(result[config] - max);
+	}
+
+}
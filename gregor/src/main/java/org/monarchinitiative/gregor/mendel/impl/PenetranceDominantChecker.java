@@ -0,0 +1,223 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Autosomal dominant checking for genes with incomplete penetrance
+ * <p>
+ * {@link MendelianCheckerAD} rejects every site at which an unaffected member carries the variant, which is wrong for
+ * genes with reduced penetrance. This checker applies the same rules to the affected members (het., or not observed,
+ * with at least one het.) but allows unaffected het. carriers; unaffected members must still not be hom. alt. Each
+ * compatible site is scored with the probability that all of its unaffected carriers are non-penetrant,
+ * <code>(1 - penetrance)^k</code> for <code>k</code> unaffected carriers, so sites compatible with
+ * {@link MendelianCheckerAD} score <code>1</code>, and a penetrance of <code>1</code> gives exactly the results of
+ * {@link MendelianCheckerAD}.
+ * <p>
+ * The penetrance can be given per site, e.g., from per-gene values. The weight for each number of unaffected carriers
+ * is tabulated once for the default penetrance, and the table of the last other penetrance seen is kept as well, so
+ * evaluating a site builds the genotype class masks of the members, checks them as
+ * {@link SiteRules.AutosomalDominant} does, and looks up the weight for the number of unaffected carriers. Only these
+ * two tables are kept, so the memory used does not grow with the number of penetrance values seen.
+ * <p>
+ * Instances can be shared between threads.
+ */
+public final class PenetranceDominantChecker {
+
+	/**
+	 * The pedigree to check against
+	 */
+	private final Pedigree pedigree;
+	/**
+	 * Whether the pedigree has a single member
+	 */
+	private final boolean singleton;
+	/**
+	 * Number of pedigree members
+	 */
+	private final int nMembers;
+	/**
+	 * Mask of affected members
+	 */
+	private final long affected;
+	/**
+	 * Mask of unaffected members
+	 */
+	private final long unaffected;
+	/**
+	 * Number of unaffected members, the largest number of unaffected carriers
+	 */
+	private final int nUnaffected;
+	/**
+	 * Penetrance used for sites without their own
+	 */
+	private final double defaultPenetrance;
+	/**
+	 * Weight for each number of unaffected carriers with {@link #defaultPenetrance}
+	 */
+	private final double[] defaultWeights;
+	/**
+	 * Weights for the last penetrance other than {@link #defaultPenetrance} seen, <code>null</code> if none yet
+	 */
+	private volatile Weights lastWeights;
+
+	/**
+	 * @param pedigree          the {@link Pedigree} to check against
+	 * @param defaultPenetrance penetrance for sites without their own, in <code>(0, 1]</code>
+	 * @throws IllegalArgumentException if <code>pedigree</code> has more than {@link CompiledPedigree#MAX_MEMBERS}
+	 *                                  members or the penetrance is not in <code>(0, 1]</code>
+	 */
+	public PenetranceDominantChecker(Pedigree pedigree, double defaultPenetrance) {
+		final CompiledPedigree compiled = new CompiledPedigree(pedigree);
+		this.pedigree = pedigree;
+		this.singleton = compiled.getNMembers() == 1;
+		this.nMembers = compiled.getNMembers();
+		this.affected = compiled.getAffected();
+		this.unaffected = compiled.getUnaffected();
+		this.nUnaffected = Long.bitCount(unaffected);
+		this.defaultPenetrance = defaultPenetrance;
+		this.defaultWeights = weights(defaultPenetrance);
+	}
+
+	/**
+	 * @return penetrance for sites without their own
+	 */
+	public double getDefaultPenetrance() {
+		return defaultPenetrance;
+	}
+
+	/**
+	 * Score the sites with {@link #getDefaultPenetrance()}
+	 *
+	 * @param gts the genotypes to score, members indexed as in the pedigree
+	 * @return score of each site, see {@link #score(IndexedGenotypes, IntToDoubleFunction)}
+	 */
+	public double[] score(IndexedGenotypes gts) {
+		return score(gts, site -> defaultPenetrance);
+	}
+
+	/**
+	 * Score the sites with a penetrance per site
+	 *
+	 * @param gts         the genotypes to score, members indexed as in the pedigree
+	 * @param penetrances penetrance for each site index, {@link Double#NaN} for {@link #getDefaultPenetrance()}
+	 * @return score of each site: the probability that all unaffected carriers are non-penetrant for the sites
+	 * compatible with dominant inheritance, <code>0</code> for the others
+	 * @throws IllegalArgumentException if a penetrance is not in <code>(0, 1]</code>
+	 */
+	public double[] score(IndexedGenotypes gts, IntToDoubleFunction penetrances) {
+		final double[] result = new double[gts.getNSites()];
+		Weights last = lastWeights;
+		for (int site = 0; site < result.length; ++site) {
+			double penetrance = penetrances.applyAsDouble(site);
+			if (Double.isNaN(penetrance))
+				penetrance = defaultPenetrance;
+			// consecutive sites are usually in the same gene, so only tabulate the weights on changes
+			if (penetrance == defaultPenetrance) {
+				result[site] = score(gts, site, defaultWeights);
+			} else {
+				if (last == null || penetrance != last.penetrance())
+					last = new Weights(penetrance, weights(penetrance));
+				result[site] = score(gts, site, last.weights());
+			}
+		}
+		lastWeights = last;
+		return result;
+	}
+
+	/**
+	 * Filter sites in <code>gts</code> for compatibility with dominant inheritance with incomplete penetrance
+	 *
+	 * @param gts         the genotypes to check, members indexed as in the pedigree
+	 * @param penetrances penetrance for each site index, {@link Double#NaN} for {@link #getDefaultPenetrance()}
+	 * @param minScore    smallest score of the sites to keep, see {@link #score(IndexedGenotypes, IntToDoubleFunction)}
+	 * @return sorted indices of the sites with a non-zero score of at least <code>minScore</code>
+	 * @throws IllegalArgumentException if a penetrance is not in <code>(0, 1]</code>
+	 */
+	public int[] filterCompatibleSites(IndexedGenotypes gts, IntToDoubleFunction penetrances, double minScore) {
+		final double[] scores = score(gts, penetrances);
+		int[] result = new int[scores.length];
+		int n = 0;
+		for (int site = 0; site < scores.length; ++site)
+			if (scores[site] > 0 && scores[site] >= minScore)
+				result[n++] = site;
+		return Arrays.copyOf(result, n);
+	}
+
+	/**
+	 * Filter calls for compatibility with dominant inheritance with incomplete penetrance, using per-gene penetrance
+	 * values
+	 *
+	 * @param calls       the {@link GenotypeCalls} to filter
+	 * @param geneKey     gene of a call, <code>null</code> if none
+	 * @param penetrances penetrance of each gene, {@link #getDefaultPenetrance()} for genes not given
+	 * @param minScore    smallest score of the calls to keep, see {@link #score(IndexedGenotypes, IntToDoubleFunction)}
+	 * @return the calls from <code>calls</code> with a non-zero score of at least <code>minScore</code>, in order
+	 * @throws IllegalArgumentException if a penetrance is not in <code>(0, 1]</code>
+	 */
+	public List<GenotypeCalls> filterCompatibleRecords(List<GenotypeCalls> calls, Function<GenotypeCalls, ?> geneKey,
+		Map<?, Double> penetrances, double minScore) {
+		final double[] sitePenetrances = new double[calls.size()];
+		for (int i = 0; i < sitePenetrances.length; ++i) {
+			final Object key = geneKey.apply(calls.get(i));
+			final Double penetrance = (key == null) ? null : penetrances.get(key);
+			sitePenetrances[i] = (penetrance == null) ? defaultPenetrance : penetrance;
+		}
+		final int[] sites = filterCompatibleSites(IndexedGenotypes.of(pedigree, calls),
+			site -> sitePenetrances[site], minScore);
+		return Arrays.stream(sites).mapToObj(calls::get).toList();
+	}
+
+	/**
+	 * Score one site
+	 *
+	 * @param siteWeights weight for each number of unaffected carriers
+	 */
+	private double score(IndexedGenotypes gts, int site, double[] siteWeights) {
+		if (gts.getChromType(site) != ChromosomeType.AUTOSOMAL)
+			return 0;
+		long het = 0;
+		long homRef = 0;
+		long homAlt = 0;
+		for (int m = 0; m < nMembers; ++m) {
+			final long cls = gts.getGenotypeClass(site, m);
+			het |= (cls & GenotypeClass.HET) << m;
+			homRef |= ((cls & GenotypeClass.HOM_REF) >>> 1) << m;
+			homAlt |= ((cls & GenotypeClass.HOM_ALT) >>> 2) << m;
+		}
+		if (singleton)
+			return ((het & 1L) != 0) ? 1 : 0;
+		if ((affected & (homRef | homAlt)) != 0 || (unaffected & homAlt) != 0 || (affected & het) == 0)
+			return 0;
+		return siteWeights[Long.bitCount(unaffected & het)];
+	}
+
+	/**
+	 * @return weight for each number of unaffected carriers with <code>penetrance</code>
+	 * @throws IllegalArgumentException if <code>penetrance</code> is not in <code>(0, 1]</code>
+	 */
+	private double[] weights(double penetrance) {
+		if (!(penetrance > 0 && penetrance <= 1))
+			throw new IllegalArgumentException("Invalid penetrance " + penetrance);
+		double[] result = new double[nUnaffected + 1];
+		for (int k = 0; k <= nUnaffected; ++k)
+			result[k] = Math.pow(1 - penetrance, k);
+		return result;
+	}
+
+	/**
+	 * Weight for each number of unaffected carriers with a given penetrance
+	 */
+	private record Weights(double penetrance, double[] weights) {
+	}
+
+}
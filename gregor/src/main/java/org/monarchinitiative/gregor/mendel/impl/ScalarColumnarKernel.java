@@ -0,0 +1,27 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import java.util.Arrays;
+
+/**
+ * {@link ColumnarKernel} evaluating one site after another, used when the Vector API is not available
+ */
+final class ScalarColumnarKernel implements ColumnarKernel {
+
+	@Override
+	public void filter(byte[][] columns, byte[] chromTypes, int nSites, byte chromType, ClassConstraints constraints,
+		long[] result) {
+		Arrays.fill(result, 0, (nSites + 63) >>> 6, 0L);
+		for (int site = 0; site < nSites; ++site)
+			if (chromTypes[site] == chromType && constraints.isCompatible(columns, site))
+				result[site >>> 6] |= 1L << site;
+	}
+
+	@Override
+	public void count(byte[][] columns, byte[] chromTypes, int nSites, byte chromType, ClassConstraints constraints,
+		int maxViolations, byte[] violations) {
+		for (int site = 0; site < nSites; ++site)
+			violations[site] = (chromTypes[site] == chromType)
+				? (byte) constraints.countViolations(columns, site, maxViolations) : ClassConstraints.NOT_APPLICABLE;
+	}
+
+}
@@ -0,0 +1,43 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+
+/**
+ * Compatibility rule for one site, evaluated on the genotype class masks of a {@link CompiledPedigree}
+ * <p>
+ * Each mask has bit <code>i</code> set if the pedigree member <code>i</code> has the corresponding
+ * {@link GenotypeClass} flag at the site. Most rules are one set of {@link ClassConstraints}; a rule that holds if any
+ * of several member sets passes, e.g., de novo checking for several affected children with different parents, has one
+ * alternative per set.
+ */
+interface SiteRule {
+
+	/**
+	 * @return type of the chromosome that this rule applies to
+	 */
+	ChromosomeType getChromType();
+
+	/**
+	 * Evaluate the rule on the genotype class masks of one site, same as {@link #getConstraints()}
+	 *
+	 * @param het         mask of members with {@link GenotypeClass#HET}
+	 * @param homRef      mask of members with {@link GenotypeClass#HOM_REF}
+	 * @param homAlt      mask of members with {@link GenotypeClass#HOM_ALT}
+	 * @param notObserved mask of members with {@link GenotypeClass#NOT_OBSERVED}
+	 * @return whether the site is compatible with the rule's mode of inheritance
+	 */
+	default boolean isCompatible(long het, long homRef, long homAlt, long notObserved) {
+		for (ClassConstraints constraints : getConstraints())
+			if (constraints.isCompatible(het, homRef, homAlt, notObserved))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return the rule as alternative {@link ClassConstraints}, at least one; a site is compatible if it satisfies any
+	 * of them
+	 */
+	ClassConstraints[] getConstraints();
+
+}
@@ -0,0 +1,278 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.NoCallPolicy;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bit mask implementations of the per-site checks of {@link MendelianCheckerAD}, {@link MendelianCheckerARHom},
+ * {@link MendelianCheckerXD}, {@link MendelianCheckerXRHom}, {@link InheritanceCheckerMT},
+ * {@link MendelianCheckerYL}, and {@link MendelianCheckerDeNovo}
+ * <p>
+ * Each rule gives exactly the same result as the corresponding checker. It is defined once, as
+ * {@link ClassConstraints} on the members of a {@link CompiledPedigree}, which evaluate the loops over the members on
+ * genotype class columns or as a few operations on the masks of one site.
+ */
+final class SiteRules {
+
+	private SiteRules() {
+	}
+
+	/**
+	 * @param noCallPolicy handling of no-calls for {@link SubModeOfInheritance#DE_NOVO}
+	 * @return {@link Map} with the {@link SiteRule} for each per-site {@link SubModeOfInheritance}
+	 */
+	static Map<SubModeOfInheritance, SiteRule> build(CompiledPedigree pedigree, NoCallPolicy noCallPolicy) {
+		Map<SubModeOfInheritance, SiteRule> map = new EnumMap<>(SubModeOfInheritance.class);
+		map.put(SubModeOfInheritance.AUTOSOMAL_DOMINANT, new AutosomalDominant(pedigree));
+		map.put(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, new AutosomalRecessiveHomAlt(pedigree));
+		map.put(SubModeOfInheritance.X_DOMINANT, new XDominant(pedigree));
+		map.put(SubModeOfInheritance.X_RECESSIVE_HOM_ALT, new XRecessiveHomAlt(pedigree));
+		map.put(SubModeOfInheritance.MITOCHONDRIAL, new Mitochondrial(pedigree));
+		map.put(SubModeOfInheritance.Y_LINKED, new YLinked(pedigree));
+		map.put(SubModeOfInheritance.DE_NOVO, new DeNovo(pedigree, noCallPolicy));
+		return map;
+	}
+
+	/**
+	 * Base class of the rules, holding the chromosome type and the constraints
+	 */
+	private abstract static class Rule implements SiteRule {
+
+		private final ChromosomeType chromType;
+		protected final ClassConstraints constraints;
+		private final ClassConstraints[] alternatives;
+
+		Rule(ChromosomeType chromType, CompiledPedigree pedigree) {
+			this.chromType = chromType;
+			this.constraints = new ClassConstraints(pedigree.getNMembers());
+			this.alternatives = new ClassConstraints[]{constraints};
+		}
+
+		@Override
+		public ChromosomeType getChromType() {
+			return chromType;
+		}
+
+		@Override
+		public ClassConstraints[] getConstraints() {
+			return alternatives;
+		}
+
+	}
+
+	/**
+	 * See {@link MendelianCheckerAD}
+	 */
+	static final class AutosomalDominant extends Rule {
+
+		AutosomalDominant(CompiledPedigree pedigree) {
+			super(ChromosomeType.AUTOSOMAL, pedigree);
+			final long affected = pedigree.getAffected();
+			if (pedigree.getNMembers() == 1)
+				constraints.requireAny(1L, GenotypeClass.HET);
+			else
+				constraints.forbid(affected, GenotypeClass.HOM_REF | GenotypeClass.HOM_ALT)
+					.forbid(pedigree.getUnaffected(), GenotypeClass.HET | GenotypeClass.HOM_ALT)
+					.requireAny(affected, GenotypeClass.HET);
+		}
+
+	}
+
+	/**
+	 * See {@link MendelianCheckerARHom}
+	 */
+	static final class AutosomalRecessiveHomAlt extends Rule {
+
+		AutosomalRecessiveHomAlt(CompiledPedigree pedigree) {
+			super(ChromosomeType.AUTOSOMAL, pedigree);
+			final long affected = pedigree.getAffected();
+			if (pedigree.getNMembers() == 1)
+				constraints.requireAny(1L, GenotypeClass.HOM_ALT);
+			else
+				constraints.forbid(affected, GenotypeClass.HOM_REF | GenotypeClass.HET)
+					.requireAny(affected, GenotypeClass.HOM_ALT)
+					.forbid(pedigree.getUnaffectedParentsOfAffected(), GenotypeClass.HOM_ALT | GenotypeClass.HOM_REF)
+					.forbid(pedigree.getUnaffected(), GenotypeClass.HOM_ALT);
+		}
+
+	}
+
+	/**
+	 * See {@link MendelianCheckerXD}
+	 */
+	static final class XDominant extends Rule {
+
+		XDominant(CompiledPedigree pedigree) {
+			super(ChromosomeType.X_CHROMOSOMAL, pedigree);
+			final long affected = pedigree.getAffected();
+			final long female = pedigree.getFemale();
+			if (pedigree.getNMembers() == 1)
+				constraints.requireAny(1L, ((female & 1L) != 0) ? GenotypeClass.HET
+					: GenotypeClass.HET | GenotypeClass.HOM_ALT);
+			else
+				// We do not allow hom. alternative for females, males may be called het. in the case of mis-calls
+				constraints.forbid(affected, GenotypeClass.HOM_REF)
+					.forbid(affected & female, GenotypeClass.HOM_ALT)
+					.forbid(pedigree.getUnaffected(), GenotypeClass.HET | GenotypeClass.HOM_ALT)
+					.requireAny(affected & female, GenotypeClass.HET)
+					.requireAny(affected & ~female, GenotypeClass.HET | GenotypeClass.HOM_ALT);
+		}
+
+	}
+
+	/**
+	 * See {@link MendelianCheckerXRHom}
+	 */
+	static final class XRecessiveHomAlt extends Rule {
+
+		XRecessiveHomAlt(CompiledPedigree pedigree) {
+			super(ChromosomeType.X_CHROMOSOMAL, pedigree);
+			final long affected = pedigree.getAffected();
+			final long unaffected = pedigree.getUnaffected();
+			final long male = pedigree.getMale();
+			final long female = pedigree.getFemale();
+			final long parentsOfAffectedFemales = pedigree.getParentsOfAffectedFemales();
+			if (pedigree.getNMembers() == 1) {
+				constraints.requireAny(1L, ((female & 1L) != 0) ? GenotypeClass.HOM_ALT
+					: GenotypeClass.HOM_ALT | GenotypeClass.HET);
+			} else {
+				// affecteds must not be hom. ref., affected females must not be het.
+				constraints.forbid(affected, GenotypeClass.HOM_REF)
+					.forbid(affected & female, GenotypeClass.HET)
+					.requireAny(affected, GenotypeClass.HOM_ALT)
+					.requireAny(affected & ~female, GenotypeClass.HET)
+					// the fathers of affected females must be affected, the mothers must be carriers
+					.forbid(parentsOfAffectedFemales & female, GenotypeClass.HOM_ALT | GenotypeClass.HOM_REF)
+					// unaffected males must not carry the variant, unaffected others must not be hom. alt.
+					.forbid(unaffected & male, GenotypeClass.HET)
+					.forbid(unaffected, GenotypeClass.HOM_ALT);
+				if ((parentsOfAffectedFemales & male & unaffected) != 0)
+					constraints.never();
+			}
+		}
+
+	}
+
+	/**
+	 * See {@link InheritanceCheckerMT}
+	 */
+	static final class Mitochondrial extends Rule {
+
+		Mitochondrial(CompiledPedigree pedigree) {
+			super(ChromosomeType.MITOCHONDRIAL, pedigree);
+			final long affected = pedigree.getAffected();
+			if (pedigree.getNMembers() == 1)
+				constraints.requireAny(1L, GenotypeClass.HET | GenotypeClass.HOM_ALT);
+			else
+				constraints.forbid(affected, GenotypeClass.HOM_REF)
+					.requireAny(affected, GenotypeClass.HET | GenotypeClass.HOM_ALT)
+					.requireAll(pedigree.getAffectedWithUnaffectedMother(), GenotypeClass.HET)
+					.forbid(pedigree.getUnaffected(), GenotypeClass.HOM_ALT);
+		}
+
+	}
+
+	/**
+	 * See {@link MendelianCheckerYL}
+	 */
+	static final class YLinked extends Rule {
+
+		YLinked(CompiledPedigree pedigree) {
+			super(ChromosomeType.Y_CHROMOSOMAL, pedigree);
+			if (pedigree.getNMembers() == 1) {
+				constraints.requireAny(1L, GenotypeClass.HET | GenotypeClass.HOM_ALT);
+				if ((pedigree.getFemale() & 1L) != 0)
+					constraints.never();
+				return;
+			}
+
+			final long male = ~pedigree.getFemale();
+			final long affected = pedigree.getAffected();
+			final long unaffected = pedigree.getUnaffected();
+			// members that must not be hom. ref., and members that must not carry the variant
+			long notHomRef = affected & male;
+			long notCarrier = unaffected & male;
+			for (int i = 0; i < pedigree.getNMembers(); ++i) {
+				final long bit = 1L << i;
+				final int father = pedigree.getFather(i);
+				if ((male & bit) == 0 || father < 0)
+					continue;
+				// the Y chromosome is passed from father to son
+				if ((affected & bit) != 0)
+					notHomRef |= 1L << father;
+				else if ((unaffected & bit) != 0)
+					notCarrier |= 1L << father;
+				if ((affected & (1L << father)) != 0)
+					notHomRef |= bit;
+				else if ((unaffected & (1L << father)) != 0)
+					notCarrier |= bit;
+			}
+			constraints.forbid(notHomRef, GenotypeClass.HOM_REF)
+				.forbid(notCarrier, GenotypeClass.HET | GenotypeClass.HOM_ALT)
+				.requireAny(affected & male, GenotypeClass.HET | GenotypeClass.HOM_ALT);
+		}
+
+	}
+
+	/**
+	 * See {@link MendelianCheckerDeNovo}
+	 */
+	static final class DeNovo implements SiteRule {
+
+		/**
+		 * One alternative for each set of parents and unaffected siblings, with the children that have them
+		 */
+		private final ClassConstraints[] alternatives;
+
+		/**
+		 * @param noCallPolicy with {@link NoCallPolicy#REJECT}, the parents and unaffected siblings must be called
+		 *                     hom. ref.
+		 */
+		DeNovo(CompiledPedigree pedigree, NoCallPolicy noCallPolicy) {
+			// the affected members with both parents in the pedigree by their parents and unaffected siblings, full
+			// siblings share one alternative
+			Map<Long, Long> childrenByControls = new LinkedHashMap<>();
+			for (int i = 0; i < pedigree.getNMembers(); ++i) {
+				if ((pedigree.getAffected() & (1L << i)) == 0 || pedigree.getFather(i) < 0
+					|| pedigree.getMother(i) < 0)
+					continue;
+				long controls = (1L << pedigree.getFather(i)) | (1L << pedigree.getMother(i));
+				for (int sibling : pedigree.getUnaffectedSiblings(i))
+					controls |= 1L << sibling;
+				childrenByControls.merge(controls, 1L << i, (a, b) -> a | b);
+			}
+			if (childrenByControls.isEmpty()) {
+				alternatives = new ClassConstraints[]{new ClassConstraints(pedigree.getNMembers()).never()};
+				return;
+			}
+			alternatives = new ClassConstraints[childrenByControls.size()];
+			int n = 0;
+			for (Map.Entry<Long, Long> entry : childrenByControls.entrySet()) {
+				final ClassConstraints constraints = new ClassConstraints(pedigree.getNMembers())
+					.forbid(entry.getKey(), GenotypeClass.HET | GenotypeClass.HOM_ALT)
+					.requireAny(entry.getValue(), GenotypeClass.HET);
+				if (noCallPolicy == NoCallPolicy.REJECT)
+					constraints.requireAll(entry.getKey(), GenotypeClass.HOM_REF);
+				alternatives[n++] = constraints;
+			}
+		}
+
+		@Override
+		public ChromosomeType getChromType() {
+			return ChromosomeType.AUTOSOMAL;
+		}
+
+		@Override
+		public ClassConstraints[] getConstraints() {
+			return alternatives;
+		}
+
+	}
+
+}
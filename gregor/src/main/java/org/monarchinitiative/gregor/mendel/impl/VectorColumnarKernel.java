@@ -0,0 +1,83 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * {@link ColumnarKernel} evaluating as many sites at once as the preferred byte vector has lanes, using the
+ * incubating Vector API
+ * <p>
+ * Only loaded by {@link ColumnarKernel#get()} if the <code>jdk.incubator.vector</code> module is present. Sites at the
+ * end of the block that do not fill a vector are evaluated one by one.
+ */
+final class VectorColumnarKernel implements ColumnarKernel {
+
+	/**
+	 * Preferred byte vector shape, at most 64 lanes so the lane mask fits into one word
+	 */
+	private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE
+		? ByteVector.SPECIES_PREFERRED : ByteVector.SPECIES_512;
+
+	@Override
+	public void filter(byte[][] columns, byte[] chromTypes, int nSites, byte chromType, ClassConstraints constraints,
+		long[] result) {
+		Arrays.fill(result, 0, (nSites + 63) >>> 6, 0L);
+		if (!constraints.isSatisfiable())
+			return;
+		final int[] members = constraints.getMembers();
+		final int bound = SPECIES.loopBound(nSites);
+		int site = 0;
+		for (; site < bound; site += SPECIES.length()) {
+			VectorMask<Byte> ok = ByteVector.fromArray(SPECIES, chromTypes, site).eq(chromType);
+			VectorMask<Byte> witnessed = SPECIES.maskAll(false);
+			for (int m : members) {
+				final ByteVector cls = ByteVector.fromArray(SPECIES, columns[m], site);
+				ok = ok.and(cls.and(constraints.getChecked(m)).eq(constraints.getExpected(m)));
+				witnessed = witnessed.or(cls.and(constraints.getWitness(m)).compare(VectorOperators.NE, 0));
+			}
+			// the vector length is a power of two, so the lanes do not cross a word boundary
+			result[site >>> 6] |= ok.and(witnessed).toLong() << site;
+		}
+		for (; site < nSites; ++site)
+			if (chromTypes[site] == chromType && constraints.isCompatible(columns, site))
+				result[site >>> 6] |= 1L << site;
+	}
+
+	@Override
+	public void count(byte[][] columns, byte[] chromTypes, int nSites, byte chromType, ClassConstraints constraints,
+		int maxViolations, byte[] violations) {
+		if (!constraints.isSatisfiable()) {
+			Arrays.fill(violations, 0, nSites, ClassConstraints.NOT_APPLICABLE);
+			return;
+		}
+		final int[] members = constraints.getMembers();
+		final ByteVector one = ByteVector.broadcast(SPECIES, (byte) 1);
+		final int bound = SPECIES.loopBound(nSites);
+		int site = 0;
+		for (; site < bound; site += SPECIES.length()) {
+			ByteVector count = ByteVector.zero(SPECIES);
+			VectorMask<Byte> witnessed = SPECIES.maskAll(false);
+			for (int m : members) {
+				final ByteVector cls = ByteVector.fromArray(SPECIES, columns[m], site);
+				count = count.add(one, cls.and(constraints.getChecked(m)).compare(VectorOperators.NE,
+					constraints.getExpected(m)));
+				witnessed = witnessed.or(cls.and(constraints.getWitness(m)).compare(VectorOperators.NE, 0));
+			}
+			// the lanes have no early exit, cap the counts as the scalar evaluation does; a site without witness is
+			// rejected whatever the budget
+			final byte rejected = (byte) (maxViolations + 1);
+			count = count.min(rejected).blend(rejected, witnessed.not());
+			final VectorMask<Byte> other = ByteVector.fromArray(SPECIES, chromTypes, site).compare(
+				VectorOperators.NE, chromType);
+			count.blend(ClassConstraints.NOT_APPLICABLE, other).intoArray(violations, site);
+		}
+		for (; site < nSites; ++site)
+			violations[site] = (chromTypes[site] == chromType)
+				? (byte) constraints.countViolations(columns, site, maxViolations) : ClassConstraints.NOT_APPLICABLE;
+	}
+
+}
@@ -31,7 +31,7 @@ public class PedFileContents {
 		this.extraColumnHeaders = extraColumnHeaders;
 		this.individuals = individuals;
 
-		Map<String, PedPerson> map = new LinkedHashMap<>();
+		Map<String, PedPerson> map = new LinkedHashMap<>((int) (individuals.size() / 0.75f) + 1);
 		for (PedPerson p : individuals)
 			map.put(p.getName(), p);
 		this.nameToPerson = Collections.unmodifiableMap(map);
@@ -0,0 +1,161 @@
+package org.monarchinitiative.gregor.pedigree;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads a PED file one family at a time, yielding a resolved {@link Pedigree} for each family.
+ * <p>
+ * In contrast to {@link PedFileReader}, the file is never loaded as a whole, memory use scales with the largest family
+ * (plus the set of family names seen so far). This requires the file to be sorted by family, i.e. all lines of a family
+ * must be consecutive. Also, the parents of each person must be members of the person's family. Violating either
+ * causes a {@link PedParseException}.
+ * <p>
+ * Usage:
+ * <pre>
+ * try (PedFileFamilyReader reader = new PedFileFamilyReader(path)) {
+ *     Pedigree pedigree;
+ *     while ((pedigree = reader.next()) != null) {
+ *         // ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class PedFileFamilyReader implements Closeable {
+
+	/**
+	 * the input to read from
+	 */
+	private final BufferedReader in;
+	/**
+	 * headers for extra columns (column 7 and beyond)
+	 */
+	private final List<String> extraColumnHeaders;
+	/**
+	 * names of the families read so far, to detect unsorted input
+	 */
+	private final Set<String> seenFamilies = new HashSet<>();
+	/**
+	 * the first individual of the next family, if already read
+	 */
+	private PedPerson pending;
+	/**
+	 * parser for the current family, replaced for each family such that its name pool does not grow with the file
+	 */
+	private PedFileReader.LineParser parser = new PedFileReader.LineParser();
+	/**
+	 * number of the line read last, for error messages
+	 */
+	private int lineNo = 0;
+
+	/**
+	 * Open the PED file at <code>path</code>
+	 *
+	 * @throws IOException       on problems with reading from <code>path</code>
+	 * @throws PedParseException on problems with parsing the first line of <code>path</code>
+	 */
+	public PedFileFamilyReader(Path path) throws IOException, PedParseException {
+		this(Files.newInputStream(path));
+	}
+
+	/**
+	 * Read PED data from <code>stream</code>, which is closed by {@link #close()}, or right away if the first line
+	 * cannot be read
+	 *
+	 * @throws IOException       on problems with reading from <code>stream</code>
+	 * @throws PedParseException on problems with parsing the first line of <code>stream</code>
+	 */
+	public PedFileFamilyReader(InputStream stream) throws IOException, PedParseException {
+		this.in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+
+		try {
+			String line = in.readLine();
+			++lineNo;
+			if (line != null && line.startsWith("#")) {
+				this.extraColumnHeaders = PedFileReader.parseHeader(line);
+			} else {
+				this.extraColumnHeaders = List.of();
+				if (line != null)
+					this.pending = parser.parse(line);
+				if (this.pending == null)
+					this.pending = readIndividual();
+			}
+		} catch (IOException | PedParseException | RuntimeException e) {
+			// the caller has no reader to close
+			try {
+				in.close();
+			} catch (IOException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return headers for extra columns (column 7 and beyond)
+	 */
+	public List<String> getExtraColumnHeaders() {
+		return extraColumnHeaders;
+	}
+
+	/**
+	 * Read the next family
+	 *
+	 * @return the next family as resolved {@link Pedigree}, <code>null</code> at the end of the file
+	 * @throws IOException       on problems with reading
+	 * @throws PedParseException on problems with parsing, if the file is not sorted by family, or if a parent is not a
+	 *                           member of the family
+	 */
+	public Pedigree next() throws IOException, PedParseException {
+		if (pending == null)
+			pending = readIndividual();
+		if (pending == null)
+			return null;
+
+		final String family = pending.getPedigree();
+		if (!seenFamilies.add(family))
+			throw new PedParseException("PED file is not sorted by family, family " + family + " continues in line "
+				+ lineNo);
+
+		List<PedPerson> individuals = new ArrayList<>();
+		individuals.add(pending);
+		pending = null;
+		parser = new PedFileReader.LineParser();
+		PedPerson individual;
+		while ((individual = readIndividual()) != null) {
+			if (!individual.getPedigree().equals(family)) {
+				pending = individual;
+				break;
+			}
+			individuals.add(individual);
+		}
+
+		return new Pedigree(new PedFileContents(extraColumnHeaders, individuals), family);
+	}
+
+	/**
+	 * @return the next individual, <code>null</code> at the end of the file
+	 */
+	private PedPerson readIndividual() throws IOException, PedParseException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			++lineNo;
+			final PedPerson individual = parser.parse(line);
+			if (individual != null) // ignore empty lines
+				return individual;
+		}
+		return null;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+}
@@ -0,0 +1,511 @@
+package org.monarchinitiative.gregor.pedigree;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+// TODO(holtgrem): Test me!
+
+/**
+ * Allows reading of {@link PedFileContents} from a {@link InputStream}, {@link File}, or {@link Path}.
+ * <p>
+ * The input is decoded as a whole and then split into lines and fields by a hand-written tokenizer, the sex and disease
+ * columns are parsed without creating intermediate strings. Pedigree and person names are interned per file such that
+ * e.g. the father's name of a person refers to the same {@link String} object as the name of the father's record.
+ *
+ * @author <a href="mailto:manuel.holtgrewe@charite.de">Manuel Holtgrewe</a>
+ * @author <a href="mailto:max.schubach@charite.de">Max Schubach</a>
+ */
+public final class PedFileReader {
+
+	/**
+	 * number of bytes read from a file at a time before decoding them
+	 */
+	private static final int READ_CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * smallest number of characters parsed per chunk by {@link #readParallel(Path, ForkJoinPool)}
+	 */
+	private static final int MIN_CHUNK_SIZE = 1 << 18;
+
+	/**
+	 * the file to read from
+	 */
+	private final File file;
+
+	/**
+	 * Initialize object with the given file.
+	 */
+	public PedFileReader(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Read in the pedigree file in {@link #file}.
+	 *
+	 * @throws IOException       in the case of problems with reading from {@link #file}
+	 * @throws PedParseException in the case of problems with parsing the data from {@link #file}
+	 */
+	public PedFileContents read() throws IOException, PedParseException {
+		return read(file.toPath());
+	}
+
+	/**
+	 * Static method for parsing a PED file into a {@link PedFileContents} object.
+	 * <p>
+	 * The file is read and decoded in chunks of {@link #READ_CHUNK_SIZE} bytes, so only the decoded characters are
+	 * held in memory as a whole.
+	 *
+	 * @param path path to the file to read from
+	 * @return resulting {@link PedFileContents} representing the contents of the file
+	 * @throws IOException       in the case of problems with reading from <code>path</code>
+	 * @throws PedParseException in the case of problems with parsing the data from <code>path</code>
+	 */
+	public static PedFileContents read(Path path) throws IOException, PedParseException {
+		return parse(readChars(path));
+	}
+
+	/**
+	 * Static method for parsing a PED file into a {@link PedFileContents} object in parallel on the common
+	 * {@link ForkJoinPool}.
+	 *
+	 * @param path path to the file to read from
+	 * @return resulting {@link PedFileContents} representing the contents of the file
+	 * @throws IOException       in the case of problems with reading from <code>path</code>
+	 * @throws PedParseException in the case of problems with parsing the data from <code>path</code>
+	 * @see #readParallel(Path, ForkJoinPool)
+	 */
+	public static PedFileContents readParallel(Path path) throws IOException, PedParseException {
+		return readParallel(path, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Static method for parsing a PED file into a {@link PedFileContents} object in parallel.
+	 * <p>
+	 * The lines after the header are split into line-aligned chunks that are parsed on <code>pool</code>, the
+	 * individuals are returned in the order of the file. Names are interned per chunk. Small files are parsed
+	 * sequentially.
+	 *
+	 * @param path path to the file to read from
+	 * @param pool the {@link ForkJoinPool} to parse the chunks on
+	 * @return resulting {@link PedFileContents} representing the contents of the file
+	 * @throws IOException       in the case of problems with reading from <code>path</code>
+	 * @throws PedParseException in the case of problems with parsing the data from <code>path</code>, the first
+	 *                           problem in file order is reported
+	 */
+	public static PedFileContents readParallel(Path path, ForkJoinPool pool) throws IOException, PedParseException {
+		final CharBuffer buffer = readChars(path);
+		final char[] chars = buffer.array();
+		final int end = buffer.arrayOffset() + buffer.limit();
+		final int begin = buffer.arrayOffset() + buffer.position();
+		final int chunkSize = Math.max(MIN_CHUNK_SIZE, (end - begin) / (4 * pool.getParallelism()) + 1);
+		if (end - begin < 2 * chunkSize)
+			return parse(buffer);
+
+		// Parse header.
+		List<String> extraHeaders = List.of(); // default to empty
+		int pos = begin;
+		if (chars[pos] == '#') {
+			final int eol = endOfLine(chars, pos, end);
+			extraHeaders = parseHeader(new String(chars, pos, eol - pos));
+			pos = nextLine(chars, eol, end);
+		}
+
+		// Split into line-aligned chunks, a "\r\n" split between chunks only yields an empty line.
+		List<ChunkTask> tasks = new ArrayList<>();
+		while (pos < end) {
+			final int chunkEnd = Math.min(end,
+				nextLine(chars, endOfLine(chars, Math.min(end, pos + chunkSize), end), end));
+			tasks.add(new ChunkTask(chars, pos, chunkEnd));
+			pos = chunkEnd;
+		}
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+
+		// Merge in original order.
+		int nIndividuals = 0;
+		for (ChunkTask task : tasks) {
+			if (task.error != null)
+				throw task.error;
+			nIndividuals += task.individuals.size();
+		}
+		List<PedPerson> individuals = new ArrayList<PedPerson>(nIndividuals);
+		for (ChunkTask task : tasks)
+			individuals.addAll(task.individuals);
+
+		return new PedFileContents(extraHeaders, Collections.unmodifiableList(individuals));
+	}
+
+	/**
+	 * Read and decode the contents of the file at <code>path</code> in chunks of {@link #READ_CHUNK_SIZE} bytes,
+	 * replacing malformed input as {@link #decode(ByteBuffer)} does.
+	 */
+	private static CharBuffer readChars(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("PED file " + path + " is too large");
+			final CharsetDecoder decoder = newDecoder();
+			// UTF-8 never decodes to more characters than bytes
+			final CharBuffer chars = CharBuffer.allocate((int) size);
+			final ByteBuffer bytes = ByteBuffer.allocate(READ_CHUNK_SIZE);
+			boolean endOfInput = false;
+			while (!endOfInput) {
+				endOfInput = channel.read(bytes) < 0;
+				if (!decoder.decode(bytes.flip(), chars, endOfInput).isUnderflow())
+					throw new IOException("PED file " + path + " has changed while reading");
+				bytes.compact();
+			}
+			if (!decoder.flush(chars).isUnderflow())
+				throw new IOException("PED file " + path + " has changed while reading");
+			return chars.flip();
+		}
+	}
+
+	/**
+	 * Static method for parsing a PED file into a {@link PedFileContents} object.
+	 *
+	 * @param stream input stream to read from
+	 * @return resulting {@link PedFileContents} representing the contents of the file
+	 * @throws IOException       in the case of problems with reading from <code>stream</code>
+	 * @throws PedParseException in the case of problems with parsing the data from <code>stream</code>
+	 */
+	public static PedFileContents read(InputStream stream) throws IOException, PedParseException {
+		return parse(decode(ByteBuffer.wrap(stream.readAllBytes())));
+	}
+
+	/**
+	 * Decode UTF-8 <code>bytes</code>, replacing malformed input as {@link InputStreamReader} does.
+	 */
+	private static CharBuffer decode(ByteBuffer bytes) throws IOException {
+		try {
+			return newDecoder().decode(bytes);
+		} catch (CharacterCodingException e) {
+			throw new IOException("Could not decode PED file", e);
+		}
+	}
+
+	/**
+	 * @return UTF-8 decoder replacing malformed input as {@link InputStreamReader} does
+	 */
+	private static CharsetDecoder newDecoder() {
+		return StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Parse the decoded contents of a PED file.
+	 */
+	private static PedFileContents parse(CharBuffer buffer) throws PedParseException {
+		final char[] chars = buffer.array();
+		final int end = buffer.arrayOffset() + buffer.limit();
+		int pos = buffer.arrayOffset() + buffer.position();
+
+		// Parse header.
+		List<String> extraHeaders = List.of(); // default to empty
+		if (pos < end && chars[pos] == '#') {
+			final int eol = endOfLine(chars, pos, end);
+			extraHeaders = parseHeader(new String(chars, pos, eol - pos));
+			pos = nextLine(chars, eol, end);
+		}
+
+		// Parse individuals.
+		List<PedPerson> individuals = new LineParser(chars).parseLines(pos, end);
+
+		return new PedFileContents(extraHeaders, Collections.unmodifiableList(individuals));
+	}
+
+	/**
+	 * @return position of the first line terminator at or after <code>pos</code>, <code>end</code> if there is none
+	 */
+	private static int endOfLine(char[] chars, int pos, int end) {
+		while (pos < end && chars[pos] != '\n' && chars[pos] != '\r')
+			++pos;
+		return pos;
+	}
+
+	/**
+	 * @return position after the line terminator at <code>eol</code>, where <code>"\r\n"</code> counts as one
+	 */
+	private static int nextLine(char[] chars, int eol, int end) {
+		if (eol < end && chars[eol] == '\r' && eol + 1 < end && chars[eol + 1] == '\n')
+			return eol + 2;
+		return eol + 1;
+	}
+
+	/**
+	 * Parse header and return extra header fields, <code>line</code> must start with <code>'#'</code>.
+	 */
+	static List<String> parseHeader(String line) {
+		return Arrays.stream(line.trim().substring(1).split("\t"))
+				.skip(6)
+				.collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+	}
+
+	/**
+	 * Parses one chunk of lines for {@link #readParallel(Path, ForkJoinPool)}.
+	 */
+	private static final class ChunkTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final char[] chars;
+		private final int begin;
+		private final int end;
+		/**
+		 * the parsed individuals, in order
+		 */
+		List<PedPerson> individuals;
+		/**
+		 * problem while parsing the chunk, if any
+		 */
+		PedParseException error;
+
+		ChunkTask(char[] chars, int begin, int end) {
+			this.chars = chars;
+			this.begin = begin;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				individuals = new LineParser(chars).parseLines(begin, end);
+			} catch (PedParseException e) {
+				error = e;
+			}
+		}
+
+	}
+
+	/**
+	 * Splits lines of a PED file into fields and builds {@link PedPerson} objects from them.
+	 * <p>
+	 * Fields are separated by runs of whitespace, the same as splitting the trimmed line on <code>"\\s+"</code>.
+	 */
+	static final class LineParser {
+
+		/**
+		 * the decoded file contents, or the buffer for the current line in line-by-line mode
+		 */
+		private char[] chars;
+		/**
+		 * interned pedigree and person names
+		 */
+		private final NamePool names = new NamePool();
+		/**
+		 * start and end positions of the six mandatory fields
+		 */
+		private final int[] starts = new int[6];
+		private final int[] ends = new int[6];
+		/**
+		 * buffer for the extra fields, copied by {@link PedPerson}
+		 */
+		private final List<String> extraFields = new ArrayList<>();
+
+		/**
+		 * Construct parser for the decoded file contents in <code>chars</code>
+		 */
+		LineParser(char[] chars) {
+			this.chars = chars;
+		}
+
+		/**
+		 * Construct parser for use with {@link #parse(String)}
+		 */
+		LineParser() {
+			this(new char[256]);
+		}
+
+		/**
+		 * Parse individual from <code>line</code>, must not be used with parsers on decoded file contents.
+		 *
+		 * @return the parsed {@link PedPerson} or <code>null</code> if the line is empty
+		 * @throws PedParseException on problems with the parsing
+		 */
+		PedPerson parse(String line) throws PedParseException {
+			if (line.length() > chars.length)
+				chars = new char[Math.max(line.length(), 2 * chars.length)];
+			line.getChars(0, line.length(), chars, 0);
+			return parse(0, line.length());
+		}
+
+		/**
+		 * Parse individuals from the lines in <code>[begin, end)</code>, ignoring empty lines.
+		 *
+		 * @throws PedParseException on problems with the parsing
+		 */
+		List<PedPerson> parseLines(int begin, int end) throws PedParseException {
+			List<PedPerson> individuals = new ArrayList<PedPerson>();
+			int pos = begin;
+			while (pos < end) {
+				final int eol = endOfLine(chars, pos, end);
+				final PedPerson individual = parse(pos, eol);
+				if (individual != null)
+					individuals.add(individual);
+				pos = nextLine(chars, eol, end);
+			}
+			return individuals;
+		}
+
+		/**
+		 * Parse individual from the line in <code>[begin, end)</code>.
+		 *
+		 * @return the parsed {@link PedPerson} or <code>null</code> if the line is empty
+		 * @throws PedParseException on problems with the parsing
+		 */
+		PedPerson parse(int begin, int end) throws PedParseException {
+			// trim leading and trailing whitespace
+			while (begin < end && chars[begin] <= ' ')
+				++begin;
+			while (end > begin && chars[end - 1] <= ' ')
+				--end;
+			if (begin == end)
+				return null;
+
+			extraFields.clear();
+			int nFields = 0;
+			int pos = begin;
+			while (pos < end) {
+				final int tokenStart = pos;
+				while (pos < end && !isWhitespace(chars[pos]))
+					++pos;
+				if (nFields < 6) {
+					starts[nFields] = tokenStart;
+					ends[nFields] = pos;
+				} else {
+					extraFields.add(new String(chars, tokenStart, pos - tokenStart));
+				}
+				++nFields;
+				while (pos < end && isWhitespace(chars[pos]))
+					++pos;
+			}
+			if (nFields < 6)
+				throw new PedParseException("Insufficient number of fields in line: \""
+					+ new String(chars, begin, end - begin) + "\"");
+
+			return new PedPerson(names.get(chars, starts[0], ends[0]), names.get(chars, starts[1], ends[1]),
+				names.get(chars, starts[2], ends[2]), names.get(chars, starts[3], ends[3]), parseSex(),
+				parseDisease(), extraFields);
+		}
+
+		/**
+		 * Same as {@link Sex#toSex(String)} on the fifth field
+		 */
+		private Sex parseSex() {
+			if (ends[4] - starts[4] == 1) {
+				switch (chars[starts[4]]) {
+					case '1':
+						return Sex.MALE;
+					case '2':
+						return Sex.FEMALE;
+				}
+			}
+			return Sex.UNKNOWN;
+		}
+
+		/**
+		 * Same as {@link Disease#toDisease(String)} on the sixth field
+		 */
+		private Disease parseDisease() throws PedParseException {
+			if (ends[5] - starts[5] == 1) {
+				switch (chars[starts[5]]) {
+					case '0':
+						return Disease.UNKNOWN;
+					case '1':
+						return Disease.UNAFFECTED;
+					case '2':
+						return Disease.AFFECTED;
+				}
+			}
+			throw new PedParseException("Invalid PED disease status value: "
+				+ new String(chars, starts[5], ends[5] - starts[5]));
+		}
+
+		/**
+		 * @return whether <code>c</code> matches <code>"\\s"</code>
+		 */
+		private static boolean isWhitespace(char c) {
+			return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+		}
+
+	}
+
+	/**
+	 * Open addressing hash set of strings that is probed with character ranges, such that a {@link String} is only
+	 * created the first time a name is seen.
+	 */
+	private static final class NamePool {
+
+		private String[] table = new String[1024];
+		private int size = 0;
+
+		/**
+		 * @return the pooled {@link String} with the characters in <code>[begin, end)</code>
+		 */
+		String get(char[] chars, int begin, int end) {
+			int hash = 0;
+			for (int i = begin; i < end; ++i)
+				hash = 31 * hash + chars[i];
+
+			final int mask = table.length - 1;
+			int slot = mix(hash) & mask;
+			for (String s = table[slot]; s != null; s = table[slot]) {
+				if (s.hashCode() == hash && matches(s, chars, begin, end))
+					return s;
+				slot = (slot + 1) & mask;
+			}
+
+			final String result = new String(chars, begin, end - begin);
+			table[slot] = result;
+			if (++size * 2 > table.length)
+				grow();
+			return result;
+		}
+
+		private static boolean matches(String s, char[] chars, int begin, int end) {
+			if (s.length() != end - begin)
+				return false;
+			for (int i = 0; i < s.length(); ++i)
+				if (s.charAt(i) != chars[begin + i])
+					return false;
+			return true;
+		}
+
+		private void grow() {
+			final String[] old = table;
+			table = new String[old.length * 2];
+			final int mask = table.length - 1;
+			for (String s : old) {
+				if (s == null)
+					continue;
+				int slot = mix(s.hashCode()) & mask;
+				while (table[slot] != null)
+					slot = (slot + 1) & mask;
+				table[slot] = s;
+			}
+		}
+
+		private static int mix(int hash) {
+			return hash ^ (hash >>> 16);
+		}
+
+	}
+
+}
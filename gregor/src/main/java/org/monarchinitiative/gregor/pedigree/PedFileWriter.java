@@ -0,0 +1,242 @@
+package org.monarchinitiative.gregor.pedigree;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// TODO(holtgrem): Test me!
+
+/**
+ * Allows writing of {@link PedFileContents} to a {@link OutputStream}, {@link File}, or {@link WritableByteChannel}.
+ * <p>
+ * Output is encoded as UTF-8 directly into a {@link ByteBuffer} that is written out when full, the sex and disease codes
+ * are copied from precomputed bytes. The batch methods {@link #writeAll(Map)} and
+ * {@link #writePedigrees(Collection, List, WritableByteChannel)} reuse one buffer for all their output.
+ *
+ * @author <a href="mailto:manuel.holtgrewe@charite.de">Manuel Holtgrewe</a>
+ */
+public final class PedFileWriter {
+
+	/**
+	 * size of the output buffer
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * the header line up to the extra column headers
+	 */
+	private static final byte[] HEADER = "#PEDIGREE\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * encoded {@link Sex#toInt()} values, by ordinal
+	 */
+	private static final byte[] SEX_CODES = new byte[Sex.values().length];
+
+	/**
+	 * encoded {@link Disease#toInt()} values, by ordinal
+	 */
+	private static final byte[] DISEASE_CODES = new byte[Disease.values().length];
+
+	static {
+		for (Sex sex : Sex.values())
+			SEX_CODES[sex.ordinal()] = (byte) ('0' + sex.toInt());
+		for (Disease disease : Disease.values())
+			DISEASE_CODES[disease.ordinal()] = (byte) ('0' + disease.toInt());
+	}
+
+	/**
+	 * the file to write to
+	 */
+	private final File file;
+
+	public PedFileWriter(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Write out the {@link PedFileContents} object to the output.
+	 *
+	 * @param contents the PED file contents to write out
+	 * @throws IOException on failures during writing
+	 */
+	public void write(PedFileContents contents) throws IOException {
+		try (FileChannel channel = openForWriting(file.toPath())) {
+			write(contents, channel);
+		}
+	}
+
+	/**
+	 * Static method for writing a {@link PedFileContents} file to a {@link OutputStream}, <code>stream</code> is closed
+	 * afterwards.
+	 *
+	 * @param contents {@link PedFileContents} to write
+	 * @param stream   destination stream
+	 * @throws IOException on failures during writing
+	 */
+	public static void write(PedFileContents contents, OutputStream stream) throws IOException {
+		try (WritableByteChannel channel = Channels.newChannel(stream)) {
+			write(contents, channel);
+		}
+	}
+
+	/**
+	 * Static method for writing a {@link PedFileContents} file to a {@link WritableByteChannel}, <code>channel</code>
+	 * is not closed.
+	 *
+	 * @param contents {@link PedFileContents} to write
+	 * @param channel  destination channel
+	 * @throws IOException on failures during writing
+	 */
+	public static void write(PedFileContents contents, WritableByteChannel channel) throws IOException {
+		new Encoder(channel).writeContents(contents).flush();
+	}
+
+	/**
+	 * Write each {@link PedFileContents} to its own file, reusing one output buffer.
+	 *
+	 * @param files mapping from destination path to the contents to write there
+	 * @throws IOException on failures during writing
+	 */
+	public static void writeAll(Map<Path, PedFileContents> files) throws IOException {
+		final Encoder encoder = new Encoder(null);
+		for (Map.Entry<Path, PedFileContents> entry : files.entrySet()) {
+			try (FileChannel channel = openForWriting(entry.getKey())) {
+				encoder.setChannel(channel);
+				encoder.writeContents(entry.getValue()).flush();
+			}
+		}
+	}
+
+	/**
+	 * Write the members of all <code>pedigrees</code> as one PED file to <code>channel</code>, which is not closed.
+	 * <p>
+	 * Parents that are not set are written as <code>"0"</code>.
+	 *
+	 * @param pedigrees          the {@link Pedigree}s to write, in order
+	 * @param extraColumnHeaders headers for extra columns (column 7 and beyond)
+	 * @param channel            destination channel
+	 * @throws IOException on failures during writing
+	 */
+	public static void writePedigrees(Collection<Pedigree> pedigrees, List<String> extraColumnHeaders,
+									  WritableByteChannel channel) throws IOException {
+		final Encoder encoder = new Encoder(channel);
+		encoder.writeHeader(extraColumnHeaders);
+		for (Pedigree pedigree : pedigrees)
+			for (Person person : pedigree.getMembers())
+				encoder.writeRecord(pedigree.getName(), person.getName(),
+					(person.getFather() == null) ? "0" : person.getFather().getName(),
+					(person.getMother() == null) ? "0" : person.getMother().getName(), person.getSex(),
+					person.getDisease(), person.getExtraFields());
+		encoder.flush();
+	}
+
+	private static FileChannel openForWriting(Path path) throws IOException {
+		return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Encodes PED records into a {@link ByteBuffer} that is written to a channel when full.
+	 */
+	private static final class Encoder {
+
+		private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		private WritableByteChannel channel;
+
+		Encoder(WritableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		void setChannel(WritableByteChannel channel) {
+			this.channel = channel;
+		}
+
+		Encoder writeContents(PedFileContents contents) throws IOException {
+			writeHeader(contents.getExtraColumnHeaders());
+			for (PedPerson individual : contents.getIndividuals())
+				writeRecord(individual.getPedigree(), individual.getName(), individual.getFather(),
+					individual.getMother(), individual.getSex(), individual.getDisease(), individual.getExtraFields());
+			return this;
+		}
+
+		void writeHeader(List<String> extraColumnHeaders) throws IOException {
+			ensureRemaining(HEADER.length);
+			buffer.put(HEADER);
+			for (String header : extraColumnHeaders) {
+				put((byte) '\t');
+				put(header);
+			}
+			put((byte) '\n');
+		}
+
+		void writeRecord(String pedigree, String name, String father, String mother, Sex sex, Disease disease,
+						 List<String> extraFields) throws IOException {
+			put(pedigree);
+			put((byte) '\t');
+			put(name);
+			put((byte) '\t');
+			put(father);
+			put((byte) '\t');
+			put(mother);
+			ensureRemaining(5);
+			buffer.put((byte) '\t');
+			buffer.put(SEX_CODES[sex.ordinal()]);
+			buffer.put((byte) '\t');
+			buffer.put(DISEASE_CODES[disease.ordinal()]);
+			for (String field : extraFields) {
+				put((byte) '\t');
+				put(field);
+			}
+			put((byte) '\n');
+		}
+
+		/**
+		 * Encode <code>s</code> as UTF-8, ASCII characters are copied directly.
+		 */
+		private void put(String s) throws IOException {
+			final int length = s.length();
+			for (int i = 0; i < length; ++i) {
+				final char c = s.charAt(i);
+				if (c >= 0x80) {
+					final byte[] bytes = s.substring(i).getBytes(StandardCharsets.UTF_8);
+					for (byte b : bytes)
+						put(b);
+					return;
+				}
+				put((byte) c);
+			}
+		}
+
+		private void put(byte b) throws IOException {
+			if (!buffer.hasRemaining())
+				drain();
+			buffer.put(b);
+		}
+
+		private void ensureRemaining(int n) throws IOException {
+			if (buffer.remaining() < n)
+				drain();
+		}
+
+		private void drain() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+
+		void flush() throws IOException {
+			drain();
+		}
+
+	}
+
+}
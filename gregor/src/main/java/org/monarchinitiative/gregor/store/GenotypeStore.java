@@ -0,0 +1,340 @@
+package org.monarchinitiative.gregor.store;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.IndexedGenotypes;
+import org.monarchinitiative.gregor.mendel.MendelianInheritanceChecker;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only access to packed genotype classes held outside of the Java heap
+ * <p>
+ * A store is either memory-mapped from a file written by {@link GenotypeStoreWriter} or built in off-heap memory by a
+ * {@link GenotypeStoreBuilder}. In both cases, the rows live in {@link ByteBuffer} segments that are not scanned by
+ * the garbage collector and genotypes are read directly from them, nothing is copied onto the heap. Repeated analyses
+ * of a mapped store (e.g., after changing the affection status in the pedigree) are served from the page cache. Use
+ * {@link #forPedigree(Pedigree)} to obtain an {@link IndexedGenotypes} view that can be passed to
+ * {@link MendelianInheritanceChecker#checkMendelianInheritanceSub(IndexedGenotypes)}. Stores with quality values also
+ * pass them on to the view, for masking with {@link org.monarchinitiative.gregor.mendel.QualityThresholds}.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class GenotypeStore {
+
+	/**
+	 * Upper bound for the size of one mapped segment of rows
+	 */
+	private static final long MAX_SEGMENT_SIZE = 1L << 30;
+	/**
+	 * The {@link ChromosomeType} values, by ordinal
+	 */
+	private static final ChromosomeType[] CHROM_TYPES = ChromosomeType.values();
+
+	/**
+	 * the sample names
+	 */
+	private final List<String> sampleNames;
+	/**
+	 * mapping from sample name to column
+	 */
+	private final Map<String, Integer> sampleToColumn;
+	/**
+	 * number of sites
+	 */
+	private final int nSites;
+	/**
+	 * width of one row in bytes
+	 */
+	private final int rowWidth;
+	/**
+	 * width of the packed genotype classes at the start of each row in bytes
+	 */
+	private final int classesWidth;
+	/**
+	 * whether the rows hold quality values
+	 */
+	private final boolean qualities;
+	/**
+	 * <code>log2</code> of the number of rows per segment
+	 */
+	private final int segmentShift;
+	/**
+	 * mapped segments of rows
+	 */
+	private final ByteBuffer[] segments;
+	/**
+	 * mapped chromosome types
+	 */
+	private final ByteBuffer chromTypes;
+
+	/**
+	 * @param segments     the rows in segments of <code>2^segmentShift</code> rows each, the last one may be shorter
+	 * @param segmentShift <code>log2</code> of the number of rows per segment
+	 * @param chromTypes   {@link ChromosomeType} ordinal of each site
+	 * @param qualities    whether the rows hold quality values
+	 */
+	GenotypeStore(List<String> sampleNames, int nSites, ByteBuffer[] segments, int segmentShift,
+				  ByteBuffer chromTypes, boolean qualities) {
+		this.sampleNames = List.copyOf(sampleNames);
+		Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < this.sampleNames.size(); ++i)
+			map.put(this.sampleNames.get(i), i);
+		this.sampleToColumn = Collections.unmodifiableMap(map);
+		this.nSites = nSites;
+		this.rowWidth = GenotypeStoreFormat.rowWidth(sampleNames.size(), qualities);
+		this.classesWidth = GenotypeStoreFormat.classesWidth(sampleNames.size());
+		this.qualities = qualities;
+		this.segments = segments;
+		this.segmentShift = segmentShift;
+		this.chromTypes = chromTypes;
+	}
+
+	/**
+	 * Open the genotype store at <code>path</code>.
+	 *
+	 * @param path path to the store
+	 * @return the opened {@link GenotypeStore}
+	 * @throws IOException on problems with reading from <code>path</code> or if it is not a valid genotype store
+	 */
+	public static GenotypeStore open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if (size < GenotypeStoreFormat.HEADER_SIZE)
+				throw new IOException("Not a genotype store: " + path);
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, GenotypeStoreFormat.HEADER_SIZE);
+			byte[] magic = new byte[GenotypeStoreFormat.MAGIC.length];
+			header.get(magic);
+			if (!Arrays.equals(magic, GenotypeStoreFormat.MAGIC))
+				throw new IOException("Not a genotype store: " + path);
+			final int version = header.getInt();
+			if (version != GenotypeStoreFormat.VERSION)
+				throw new IOException("Unsupported genotype store version " + version + ": " + path);
+			final int nSamples = header.getInt();
+			final int nSites = header.getInt();
+			final long rowsOffset = header.getLong();
+			final long chromTypesOffset = header.getLong();
+			final boolean qualities = (header.getInt() & GenotypeStoreFormat.FLAG_QUALITIES) != 0;
+			// each sample takes at least the length of its name in the dictionary
+			if (rowsOffset < GenotypeStoreFormat.HEADER_SIZE || rowsOffset > size || nSites < 0 || nSamples < 0
+				|| nSamples > (rowsOffset - GenotypeStoreFormat.HEADER_SIZE) / Integer.BYTES)
+				throw new IOException("Corrupt genotype store header: " + path);
+			final int rowWidth = GenotypeStoreFormat.rowWidth(nSamples, qualities);
+			if (chromTypesOffset != rowsOffset + (long) nSites * rowWidth || chromTypesOffset + nSites > size)
+				throw new IOException("Truncated or corrupt genotype store: " + path);
+
+			// Read sample dictionary
+			ByteBuffer dictionary = channel.map(FileChannel.MapMode.READ_ONLY, GenotypeStoreFormat.HEADER_SIZE,
+				rowsOffset - GenotypeStoreFormat.HEADER_SIZE);
+			List<String> sampleNames = new ArrayList<>(nSamples);
+			for (int i = 0; i < nSamples; ++i) {
+				final int length = dictionary.remaining() < Integer.BYTES ? -1 : dictionary.getInt();
+				if (length < 0 || length > dictionary.remaining())
+					throw new IOException("Corrupt genotype store sample dictionary: " + path);
+				byte[] bytes = new byte[length];
+				dictionary.get(bytes);
+				sampleNames.add(new String(bytes, StandardCharsets.UTF_8));
+			}
+
+			// Map rows in segments holding a power of two of rows each
+			final int segmentShift = GenotypeStoreFormat.segmentShift(rowWidth, MAX_SEGMENT_SIZE);
+			final long rowsPerSegment = 1L << segmentShift;
+			final int nSegments = (int) ((nSites + rowsPerSegment - 1) / rowsPerSegment);
+			ByteBuffer[] segments = new ByteBuffer[nSegments];
+			for (int i = 0; i < nSegments; ++i) {
+				final long firstRow = i * rowsPerSegment;
+				final long nRows = Math.min(rowsPerSegment, nSites - firstRow);
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, rowsOffset + firstRow * rowWidth,
+					nRows * rowWidth);
+			}
+			MappedByteBuffer chromTypes = channel.map(FileChannel.MapMode.READ_ONLY, chromTypesOffset, nSites);
+			for (int site = 0; site < nSites; ++site)
+				if (chromTypes.get(site) < 0 || chromTypes.get(site) >= CHROM_TYPES.length)
+					throw new IOException("Corrupt genotype store chromosome type at site " + site + ": " + path);
+
+			return new GenotypeStore(sampleNames, nSites, segments, segmentShift, chromTypes, qualities);
+		}
+	}
+
+	/**
+	 * @return the sample names, defining the columns of the store
+	 */
+	public List<String> getSampleNames() {
+		return sampleNames;
+	}
+
+	/**
+	 * @return number of samples
+	 */
+	public int getNSamples() {
+		return sampleNames.size();
+	}
+
+	/**
+	 * @return number of sites
+	 */
+	public int getNSites() {
+		return nSites;
+	}
+
+	/**
+	 * @return total capacity of the row segments in bytes
+	 */
+	long getRowsCapacity() {
+		long result = 0;
+		for (ByteBuffer segment : segments)
+			result += segment.capacity();
+		return result;
+	}
+
+	/**
+	 * @param site 0-based site index
+	 * @return type of the chromosome the site lies on
+	 */
+	public ChromosomeType getChromType(int site) {
+		return CHROM_TYPES[chromTypes.get(site)];
+	}
+
+	/**
+	 * @param site   0-based site index
+	 * @param column 0-based sample column, see {@link #getSampleNames()}
+	 * @return the {@link GenotypeClass} of the given sample at the given site
+	 */
+	public int getGenotypeClass(int site, int column) {
+		final ByteBuffer segment = segments[site >>> segmentShift];
+		final int offset = (site & ((1 << segmentShift) - 1)) * rowWidth + (column >> 1);
+		return (segment.get(offset) >>> ((column & 1) * GenotypeClass.BITS)) & 0xF;
+	}
+
+	/**
+	 * @return whether the store holds genotype qualities and read depths
+	 */
+	public boolean hasQualities() {
+		return qualities;
+	}
+
+	/**
+	 * @param site   0-based site index
+	 * @param column 0-based sample column, see {@link #getSampleNames()}
+	 * @return the genotype quality of the given sample at the given site, saturated at 254, or
+	 * {@link GenotypeCalls#MISSING_QUALITY} if not available
+	 */
+	public int getGenotypeQuality(int site, int column) {
+		return qualities ? getQuality(site, classesWidth + column) : GenotypeCalls.MISSING_QUALITY;
+	}
+
+	/**
+	 * @param site   0-based site index
+	 * @param column 0-based sample column, see {@link #getSampleNames()}
+	 * @return the read depth of the given sample at the given site, saturated at 254, or
+	 * {@link GenotypeCalls#MISSING_QUALITY} if not available
+	 */
+	public int getReadDepth(int site, int column) {
+		return qualities ? getQuality(site, classesWidth + sampleNames.size() + column) :
+			GenotypeCalls.MISSING_QUALITY;
+	}
+
+	/**
+	 * @return decoded quality value at <code>offsetInRow</code> in the row of <code>site</code>
+	 */
+	private int getQuality(int site, int offsetInRow) {
+		final ByteBuffer segment = segments[site >>> segmentShift];
+		return GenotypeStoreFormat.decodeQuality(
+			segment.get((site & ((1 << segmentShift) - 1)) * rowWidth + offsetInRow));
+	}
+
+	/**
+	 * @param pedigree the pedigree to obtain the view for
+	 * @return {@link IndexedGenotypes} view on all sites for the members of <code>pedigree</code>; members that are
+	 * not in the store are not observed
+	 */
+	public IndexedGenotypes forPedigree(Pedigree pedigree) {
+		return forPedigree(pedigree, 0, nSites);
+	}
+
+	/**
+	 * @param pedigree the pedigree to obtain the view for
+	 * @param fromSite first site of the view (inclusive)
+	 * @param toSite   last site of the view (exclusive)
+	 * @return {@link IndexedGenotypes} view on the given range of sites for the members of <code>pedigree</code>; site
+	 * indices of the view are relative to <code>fromSite</code>
+	 */
+	public IndexedGenotypes forPedigree(Pedigree pedigree, int fromSite, int toSite) {
+		if (fromSite < 0 || toSite > nSites || fromSite > toSite)
+			throw new IndexOutOfBoundsException("Invalid site range [" + fromSite + ", " + toSite + ")");
+		final int[] columns = pedigree.getNames().stream()
+			.mapToInt(name -> sampleToColumn.getOrDefault(name, -1))
+			.toArray();
+		return new PedigreeView(columns, fromSite, toSite - fromSite);
+	}
+
+	/**
+	 * View of the store for the members of one pedigree
+	 */
+	private final class PedigreeView implements IndexedGenotypes {
+
+		/**
+		 * column of each pedigree member, <code>-1</code> if not in store
+		 */
+		private final int[] columns;
+		/**
+		 * first site
+		 */
+		private final int offset;
+		/**
+		 * number of sites
+		 */
+		private final int length;
+
+		PedigreeView(int[] columns, int offset, int length) {
+			this.columns = columns;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public int getNSites() {
+			return length;
+		}
+
+		@Override
+		public ChromosomeType getChromType(int site) {
+			return GenotypeStore.this.getChromType(offset + site);
+		}
+
+		@Override
+		public int getGenotypeClass(int site, int member) {
+			final int column = columns[member];
+			if (column < 0)
+				return GenotypeClass.NOT_OBSERVED;
+			return GenotypeStore.this.getGenotypeClass(offset + site, column);
+		}
+
+		@Override
+		public int getGenotypeQuality(int site, int member) {
+			final int column = columns[member];
+			if (column < 0)
+				return GenotypeCalls.MISSING_QUALITY;
+			return GenotypeStore.this.getGenotypeQuality(offset + site, column);
+		}
+
+		@Override
+		public int getReadDepth(int site, int member) {
+			final int column = columns[member];
+			if (column < 0)
+				return GenotypeCalls.MISSING_QUALITY;
+			return GenotypeStore.this.getReadDepth(offset + site, column);
+		}
+
+	}
+
+}
@@ -0,0 +1,205 @@
+package org.monarchinitiative.gregor.store;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+import org.monarchinitiative.gregor.vcf.VcfParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a {@link GenotypeStore} in off-heap memory from {@link GenotypeCalls}
+ * <p>
+ * The genotype classes are packed as in {@link GenotypeStoreFormat}, into direct {@link ByteBuffer} segments that are
+ * allocated as the store grows. The last segment starts small and doubles in size up to the full segment size, and is
+ * trimmed to its rows on {@link #build()}, so small stores do not take a full segment. This keeps the genotypes of
+ * large cohorts out of the Java heap, so they neither count against the maximal heap size nor are scanned by the
+ * garbage collector, without writing a store file first. The memory is released once the built store is no longer
+ * reachable.
+ */
+public final class GenotypeStoreBuilder {
+
+	/**
+	 * Default upper bound for the size of one segment of rows
+	 */
+	public static final long DEFAULT_SEGMENT_SIZE = 1L << 26;
+	/**
+	 * Number of rows and chromosome types allocated at first, doubled as needed
+	 */
+	private static final int INITIAL_ROWS = 1 << 10;
+
+	/**
+	 * the sample names, defining the columns
+	 */
+	private final List<String> sampleNames;
+	/**
+	 * width of one row in bytes
+	 */
+	private final int rowWidth;
+	/**
+	 * whether quality values are stored
+	 */
+	private final boolean qualities;
+	/**
+	 * <code>log2</code> of the number of rows per segment
+	 */
+	private final int segmentShift;
+	/**
+	 * segments of rows, all but the last one are full
+	 */
+	private final List<ByteBuffer> segments = new ArrayList<>();
+	/**
+	 * number of rows the last segment has room for
+	 */
+	private int lastSegmentRows;
+	/**
+	 * chromosome type ordinals of the sites, grown as needed
+	 */
+	private ByteBuffer chromTypes = ByteBuffer.allocateDirect(INITIAL_ROWS);
+	/**
+	 * number of sites added so far
+	 */
+	private int nSites;
+	/**
+	 * whether {@link #build()} has been called
+	 */
+	private boolean built;
+
+	/**
+	 * Create builder with segments of at most {@link #DEFAULT_SEGMENT_SIZE} bytes
+	 *
+	 * @param sampleNames the names of the samples in the store
+	 */
+	public GenotypeStoreBuilder(List<String> sampleNames) {
+		this(sampleNames, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * @param sampleNames    the names of the samples in the store
+	 * @param maxSegmentSize upper bound for the size of one segment of rows in bytes, segments hold at least one row
+	 */
+	public GenotypeStoreBuilder(List<String> sampleNames, long maxSegmentSize) {
+		this(sampleNames, maxSegmentSize, false);
+	}
+
+	/**
+	 * @param sampleNames    the names of the samples in the store
+	 * @param maxSegmentSize upper bound for the size of one segment of rows in bytes, segments hold at least one row
+	 * @param qualities      whether to store genotype qualities and read depths as well
+	 */
+	public GenotypeStoreBuilder(List<String> sampleNames, long maxSegmentSize, boolean qualities) {
+		if (maxSegmentSize < 1 || maxSegmentSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Invalid segment size " + maxSegmentSize);
+		this.sampleNames = List.copyOf(sampleNames);
+		this.qualities = qualities;
+		this.rowWidth = GenotypeStoreFormat.rowWidth(sampleNames.size(), qualities);
+		this.segmentShift = GenotypeStoreFormat.segmentShift(rowWidth, maxSegmentSize);
+	}
+
+	/**
+	 * Append the site described by <code>calls</code>, samples missing from <code>calls</code> are stored as
+	 * {@link GenotypeClass#NOT_OBSERVED}.
+	 *
+	 * @param calls the {@link GenotypeCalls} to add
+	 * @throws IllegalStateException if the store has already been built or is full
+	 */
+	public void add(GenotypeCalls calls) {
+		if (built)
+			throw new IllegalStateException("Genotype store has already been built");
+		if (nSites == Integer.MAX_VALUE)
+			throw new IllegalStateException("Too many sites for genotype store");
+		final int row = nSites & ((1 << segmentShift) - 1);
+		if (row == 0) {
+			lastSegmentRows = Math.min(INITIAL_ROWS, 1 << segmentShift);
+			segments.add(ByteBuffer.allocateDirect(Math.max(rowWidth * lastSegmentRows, 1)));
+		} else if (row == lastSegmentRows) {
+			lastSegmentRows = Math.min(2 * lastSegmentRows, 1 << segmentShift);
+			segments.set(segments.size() - 1, copyOf(segments.get(segments.size() - 1), rowWidth * lastSegmentRows));
+		}
+		if (nSites == chromTypes.capacity())
+			chromTypes = copyOf(chromTypes, (int) Math.min(2L * nSites, Integer.MAX_VALUE));
+		GenotypeStoreFormat.putRow(segments.get(segments.size() - 1), row * rowWidth, sampleNames, calls,
+			qualities);
+		chromTypes.put(nSites, (byte) calls.getChromType().ordinal());
+		++nSites;
+	}
+
+	/**
+	 * @return number of sites added so far
+	 */
+	public int getNSites() {
+		return nSites;
+	}
+
+	/**
+	 * Build the store, the builder cannot be used afterwards
+	 *
+	 * @return {@link GenotypeStore} with the added sites, in order of the {@link #add(GenotypeCalls)} calls
+	 * @throws IllegalStateException if the store has already been built
+	 */
+	public GenotypeStore build() {
+		if (built)
+			throw new IllegalStateException("Genotype store has already been built");
+		built = true;
+
+		ByteBuffer[] rows = new ByteBuffer[segments.size()];
+		for (int i = 0; i < rows.length; ++i)
+			rows[i] = segments.get(i).asReadOnlyBuffer();
+		// the last segment only needs room for its rows
+		if (rows.length > 0) {
+			final int lastSize = rowWidth * (nSites - ((rows.length - 1) << segmentShift));
+			if (lastSize < rows[rows.length - 1].capacity())
+				rows[rows.length - 1] = copyOf(rows[rows.length - 1], lastSize).asReadOnlyBuffer();
+		}
+		segments.clear();
+		final ByteBuffer result = chromTypes.limit(nSites).asReadOnlyBuffer();
+		chromTypes = null;
+		return new GenotypeStore(sampleNames, nSites, rows, segmentShift, result, qualities);
+	}
+
+	/**
+	 * @return direct buffer of <code>capacity</code> bytes starting with the first bytes of <code>buffer</code>
+	 */
+	private static ByteBuffer copyOf(ByteBuffer buffer, int capacity) {
+		ByteBuffer result = ByteBuffer.allocateDirect(capacity);
+		result.put(buffer.duplicate().clear().limit(Math.min(buffer.capacity(), capacity)));
+		return result.clear();
+	}
+
+	/**
+	 * Read the VCF file at <code>vcf</code> into an off-heap genotype store.
+	 *
+	 * @param vcf path to the plain or (b)gzip-compressed VCF file
+	 * @return the built {@link GenotypeStore}
+	 * @throws IOException       on problems with reading
+	 * @throws VcfParseException on problems with parsing the VCF file
+	 */
+	public static GenotypeStore readVcf(Path vcf) throws IOException, VcfParseException {
+		return readVcf(vcf, false);
+	}
+
+	/**
+	 * Read the VCF file at <code>vcf</code> into an off-heap genotype store.
+	 *
+	 * @param vcf       path to the plain or (b)gzip-compressed VCF file
+	 * @param qualities whether to store the <code>GQ</code> and <code>DP</code> values as well
+	 * @return the built {@link GenotypeStore}
+	 * @throws IOException       on problems with reading
+	 * @throws VcfParseException on problems with parsing the VCF file
+	 */
+	public static GenotypeStore readVcf(Path vcf, boolean qualities) throws IOException, VcfParseException {
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(vcf)) {
+			GenotypeStoreBuilder builder = new GenotypeStoreBuilder(reader.getSampleNames(), DEFAULT_SEGMENT_SIZE,
+				qualities);
+			GenotypeCalls calls;
+			while ((calls = reader.next()) != null)
+				builder.add(calls);
+			return builder.build();
+		}
+	}
+
+}
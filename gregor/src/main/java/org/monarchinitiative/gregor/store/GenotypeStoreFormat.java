@@ -0,0 +1,148 @@
+package org.monarchinitiative.gregor.store;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Constants describing the layout of a genotype store file
+ * <p>
+ * All numbers are stored in big-endian byte order. The file starts with a fixed-size header:
+ *
+ * <dl>
+ * <dt>magic (4 bytes)</dt>
+ * <dd>{@link #MAGIC}</dd>
+ * <dt>version (int)</dt>
+ * <dd>{@link #VERSION}</dd>
+ * <dt>number of samples (int)</dt>
+ * <dd>number of entries in the sample dictionary</dd>
+ * <dt>number of sites (int)</dt>
+ * <dd>number of genotype rows</dd>
+ * <dt>rows offset (long)</dt>
+ * <dd>file offset of the first genotype row</dd>
+ * <dt>chromosome types offset (long)</dt>
+ * <dd>file offset of the chromosome type section</dd>
+ * <dt>flags (int)</dt>
+ * <dd>{@link #FLAG_QUALITIES} if the rows hold quality values</dd>
+ * </dl>
+ * <p>
+ * The header is followed by the sample dictionary (for each sample, the length of the UTF-8 encoded name as an
+ * <code>int</code>, followed by the encoded name) and the genotype rows. Each row has a fixed width of
+ * <code>ceil(nSamples / 2)</code> bytes and holds one {@link org.monarchinitiative.gregor.mendel.GenotypeClass} per
+ * sample, packed as two 4-bit values per byte (low nibble for even sample numbers). With {@link #FLAG_QUALITIES}, each
+ * row is followed by the genotype quality and then the read depth of each sample as one unsigned byte each, see
+ * {@link #encodeQuality(int)}, which makes the row <code>2 * nSamples</code> bytes wider. The chromosome type section
+ * holds the {@link org.monarchinitiative.gregor.mendel.ChromosomeType} ordinal of each site as one byte.
+ */
+final class GenotypeStoreFormat {
+
+	/**
+	 * Magic bytes at the start of each file
+	 */
+	static final byte[] MAGIC = {'G', 'R', 'G', 'S'};
+	/**
+	 * Version of the file format
+	 */
+	static final int VERSION = 2;
+	/**
+	 * Size of the fixed-size header
+	 */
+	static final int HEADER_SIZE = 36;
+	/**
+	 * Offset of the number of sites in the header
+	 */
+	static final int NUM_SITES_OFFSET = 12;
+	/**
+	 * Offset of the rows offset in the header
+	 */
+	static final int ROWS_OFFSET_OFFSET = 16;
+	/**
+	 * Flag for rows with genotype quality and read depth of each sample
+	 */
+	static final int FLAG_QUALITIES = 1;
+	/**
+	 * Encoded missing quality value
+	 */
+	static final int MISSING_QUALITY_BYTE = 0xFF;
+
+	private GenotypeStoreFormat() {
+	}
+
+	/**
+	 * @return width of the packed genotype classes at the start of each row in bytes
+	 */
+	static int classesWidth(int nSamples) {
+		return (nSamples + 1) / 2;
+	}
+
+	/**
+	 * @param qualities whether the rows hold quality values
+	 * @return width of one row in bytes
+	 */
+	static int rowWidth(int nSamples, boolean qualities) {
+		return classesWidth(nSamples) + (qualities ? 2 * nSamples : 0);
+	}
+
+	/**
+	 * @return <code>value</code> as unsigned byte, saturating at 254 such that comparisons with thresholds below 255
+	 * are kept, and {@link #MISSING_QUALITY_BYTE} for {@link GenotypeCalls#MISSING_QUALITY}
+	 */
+	static byte encodeQuality(int value) {
+		return (byte) ((value < 0) ? MISSING_QUALITY_BYTE : Math.min(value, MISSING_QUALITY_BYTE - 1));
+	}
+
+	/**
+	 * @return quality value of the encoded <code>b</code>, see {@link #encodeQuality(int)}
+	 */
+	static int decodeQuality(byte b) {
+		final int value = b & 0xFF;
+		return (value == MISSING_QUALITY_BYTE) ? GenotypeCalls.MISSING_QUALITY : value;
+	}
+
+	/**
+	 * @return <code>log2</code> of the largest number of rows per segment such that a segment has at most
+	 * <code>maxSegmentSize</code> bytes, at least one row and at most <code>2^30</code> rows
+	 */
+	static int segmentShift(int rowWidth, long maxSegmentSize) {
+		int segmentShift = 0;
+		while (((2L << segmentShift) * Math.max(rowWidth, 1)) <= maxSegmentSize && segmentShift < 30)
+			++segmentShift;
+		return segmentShift;
+	}
+
+	/**
+	 * Pack the genotype classes of <code>calls</code> into the row starting at <code>rowStart</code> in
+	 * <code>buffer</code>, samples missing from <code>calls</code> are stored as {@link GenotypeClass#NOT_OBSERVED}
+	 *
+	 * @param qualities whether to store the quality values as well, missing for samples missing from
+	 *                  <code>calls</code>
+	 */
+	static void putRow(ByteBuffer buffer, int rowStart, List<String> sampleNames, GenotypeCalls calls,
+					   boolean qualities) {
+		final int nSamples = sampleNames.size();
+		final int classesWidth = classesWidth(nSamples);
+		for (int i = 0; i < classesWidth; ++i)
+			buffer.put(rowStart + i, (byte) 0);
+		for (int sample = 0; sample < nSamples; ++sample) {
+			final int cls = GenotypeClass.of(calls.getGenotypeForSample(sampleNames.get(sample)));
+			final int idx = rowStart + (sample >> 1);
+			buffer.put(idx, (byte) (buffer.get(idx) | (cls << ((sample & 1) * GenotypeClass.BITS))));
+		}
+		if (!qualities)
+			return;
+		// calls read from a VCF file have the samples in the order of the store, no need for lookups by name then
+		final boolean sameOrder = calls.getSampleNames().equals(sampleNames);
+		final int gqStart = rowStart + classesWidth;
+		final int dpStart = gqStart + nSamples;
+		for (int sample = 0; sample < nSamples; ++sample) {
+			final String name = sampleNames.get(sample);
+			buffer.put(gqStart + sample, encodeQuality(sameOrder ? calls.getGenotypeQualityBySampleNo(sample) :
+				calls.getGenotypeQualityForSample(name)));
+			buffer.put(dpStart + sample, encodeQuality(sameOrder ? calls.getReadDepthBySampleNo(sample) :
+				calls.getReadDepthForSample(name)));
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package org.monarchinitiative.gregor.store;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+import org.monarchinitiative.gregor.vcf.VcfParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes {@link GenotypeCalls} into a genotype store file that can later be opened with {@link GenotypeStore}.
+ * <p>
+ * See {@link GenotypeStoreFormat} for the file layout. The sites are stored in the order of {@link #add(GenotypeCalls)}
+ * calls, the store is only complete after {@link #close()}.
+ */
+public final class GenotypeStoreWriter implements Closeable {
+
+	/**
+	 * the channel to write to
+	 */
+	private final FileChannel channel;
+	/**
+	 * the sample names, defining the columns
+	 */
+	private final List<String> sampleNames;
+	/**
+	 * width of one row in bytes
+	 */
+	private final int rowWidth;
+	/**
+	 * whether quality values are stored
+	 */
+	private final boolean qualities;
+	/**
+	 * buffer for the rows, flushed when full
+	 */
+	private final ByteBuffer buffer;
+	/**
+	 * chromosome type ordinal of each site, written on {@link #close()}
+	 */
+	private final ByteArrayOutputStream chromTypes = new ByteArrayOutputStream();
+	/**
+	 * offset of the first row
+	 */
+	private final long rowsOffset;
+	/**
+	 * number of sites written so far
+	 */
+	private int nSites;
+
+	/**
+	 * Create new store at <code>path</code>, overwriting any existing file.
+	 *
+	 * @param path        path to the file to write
+	 * @param sampleNames the names of the samples in the store
+	 * @throws IOException on problems with writing to <code>path</code>
+	 */
+	public GenotypeStoreWriter(Path path, List<String> sampleNames) throws IOException {
+		this(path, sampleNames, false);
+	}
+
+	/**
+	 * Create new store at <code>path</code>, overwriting any existing file.
+	 *
+	 * @param path        path to the file to write
+	 * @param sampleNames the names of the samples in the store
+	 * @param qualities   whether to store genotype qualities and read depths as well
+	 * @throws IOException on problems with writing to <code>path</code>
+	 */
+	public GenotypeStoreWriter(Path path, List<String> sampleNames, boolean qualities) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING);
+		this.sampleNames = List.copyOf(sampleNames);
+		this.qualities = qualities;
+		this.rowWidth = GenotypeStoreFormat.rowWidth(sampleNames.size(), qualities);
+		this.buffer = ByteBuffer.allocate(Math.max(1 << 16, rowWidth));
+
+		ByteArrayOutputStream dictionary = new ByteArrayOutputStream();
+		for (String name : this.sampleNames) {
+			final byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			dictionary.write(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+			dictionary.write(bytes);
+		}
+		this.rowsOffset = GenotypeStoreFormat.HEADER_SIZE + dictionary.size();
+
+		ByteBuffer header = ByteBuffer.allocate((int) rowsOffset);
+		header.put(GenotypeStoreFormat.MAGIC);
+		header.putInt(GenotypeStoreFormat.VERSION);
+		header.putInt(this.sampleNames.size());
+		header.putInt(0); // number of sites, updated on close
+		header.putLong(rowsOffset);
+		header.putLong(0); // chromosome types offset, updated on close
+		header.putInt(qualities ? GenotypeStoreFormat.FLAG_QUALITIES : 0);
+		header.put(dictionary.toByteArray());
+		header.flip();
+		writeFully(header);
+	}
+
+	/**
+	 * Append the site described by <code>calls</code> to the store, samples missing from <code>calls</code> are
+	 * stored as {@link GenotypeClass#NOT_OBSERVED}.
+	 *
+	 * @param calls the {@link GenotypeCalls} to add
+	 * @throws IOException on problems with writing
+	 */
+	public void add(GenotypeCalls calls) throws IOException {
+		if (nSites == Integer.MAX_VALUE)
+			throw new IOException("Too many sites for genotype store");
+		if (buffer.remaining() < rowWidth)
+			flush();
+		final int rowStart = buffer.position();
+		GenotypeStoreFormat.putRow(buffer, rowStart, sampleNames, calls, qualities);
+		buffer.position(rowStart + rowWidth);
+		chromTypes.write(calls.getChromType().ordinal());
+		++nSites;
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+
+	private void writeFully(ByteBuffer buf) throws IOException {
+		while (buf.hasRemaining())
+			channel.write(buf);
+	}
+
+	/**
+	 * Write out the chromosome types, finalize the header and close the file.
+	 *
+	 * @throws IOException on problems with writing
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+			final long chromTypesOffset = rowsOffset + (long) nSites * rowWidth;
+			writeFully(ByteBuffer.wrap(chromTypes.toByteArray()));
+
+			ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 2 * Long.BYTES);
+			header.putInt(nSites).putLong(rowsOffset).putLong(chromTypesOffset).flip();
+			channel.position(GenotypeStoreFormat.NUM_SITES_OFFSET);
+			writeFully(header);
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Convert the VCF file at <code>vcf</code> into a genotype store at <code>store</code>.
+	 *
+	 * @param vcf   path to the plain or (b)gzip-compressed VCF file
+	 * @param store path to the genotype store to write
+	 * @return number of sites written
+	 * @throws IOException       on problems with reading or writing
+	 * @throws VcfParseException on problems with parsing the VCF file
+	 */
+	public static int writeVcf(Path vcf, Path store) throws IOException, VcfParseException {
+		return writeVcf(vcf, store, false);
+	}
+
+	/**
+	 * Convert the VCF file at <code>vcf</code> into a genotype store at <code>store</code>.
+	 *
+	 * @param vcf       path to the plain or (b)gzip-compressed VCF file
+	 * @param store     path to the genotype store to write
+	 * @param qualities whether to store the <code>GQ</code> and <code>DP</code> values as well
+	 * @return number of sites written
+	 * @throws IOException       on problems with reading or writing
+	 * @throws VcfParseException on problems with parsing the VCF file
+	 */
+	public static int writeVcf(Path vcf, Path store, boolean qualities) throws IOException, VcfParseException {
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(vcf);
+			 GenotypeStoreWriter writer = new GenotypeStoreWriter(store, reader.getSampleNames(), qualities)) {
+			GenotypeCalls calls;
+			while ((calls = reader.next()) != null)
+				writer.add(calls);
+			return writer.nSites;
+		}
+	}
+
+}
@@ -0,0 +1,106 @@
+package org.monarchinitiative.gregor.vcf;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+
+/**
+ * Derives the {@link ChromosomeType} of a call from contig name and position
+ * <p>
+ * Calls in the pseudoautosomal regions PAR1 and PAR2 of <code>X</code> and <code>Y</code> are inherited like
+ * autosomal ones, males are diploid there, so they are classified as {@link ChromosomeType#AUTOSOMAL} for the
+ * builds with known coordinates. The regions of each chromosome are kept as a sorted array of interval boundaries,
+ * which is searched without data-dependent branches as the lookup runs for every <code>X</code> record read.
+ */
+public enum ChromosomeClassifier {
+
+	/**
+	 * Classification by contig name alone, see {@link VcfGenotypeReader#toChromType(String)}
+	 */
+	CONTIG_NAME(new int[0], new int[0]),
+	/**
+	 * Pseudoautosomal regions of GRCh37/hg19
+	 */
+	GRCH37(new int[]{60_001, 2_699_520, 154_931_044, 155_260_560},
+		new int[]{10_001, 2_649_520, 59_034_050, 59_363_566}),
+	/**
+	 * Pseudoautosomal regions of GRCh38/hg38
+	 */
+	GRCH38(new int[]{10_001, 2_781_479, 155_701_383, 156_030_895},
+		new int[]{10_001, 2_781_479, 56_887_903, 57_217_415});
+
+	/**
+	 * Boundaries of the pseudoautosomal regions on <code>X</code>, start and end plus one of each region
+	 */
+	private final int[] xBounds;
+	/**
+	 * Boundaries of the pseudoautosomal regions on <code>Y</code>, start and end plus one of each region
+	 */
+	private final int[] yBounds;
+
+	/**
+	 * @param xRegions 1-based inclusive start and end of each pseudoautosomal region on <code>X</code>, sorted and
+	 *                 non-overlapping
+	 * @param yRegions the same for <code>Y</code>
+	 */
+	ChromosomeClassifier(int[] xRegions, int[] yRegions) {
+		this.xBounds = toBounds(xRegions);
+		this.yBounds = toBounds(yRegions);
+	}
+
+	private static int[] toBounds(int[] regions) {
+		final int[] result = regions.clone();
+		for (int i = 1; i < result.length; i += 2)
+			++result[i];
+		return result;
+	}
+
+	/**
+	 * @param contig name of the contig, an optional <code>"chr"</code> prefix is ignored
+	 * @param pos    1-based position on <code>contig</code>
+	 * @return {@link ChromosomeType} of a call at <code>pos</code> on <code>contig</code>, as
+	 * {@link VcfGenotypeReader#toChromType(String)} except for {@link ChromosomeType#AUTOSOMAL} in the
+	 * pseudoautosomal regions
+	 */
+	public ChromosomeType classify(String contig, int pos) {
+		final ChromosomeType chromType = VcfGenotypeReader.toChromType(contig);
+		return switch (chromType) {
+			case X_CHROMOSOMAL -> isInside(xBounds, pos) ? ChromosomeType.AUTOSOMAL : chromType;
+			case Y_CHROMOSOMAL -> isInside(yBounds, pos) ? ChromosomeType.AUTOSOMAL : chromType;
+			default -> chromType;
+		};
+	}
+
+	/**
+	 * @return whether <code>pos</code> is in a pseudoautosomal region on <code>X</code>
+	 */
+	public boolean isPseudoautosomalX(int pos) {
+		return isInside(xBounds, pos);
+	}
+
+	/**
+	 * @return whether <code>pos</code> is in a pseudoautosomal region on <code>Y</code>
+	 */
+	public boolean isPseudoautosomalY(int pos) {
+		return isInside(yBounds, pos);
+	}
+
+	/**
+	 * Count the boundaries at or before <code>pos</code>, <code>pos</code> is inside a region iff the count is odd.
+	 * <p>
+	 * The search halves a window of fixed length each step and only selects its new base, which compiles to a
+	 * conditional move, so the loop has no branches depending on <code>pos</code>.
+	 */
+	private static boolean isInside(int[] bounds, int pos) {
+		int n = bounds.length;
+		if (n == 0)
+			return false;
+		int base = 0;
+		while (n > 1) {
+			final int half = n >>> 1;
+			base = (bounds[base + half] <= pos) ? base + half : base;
+			n -= half;
+		}
+		final int count = base + ((bounds[base] <= pos) ? 1 : 0);
+		return (count & 1) != 0;
+	}
+
+}
@@ -0,0 +1,329 @@
+package org.monarchinitiative.gregor.vcf;
+
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Minimal reader for the <code>GT</code> field of VCF files, yielding one {@link GenotypeCalls} per record.
+ * <p>
+ * Plain and (b)gzip-compressed files are supported. Only the columns required for mendelian inheritance checking are
+ * interpreted, the payload of each {@link GenotypeCalls} is the {@link VcfVariant} of the record. The <code>GQ</code>
+ * and <code>DP</code> fields are passed on as quality values of the {@link GenotypeCalls} if present. The
+ * {@link ChromosomeType} is derived from the contig name, see {@link #toChromType(String)}, or from contig name and
+ * position with a {@link ChromosomeClassifier} aware of the pseudoautosomal regions.
+ */
+public final class VcfGenotypeReader implements Closeable {
+
+	/**
+	 * Number of fixed columns before the <code>FORMAT</code> column
+	 */
+	private static final int NUM_FIXED_COLUMNS = 8;
+
+	/**
+	 * the reader to read from
+	 */
+	private final BufferedReader in;
+	/**
+	 * the sample names from the <code>#CHROM</code> header line
+	 */
+	private final List<String> sampleNames;
+	/**
+	 * Derives the {@link ChromosomeType} of each record
+	 */
+	private final ChromosomeClassifier classifier;
+	/**
+	 * Cache of {@link Genotype} objects by <code>GT</code> value, {@link Genotype} is immutable so they can be shared,
+	 * concurrent for {@link #parse(String)}
+	 */
+	private final Map<String, Genotype> genotypeCache = new ConcurrentHashMap<>();
+	/**
+	 * Current line number, for error messages
+	 */
+	private long lineNo;
+
+	/**
+	 * Open the VCF file at <code>path</code>, which may be plain text or (b)gzip-compressed.
+	 *
+	 * @throws IOException       on problems reading from <code>path</code>
+	 * @throws VcfParseException if the header is invalid
+	 */
+	public VcfGenotypeReader(Path path) throws IOException, VcfParseException {
+		this(path, ChromosomeClassifier.CONTIG_NAME);
+	}
+
+	/**
+	 * Open the VCF file at <code>path</code>, which may be plain text or (b)gzip-compressed, classifying records with
+	 * <code>classifier</code>.
+	 *
+	 * @throws IOException       on problems reading from <code>path</code>
+	 * @throws VcfParseException if the header is invalid
+	 */
+	public VcfGenotypeReader(Path path, ChromosomeClassifier classifier) throws IOException, VcfParseException {
+		this(Files.newInputStream(path), classifier);
+	}
+
+	/**
+	 * Read VCF from <code>stream</code>, which may be plain text or (b)gzip-compressed.
+	 *
+	 * @throws IOException       on problems reading from <code>stream</code>
+	 * @throws VcfParseException if the header is invalid
+	 */
+	public VcfGenotypeReader(InputStream stream) throws IOException, VcfParseException {
+		this(stream, ChromosomeClassifier.CONTIG_NAME);
+	}
+
+	/**
+	 * Read VCF from <code>stream</code>, which may be plain text or (b)gzip-compressed, classifying records with
+	 * <code>classifier</code>.
+	 *
+	 * @throws IOException       on problems reading from <code>stream</code>
+	 * @throws VcfParseException if the header is invalid
+	 */
+	public VcfGenotypeReader(InputStream stream, ChromosomeClassifier classifier)
+		throws IOException, VcfParseException {
+		this.classifier = classifier;
+		this.in = openText(stream);
+		this.sampleNames = readHeader();
+	}
+
+	/**
+	 * Open <code>stream</code> for reading text lines, decompressing it if it is (b)gzip-compressed
+	 *
+	 * @throws IOException on problems reading from <code>stream</code>
+	 */
+	public static BufferedReader openText(InputStream stream) throws IOException {
+		BufferedInputStream buffered = new BufferedInputStream(stream, 1 << 16);
+		buffered.mark(2);
+		final boolean gzipped = buffered.read() == 0x1f && buffered.read() == 0x8b;
+		buffered.reset();
+		final InputStream input = gzipped ? new GZIPInputStream(buffered, 1 << 16) : buffered;
+		return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+	}
+
+	private List<String> readHeader() throws IOException, VcfParseException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			++lineNo;
+			if (line.startsWith("#CHROM")) {
+				String[] fields = line.split("\t");
+				if (fields.length <= NUM_FIXED_COLUMNS + 1)
+					return List.of();
+				return List.of(Arrays.copyOfRange(fields, NUM_FIXED_COLUMNS + 1, fields.length));
+			} else if (!line.startsWith("##")) {
+				throw new VcfParseException("Missing #CHROM header line before line " + lineNo);
+			}
+		}
+		throw new VcfParseException("Missing #CHROM header line");
+	}
+
+	/**
+	 * @return sample names from the VCF header
+	 */
+	public List<String> getSampleNames() {
+		return sampleNames;
+	}
+
+	/**
+	 * Read the next record.
+	 *
+	 * @return {@link GenotypeCalls} of the next record, <code>null</code> at the end of the file
+	 * @throws IOException       on problems reading from the file
+	 * @throws VcfParseException on problems with parsing the record
+	 */
+	public GenotypeCalls next() throws IOException, VcfParseException {
+		final String line = nextLine();
+		return (line == null) ? null : parse(line, lineNo);
+	}
+
+	/**
+	 * Read the next record without parsing it, for parsing it with {@link #parse(String)}, e.g., on another thread.
+	 *
+	 * @return line of the next record, <code>null</code> at the end of the file
+	 * @throws IOException on problems reading from the file
+	 */
+	public String nextLine() throws IOException {
+		String line;
+		do {
+			line = in.readLine();
+			if (line == null)
+				return null;
+			++lineNo;
+		} while (line.isEmpty());
+		return line;
+	}
+
+	/**
+	 * Parse record line as read by {@link #nextLine()}, may be called concurrently from multiple threads.
+	 *
+	 * @return {@link GenotypeCalls} of the record
+	 * @throws VcfParseException on problems with parsing the record
+	 */
+	public GenotypeCalls parse(String line) throws VcfParseException {
+		return parse(line, -1);
+	}
+
+	/**
+	 * @param lineNo line number for error messages, <code>-1</code> if unknown
+	 */
+	private GenotypeCalls parse(String line, long lineNo) throws VcfParseException {
+		// Split out fixed columns, including FORMAT if there are samples
+		final int nFixed = sampleNames.isEmpty() ? NUM_FIXED_COLUMNS : NUM_FIXED_COLUMNS + 1;
+		String[] fixed = new String[nFixed];
+		int start = 0;
+		for (int i = 0; i < nFixed; ++i) {
+			int end = line.indexOf('\t', start);
+			if (end < 0) {
+				if (i + 1 < nFixed)
+					throw new VcfParseException("Insufficient number of fields in " + where(lineNo, line));
+				end = line.length();
+			}
+			fixed[i] = line.substring(start, end);
+			start = end + 1;
+		}
+
+		final String contig = fixed[0];
+		final int pos;
+		try {
+			pos = Integer.parseInt(fixed[1]);
+		} catch (NumberFormatException e) {
+			throw new VcfParseException("Invalid position in " + where(lineNo, line) + ": " + fixed[1], e);
+		}
+		final VcfVariant variant = new VcfVariant(contig, pos, fixed[2], fixed[3], fixed[4]);
+
+		// Parse genotypes and, if present, genotype qualities and read depths
+		final String[] formatKeys = sampleNames.isEmpty() ? new String[0] : fixed[NUM_FIXED_COLUMNS].split(":");
+		final int gtIndex = indexOf(formatKeys, "GT");
+		final int gqIndex = indexOf(formatKeys, "GQ");
+		final int dpIndex = indexOf(formatKeys, "DP");
+		final int[] genotypeQualities = (gqIndex < 0) ? null : new int[sampleNames.size()];
+		final int[] readDepths = (dpIndex < 0) ? null : new int[sampleNames.size()];
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>(sampleNames.size());
+		for (int i = 0; i < sampleNames.size(); ++i) {
+			int end = line.indexOf('\t', start);
+			if (end < 0)
+				end = line.length();
+			if (start > line.length())
+				throw new VcfParseException("Insufficient number of sample columns in " + where(lineNo, line));
+			final String value = (gtIndex < 0) ? "." : subField(line, start, end, gtIndex);
+			final Genotype gt = parseGenotype(value, lineNo, line);
+			entries.add(new AbstractMap.SimpleImmutableEntry<>(sampleNames.get(i), gt));
+			if (genotypeQualities != null)
+				genotypeQualities[i] = parseQuality(subField(line, start, end, gqIndex), "GQ", lineNo, line);
+			if (readDepths != null)
+				readDepths[i] = parseQuality(subField(line, start, end, dpIndex), "DP", lineNo, line);
+			start = end + 1;
+		}
+
+		return new GenotypeCalls(classifier.classify(contig, pos), entries, variant, genotypeQualities, readDepths);
+	}
+
+	/**
+	 * @return location of <code>line</code> for error messages
+	 */
+	private static String where(long lineNo, String line) {
+		if (lineNo >= 0)
+			return "line " + lineNo;
+		final int tab = line.indexOf('\t', line.indexOf('\t') + 1);
+		return "record " + ((tab < 0) ? line : line.substring(0, tab).replace('\t', ':'));
+	}
+
+	private static int indexOf(String[] formatKeys, String key) {
+		for (int i = 0; i < formatKeys.length; ++i)
+			if (key.equals(formatKeys[i]))
+				return i;
+		return -1;
+	}
+
+	/**
+	 * @return value of the integer quality sub field <code>key</code>, {@link GenotypeCalls#MISSING_QUALITY} if missing
+	 */
+	private static int parseQuality(String value, String key, long lineNo, String line) throws VcfParseException {
+		if (".".equals(value) || value.isEmpty())
+			return GenotypeCalls.MISSING_QUALITY;
+		final int result;
+		try {
+			result = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new VcfParseException("Invalid " + key + " in " + where(lineNo, line) + ": " + value, e);
+		}
+		if (result < 0)
+			throw new VcfParseException("Negative " + key + " in " + where(lineNo, line) + ": " + value);
+		return result;
+	}
+
+	/**
+	 * @return the <code>index</code>-th <code>':'</code>-separated sub field of <code>line[start, end)</code>
+	 */
+	private static String subField(String line, int start, int end, int index) {
+		for (int i = 0; i < index; ++i) {
+			int colon = line.indexOf(':', start);
+			if (colon < 0 || colon >= end)
+				return ".";
+			start = colon + 1;
+		}
+		int colon = line.indexOf(':', start);
+		if (colon >= 0 && colon < end)
+			end = colon;
+		return line.substring(start, end);
+	}
+
+	private Genotype parseGenotype(String gt, long lineNo, String line) throws VcfParseException {
+		Genotype result = genotypeCache.get(gt);
+		if (result != null)
+			return result;
+
+		List<Integer> alleles = new ArrayList<>(2);
+		int start = 0;
+		for (int i = 0; i <= gt.length(); ++i) {
+			if (i == gt.length() || gt.charAt(i) == '/' || gt.charAt(i) == '|') {
+				String allele = gt.substring(start, i);
+				if (".".equals(allele)) {
+					alleles.add(Genotype.NO_CALL);
+				} else {
+					try {
+						alleles.add(Integer.parseInt(allele));
+					} catch (NumberFormatException e) {
+						throw new VcfParseException("Invalid genotype in " + where(lineNo, line) + ": " + gt, e);
+					}
+				}
+				start = i + 1;
+			}
+		}
+		result = new Genotype(alleles);
+		genotypeCache.put(gt, result);
+		return result;
+	}
+
+	/**
+	 * Derive {@link ChromosomeType} from a contig name, an optional <code>"chr"</code> prefix is ignored.
+	 *
+	 * @param contig name of the contig
+	 * @return {@link ChromosomeType#X_CHROMOSOMAL} for <code>X</code>, {@link ChromosomeType#Y_CHROMOSOMAL} for
+	 * <code>Y</code>, {@link ChromosomeType#MITOCHONDRIAL} for <code>M</code> and <code>MT</code>, and
+	 * {@link ChromosomeType#AUTOSOMAL} otherwise
+	 */
+	public static ChromosomeType toChromType(String contig) {
+		final String name = contig.regionMatches(true, 0, "chr", 0, 3) ? contig.substring(3) : contig;
+		return switch (name) {
+			case "X", "x" -> ChromosomeType.X_CHROMOSOMAL;
+			case "Y", "y" -> ChromosomeType.Y_CHROMOSOMAL;
+			case "M", "MT", "m", "mt" -> ChromosomeType.MITOCHONDRIAL;
+			default -> ChromosomeType.AUTOSOMAL;
+		};
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.monarchinitiative.gregor.vcf;
+
+import org.monarchinitiative.gregor.mendel.GregorException;
+
+import java.io.Serial;
+
+/**
+ * Exception that occurs during parsing of VCF files.
+ */
+public class VcfParseException extends GregorException {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	public VcfParseException(String msg) {
+		super(msg);
+	}
+
+	public VcfParseException(String msg, Throwable cause) {
+		super(msg, cause);
+	}
+
+}
@@ -0,0 +1,21 @@
+package org.monarchinitiative.gregor.vcf;
+
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+
+/**
+ * Coordinates of a VCF record, used as the payload of the {@link GenotypeCalls} read by {@link VcfGenotypeReader}
+ *
+ * @param contig name of the contig
+ * @param pos    1-based position
+ * @param id     the ID column
+ * @param ref    reference allele
+ * @param alt    alternative allele(s), comma-separated
+ */
+public record VcfVariant(String contig, int pos, String id, String ref, String alt) {
+
+	@Override
+	public String toString() {
+		return contig + ":" + pos + ":" + ref + ":" + alt;
+	}
+
+}
@@ -0,0 +1,86 @@
+package org.monarchinitiative.gregor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated on the heap per operation by the current thread
+ * <p>
+ * Uses {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}. The operation is run a number of
+ * warm-up rounds first so that the JIT compiler had the chance to remove allocations through escape analysis, the
+ * smallest value of the following rounds is reported.
+ */
+public final class AllocationMeter {
+
+	/**
+	 * Operation to measure, run {@link #run(int)} with the number of repetitions
+	 */
+	@FunctionalInterface
+	public interface Operation {
+
+		/**
+		 * Run the operation <code>n</code> times
+		 *
+		 * @return some result of the runs that the JIT compiler cannot remove
+		 */
+		long run(int n) throws Exception;
+
+	}
+
+	private static final int WARMUP_ROUNDS = 10;
+	private static final int ROUNDS = 5;
+
+	/**
+	 * Sink for the operation results
+	 */
+	private static volatile long sink;
+
+	private AllocationMeter() {
+	}
+
+	/**
+	 * @return bytes allocated by the current thread per run of <code>operation</code>, the smallest of several rounds
+	 * of <code>n</code> runs each
+	 */
+	public static double bytesPerOperation(int n, Operation operation) throws Exception {
+		final com.sun.management.ThreadMXBean bean = threadMXBean();
+		Assumptions.assumeTrue(bean != null && bean.isThreadAllocatedMemorySupported()
+			&& bean.isThreadAllocatedMemoryEnabled(), "thread allocation measurement not supported");
+
+		for (int i = 0; i < WARMUP_ROUNDS; ++i)
+			sink += operation.run(n);
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < ROUNDS; ++i) {
+			final long before = bean.getCurrentThreadAllocatedBytes();
+			final long result = operation.run(n);
+			final long after = bean.getCurrentThreadAllocatedBytes();
+			sink += result;
+			best = Math.min(best, after - before);
+		}
+		return (double) best / n;
+	}
+
+	/**
+	 * Assert that <code>operation</code> allocates at most <code>budget</code> bytes per run
+	 *
+	 * @param name      name of the operation for the failure message
+	 * @param budget    largest accepted number of bytes per run
+	 * @param n         number of runs per round
+	 * @param operation the operation to measure
+	 */
+	public static void assertBudget(String name, double budget, int n, Operation operation) throws Exception {
+		final double bytes = bytesPerOperation(n, operation);
+		Assertions.assertTrue(bytes <= budget,
+			name + " allocated " + bytes + " bytes per operation, budget is " + budget);
+	}
+
+	private static com.sun.management.ThreadMXBean threadMXBean() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)
+			return bean;
+		else
+			return null;
+	}
+
+}
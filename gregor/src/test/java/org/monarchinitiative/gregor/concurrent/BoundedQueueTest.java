@@ -0,0 +1,89 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BoundedQueueTest {
+
+	@Test
+	public void testCapacity() {
+		Assertions.assertEquals(2, new BoundedQueue<>(1).capacity());
+		Assertions.assertEquals(2, new BoundedQueue<>(2).capacity());
+		Assertions.assertEquals(4, new BoundedQueue<>(3).capacity());
+		Assertions.assertEquals(8, new BoundedQueue<>(5).capacity());
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new BoundedQueue<>(0));
+	}
+
+	@Test
+	public void testSmallestQueue() {
+		BoundedQueue<Integer> queue = new BoundedQueue<>(1);
+		Assertions.assertTrue(queue.offer(1));
+		Assertions.assertTrue(queue.offer(2));
+		Assertions.assertFalse(queue.offer(3));
+		Assertions.assertEquals(1, queue.poll());
+		Assertions.assertEquals(2, queue.poll());
+		Assertions.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testOfferPoll() {
+		BoundedQueue<Integer> queue = new BoundedQueue<>(4);
+		Assertions.assertNull(queue.poll());
+		for (int lap = 0; lap < 3; ++lap) {
+			for (int i = 0; i < 4; ++i)
+				Assertions.assertTrue(queue.offer(i));
+			Assertions.assertFalse(queue.offer(4));
+			for (int i = 0; i < 4; ++i)
+				Assertions.assertEquals(i, queue.poll());
+			Assertions.assertNull(queue.poll());
+		}
+	}
+
+	@Test
+	public void testManyProducersAndConsumers() throws Exception {
+		final int nProducers = 4;
+		final int nConsumers = 4;
+		final int nItems = 20_000;
+		final BoundedQueue<Integer> queue = new BoundedQueue<>(8);
+		final AtomicLong sum = new AtomicLong();
+		try (TaskScope<Void> scope = new TaskScope<>(new Semaphore(1))) {
+			for (int p = 0; p < nProducers; ++p)
+				scope.fork(() -> {
+					for (int i = 1; i <= nItems; ++i)
+						queue.put(i);
+					return null;
+				});
+			for (int c = 0; c < nConsumers; ++c)
+				scope.fork(() -> {
+					for (int i = 0; i < nItems; ++i)
+						sum.addAndGet(queue.take());
+					return null;
+				});
+			scope.join();
+		}
+		Assertions.assertEquals((long) nProducers * nItems * (nItems + 1) / 2, sum.get());
+		Assertions.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testTakeInterrupted() throws InterruptedException {
+		final BoundedQueue<Integer> queue = new BoundedQueue<>(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		Thread thread = new Thread(() -> {
+			try {
+				queue.take();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+		});
+		thread.start();
+		thread.interrupt();
+		thread.join(10_000);
+		Assertions.assertEquals(0, interrupted.getCount());
+	}
+
+}
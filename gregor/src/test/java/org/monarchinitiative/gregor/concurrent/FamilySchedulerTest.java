@@ -0,0 +1,125 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class FamilySchedulerTest {
+
+	private static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET = new Genotype(List.of(0, 1));
+	private static final Genotype HOM_ALT = new Genotype(List.of(1, 1));
+
+	private static Pedigree trio(String name) throws PedParseException {
+		return new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson(name, name + ".father", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson(name, name + ".mother", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson(name, name + ".child", name + ".father", name + ".mother", Sex.MALE, Disease.AFFECTED))),
+			name);
+	}
+
+	/**
+	 * @return calls of the trio <code>name</code> with payload <code>"GENE:ID"</code>
+	 */
+	private static GenotypeCalls calls(String name, String id, Genotype father, Genotype mother, Genotype child) {
+		return new GenotypeCalls(ChromosomeType.AUTOSOMAL, List.of(Map.entry(name + ".father", father),
+			Map.entry(name + ".mother", mother), Map.entry(name + ".child", child)), id);
+	}
+
+	private static List<GenotypeCalls> load(Pedigree pedigree) {
+		final String name = pedigree.getName();
+		return List.of(
+			calls(name, "A:1", HOM_REF, HOM_REF, HET),
+			calls(name, "A:2", HET, HET, HOM_ALT),
+			calls(name, "A:3", HET, HOM_REF, HET),
+			calls(name, "B:1", HOM_REF, HET, HET),
+			calls(name, "B:2", HET, HOM_REF, HET));
+	}
+
+	@Test
+	public void testSameAsSequential() throws Exception {
+		List<Pedigree> pedigrees = new ArrayList<>();
+		for (int i = 0; i < 20; ++i)
+			pedigrees.add(trio("fam" + i));
+
+		Map<String, Map<SubModeOfInheritance, List<GenotypeCalls>>> result = new FamilyScheduler(2).check(pedigrees,
+			FamilySchedulerTest::load, FamilyScheduler.GeneGrouping.NONE);
+
+		Assertions.assertEquals(pedigrees.stream().map(Pedigree::getName).collect(Collectors.toList()),
+			List.copyOf(result.keySet()));
+		for (Pedigree pedigree : pedigrees) {
+			final Map<SubModeOfInheritance, List<GenotypeCalls>> expected = new MendelianInheritanceChecker(pedigree)
+				.checkMendelianInheritanceSub(load(pedigree));
+			final Map<SubModeOfInheritance, List<GenotypeCalls>> actual = result.get(pedigree.getName());
+			Assertions.assertEquals(expected.keySet(), actual.keySet());
+			for (SubModeOfInheritance mode : expected.keySet()) {
+				// the compound heterozygous calls are returned in the order of the input
+				if (mode == SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET
+					|| mode == SubModeOfInheritance.X_RECESSIVE_COMP_HET)
+					Assertions.assertEquals(payloads(expected.get(mode)), payloads(actual.get(mode)));
+				else
+					Assertions.assertEquals(expected.get(mode), actual.get(mode));
+			}
+		}
+	}
+
+	private static Set<Object> payloads(List<GenotypeCalls> calls) {
+		return calls.stream().map(GenotypeCalls::getPayload).collect(Collectors.toSet());
+	}
+
+	@Test
+	public void testGeneGrouping() throws Exception {
+		final Pedigree pedigree = trio("fam");
+		final FamilyScheduler.GeneGrouping byGene = calls -> calls.stream()
+			.collect(Collectors.groupingBy(gc -> ((String) gc.getPayload()).split(":")[0], TreeMap::new,
+				Collectors.toList())).values();
+
+		final List<GenotypeCalls> compHet = new FamilyScheduler().check(List.of(pedigree),
+			FamilySchedulerTest::load, byGene).get("fam").get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET);
+		// only gene B has a paternal and a maternal het. variant
+		Assertions.assertEquals(List.of(load(pedigree).get(3), load(pedigree).get(4)), compHet);
+
+		final List<GenotypeCalls> ungrouped = new FamilyScheduler().check(List.of(pedigree),
+			FamilySchedulerTest::load, FamilyScheduler.GeneGrouping.NONE).get("fam")
+			.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET);
+		Assertions.assertEquals(3, ungrouped.size());
+	}
+
+	@Test
+	public void testLoaderFailureCancelsFamilies() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		final FamilyScheduler.CallsLoader loader = pedigree -> {
+			if (pedigree.getName().equals("slow")) {
+				started.countDown();
+				try {
+					Thread.sleep(60_000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+					throw e;
+				}
+			}
+			started.await();
+			throw new IOException("cannot read " + pedigree.getName());
+		};
+
+		ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> new FamilyScheduler()
+			.check(List.of(trio("slow"), trio("broken")), loader, FamilyScheduler.GeneGrouping.NONE));
+		Assertions.assertEquals("cannot read broken", e.getCause().getMessage());
+		Assertions.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+}
@@ -0,0 +1,270 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Sex;
+import org.monarchinitiative.gregor.vcf.VcfGenotypeReader;
+import org.monarchinitiative.gregor.vcf.VcfParseException;
+import org.monarchinitiative.gregor.vcf.VcfVariant;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InheritancePipelineTest {
+
+	private static final List<Genotype> GENOTYPES = List.of(new Genotype(List.of(0, 0)),
+		new Genotype(List.of(0, 1)), new Genotype(List.of(1, 1)), new Genotype(List.of(Genotype.NO_CALL)));
+
+	/**
+	 * @return trio, with <code>nExtra</code> unrelated unaffected founders
+	 */
+	private static Pedigree family(String name, int nExtra) throws PedParseException {
+		List<PedPerson> persons = new ArrayList<>(List.of(
+			new PedPerson(name, name + ".father", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson(name, name + ".mother", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson(name, name + ".child", name + ".father", name + ".mother", Sex.MALE, Disease.AFFECTED)));
+		for (int i = 0; i < nExtra; ++i)
+			persons.add(new PedPerson(name, name + ".extra" + i, "0", "0", Sex.FEMALE, Disease.UNAFFECTED));
+		return new Pedigree(new PedFileContents(List.of(), persons), name);
+	}
+
+	/**
+	 * @return random calls of all members of <code>pedigrees</code> with payload <code>"GENE:INDEX"</code>, where
+	 * <code>GENE</code> is <code>"-"</code> for intergenic calls
+	 */
+	private static List<GenotypeCalls> randomCalls(List<Pedigree> pedigrees, int nCalls) {
+		final Random random = new Random(42);
+		List<GenotypeCalls> result = new ArrayList<>();
+		int gene = 0;
+		for (int i = 0; i < nCalls; ++i) {
+			if (random.nextInt(4) == 0)
+				++gene;
+			final String key = (gene % 5 == 0) ? "-" : "G" + gene;
+			final ChromosomeType chromType = (gene % 3 == 0) ? ChromosomeType.X_CHROMOSOMAL
+				: ChromosomeType.AUTOSOMAL;
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (Pedigree pedigree : pedigrees)
+				for (String name : pedigree.getNames())
+					entries.add(Map.entry(name, GENOTYPES.get(random.nextInt(GENOTYPES.size()))));
+			result.add(new GenotypeCalls(chromType, entries, key + ":" + i));
+		}
+		return result;
+	}
+
+	private static String geneKey(GenotypeCalls gc) {
+		final String gene = ((String) gc.getPayload()).split(":")[0];
+		return gene.equals("-") ? null : gene;
+	}
+
+	/**
+	 * Collects the payloads of the compatible calls, per family and sub mode of inheritance
+	 */
+	private static final class CollectingSink implements InheritancePipeline.Sink {
+
+		final List<Object> payloads = new ArrayList<>();
+		final Map<String, Map<SubModeOfInheritance, List<Object>>> compatible = new LinkedHashMap<>();
+
+		@Override
+		public void write(List<GenotypeCalls> calls, Map<String, Map<SubModeOfInheritance, BitSet>> result) {
+			for (GenotypeCalls gc : calls)
+				payloads.add(gc.getPayload());
+			for (Map.Entry<String, Map<SubModeOfInheritance, BitSet>> family : result.entrySet())
+				for (Map.Entry<SubModeOfInheritance, BitSet> mode : family.getValue().entrySet()) {
+					List<Object> list = compatible.computeIfAbsent(family.getKey(), k -> new EnumMap<>(
+						SubModeOfInheritance.class)).computeIfAbsent(mode.getKey(), k -> new ArrayList<>());
+					mode.getValue().stream().forEach(idx -> list.add(calls.get(idx).getPayload()));
+				}
+		}
+
+	}
+
+	@Test
+	public void testSameAsSequential() throws Exception {
+		// the third family is too large for the index-based path
+		final List<Pedigree> pedigrees = List.of(family("fam1", 0), family("fam2", 3), family("big", 62));
+		final List<GenotypeCalls> calls = randomCalls(pedigrees, 500);
+
+		InheritancePipeline.Builder builder = new InheritancePipeline.Builder();
+		for (Pedigree pedigree : pedigrees)
+			builder.addPedigree(pedigree);
+		builder.setGeneKey(InheritancePipelineTest::geneKey);
+		for (InheritancePipeline.Stage stage : InheritancePipeline.Stage.values())
+			builder.setWorkers(stage, 3);
+		builder.setBatchSize(7);
+		builder.setQueueCapacity(2);
+		final Iterator<GenotypeCalls> it = calls.iterator();
+		CollectingSink sink = new CollectingSink();
+		Assertions.assertEquals(calls.size(),
+			builder.build().run(() -> it.hasNext() ? it.next() : null, gc -> gc, sink));
+
+		Assertions.assertEquals(calls.stream().map(GenotypeCalls::getPayload).toList(), sink.payloads);
+		Assertions.assertEquals(List.of("fam1", "fam2", "big"), List.copyOf(sink.compatible.keySet()));
+		for (Pedigree pedigree : pedigrees) {
+			final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+			final List<GenotypeCalls> familyCalls = restrict(calls, pedigree);
+			final Map<SubModeOfInheritance, List<Object>> actual = sink.compatible.get(pedigree.getName());
+			for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+				if (mode == SubModeOfInheritance.ANY) {
+					Assertions.assertFalse(actual.containsKey(mode));
+					continue;
+				}
+				List<GenotypeCalls> expected = new ArrayList<>();
+				if (mode == SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET
+					|| mode == SubModeOfInheritance.X_RECESSIVE_COMP_HET) {
+					Set<Object> compatible = new HashSet<>();
+					for (List<GenotypeCalls> gene : genes(familyCalls))
+						for (GenotypeCalls gc : checker.filterCompatibleRecordsSub(gene, mode))
+							compatible.add(gc.getPayload());
+					for (GenotypeCalls gc : calls)
+						if (compatible.contains(gc.getPayload()))
+							expected.add(gc);
+				} else {
+					expected = checker.filterCompatibleRecordsSub(familyCalls, mode);
+				}
+				Assertions.assertEquals(expected.stream().map(GenotypeCalls::getPayload).toList(),
+					actual.getOrDefault(mode, List.of()), pedigree.getName() + " " + mode);
+			}
+		}
+	}
+
+	private static List<GenotypeCalls> restrict(List<GenotypeCalls> calls, Pedigree pedigree) {
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (GenotypeCalls gc : calls) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (String name : pedigree.getNames())
+				entries.add(Map.entry(name, gc.getGenotypeForSample(name)));
+			result.add(new GenotypeCalls(gc.getChromType(), entries, gc.getPayload()));
+		}
+		return result;
+	}
+
+	/**
+	 * @return runs of calls with the same non-<code>null</code> gene key
+	 */
+	private static List<List<GenotypeCalls>> genes(List<GenotypeCalls> calls) {
+		List<List<GenotypeCalls>> result = new ArrayList<>();
+		String last = null;
+		for (GenotypeCalls gc : calls) {
+			final String key = geneKey(gc);
+			if (key != null && !key.equals(last))
+				result.add(new ArrayList<>());
+			if (key != null)
+				result.get(result.size() - 1).add(gc);
+			last = key;
+		}
+		return result;
+	}
+
+	@Test
+	public void testVcf() throws Exception {
+		final String vcf = """
+			##fileformat=VCFv4.2
+			#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tfam.father\tfam.mother\tfam.child
+			1\t100\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/0\t0/1
+			1\t200\t.\tG\tT\t.\tPASS\t.\tGT\t0/1\t0/1\t1/1
+			X\t300\t.\tC\tA\t.\tPASS\t.\tGT\t0\t0/1\t1
+			""";
+		InheritancePipeline.Builder builder = new InheritancePipeline.Builder();
+		builder.addPedigree(family("fam", 0));
+		builder.setBatchSize(2);
+		CollectingSink sink = new CollectingSink();
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(
+			new ByteArrayInputStream(vcf.getBytes(StandardCharsets.UTF_8)))) {
+			Assertions.assertEquals(3, builder.build().run(reader, sink));
+		}
+
+		Assertions.assertEquals(List.of(100, 200, 300),
+			sink.payloads.stream().map(p -> ((VcfVariant) p).pos()).toList());
+		final Map<SubModeOfInheritance, List<Object>> compatible = sink.compatible.get("fam");
+		Assertions.assertEquals(List.of(sink.payloads.get(1)),
+			compatible.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT));
+		Assertions.assertEquals(List.of(sink.payloads.get(2)),
+			compatible.get(SubModeOfInheritance.X_RECESSIVE_HOM_ALT));
+		// no gene key, no compound heterozygous calls
+		Assertions.assertTrue(compatible.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET).isEmpty());
+	}
+
+	@Test
+	public void testDecoderFailure() throws Exception {
+		final String vcf = """
+			##fileformat=VCFv4.2
+			#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tfam.father\tfam.mother\tfam.child
+			1\t100\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/0\t0/1
+			1\t200\t.\tG\tT\t.\tPASS\t.\tGT\t0/1\t0/1\tx
+			""";
+		InheritancePipeline.Builder builder = new InheritancePipeline.Builder();
+		builder.addPedigree(family("fam", 0));
+		builder.setBatchSize(1);
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(
+			new ByteArrayInputStream(vcf.getBytes(StandardCharsets.UTF_8)))) {
+			ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+				() -> builder.build().run(reader, (calls, compatible) -> {
+				}));
+			Assertions.assertInstanceOf(VcfParseException.class, e.getCause());
+		}
+	}
+
+	@Test
+	public void testBackpressure() throws Exception {
+		final Pedigree pedigree = family("fam", 0);
+		final AtomicInteger nRead = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		InheritancePipeline.Builder builder = new InheritancePipeline.Builder();
+		builder.addPedigree(pedigree);
+		for (InheritancePipeline.Stage stage : InheritancePipeline.Stage.values())
+			builder.setWorkers(stage, 1);
+		builder.setBatchSize(1);
+		builder.setQueueCapacity(1);
+		final GenotypeCalls gc = randomCalls(List.of(pedigree), 1).get(0);
+
+		final long nCalls = builder.build().run(() -> nRead.incrementAndGet() <= 10_000 ? gc : null, raw -> raw,
+			(calls, compatible) -> {
+				// the source must stall while the sink blocks
+				if (!release.await(200, TimeUnit.MILLISECONDS)) {
+					Assertions.assertTrue(nRead.get() < 32, "read " + nRead.get());
+					release.countDown();
+				}
+			});
+		Assertions.assertEquals(10_000, nCalls);
+	}
+
+	@Test
+	public void testBackpressureOutOfOrder() throws Exception {
+		final Pedigree pedigree = family("fam", 0);
+		final AtomicInteger nRead = new AtomicInteger();
+		final CountDownLatch release = new CountDownLatch(1);
+		InheritancePipeline.Builder builder = new InheritancePipeline.Builder();
+		builder.addPedigree(pedigree);
+		builder.setWorkers(InheritancePipeline.Stage.DECODE, 4);
+		builder.setBatchSize(1);
+		builder.setQueueCapacity(1);
+		final List<GenotypeCalls> calls = randomCalls(List.of(pedigree), 10_000);
+
+		final long nCalls = builder.build().run(() -> {
+			final int i = nRead.getAndIncrement();
+			return i < calls.size() ? i : null;
+		}, i -> {
+			// the batches after a stuck one must not pile up while waiting for it
+			if (i == 0 && !release.await(200, TimeUnit.MILLISECONDS)) {
+				Assertions.assertTrue(nRead.get() < 32, "read " + nRead.get());
+				release.countDown();
+			}
+			return calls.get(i);
+		}, (batch, compatible) -> {
+		});
+		Assertions.assertEquals(10_000, nCalls);
+	}
+
+}
@@ -0,0 +1,138 @@
+package org.monarchinitiative.gregor.concurrent;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TaskScopeTest {
+
+	@Test
+	public void testResultsInForkOrder() throws InterruptedException, ExecutionException {
+		try (TaskScope<Integer> scope = new TaskScope<>(new Semaphore(1))) {
+			for (int i = 0; i < 10; ++i) {
+				final int value = i;
+				scope.fork(() -> {
+					Thread.sleep(10 - value);
+					return value;
+				});
+			}
+			Assertions.assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), scope.join());
+			Assertions.assertThrows(IllegalStateException.class, scope::join);
+			Assertions.assertThrows(IllegalStateException.class, () -> scope.fork(() -> 1));
+		}
+	}
+
+	@Test
+	public void testFailureCancelsOthers() throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch interrupted = new CountDownLatch(1);
+		try (TaskScope<Integer> scope = new TaskScope<>(new Semaphore(1))) {
+			scope.fork(() -> {
+				started.countDown();
+				try {
+					Thread.sleep(60_000);
+				} catch (InterruptedException e) {
+					interrupted.countDown();
+					throw e;
+				}
+				return 1;
+			});
+			scope.fork(() -> {
+				started.await();
+				throw new IOException("failed");
+			});
+			ExecutionException e = Assertions.assertThrows(ExecutionException.class, scope::join);
+			Assertions.assertInstanceOf(IOException.class, e.getCause());
+		}
+		Assertions.assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testBoundedConcurrency() throws InterruptedException, ExecutionException {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		try (TaskScope<Integer> scope = new TaskScope<>(new Semaphore(2))) {
+			for (int i = 0; i < 16; ++i)
+				scope.forkBounded(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					Thread.sleep(5);
+					running.decrementAndGet();
+					return 0;
+				});
+			Assertions.assertEquals(16, scope.join().size());
+		}
+		Assertions.assertTrue(maxRunning.get() <= 2, "max running " + maxRunning.get());
+	}
+
+	@Test
+	public void testBoundedForkWaitsForPermit() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger nForked = new AtomicInteger();
+		try (TaskScope<Integer> scope = new TaskScope<>(new Semaphore(1))) {
+			final Thread forking = new Thread(() -> {
+				try {
+					for (int i = 0; i < 4; ++i) {
+						scope.forkBounded(() -> {
+							release.await();
+							return 0;
+						});
+						nForked.incrementAndGet();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			forking.start();
+			// no thread is started for a bounded task before it has a permit
+			Thread.sleep(100);
+			Assertions.assertEquals(1, nForked.get());
+			release.countDown();
+			forking.join();
+			Assertions.assertEquals(4, nForked.get());
+			Assertions.assertEquals(4, scope.join().size());
+		}
+		Assertions.assertThrows(IllegalStateException.class, () -> {
+			try (TaskScope<Integer> scope = new TaskScope<>()) {
+				scope.forkBounded(() -> 0);
+			}
+		});
+	}
+
+	@Test
+	public void testForkFromTask() throws InterruptedException, ExecutionException {
+		try (TaskScope<Integer> scope = new TaskScope<>(new Semaphore(2))) {
+			for (int i = 0; i < 4; ++i) {
+				final int value = i;
+				scope.fork(() -> {
+					Thread.sleep(10);
+					for (int j = 0; j < 4; ++j)
+						scope.forkBounded(() -> 1);
+					return value;
+				});
+			}
+			final List<Integer> results = scope.join();
+			Assertions.assertEquals(20, results.size());
+			Assertions.assertEquals(16 + 6, results.stream().mapToInt(Integer::intValue).sum());
+		}
+	}
+
+	@Test
+	public void testThreadPerTaskExecutor() throws InterruptedException, ExecutionException {
+		// virtual threads on Java 21 and later, named platform threads before
+		final ExecutorService executor = TaskScope.newThreadPerTaskExecutor("test");
+		try {
+			final Thread thread = executor.submit(Thread::currentThread).get();
+			if (Runtime.version().feature() >= 21)
+				Assertions.assertTrue(thread.getName().isEmpty());
+			else
+				Assertions.assertTrue(thread.getName().startsWith("test-") && thread.isDaemon());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,163 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.monarchinitiative.gregor.AllocationMeter.assertBudget;
+
+/**
+ * Allocation budgets for the hot paths of genotype handling and inheritance checking
+ * <p>
+ * The budgets are bytes per operation with about 50% headroom over the values measured on a 64 bit JVM with
+ * compressed oops, paths that do not allocate at all must stay that way. A failure means that a change added
+ * allocations to a path that is run per genotype, call or site.
+ */
+public class AllocationBudgetTest {
+
+	private static final List<Genotype> GENOTYPES = List.of(
+		new Genotype(List.of(0, 0)),
+		new Genotype(List.of(0, 1)),
+		new Genotype(List.of(1, 1)),
+		new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL)),
+		new Genotype(List.of(0, Genotype.NO_CALL)),
+		new Genotype(List.of(1))
+	);
+
+	private static final int N_CALLS = 1_000;
+
+	private Pedigree pedigree;
+	private List<GenotypeCalls> calls;
+
+	@BeforeEach
+	public void setUp() throws PedParseException {
+		pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED),
+			new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.UNAFFECTED))), "ped");
+
+		Random random = new Random(42);
+		calls = new ArrayList<>(N_CALLS);
+		for (int i = 0; i < N_CALLS; ++i) {
+			final ChromosomeType chromType = (i % 10 == 0) ? ChromosomeType.X_CHROMOSOMAL : ChromosomeType.AUTOSOMAL;
+			GenotypeCallsBuilder builder = new GenotypeCallsBuilder();
+			builder.setChromType(chromType);
+			for (String name : pedigree.getNames())
+				builder.getSampleToGenotype().put(name, GENOTYPES.get(random.nextInt(GENOTYPES.size())));
+			calls.add(builder.build());
+		}
+	}
+
+	@Test
+	public void testGenotypeQueries() throws Exception {
+		assertBudget("Genotype queries", 0.1, 100_000, n -> {
+			long count = 0;
+			for (int i = 0; i < n; ++i) {
+				final Genotype gt = GENOTYPES.get(i % GENOTYPES.size());
+				if (gt.isHet() || gt.isHomAlt())
+					++count;
+				if (gt.isHomRef() || gt.isNotObserved())
+					++count;
+			}
+			return count;
+		});
+	}
+
+	@Test
+	public void testGenotypeClass() throws Exception {
+		assertBudget("GenotypeClass.of", 0.1, 100_000, n -> {
+			long sum = 0;
+			for (int i = 0; i < n; ++i)
+				sum += GenotypeClass.of(GENOTYPES.get(i % GENOTYPES.size()));
+			return sum;
+		});
+	}
+
+	@Test
+	public void testGenotypeConstruction() throws Exception {
+		final List<Integer> alleles = List.of(0, 1);
+		assertBudget("Genotype construction", 400, 10_000, n -> {
+			long sum = 0;
+			for (int i = 0; i < n; ++i)
+				sum += new Genotype(alleles).getPloidy();
+			return sum;
+		});
+	}
+
+	@Test
+	public void testGenotypeCallsLookup() throws Exception {
+		final List<String> names = pedigree.getNames();
+		assertBudget("GenotypeCalls lookup", 0.1, 100_000, n -> {
+			long count = 0;
+			for (int i = 0; i < n; ++i)
+				if (calls.get(i % N_CALLS).getGenotypeForSample(names.get(i % names.size())).isHet())
+					++count;
+			return count;
+		});
+	}
+
+	@Test
+	public void testGenotypeCallsConstruction() throws Exception {
+		final List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+		for (String name : pedigree.getNames())
+			entries.add(Map.entry(name, GENOTYPES.get(1)));
+		assertBudget("GenotypeCalls construction", 768, 10_000, n -> {
+			long sum = 0;
+			for (int i = 0; i < n; ++i)
+				sum += new GenotypeCalls(ChromosomeType.AUTOSOMAL, entries).getNSamples();
+			return sum;
+		});
+	}
+
+	@Test
+	public void testIndexedSiteChecks() throws Exception {
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, calls);
+		// bytes per site for all five sub modes, the result arrays are the only allocation
+		assertBudget("indexed site checks", 32, N_CALLS, n -> {
+			long sum = 0;
+			for (SubModeOfInheritance mode : new SubModeOfInheritance[]{SubModeOfInheritance.AUTOSOMAL_DOMINANT,
+				SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, SubModeOfInheritance.X_DOMINANT,
+				SubModeOfInheritance.X_RECESSIVE_HOM_ALT, SubModeOfInheritance.MITOCHONDRIAL})
+				sum += checker.filterCompatibleSitesSub(genotypes, mode).length;
+			return sum;
+		});
+	}
+
+	@Test
+	public void testQualityThresholdSweep() throws Exception {
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, calls);
+		final QualityThresholds[] thresholds = {new QualityThresholds(10, 5), new QualityThresholds(20, 10),
+			new QualityThresholds(30, 15)};
+		// bytes per site, masking must not add to the result arrays
+		assertBudget("indexed site checks with quality masking", 16, N_CALLS, n -> {
+			long sum = 0;
+			for (QualityThresholds threshold : thresholds)
+				sum += checker.filterCompatibleSitesSub(genotypes, SubModeOfInheritance.AUTOSOMAL_DOMINANT,
+					threshold).length;
+			return sum;
+		});
+	}
+
+	@Test
+	public void testFacade() throws Exception {
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		// bytes per call for all five sub modes
+		assertBudget("dominant and hom. recessive checks", 512, N_CALLS, n -> {
+			long sum = 0;
+			for (SubModeOfInheritance mode : new SubModeOfInheritance[]{SubModeOfInheritance.AUTOSOMAL_DOMINANT,
+				SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, SubModeOfInheritance.X_DOMINANT,
+				SubModeOfInheritance.X_RECESSIVE_HOM_ALT, SubModeOfInheritance.MITOCHONDRIAL})
+				sum += checker.filterCompatibleRecordsSub(calls, mode).size();
+			return sum;
+		});
+	}
+
+}
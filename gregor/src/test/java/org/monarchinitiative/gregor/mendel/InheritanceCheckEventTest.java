@@ -0,0 +1,87 @@
+package org.monarchinitiative.gregor.mendel;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the JDK Flight Recorder events emitted by {@link MendelianInheritanceChecker}
+ */
+public class InheritanceCheckEventTest {
+
+	private static final String INHERITANCE_CHECK = "org.monarchinitiative.gregor.InheritanceCheck";
+	private static final String COMPOUND_HET_CHECK = "org.monarchinitiative.gregor.CompoundHetCheck";
+
+	private static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET = new Genotype(List.of(0, 1));
+
+	@TempDir
+	Path tmpDir;
+
+	private static GenotypeCalls calls(Genotype father, Genotype mother, Genotype child, String payload) {
+		return new GenotypeCalls(ChromosomeType.AUTOSOMAL,
+			List.of(Map.entry("I.1", father), Map.entry("I.2", mother), Map.entry("II.1", child)), payload);
+	}
+
+	private List<RecordedEvent> record(Duration threshold) throws PedParseException, IncompatiblePedigreeException,
+		IOException {
+		Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("fam", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED))), "fam");
+		MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		List<GenotypeCalls> calls = List.of(calls(HET, HOM_REF, HET, "GENE1"), calls(HOM_REF, HET, HET, "GENE1"));
+
+		final Path path = tmpDir.resolve("recording.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(INHERITANCE_CHECK).withThreshold(threshold);
+			recording.enable(COMPOUND_HET_CHECK).withThreshold(threshold);
+			recording.start();
+			checker.filterCompatibleRecordsSub(calls, SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+			checker.filterCompatibleRecordsSub(calls, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET);
+			recording.stop();
+			recording.dump(path);
+		}
+		return RecordingFile.readAllEvents(path);
+	}
+
+	@Test
+	public void testEventsRecorded() throws PedParseException, IncompatiblePedigreeException, IOException {
+		Map<String, List<RecordedEvent>> events = record(Duration.ZERO).stream()
+			.collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+
+		List<RecordedEvent> checks = events.get(INHERITANCE_CHECK);
+		Assertions.assertEquals(2, checks.size());
+		Assertions.assertEquals("fam", checks.get(0).getString("pedigreeName"));
+		Assertions.assertEquals("AUTOSOMAL_DOMINANT", checks.get(0).getString("subMode"));
+		Assertions.assertEquals(2, checks.get(0).getInt("nCallsIn"));
+		Assertions.assertEquals(0, checks.get(0).getInt("nCallsPassed"));
+		Assertions.assertEquals("AUTOSOMAL_RECESSIVE_COMP_HET", checks.get(1).getString("subMode"));
+		Assertions.assertEquals(2, checks.get(1).getInt("nCallsPassed"));
+
+		List<RecordedEvent> compHet = events.get(COMPOUND_HET_CHECK);
+		Assertions.assertEquals(1, compHet.size());
+		Assertions.assertEquals("fam", compHet.get(0).getString("pedigreeName"));
+		Assertions.assertEquals("GENE1", compHet.get(0).getString("firstPayload"));
+		Assertions.assertEquals(2, compHet.get(0).getInt("nCallsIn"));
+		Assertions.assertEquals(1, compHet.get(0).getInt("nCandidates"));
+		Assertions.assertEquals(2, compHet.get(0).getInt("nCallsPassed"));
+	}
+
+	@Test
+	public void testThreshold() throws PedParseException, IncompatiblePedigreeException, IOException {
+		Assertions.assertEquals(List.of(), record(Duration.ofHours(1)));
+	}
+
+}
@@ -0,0 +1,125 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.util.*;
+
+/**
+ * Checks the reporting of {@link MendelianInheritanceChecker} to {@link InheritanceMetrics}
+ */
+public class InheritanceMetricsTest {
+
+	private static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET = new Genotype(List.of(0, 1));
+
+	private Pedigree pedigree;
+	private RecordingMetrics metrics;
+	private MendelianInheritanceChecker checker;
+
+	@BeforeEach
+	public void setUp() throws PedParseException {
+		pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED))), "ped");
+		metrics = new RecordingMetrics();
+		checker = new MendelianInheritanceChecker(pedigree, metrics);
+	}
+
+	private static GenotypeCalls calls(Genotype father, Genotype mother, Genotype child) {
+		return new GenotypeCalls(ChromosomeType.AUTOSOMAL,
+			List.of(Map.entry("I.1", father), Map.entry("I.2", mother), Map.entry("II.1", child)));
+	}
+
+	@Test
+	public void testFilteredSubMode() throws IncompatiblePedigreeException {
+		List<GenotypeCalls> calls = List.of(calls(HOM_REF, HOM_REF, HET), calls(HOM_REF, HOM_REF, HOM_REF));
+		checker.filterCompatibleRecordsSub(calls, SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+
+		Assertions.assertEquals(List.of(SubModeOfInheritance.AUTOSOMAL_DOMINANT), metrics.subModes);
+		Assertions.assertEquals(List.of(2), metrics.nIn);
+		Assertions.assertEquals(List.of(1), metrics.nPassed);
+		Assertions.assertTrue(metrics.nanos.get(0) >= 0);
+	}
+
+	@Test
+	public void testFilteredModeReportsSubModes() throws IncompatiblePedigreeException {
+		List<GenotypeCalls> calls = List.of(calls(HET, HOM_REF, HET), calls(HOM_REF, HET, HET));
+		checker.filterCompatibleRecords(calls, ModeOfInheritance.AUTOSOMAL_RECESSIVE);
+
+		Assertions.assertEquals(List.of(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT,
+			SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET), metrics.subModes);
+		Assertions.assertEquals(List.of(0, 2), metrics.nPassed);
+		Assertions.assertEquals(Map.of(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET, 1), metrics.candidates);
+	}
+
+	@Test
+	public void testSampleNameCache() throws IncompatiblePedigreeException {
+		List<GenotypeCalls> calls = List.of(calls(HOM_REF, HOM_REF, HET), calls(HOM_REF, HOM_REF, HOM_REF),
+			calls(HET, HOM_REF, HET));
+		checker.filterCompatibleRecordsSub(calls, SubModeOfInheritance.ANY);
+		Assertions.assertEquals(List.of(2, 1), metrics.cache);
+
+		metrics.cache.clear();
+		checker.filterCompatibleRecordsSub(calls, SubModeOfInheritance.ANY);
+		Assertions.assertEquals(List.of(3, 0), metrics.cache);
+	}
+
+	@Test
+	public void testIncompatibleSamplesStillDetected() {
+		GenotypeCalls other = new GenotypeCalls(ChromosomeType.AUTOSOMAL,
+			List.of(Map.entry("I.1", HET), Map.entry("X", HET)));
+		Assertions.assertThrows(IncompatiblePedigreeException.class, () ->
+			checker.filterCompatibleRecordsSub(List.of(calls(HET, HOM_REF, HET), other),
+				SubModeOfInheritance.AUTOSOMAL_DOMINANT));
+	}
+
+	@Test
+	public void testFilteredIndexed() throws IncompatiblePedigreeException {
+		List<GenotypeCalls> calls = List.of(calls(HOM_REF, HOM_REF, HET), calls(HOM_REF, HOM_REF, HOM_REF));
+		checker.filterCompatibleSitesSub(IndexedGenotypes.of(pedigree, calls), SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+
+		Assertions.assertEquals(List.of(SubModeOfInheritance.AUTOSOMAL_DOMINANT), metrics.subModes);
+		Assertions.assertEquals(List.of(2), metrics.nIn);
+		Assertions.assertEquals(List.of(1), metrics.nPassed);
+	}
+
+	@Test
+	public void testNoopByDefault() {
+		Assertions.assertSame(InheritanceMetrics.NOOP, new MendelianInheritanceChecker(pedigree).getMetrics());
+	}
+
+	private static final class RecordingMetrics implements InheritanceMetrics {
+
+		final List<SubModeOfInheritance> subModes = new ArrayList<>();
+		final List<Integer> nIn = new ArrayList<>();
+		final List<Integer> nPassed = new ArrayList<>();
+		final List<Long> nanos = new ArrayList<>();
+		final Map<SubModeOfInheritance, Integer> candidates = new EnumMap<>(SubModeOfInheritance.class);
+		final List<Integer> cache = new ArrayList<>();
+
+		@Override
+		public void filtered(SubModeOfInheritance subMode, int nCallsIn, int nCallsPassed, long nanos) {
+			subModes.add(subMode);
+			nIn.add(nCallsIn);
+			nPassed.add(nCallsPassed);
+			this.nanos.add(nanos);
+		}
+
+		@Override
+		public void compoundHetCandidates(SubModeOfInheritance subMode, int nCandidates) {
+			candidates.merge(subMode, nCandidates, Integer::sum);
+		}
+
+		@Override
+		public void sampleNameCache(int nHits, int nMisses) {
+			cache.add(nHits);
+			cache.add(nMisses);
+		}
+
+	}
+
+}
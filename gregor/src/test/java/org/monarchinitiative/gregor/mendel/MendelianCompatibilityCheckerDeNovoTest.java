@@ -0,0 +1,167 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MendelianCompatibilityCheckerDeNovoTest extends MendelianCompatibilityCheckerTestBase {
+
+	private static final Genotype HOM_REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET_GT = new Genotype(List.of(0, 1));
+
+	MendelianInheritanceChecker lenientChecker;
+	MendelianInheritanceChecker strictChecker;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		List<PedPerson> individuals = List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED), // father
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED), // mother
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED), // son
+			new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.UNAFFECTED) // daughter
+		);
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), individuals), "ped");
+
+		this.names = List.of("I.1", "I.2", "II.1", "II.2");
+
+		this.lenientChecker = new MendelianInheritanceChecker(this.pedigree);
+		this.strictChecker = new MendelianInheritanceChecker(this.pedigree, InheritanceMetrics.NOOP,
+			NoCallPolicy.REJECT);
+	}
+
+	private int countLenient(List<SimpleGenotype> genotypes, ChromosomeType chromosomeType)
+		throws IncompatiblePedigreeException {
+		return count(lenientChecker, genotypes, chromosomeType);
+	}
+
+	private int countStrict(List<SimpleGenotype> genotypes, ChromosomeType chromosomeType)
+		throws IncompatiblePedigreeException {
+		return count(strictChecker, genotypes, chromosomeType);
+	}
+
+	/**
+	 * @return number of calls compatible with de novo inheritance, after checking that the index-based fast path agrees
+	 */
+	private int count(MendelianInheritanceChecker checker, List<SimpleGenotype> genotypes,
+					  ChromosomeType chromosomeType) throws IncompatiblePedigreeException {
+		return count(checker, getGenotypeCallsList(genotypes, chromosomeType));
+	}
+
+	private int count(MendelianInheritanceChecker checker, List<GenotypeCalls> calls)
+		throws IncompatiblePedigreeException {
+		final int result = checker.filterCompatibleRecordsSub(calls, SubModeOfInheritance.DE_NOVO).size();
+		Assertions.assertEquals(result, checker.filterCompatibleSitesSub(IndexedGenotypes.of(pedigree, calls),
+			SubModeOfInheritance.DE_NOVO).length);
+		return result;
+	}
+
+	@Test
+	public void testPositive() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(1, countLenient(lst(REF, REF, HET, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(1, countStrict(lst(REF, REF, HET, REF), ChromosomeType.AUTOSOMAL));
+	}
+
+	@Test
+	public void testNegativeInherited() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(0, countLenient(lst(HET, REF, HET, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, countLenient(lst(REF, ALT, HET, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, countLenient(lst(REF, REF, HET, HET), ChromosomeType.AUTOSOMAL));
+	}
+
+	@Test
+	public void testNegativeChild() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(0, countLenient(lst(REF, REF, REF, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, countLenient(lst(REF, REF, ALT, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, countLenient(lst(REF, REF, UKN, REF), ChromosomeType.AUTOSOMAL));
+	}
+
+	@Test
+	public void testNegativeNonAutosomal() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(0, countLenient(lst(REF, REF, HET, REF), ChromosomeType.X_CHROMOSOMAL));
+		Assertions.assertEquals(0, countLenient(lst(REF, REF, HET, REF), ChromosomeType.MITOCHONDRIAL));
+	}
+
+	@Test
+	public void testNoCallPolicy() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(1, countLenient(lst(UKN, REF, HET, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(1, countLenient(lst(REF, REF, HET, UKN), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, countStrict(lst(UKN, REF, HET, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, countStrict(lst(REF, REF, HET, UKN), ChromosomeType.AUTOSOMAL));
+	}
+
+	@Test
+	public void testPartialCalls() throws IncompatiblePedigreeException {
+		// a parent or sibling called 0/. may carry the variant, under both policies
+		for (Genotype partial : List.of(new Genotype(List.of(0, Genotype.NO_CALL)),
+			new Genotype(List.of(Genotype.NO_CALL, 1)))) {
+			final List<GenotypeCalls> fatherPartial = List.of(calls(partial, HOM_REF, HET_GT, HOM_REF));
+			final List<GenotypeCalls> siblingPartial = List.of(calls(HOM_REF, HOM_REF, HET_GT, partial));
+			for (MendelianInheritanceChecker checker : List.of(lenientChecker, strictChecker)) {
+				Assertions.assertEquals(0, count(checker, fatherPartial));
+				Assertions.assertEquals(0, count(checker, siblingPartial));
+			}
+		}
+		// whereas a full no-call is accepted with NoCallPolicy.IGNORE
+		final Genotype noCall = new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL));
+		Assertions.assertEquals(1, count(lenientChecker, List.of(calls(noCall, HOM_REF, HET_GT, HOM_REF))));
+		Assertions.assertEquals(0, count(strictChecker, List.of(calls(noCall, HOM_REF, HET_GT, HOM_REF))));
+	}
+
+	@Test
+	public void testThreeGenerations() throws Exception {
+		// an affected mother with an affected son, each is checked against their own parents
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.FEMALE, Disease.AFFECTED),
+			new PedPerson("ped", "II.2", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "III.1", "II.2", "II.1", Sex.MALE, Disease.AFFECTED))), "ped");
+		this.names = List.of("I.1", "I.2", "II.1", "II.2", "III.1");
+		for (NoCallPolicy policy : NoCallPolicy.values()) {
+			final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(this.pedigree,
+				InheritanceMetrics.NOOP, policy);
+			// de novo in the mother and passed on to her son
+			Assertions.assertEquals(1, count(checker, getGenotypeCallsList(lst(REF, REF, HET, REF, HET),
+				ChromosomeType.AUTOSOMAL)));
+			// de novo in the son only
+			Assertions.assertEquals(1, count(checker, getGenotypeCallsList(lst(REF, REF, REF, REF, HET),
+				ChromosomeType.AUTOSOMAL)));
+			// de novo in the mother, but the son is not het.
+			Assertions.assertEquals(1, count(checker, getGenotypeCallsList(lst(REF, REF, HET, REF, REF),
+				ChromosomeType.AUTOSOMAL)));
+			// inherited from the grandfather
+			Assertions.assertEquals(0, count(checker, getGenotypeCallsList(lst(HET, REF, HET, REF, HET),
+				ChromosomeType.AUTOSOMAL)));
+			// carried by the son's father
+			Assertions.assertEquals(0, count(checker, getGenotypeCallsList(lst(REF, REF, REF, HET, HET),
+				ChromosomeType.AUTOSOMAL)));
+		}
+	}
+
+	/**
+	 * @return autosomal calls for the members of the four-member pedigree, in order
+	 */
+	private GenotypeCalls calls(Genotype... genotypes) {
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+		for (int i = 0; i < genotypes.length; ++i)
+			entries.add(Map.entry(names.get(i), genotypes[i]));
+		return new GenotypeCalls(ChromosomeType.AUTOSOMAL, entries);
+	}
+
+	@Test
+	public void testChildWithOneParent() throws Exception {
+		// with only one parent in the pedigree, an inherited variant cannot be ruled out
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "0", Sex.MALE, Disease.AFFECTED))), "ped");
+		this.names = List.of("I.1", "II.1");
+		this.lenientChecker = new MendelianInheritanceChecker(this.pedigree);
+		Assertions.assertEquals(0, countLenient(lst(REF, HET), ChromosomeType.AUTOSOMAL));
+	}
+
+}
@@ -0,0 +1,105 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.util.List;
+import java.util.Map;
+
+public class MendelianCompatibilityCheckerYLTest extends MendelianCompatibilityCheckerTestBase {
+
+	MendelianInheritanceChecker checker;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		List<PedPerson> individuals = List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED), // father
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED), // mother
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED), // son
+			new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.UNAFFECTED), // daughter
+			new PedPerson("ped", "II.3", "0", "0", Sex.MALE, Disease.UNAFFECTED) // unrelated male
+		);
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), individuals), "ped");
+
+		this.names = List.of("I.1", "I.2", "II.1", "II.2", "II.3");
+
+		this.checker = new MendelianInheritanceChecker(this.pedigree);
+	}
+
+	private int count(List<SimpleGenotype> genotypes, ChromosomeType chromosomeType)
+		throws IncompatiblePedigreeException {
+		final List<GenotypeCalls> calls = getGenotypeCallsList(genotypes, chromosomeType);
+		final Map<SubModeOfInheritance, List<GenotypeCalls>> result = checker.checkMendelianInheritanceSub(calls);
+		Assertions.assertEquals(result.get(SubModeOfInheritance.Y_LINKED).size(), checker.filterCompatibleSitesSub(
+			IndexedGenotypes.of(pedigree, calls), SubModeOfInheritance.Y_LINKED).length);
+		return result.get(SubModeOfInheritance.Y_LINKED).size();
+	}
+
+	@Test
+	public void testPositive() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(1, count(lst(ALT, REF, ALT, REF, REF), ChromosomeType.Y_CHROMOSOMAL));
+		// males may be called het., females are ignored
+		Assertions.assertEquals(1, count(lst(HET, ALT, ALT, HET, REF), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(1, count(lst(UKN, REF, ALT, REF, UKN), ChromosomeType.Y_CHROMOSOMAL));
+	}
+
+	@Test
+	public void testNegativeAffected() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(0, count(lst(ALT, REF, REF, REF, REF), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(0, count(lst(UKN, REF, UKN, REF, REF), ChromosomeType.Y_CHROMOSOMAL));
+	}
+
+	@Test
+	public void testNegativeUnaffected() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(0, count(lst(ALT, REF, ALT, REF, ALT), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(0, count(lst(ALT, REF, ALT, REF, HET), ChromosomeType.Y_CHROMOSOMAL));
+	}
+
+	@Test
+	public void testNegativeOtherChromosomes() throws IncompatiblePedigreeException {
+		Assertions.assertEquals(0, count(lst(ALT, REF, ALT, REF, REF), ChromosomeType.AUTOSOMAL));
+		Assertions.assertEquals(0, count(lst(ALT, REF, ALT, REF, REF), ChromosomeType.X_CHROMOSOMAL));
+	}
+
+	@Test
+	public void testFatherToSon() throws Exception {
+		// an affected father with an unaffected son contradicts Y-linked inheritance
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.UNAFFECTED))), "ped");
+		this.names = List.of("I.1", "I.2", "II.1");
+		this.checker = new MendelianInheritanceChecker(this.pedigree);
+		Assertions.assertEquals(0, count(lst(ALT, REF, REF), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(0, count(lst(ALT, REF, ALT), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(0, count(lst(ALT, REF, UKN), ChromosomeType.Y_CHROMOSOMAL));
+
+		// the father of an affected son must not be hom. ref.
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED))), "ped");
+		this.checker = new MendelianInheritanceChecker(this.pedigree);
+		Assertions.assertEquals(0, count(lst(REF, REF, ALT), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(1, count(lst(ALT, REF, ALT), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(1, count(lst(UKN, REF, ALT), ChromosomeType.Y_CHROMOSOMAL));
+	}
+
+	@Test
+	public void testSingleton() throws Exception {
+		this.names = List.of("I.1");
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED))), "ped");
+		this.checker = new MendelianInheritanceChecker(this.pedigree);
+		Assertions.assertEquals(1, count(lst(ALT), ChromosomeType.Y_CHROMOSOMAL));
+		Assertions.assertEquals(0, count(lst(REF), ChromosomeType.Y_CHROMOSOMAL));
+
+		this.pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.FEMALE, Disease.AFFECTED))), "ped");
+		this.checker = new MendelianInheritanceChecker(this.pedigree);
+		Assertions.assertEquals(0, count(lst(ALT), ChromosomeType.Y_CHROMOSOMAL));
+	}
+
+}
@@ -0,0 +1,111 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks that the index-based fast path of {@link MendelianInheritanceChecker} gives the same results as the
+ * {@link GenotypeCalls}-based checkers on random genotypes.
+ */
+public class MendelianInheritanceCheckerIndexedTest {
+
+	private static final List<Genotype> GENOTYPES = List.of(
+		new Genotype(List.of(0, 0)),
+		new Genotype(List.of(0, 1)),
+		new Genotype(List.of(1, 1)),
+		new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL)),
+		new Genotype(List.of(0, Genotype.NO_CALL)),
+		new Genotype(List.of(Genotype.NO_CALL, 1)),
+		new Genotype(List.of(1, 2)),
+		new Genotype(List.of(0)),
+		new Genotype(List.of(1))
+	);
+
+	static Stream<Pedigree> pedigrees() throws PedParseException {
+		return Stream.of(
+			pedigree(new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED)),
+			pedigree(new PedPerson("ped", "I.1", "0", "0", Sex.FEMALE, Disease.AFFECTED)),
+			pedigree(
+				new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.UNAFFECTED)),
+			pedigree(
+				new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.AFFECTED)),
+			pedigree(
+				new PedPerson("ped", "II.1", "0", "0", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "0", "0", Sex.FEMALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.3", "0", "0", Sex.UNKNOWN, Disease.UNAFFECTED)),
+			pedigree(
+				new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "II.1", "I.1", "I.2", Sex.FEMALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "0", "0", Sex.MALE, Disease.UNKNOWN),
+				new PedPerson("ped", "III.1", "II.2", "II.1", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "III.2", "II.2", "II.1", Sex.FEMALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "III.3", "0", "II.1", Sex.UNKNOWN, Disease.AFFECTED))
+		);
+	}
+
+	private static Pedigree pedigree(PedPerson... individuals) throws PedParseException {
+		return new Pedigree(new PedFileContents(List.of(), List.of(individuals)), "ped");
+	}
+
+	@ParameterizedTest
+	@MethodSource("pedigrees")
+	public void testSameResultsAsGenotypeCalls(Pedigree pedigree) throws IncompatiblePedigreeException {
+		for (NoCallPolicy policy : NoCallPolicy.values())
+			checkSameResultsAsGenotypeCalls(pedigree, policy);
+	}
+
+	private static void checkSameResultsAsGenotypeCalls(Pedigree pedigree, NoCallPolicy policy)
+		throws IncompatiblePedigreeException {
+		MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree, InheritanceMetrics.NOOP,
+			policy);
+		Random random = new Random(42);
+		for (int round = 0; round < 300; ++round) {
+			List<GenotypeCalls> calls = randomCalls(pedigree, random, 1 + random.nextInt(8));
+			Map<SubModeOfInheritance, List<GenotypeCalls>> expected = checker.checkMendelianInheritanceSub(calls);
+			Map<SubModeOfInheritance, int[]> actual = checker.checkMendelianInheritanceSub(
+				IndexedGenotypes.of(pedigree, calls));
+
+			Assertions.assertEquals(expected.keySet(), actual.keySet());
+			for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+				Set<GenotypeCalls> expectedCalls = Collections.newSetFromMap(new IdentityHashMap<>());
+				expectedCalls.addAll(expected.get(mode));
+				Set<GenotypeCalls> actualCalls = Collections.newSetFromMap(new IdentityHashMap<>());
+				Arrays.stream(actual.get(mode)).mapToObj(calls::get).forEach(actualCalls::add);
+				Assertions.assertEquals(expectedCalls, actualCalls, "mode " + mode + " for " + calls);
+				// the calls are partitioned by chromosome type for all modes but filtered for a single one
+				Set<GenotypeCalls> filteredCalls = Collections.newSetFromMap(new IdentityHashMap<>());
+				filteredCalls.addAll(checker.filterCompatibleRecordsSub(calls, mode));
+				Assertions.assertEquals(expectedCalls, filteredCalls, "mode " + mode + " for " + calls);
+				Assertions.assertArrayEquals(actual.get(mode), checker.filterCompatibleSitesSub(
+					IndexedGenotypes.of(pedigree, calls), mode));
+			}
+		}
+	}
+
+	private static List<GenotypeCalls> randomCalls(Pedigree pedigree, Random random, int nSites) {
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		final ChromosomeType chromType = chromTypes[random.nextInt(chromTypes.length)];
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (int i = 0; i < nSites; ++i) {
+			Map<String, Genotype> entries = pedigree.getNames().stream()
+				.collect(Collectors.toMap(name -> name, name -> GENOTYPES.get(random.nextInt(GENOTYPES.size()))));
+			result.add(new GenotypeCalls(random.nextInt(4) == 0 ? chromTypes[random.nextInt(chromTypes.length)] :
+				chromType, entries.entrySet(), i));
+		}
+		return result;
+	}
+
+}
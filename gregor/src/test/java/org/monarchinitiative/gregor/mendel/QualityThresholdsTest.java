@@ -0,0 +1,117 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks that masking by {@link QualityThresholds} gives the same results as replacing the masked genotypes by
+ * no-calls.
+ */
+public class QualityThresholdsTest {
+
+	private static final List<Genotype> GENOTYPES = List.of(
+		new Genotype(List.of(0, 0)),
+		new Genotype(List.of(0, 1)),
+		new Genotype(List.of(1, 1)),
+		new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL)),
+		new Genotype(List.of(0, Genotype.NO_CALL)),
+		new Genotype(List.of(1))
+	);
+
+	private static final Genotype NO_CALL = new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL));
+
+	static Stream<Pedigree> pedigrees() throws Exception {
+		return MendelianInheritanceCheckerIndexedTest.pedigrees();
+	}
+
+	@Test
+	public void testIsMasked() {
+		final QualityThresholds thresholds = new QualityThresholds(20, 10);
+		Assertions.assertFalse(thresholds.isMasked(20, 10));
+		Assertions.assertTrue(thresholds.isMasked(19, 10));
+		Assertions.assertTrue(thresholds.isMasked(20, 9));
+		Assertions.assertFalse(thresholds.isMasked(GenotypeCalls.MISSING_QUALITY, GenotypeCalls.MISSING_QUALITY));
+		Assertions.assertTrue(thresholds.isMasked(GenotypeCalls.MISSING_QUALITY, 0));
+		Assertions.assertFalse(QualityThresholds.NONE.isMasked(0, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new QualityThresholds(-1, 0));
+	}
+
+	@ParameterizedTest
+	@MethodSource("pedigrees")
+	public void testSameAsNoCalls(Pedigree pedigree) throws IncompatiblePedigreeException {
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final Random random = new Random(42);
+		for (int round = 0; round < 50; ++round) {
+			final List<GenotypeCalls> calls = randomCalls(pedigree, random, 1 + random.nextInt(8));
+			final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, calls);
+			for (int minGq = 0; minGq <= 40; minGq += 20) {
+				for (int minDp = 0; minDp <= 20; minDp += 10) {
+					final QualityThresholds thresholds = new QualityThresholds(minGq, minDp);
+					final Map<SubModeOfInheritance, List<GenotypeCalls>> expected =
+						checker.checkMendelianInheritanceSub(maskByRebuilding(calls, thresholds));
+					final Map<SubModeOfInheritance, List<GenotypeCalls>> actual =
+						checker.checkMendelianInheritanceSub(calls, thresholds);
+					final Map<SubModeOfInheritance, int[]> actualSites =
+						checker.checkMendelianInheritanceSub(genotypes, thresholds);
+					for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+						final Set<Object> expectedPayloads = payloads(expected.get(mode));
+						Assertions.assertEquals(expectedPayloads, payloads(actual.get(mode)), "mode " + mode);
+						Assertions.assertEquals(expectedPayloads, Arrays.stream(actualSites.get(mode)).boxed()
+							.collect(Collectors.toSet()), "mode " + mode);
+						Assertions.assertArrayEquals(actualSites.get(mode),
+							checker.filterCompatibleSitesSub(genotypes, mode, thresholds));
+					}
+				}
+			}
+		}
+	}
+
+	private static Set<Object> payloads(List<GenotypeCalls> calls) {
+		return calls.stream().map(GenotypeCalls::getPayload).collect(Collectors.toSet());
+	}
+
+	/**
+	 * @return copies of <code>calls</code> with the genotypes masked by <code>thresholds</code> replaced by no-calls
+	 */
+	private static List<GenotypeCalls> maskByRebuilding(List<GenotypeCalls> calls, QualityThresholds thresholds) {
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (GenotypeCalls gc : calls) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (int i = 0; i < gc.getNSamples(); ++i) {
+				final boolean masked = thresholds.isMasked(gc.getGenotypeQualityBySampleNo(i),
+					gc.getReadDepthBySampleNo(i));
+				entries.add(Map.entry(gc.getSampleNames().get(i), masked ? NO_CALL : gc.getGenotypeBySampleNo(i)));
+			}
+			result.add(new GenotypeCalls(gc.getChromType(), entries, gc.getPayload()));
+		}
+		return result;
+	}
+
+	private static List<GenotypeCalls> randomCalls(Pedigree pedigree, Random random, int nSites) {
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		final ChromosomeType chromType = chromTypes[random.nextInt(chromTypes.length)];
+		final int nSamples = pedigree.getNMembers();
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (int i = 0; i < nSites; ++i) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			int[] genotypeQualities = new int[nSamples];
+			int[] readDepths = new int[nSamples];
+			for (int j = 0; j < nSamples; ++j) {
+				entries.add(Map.entry(pedigree.getNames().get(j), GENOTYPES.get(random.nextInt(GENOTYPES.size()))));
+				genotypeQualities[j] = random.nextInt(10) == 0 ? GenotypeCalls.MISSING_QUALITY : random.nextInt(60);
+				readDepths[j] = random.nextInt(10) == 0 ? GenotypeCalls.MISSING_QUALITY : random.nextInt(30);
+			}
+			result.add(new GenotypeCalls(random.nextInt(4) == 0 ? chromTypes[random.nextInt(chromTypes.length)] :
+				chromType, entries, i, genotypeQualities, readDepths));
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,171 @@
+package org.monarchinitiative.gregor.mendel;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Checks the tolerant checks of {@link MendelianInheritanceChecker} against the strict ones
+ */
+public class ToleratedSitesTest {
+
+	private static final Genotype REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET = new Genotype(List.of(0, 1));
+	private static final Genotype ALT = new Genotype(List.of(1, 1));
+	private static final List<Genotype> GENOTYPES = List.of(REF, HET, ALT,
+		new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL)), new Genotype(List.of(1)));
+
+	static Stream<Pedigree> pedigrees() throws Exception {
+		return MendelianInheritanceCheckerIndexedTest.pedigrees();
+	}
+
+	@ParameterizedTest
+	@MethodSource("pedigrees")
+	public void testZeroBudgetIsStrict(Pedigree pedigree) throws IncompatiblePedigreeException {
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final Random random = new Random(42);
+		for (int round = 0; round < 100; ++round) {
+			final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, randomCalls(pedigree, random,
+				1 + random.nextInt(20)));
+			final Map<SubModeOfInheritance, int[]> strict = checker.checkMendelianInheritanceSub(genotypes);
+			final Map<SubModeOfInheritance, ToleratedSites> tolerant0 = checker.checkMendelianInheritanceSub(genotypes,
+				0);
+			final Map<SubModeOfInheritance, ToleratedSites> tolerant1 = checker.checkMendelianInheritanceSub(genotypes,
+				1);
+			Assertions.assertEquals(strict.keySet(), tolerant0.keySet());
+			for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+				Assertions.assertArrayEquals(strict.get(mode), tolerant0.get(mode).sites(), "mode " + mode);
+				Assertions.assertArrayEquals(new int[strict.get(mode).length], tolerant0.get(mode).violations());
+				// a larger budget accepts more sites, the strict ones are those without violations
+				final ToleratedSites sites = tolerant1.get(mode);
+				Assertions.assertArrayEquals(strict.get(mode), sites.strictSites(), "mode " + mode);
+				Assertions.assertTrue(Arrays.stream(sites.violations()).allMatch(v -> v <= 1));
+				final ToleratedSites filtered = checker.filterToleratedSitesSub(genotypes, mode, 1);
+				Assertions.assertArrayEquals(sites.sites(), filtered.sites(), "mode " + mode);
+				Assertions.assertArrayEquals(sites.violations(), filtered.violations(), "mode " + mode);
+			}
+		}
+	}
+
+	@Test
+	public void testMiscalls() throws Exception {
+		final Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.AFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED),
+			new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.AFFECTED))), "ped");
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, List.of(
+			calls(pedigree, REF, HET, HET, HET),
+			// the unaffected father miscalled het.
+			calls(pedigree, HET, HET, HET, HET),
+			// additionally an affected daughter miscalled hom. ref.
+			calls(pedigree, HET, HET, HET, REF),
+			// no affected carrier at all, never accepted
+			calls(pedigree, REF, REF, REF, REF)));
+
+		final ToleratedSites strict = checker.filterToleratedSitesSub(genotypes,
+			SubModeOfInheritance.AUTOSOMAL_DOMINANT, 0);
+		Assertions.assertArrayEquals(new int[]{0}, strict.sites());
+		final ToleratedSites one = checker.filterToleratedSitesSub(genotypes,
+			SubModeOfInheritance.AUTOSOMAL_DOMINANT, 1);
+		Assertions.assertArrayEquals(new int[]{0, 1}, one.sites());
+		Assertions.assertArrayEquals(new int[]{0, 1}, one.violations());
+		final ToleratedSites all = checker.filterToleratedSitesSub(genotypes,
+			SubModeOfInheritance.AUTOSOMAL_DOMINANT, 10);
+		Assertions.assertArrayEquals(new int[]{0, 1, 2}, all.sites());
+		Assertions.assertArrayEquals(new int[]{0, 1, 2}, all.violations());
+
+		// an affected hom. ref. among hom. alt. affecteds for autosomal recessive inheritance
+		final ToleratedSites homAlt = checker.filterToleratedSitesSub(IndexedGenotypes.of(pedigree, List.of(
+			calls(pedigree, HET, ALT, ALT, REF))), SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT, 1);
+		Assertions.assertArrayEquals(new int[]{0}, homAlt.sites());
+		Assertions.assertArrayEquals(new int[]{1}, homAlt.violations());
+		Assertions.assertEquals(0, checker.filterCompatibleSitesSub(IndexedGenotypes.of(pedigree, List.of(
+			calls(pedigree, HET, ALT, ALT, REF))), SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT).length);
+	}
+
+	@Test
+	public void testSingletonNeedsCarrier() throws Exception {
+		final Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.FEMALE, Disease.AFFECTED))), "ped");
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final List<GenotypeCalls> calls = new ArrayList<>();
+		for (ChromosomeType chromType : List.of(ChromosomeType.AUTOSOMAL, ChromosomeType.X_CHROMOSOMAL,
+			ChromosomeType.MITOCHONDRIAL))
+			for (Genotype gt : List.of(REF, new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL)),
+				new Genotype(List.of(0))))
+				calls.add(new GenotypeCalls(chromType, List.of(Map.entry("I.1", gt))));
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, calls);
+		// sites without a carrier are rejected whatever the budget
+		for (Map.Entry<SubModeOfInheritance, ToleratedSites> entry : checker.checkMendelianInheritanceSub(genotypes,
+			10).entrySet())
+			Assertions.assertEquals(entry.getKey() == SubModeOfInheritance.ANY ? calls.size() : 0,
+				entry.getValue().size(), "mode " + entry.getKey());
+	}
+
+	@Test
+	public void testDeNovoNeedsCarrier() throws Exception {
+		final Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED))), "ped");
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, List.of(
+			calls(pedigree, REF, REF, HET),
+			// a parent miscalled het.
+			calls(pedigree, HET, REF, HET),
+			// the whole trio is hom. ref.
+			calls(pedigree, REF, REF, REF),
+			// inherited from both parents
+			calls(pedigree, HET, HET, ALT)));
+		final ToleratedSites one = checker.filterToleratedSitesSub(genotypes, SubModeOfInheritance.DE_NOVO, 1);
+		Assertions.assertArrayEquals(new int[]{0, 1}, one.sites());
+		Assertions.assertArrayEquals(new int[]{0, 1}, one.violations());
+		final ToleratedSites all = checker.filterToleratedSitesSub(genotypes, SubModeOfInheritance.DE_NOVO, 10);
+		Assertions.assertArrayEquals(new int[]{0, 1}, all.sites());
+		Assertions.assertArrayEquals(new int[]{0, 1}, all.violations());
+	}
+
+	@Test
+	public void testNegativeBudget() throws PedParseException {
+		final Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED))), "ped");
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, List.of(calls(pedigree, HET)));
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> checker.checkMendelianInheritanceSub(genotypes, -1));
+		Assertions.assertThrows(IllegalArgumentException.class,
+			() -> new ToleratedSites(new int[1], new int[0]));
+	}
+
+	private static GenotypeCalls calls(Pedigree pedigree, Genotype... genotypes) {
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+		for (int i = 0; i < genotypes.length; ++i)
+			entries.add(Map.entry(pedigree.getNames().get(i), genotypes[i]));
+		return new GenotypeCalls(ChromosomeType.AUTOSOMAL, entries);
+	}
+
+	private static List<GenotypeCalls> randomCalls(Pedigree pedigree, Random random, int nSites) {
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (int i = 0; i < nSites; ++i) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (String name : pedigree.getNames())
+				entries.add(Map.entry(name, GENOTYPES.get(random.nextInt(GENOTYPES.size()))));
+			result.add(new GenotypeCalls(chromTypes[random.nextInt(chromTypes.length)], entries, i));
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,137 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.GenotypeClass;
+import org.monarchinitiative.gregor.mendel.NoCallPolicy;
+import org.monarchinitiative.gregor.mendel.SubModeOfInheritance;
+import org.monarchinitiative.gregor.pedigree.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks that the {@link ColumnarKernel}s give the same results as the mask form of the {@link SiteRule}s on random
+ * pedigrees and genotype classes, including combinations of flags that no genotype has
+ */
+public class ColumnarKernelTest {
+
+	private static final int N_SITES = 1_000;
+
+	@Test
+	public void testKernelSelection() {
+		final boolean vectorApi = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+		Assertions.assertEquals(vectorApi ? "VectorColumnarKernel" : "ScalarColumnarKernel",
+			ColumnarKernel.get().getClass().getSimpleName());
+	}
+
+	@Test
+	public void testScalarKernel() throws PedParseException {
+		checkKernel(new ScalarColumnarKernel());
+	}
+
+	@Test
+	public void testDefaultKernel() throws PedParseException {
+		checkKernel(ColumnarKernel.get());
+	}
+
+	private static void checkKernel(ColumnarKernel kernel) throws PedParseException {
+		final Random random = new Random(42);
+		for (int round = 0; round < 50; ++round) {
+			final CompiledPedigree pedigree = new CompiledPedigree(randomPedigree(random,
+				(round < 10) ? 1 : 2 + random.nextInt(CompiledPedigree.MAX_MEMBERS - 1)));
+			final int nMembers = pedigree.getNMembers();
+			final byte[][] columns = new byte[nMembers][N_SITES];
+			final byte[] chromTypes = new byte[N_SITES];
+			for (int site = 0; site < N_SITES; ++site) {
+				chromTypes[site] = (byte) random.nextInt(ChromosomeType.values().length);
+				// mostly genotypes with few carriers, so that some sites are compatible
+				for (int m = 0; m < nMembers; ++m)
+					columns[m][site] = (byte) (random.nextInt(4) == 0 ? random.nextInt(16)
+						: (random.nextBoolean() ? GenotypeClass.HOM_REF : GenotypeClass.HET));
+			}
+
+			final long[] result = new long[(N_SITES + 63) / 64];
+			final byte[] violations = new byte[N_SITES];
+			for (Map.Entry<SubModeOfInheritance, SiteRule> entry : SiteRules.build(pedigree,
+				NoCallPolicy.values()[round % 2]).entrySet()) {
+				final SiteRule rule = entry.getValue();
+				final byte chromType = (byte) rule.getChromType().ordinal();
+				final boolean[] compatible = new boolean[N_SITES];
+				for (ClassConstraints constraints : rule.getConstraints()) {
+					kernel.filter(columns, chromTypes, N_SITES, chromType, constraints, result);
+					final int maxViolations = random.nextInt(4);
+					kernel.count(columns, chromTypes, N_SITES, chromType, constraints, maxViolations, violations);
+					for (int site = 0; site < N_SITES; ++site) {
+						final boolean expected = chromTypes[site] == chromType && constraints.isCompatible(columns,
+							site);
+						Assertions.assertEquals(expected, (result[site >>> 6] & (1L << site)) != 0,
+							entry.getKey() + " at site " + site + " of round " + round);
+						// the violations are counted in the same way by all kernels, none iff compatible
+						final int expectedViolations = (chromTypes[site] == chromType)
+							? constraints.countViolations(columns, site, maxViolations)
+							: ClassConstraints.NOT_APPLICABLE;
+						Assertions.assertEquals(expectedViolations, violations[site],
+							entry.getKey() + " at site " + site + " of round " + round);
+						Assertions.assertEquals(expected, violations[site] == 0);
+						compatible[site] |= expected;
+					}
+				}
+				// the mask form of the rule accepts the sites of any alternative
+				for (int site = 0; site < N_SITES; ++site)
+					Assertions.assertEquals(compatible[site], chromTypes[site] == chromType
+						&& isCompatible(rule, columns, site), entry.getKey() + " at site " + site);
+			}
+		}
+	}
+
+	private static boolean isCompatible(SiteRule rule, byte[][] columns, int site) {
+		long het = 0;
+		long homRef = 0;
+		long homAlt = 0;
+		long notObserved = 0;
+		for (int m = 0; m < columns.length; ++m) {
+			final int cls = columns[m][site];
+			if ((cls & GenotypeClass.HET) != 0)
+				het |= 1L << m;
+			if ((cls & GenotypeClass.HOM_REF) != 0)
+				homRef |= 1L << m;
+			if ((cls & GenotypeClass.HOM_ALT) != 0)
+				homAlt |= 1L << m;
+			if ((cls & GenotypeClass.NOT_OBSERVED) != 0)
+				notObserved |= 1L << m;
+		}
+		return rule.isCompatible(het, homRef, homAlt, notObserved);
+	}
+
+	/**
+	 * @return pedigree with <code>nMembers</code> members, whose parents are earlier members or not given
+	 */
+	private static Pedigree randomPedigree(Random random, int nMembers) throws PedParseException {
+		final Sex[] sexes = {Sex.MALE, Sex.FEMALE, Sex.UNKNOWN};
+		final Disease[] diseases = {Disease.AFFECTED, Disease.UNAFFECTED, Disease.UNAFFECTED, Disease.UNKNOWN};
+		List<PedPerson> persons = new ArrayList<>();
+		List<String> males = new ArrayList<>();
+		List<String> females = new ArrayList<>();
+		for (int i = 0; i < nMembers; ++i) {
+			final String name = "p" + i;
+			final Sex sex = sexes[random.nextInt(sexes.length)];
+			String father = "0";
+			String mother = "0";
+			if (!males.isEmpty() && !females.isEmpty() && random.nextBoolean()) {
+				father = males.get(random.nextInt(males.size()));
+				mother = females.get(random.nextInt(females.size()));
+			}
+			persons.add(new PedPerson("ped", name, father, mother, sex, diseases[random.nextInt(diseases.length)]));
+			if (sex == Sex.MALE)
+				males.add(name);
+			else if (sex == Sex.FEMALE)
+				females.add(name);
+		}
+		return new Pedigree(new PedFileContents(List.of(), persons), "ped");
+	}
+
+}
@@ -0,0 +1,187 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class ModePosteriorScorerTest {
+
+	private static final int N_MODES = SubModeOfInheritance.values().length;
+
+	private static final List<Genotype> GENOTYPES = List.of(
+		new Genotype(List.of(0, 0)),
+		new Genotype(List.of(0, 1)),
+		new Genotype(List.of(1, 1)));
+
+	static Stream<Pedigree> pedigrees() throws PedParseException {
+		return Stream.of(
+			pedigree(new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED)),
+			pedigree(new PedPerson("ped", "I.1", "0", "0", Sex.FEMALE, Disease.AFFECTED)),
+			trio(),
+			pedigree(
+				new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.UNAFFECTED)),
+			pedigree(
+				new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "II.1", "I.1", "I.2", Sex.FEMALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "0", "0", Sex.MALE, Disease.UNKNOWN),
+				new PedPerson("ped", "III.1", "II.2", "II.1", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "III.2", "II.2", "II.1", Sex.FEMALE, Disease.UNAFFECTED)));
+	}
+
+	private static Pedigree trio() throws PedParseException {
+		return pedigree(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED));
+	}
+
+	private static Pedigree pedigree(PedPerson... individuals) throws PedParseException {
+		return new Pedigree(new PedFileContents(List.of(), List.of(individuals)), "ped");
+	}
+
+	/**
+	 * @return likelihoods with the given genotypes <code>pl</code> more likely than all others
+	 */
+	private static int[] sharp(int pl, int... genotypes) {
+		int[] result = new int[genotypes.length * ModePosteriorScorer.N_GENOTYPES];
+		for (int i = 0; i < genotypes.length; ++i)
+			for (int g = 0; g < ModePosteriorScorer.N_GENOTYPES; ++g)
+				result[i * ModePosteriorScorer.N_GENOTYPES + g] = (g == genotypes[i]) ? 0 : pl;
+		return result;
+	}
+
+	private static double get(double[] posteriors, SubModeOfInheritance mode) {
+		return posteriors[mode.ordinal()];
+	}
+
+	@Test
+	public void testTrio() throws PedParseException {
+		final ModePosteriorScorer scorer = new ModePosteriorScorer(trio());
+
+		// a het. child of hom. ref. parents fits dominant and de novo inheritance only
+		double[] posteriors = scorer.score(ChromosomeType.AUTOSOMAL, sharp(60, 0, 0, 1));
+		Assertions.assertTrue(get(posteriors, SubModeOfInheritance.AUTOSOMAL_DOMINANT)
+			+ get(posteriors, SubModeOfInheritance.DE_NOVO) > 0.99);
+		Assertions.assertTrue(get(posteriors, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT) < 1e-6);
+		Assertions.assertEquals(0, get(posteriors, SubModeOfInheritance.X_DOMINANT));
+		Assertions.assertTrue(Double.isNaN(get(posteriors, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET)));
+
+		// a hom. alt. child of het. parents fits recessive inheritance
+		posteriors = scorer.score(ChromosomeType.AUTOSOMAL, sharp(60, 1, 1, 2));
+		Assertions.assertTrue(get(posteriors, SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT) > 0.99);
+
+		// without a variant, only the background model remains
+		posteriors = scorer.score(ChromosomeType.AUTOSOMAL, sharp(60, 0, 0, 0));
+		Assertions.assertTrue(get(posteriors, SubModeOfInheritance.ANY) > 0.99);
+
+		// uncertain calls spread the probability
+		posteriors = scorer.score(ChromosomeType.AUTOSOMAL, new int[]{0, 3, 30, 0, 3, 30, 3, 0, 30});
+		Assertions.assertTrue(get(posteriors, SubModeOfInheritance.AUTOSOMAL_DOMINANT) > 0.01);
+		Assertions.assertTrue(get(posteriors, SubModeOfInheritance.ANY) > 0.01);
+	}
+
+	@ParameterizedTest
+	@MethodSource("pedigrees")
+	public void testSameAsCheckerForSharpLikelihoods(Pedigree pedigree) throws IncompatiblePedigreeException {
+		final ModePosteriorScorer scorer = new ModePosteriorScorer(pedigree, 0.01, 1e-4);
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final int nMembers = pedigree.getNMembers();
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		final Random random = new Random(42);
+
+		final int nSites = 200;
+		ChromosomeType[] siteChromTypes = new ChromosomeType[nSites];
+		int[] likelihoods = new int[nSites * nMembers * ModePosteriorScorer.N_GENOTYPES];
+		List<GenotypeCalls> calls = new ArrayList<>();
+		for (int site = 0; site < nSites; ++site) {
+			siteChromTypes[site] = chromTypes[random.nextInt(chromTypes.length)];
+			int[] genotypes = new int[nMembers];
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (int i = 0; i < nMembers; ++i) {
+				genotypes[i] = random.nextInt(ModePosteriorScorer.N_GENOTYPES);
+				entries.add(Map.entry(pedigree.getNames().get(i), GENOTYPES.get(genotypes[i])));
+			}
+			System.arraycopy(sharp(1000, genotypes), 0, likelihoods, site * nMembers * ModePosteriorScorer.N_GENOTYPES,
+				nMembers * ModePosteriorScorer.N_GENOTYPES);
+			calls.add(new GenotypeCalls(siteChromTypes[site], entries, site));
+		}
+
+		double[] posteriors = new double[nSites * N_MODES];
+		scorer.score(siteChromTypes, likelihoods, posteriors);
+		for (SubModeOfInheritance mode : SubModeOfInheritance.values()) {
+			if (mode == SubModeOfInheritance.ANY || mode == SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET
+				|| mode == SubModeOfInheritance.X_RECESSIVE_COMP_HET)
+				continue;
+			final List<GenotypeCalls> compatible = checker.filterCompatibleRecordsSub(calls, mode);
+			for (int site = 0; site < nSites; ++site) {
+				final double posterior = posteriors[site * N_MODES + mode.ordinal()];
+				Assertions.assertEquals(compatible.contains(calls.get(site)), posterior > 1e-50,
+					"mode " + mode + " at " + calls.get(site) + ": " + posterior);
+			}
+		}
+
+		for (int site = 0; site < nSites; ++site) {
+			double sum = 0;
+			for (int mode = 0; mode < N_MODES; ++mode)
+				if (!Double.isNaN(posteriors[site * N_MODES + mode]))
+					sum += posteriors[site * N_MODES + mode];
+			Assertions.assertEquals(1, sum, 1e-9);
+		}
+	}
+
+	@Test
+	public void testBatchSameAsSingle() throws PedParseException {
+		final ModePosteriorScorer scorer = new ModePosteriorScorer(trio());
+		final Random random = new Random(42);
+		final int nSites = 50;
+		ChromosomeType[] chromTypes = new ChromosomeType[nSites];
+		int[] likelihoods = new int[nSites * 3 * ModePosteriorScorer.N_GENOTYPES];
+		for (int site = 0; site < nSites; ++site)
+			chromTypes[site] = ChromosomeType.values()[random.nextInt(ChromosomeType.values().length)];
+		for (int i = 0; i < likelihoods.length; ++i)
+			likelihoods[i] = random.nextInt(100);
+
+		double[] posteriors = new double[nSites * N_MODES];
+		scorer.score(chromTypes, likelihoods, posteriors);
+		for (int site = 0; site < nSites; ++site) {
+			final int from = site * 3 * ModePosteriorScorer.N_GENOTYPES;
+			final double[] single = scorer.score(chromTypes[site],
+				Arrays.copyOfRange(likelihoods, from, from + 3 * ModePosteriorScorer.N_GENOTYPES));
+			Assertions.assertArrayEquals(single, Arrays.copyOfRange(posteriors, site * N_MODES,
+				(site + 1) * N_MODES));
+		}
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> scorer.score(chromTypes, new int[1],
+			new double[nSites * N_MODES]));
+	}
+
+	@Test
+	public void testTooLarge() throws PedParseException {
+		List<PedPerson> individuals = new ArrayList<>();
+		for (int i = 0; i <= ModePosteriorScorer.MAX_MEMBERS; ++i)
+			individuals.add(new PedPerson("ped", "p" + i, "0", "0", Sex.MALE, Disease.AFFECTED));
+		final Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), individuals), "ped");
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ModePosteriorScorer(pedigree));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new ModePosteriorScorer(trio(), 0, 1e-8));
+	}
+
+}
@@ -0,0 +1,149 @@
+package org.monarchinitiative.gregor.mendel.impl;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Sex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class PenetranceDominantCheckerTest {
+
+	private static final Genotype REF = new Genotype(List.of(0, 0));
+	private static final Genotype HET = new Genotype(List.of(0, 1));
+	private static final Genotype ALT = new Genotype(List.of(1, 1));
+	private static final Genotype UKN = new Genotype(List.of(Genotype.NO_CALL, Genotype.NO_CALL));
+	private static final List<Genotype> GENOTYPES = List.of(REF, HET, ALT, UKN, new Genotype(List.of(1)));
+
+	static Stream<Pedigree> pedigrees() throws PedParseException {
+		return Stream.of(
+			pedigree(new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED)),
+			family(),
+			pedigree(
+				new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+				new PedPerson("ped", "II.1", "I.1", "I.2", Sex.FEMALE, Disease.AFFECTED),
+				new PedPerson("ped", "II.2", "0", "0", Sex.MALE, Disease.UNKNOWN),
+				new PedPerson("ped", "III.1", "II.2", "II.1", Sex.MALE, Disease.AFFECTED),
+				new PedPerson("ped", "III.2", "II.2", "II.1", Sex.FEMALE, Disease.UNAFFECTED)));
+	}
+
+	/**
+	 * @return affected mother with an affected son, an unaffected daughter, and an unaffected father
+	 */
+	private static Pedigree family() throws PedParseException {
+		return pedigree(
+			new PedPerson("ped", "I.1", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("ped", "I.2", "0", "0", Sex.FEMALE, Disease.AFFECTED),
+			new PedPerson("ped", "II.1", "I.1", "I.2", Sex.MALE, Disease.AFFECTED),
+			new PedPerson("ped", "II.2", "I.1", "I.2", Sex.FEMALE, Disease.UNAFFECTED));
+	}
+
+	private static Pedigree pedigree(PedPerson... individuals) throws PedParseException {
+		return new Pedigree(new PedFileContents(List.of(), List.of(individuals)), "ped");
+	}
+
+	@ParameterizedTest
+	@MethodSource("pedigrees")
+	public void testFullPenetranceIsDominant(Pedigree pedigree) throws IncompatiblePedigreeException {
+		final MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		final PenetranceDominantChecker penetranceChecker = new PenetranceDominantChecker(pedigree, 1.0);
+		final Random random = new Random(42);
+		for (int round = 0; round < 100; ++round) {
+			final List<GenotypeCalls> calls = randomCalls(pedigree, random, 1 + random.nextInt(20));
+			final List<GenotypeCalls> expected = checker.filterCompatibleRecordsSub(calls,
+				SubModeOfInheritance.AUTOSOMAL_DOMINANT);
+			Assertions.assertEquals(expected, penetranceChecker.filterCompatibleRecords(calls, gc -> null, Map.of(),
+				0.0));
+
+			// lower penetrance keeps all of these, with the same scores
+			final PenetranceDominantChecker reduced = new PenetranceDominantChecker(pedigree, 0.3);
+			final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, calls);
+			final double[] scores = reduced.score(genotypes);
+			for (int site = 0; site < calls.size(); ++site)
+				if (expected.contains(calls.get(site)))
+					Assertions.assertEquals(1.0, scores[site]);
+				else if (scores[site] > 0)
+					Assertions.assertEquals(ChromosomeType.AUTOSOMAL, calls.get(site).getChromType());
+		}
+	}
+
+	@Test
+	public void testUnaffectedCarriers() throws PedParseException {
+		final Pedigree pedigree = family();
+		final PenetranceDominantChecker checker = new PenetranceDominantChecker(pedigree, 0.8);
+		final List<GenotypeCalls> calls = List.of(
+			calls(pedigree, REF, HET, HET, REF),
+			// the unaffected daughter carries the variant
+			calls(pedigree, REF, HET, HET, HET),
+			// both unaffected members carry the variant
+			calls(pedigree, HET, HET, HET, HET),
+			// affected members must still carry the variant, unaffected ones must not be hom. alt.
+			calls(pedigree, REF, HET, REF, REF),
+			calls(pedigree, REF, HET, HET, ALT),
+			calls(pedigree, UKN, HET, UKN, UKN));
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, calls);
+		final double[] scores = checker.score(genotypes);
+		Assertions.assertArrayEquals(new double[]{1.0, 0.2, 0.2 * 0.2, 0.0, 0.0, 1.0}, scores, 1e-12);
+		Assertions.assertArrayEquals(new int[]{0, 1, 5}, checker.filterCompatibleSites(genotypes, site -> Double.NaN,
+			0.1));
+
+		// per-gene penetrance, the second call is in a gene with full penetrance
+		Assertions.assertEquals(List.of(calls.get(0), calls.get(2), calls.get(5)), checker.filterCompatibleRecords(
+			calls, gc -> gc == calls.get(1) ? "FULL" : "OTHER", Map.of("FULL", 1.0), 0.0));
+		Assertions.assertArrayEquals(new double[]{1.0, 0.5, 0.25, 0.0, 0.0, 1.0},
+			checker.score(genotypes, site -> 0.5), 1e-12);
+		// alternating penetrance values, in this and the following call
+		Assertions.assertArrayEquals(new double[]{1.0, 0.1, 0.25, 0.0, 0.0, 1.0},
+			checker.score(genotypes, site -> site % 2 == 0 ? 0.5 : 0.9), 1e-12);
+		Assertions.assertArrayEquals(new double[]{1.0, 0.1, 0.2 * 0.2, 0.0, 0.0, 1.0},
+			checker.score(genotypes, site -> site % 2 == 0 ? Double.NaN : 0.9), 1e-12);
+
+		// only autosomal calls are compatible
+		Assertions.assertArrayEquals(new double[]{0.0}, checker.score(IndexedGenotypes.of(pedigree, List.of(
+			new GenotypeCalls(ChromosomeType.X_CHROMOSOMAL, calls.get(0).getSampleNames().stream()
+				.map(name -> Map.entry(name, HET)).toList())))));
+	}
+
+	@Test
+	public void testInvalidPenetrance() throws PedParseException {
+		final Pedigree pedigree = family();
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PenetranceDominantChecker(pedigree, 0.0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new PenetranceDominantChecker(pedigree, 1.5));
+		final PenetranceDominantChecker checker = new PenetranceDominantChecker(pedigree, 0.5);
+		final IndexedGenotypes genotypes = IndexedGenotypes.of(pedigree, List.of(calls(pedigree, REF, HET, HET, REF)));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> checker.score(genotypes, site -> -1.0));
+	}
+
+	private static GenotypeCalls calls(Pedigree pedigree, Genotype... genotypes) {
+		List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+		for (int i = 0; i < genotypes.length; ++i)
+			entries.add(Map.entry(pedigree.getNames().get(i), genotypes[i]));
+		return new GenotypeCalls(ChromosomeType.AUTOSOMAL, entries);
+	}
+
+	private static List<GenotypeCalls> randomCalls(Pedigree pedigree, Random random, int nSites) {
+		final ChromosomeType[] chromTypes = ChromosomeType.values();
+		List<GenotypeCalls> result = new ArrayList<>();
+		for (int i = 0; i < nSites; ++i) {
+			List<Map.Entry<String, Genotype>> entries = new ArrayList<>();
+			for (String name : pedigree.getNames())
+				entries.add(Map.entry(name, GENOTYPES.get(random.nextInt(GENOTYPES.size()))));
+			result.add(new GenotypeCalls(random.nextInt(4) == 0 ? chromTypes[random.nextInt(chromTypes.length)] :
+				ChromosomeType.AUTOSOMAL, entries, i));
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,100 @@
+package org.monarchinitiative.gregor.pedigree;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class PedFileFamilyReaderTest {
+
+	private static PedFileFamilyReader open(String ped) throws IOException, PedParseException {
+		return new PedFileFamilyReader(new ByteArrayInputStream(ped.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void testReadFamilies() throws IOException, PedParseException {
+		String ped = "#FAM\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE\tAGE\n"
+			+ "fam1\tfather\t0\t0\t1\t1\t40\n"
+			+ "fam1\tmother\t0\t0\t2\t1\t38\n"
+			+ "fam1\tson\tfather\tmother\t1\t2\t7\n"
+			+ "\n"
+			+ "fam2\tchild\tdad\t0\t2\t2\t3\n"
+			+ "fam2\tdad\t0\t0\t1\t0\t30\n";
+		try (PedFileFamilyReader reader = open(ped)) {
+			Assertions.assertEquals(List.of("AGE"), reader.getExtraColumnHeaders());
+
+			Pedigree fam1 = reader.next();
+			Assertions.assertEquals("fam1", fam1.getName());
+			Assertions.assertEquals(List.of("father", "mother", "son"), fam1.getNames());
+			Person son = fam1.getMembers().get(2);
+			Assertions.assertSame(fam1.getMembers().get(0), son.getFather());
+			Assertions.assertSame(fam1.getMembers().get(1), son.getMother());
+			Assertions.assertEquals(List.of("7"), son.getExtraFields());
+
+			Pedigree fam2 = reader.next();
+			Assertions.assertEquals("fam2", fam2.getName());
+			Assertions.assertEquals(List.of("child", "dad"), fam2.getNames());
+			Assertions.assertSame(fam2.getMembers().get(1), fam2.getMembers().get(0).getFather());
+
+			Assertions.assertNull(reader.next());
+			Assertions.assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void testReadWithoutHeader() throws IOException, PedParseException {
+		try (PedFileFamilyReader reader = open("fam\tindex\t0\t0\t1\t2\n")) {
+			Assertions.assertEquals(List.of(), reader.getExtraColumnHeaders());
+			Assertions.assertEquals(List.of("index"), reader.next().getNames());
+			Assertions.assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void testReadEmpty() throws IOException, PedParseException {
+		try (PedFileFamilyReader reader = open("")) {
+			Assertions.assertNull(reader.next());
+		}
+	}
+
+	@Test
+	public void testUnsorted() throws IOException, PedParseException {
+		String ped = "fam1\ta\t0\t0\t1\t2\n"
+			+ "fam2\tb\t0\t0\t1\t2\n"
+			+ "fam1\tc\t0\t0\t1\t2\n";
+		try (PedFileFamilyReader reader = open(ped)) {
+			Assertions.assertEquals("fam1", reader.next().getName());
+			Assertions.assertEquals("fam2", reader.next().getName());
+			PedParseException e = Assertions.assertThrows(PedParseException.class, reader::next);
+			Assertions.assertEquals("PED file is not sorted by family, family fam1 continues in line 3",
+				e.getMessage());
+		}
+	}
+
+	@Test
+	public void testParentInOtherFamily() throws IOException, PedParseException {
+		String ped = "fam1\tfather\t0\t0\t1\t1\n"
+			+ "fam2\tson\tfather\t0\t1\t2\n";
+		try (PedFileFamilyReader reader = open(ped)) {
+			reader.next();
+			Assertions.assertThrows(PedParseException.class, reader::next);
+		}
+	}
+
+	@Test
+	public void testClosedOnInvalidFirstLine() {
+		final boolean[] closed = {false};
+		ByteArrayInputStream stream = new ByteArrayInputStream("fam\tindex\n".getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		Assertions.assertThrows(PedParseException.class, () -> new PedFileFamilyReader(stream));
+		Assertions.assertTrue(closed[0]);
+	}
+
+}
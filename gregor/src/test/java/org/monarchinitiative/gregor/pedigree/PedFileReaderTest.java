@@ -0,0 +1,221 @@
+package org.monarchinitiative.gregor.pedigree;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class PedFileReaderTest {
+
+	File tmpFileWithHeader;
+	File tmpFileWithoutHeader;
+	PedFileReader reader;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.tmpFileWithHeader = File.createTempFile("with_header", "ped");
+		writePedFileWithHeader(tmpFileWithHeader);
+		this.tmpFileWithoutHeader = File.createTempFile("without_header", "ped");
+		writePedFileWithoutHeader(tmpFileWithoutHeader);
+	}
+
+	private void writePedFileWithHeader(File file) {
+		BufferedWriter bw = null;
+		try {
+			bw = new BufferedWriter(new FileWriter(file));
+			bw.write("#FAM\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE\n");
+			bw.write("fam\tfather\t0\t0\t1\t0\n");
+			bw.write("fam\tmother\t0\t0\t2\t0\n");
+			bw.write("fam\tson\tfather\tmother\t1\t0\n");
+			bw.write("fam\tdaughter\tfather\tmother\t2\t0\n");
+			bw.close();
+		} catch (IOException e) {
+			if (bw != null)
+				try {
+					bw.close();
+				} catch (IOException e1) {
+					// swallow, nothing we can do about it
+				}
+		}
+	}
+
+	private void writePedFileWithoutHeader(File file) {
+		BufferedWriter bw = null;
+		try {
+			bw = new BufferedWriter(new FileWriter(file));
+			bw.write("fam\tfather\t0\t0\t1\t0\n");
+			bw.write("fam\tmother\t0\t0\t2\t0\n");
+			bw.write("fam\tson\tfather\tmother\t1\t0\n");
+			bw.write("fam\tdaughter\tfather\tmother\t2\t0\n");
+			bw.close();
+		} catch (IOException e) {
+			if (bw != null)
+				try {
+					bw.close();
+				} catch (IOException e1) {
+					// swallow, nothing we can do about it
+				}
+		}
+	}
+
+	@Test
+	public void testParseWithHeader() throws PedParseException, IOException {
+		PedFileReader reader = new PedFileReader(this.tmpFileWithHeader);
+		PedFileContents pedFileContents = reader.read();
+
+		Assertions.assertEquals(pedFileContents.getExtraColumnHeaders().size(), 0);
+
+		List<PedPerson> individuals = List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNKNOWN),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "daughter", "father", "mother", Sex.FEMALE, Disease.UNKNOWN)
+			);
+		Assertions.assertEquals(pedFileContents.getIndividuals(), individuals);
+	}
+
+	@Test
+	public void testParseWithoutHeader() throws PedParseException, IOException {
+		PedFileReader reader = new PedFileReader(this.tmpFileWithoutHeader);
+		PedFileContents pedFileContents = reader.read();
+
+		Assertions.assertEquals(pedFileContents.getExtraColumnHeaders().size(), 0);
+
+		List<PedPerson> individuals = List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNKNOWN),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "daughter", "father", "mother", Sex.FEMALE, Disease.UNKNOWN)
+			);
+		Assertions.assertEquals(pedFileContents.getIndividuals(), individuals);
+	}
+
+	@Test
+	public void testParsePath() throws PedParseException, IOException {
+		PedFileContents pedFileContents = PedFileReader.read(this.tmpFileWithHeader.toPath());
+
+		List<PedPerson> individuals = List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNKNOWN),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "daughter", "father", "mother", Sex.FEMALE, Disease.UNKNOWN)
+			);
+		Assertions.assertEquals(pedFileContents.getIndividuals(), individuals);
+	}
+
+	@Test
+	public void testParseWhitespaceAndExtraFields() throws PedParseException, IOException {
+		String ped = "#FAM\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE\tAGE\tSITE\r\n"
+			+ "  fam   father 0\t0 1 1  42 \tx\r\n"
+			+ "\r\n"
+			+ "fam mother 0 0 2 1\r"
+			+ "fam\tson\tfather\tmother\tx\t2\t7\n";
+		PedFileContents pedFileContents = PedFileReader.read(
+			new ByteArrayInputStream(ped.getBytes(StandardCharsets.UTF_8)));
+
+		Assertions.assertEquals(List.of("AGE", "SITE"), pedFileContents.getExtraColumnHeaders());
+		List<PedPerson> individuals = List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNAFFECTED, List.of("42", "x")),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "son", "father", "mother", Sex.UNKNOWN, Disease.AFFECTED, List.of("7"))
+			);
+		Assertions.assertEquals(individuals, pedFileContents.getIndividuals());
+
+		// names are interned per file
+		PedPerson father = pedFileContents.getIndividuals().get(0);
+		PedPerson son = pedFileContents.getIndividuals().get(2);
+		Assertions.assertSame(father.getName(), son.getFather());
+		Assertions.assertSame(father.getPedigree(), son.getPedigree());
+	}
+
+	@Test
+	public void testParseInsufficientFields() {
+		String ped = "fam\tfather\t0\t0\t1\n";
+		PedParseException e = Assertions.assertThrows(PedParseException.class,
+			() -> PedFileReader.read(new ByteArrayInputStream(ped.getBytes(StandardCharsets.UTF_8))));
+		Assertions.assertEquals("Insufficient number of fields in line: \"fam\tfather\t0\t0\t1\"", e.getMessage());
+	}
+
+	@Test
+	public void testParseInvalidDisease() {
+		String ped = "fam\tfather\t0\t0\t1\t3\n";
+		PedParseException e = Assertions.assertThrows(PedParseException.class,
+			() -> PedFileReader.read(new ByteArrayInputStream(ped.getBytes(StandardCharsets.UTF_8))));
+		Assertions.assertEquals("Invalid PED disease status value: 3", e.getMessage());
+	}
+
+	@Test
+	public void testParsePathInChunks() throws PedParseException, IOException {
+		// multi-byte characters and malformed input on both sides of the chunk boundaries
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (int i = 0; i < 10000; ++i) {
+			out.write(("fam\tM\u00fcller" + i + "\t0\t0\t1\t1\t\ud83e\uddec").getBytes(StandardCharsets.UTF_8));
+			out.write(i % 7 == 0 ? new byte[]{(byte) 0xC3, '\n'} : new byte[]{'\n'});
+		}
+		File file = File.createTempFile("utf8", "ped");
+		file.deleteOnExit();
+		Files.write(file.toPath(), out.toByteArray());
+
+		PedFileContents expected = PedFileReader.read(new ByteArrayInputStream(out.toByteArray()));
+		PedFileContents actual = PedFileReader.read(file.toPath());
+		Assertions.assertEquals(10000, actual.getIndividuals().size());
+		Assertions.assertEquals("M\u00fcller9999", actual.getIndividuals().get(9999).getName());
+		Assertions.assertEquals(expected.getIndividuals(), actual.getIndividuals());
+	}
+
+	@Test
+	public void testParseParallel() throws PedParseException, IOException {
+		File file = File.createTempFile("large", "ped");
+		file.deleteOnExit();
+		try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+			bw.write("#FAM\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE\tEXTRA\r\n");
+			for (int i = 0; i < 20000; ++i) {
+				bw.write("fam" + i + "\tfather" + i + "\t0\t0\t1\t1\tx\r\n");
+				bw.write("fam" + i + "\tmother" + i + "\t0\t0\t2\t1\r\n");
+				bw.write("fam" + i + "\tchild" + i + "\tfather" + i + "\tmother" + i + "\t" + (i % 3) + "\t2\r\n");
+			}
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PedFileContents expected = PedFileReader.read(file.toPath());
+			PedFileContents actual = PedFileReader.readParallel(file.toPath(), pool);
+			Assertions.assertEquals(List.of("EXTRA"), actual.getExtraColumnHeaders());
+			Assertions.assertEquals(60000, actual.getIndividuals().size());
+			Assertions.assertEquals(expected.getIndividuals(), actual.getIndividuals());
+			Assertions.assertEquals(expected.getNameToPerson(), actual.getNameToPerson());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParseParallelReportsFirstError() throws IOException {
+		File file = File.createTempFile("large_invalid", "ped");
+		file.deleteOnExit();
+		try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+			for (int i = 0; i < 60000; ++i)
+				bw.write("fam\tperson" + i + "\t0\t0\t1\t" + ((i == 20000 || i == 50000) ? i : 1) + "\n");
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			PedParseException e = Assertions.assertThrows(PedParseException.class,
+				() -> PedFileReader.readParallel(file.toPath(), pool));
+			Assertions.assertEquals("Invalid PED disease status value: 20000", e.getMessage());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
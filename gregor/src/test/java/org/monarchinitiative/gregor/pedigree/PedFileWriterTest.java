@@ -0,0 +1,121 @@
+package org.monarchinitiative.gregor.pedigree;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PedFileWriterTest {
+
+	File tmpFile;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		this.tmpFile = File.createTempFile("output", "ped");
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		List<PedPerson> individuals = List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNKNOWN),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.UNKNOWN),
+			new PedPerson("fam", "daughter", "father", "mother", Sex.FEMALE, Disease.UNKNOWN)
+			);
+		PedFileContents pedFileContents = new PedFileContents(List.of(),
+			individuals);
+
+		File tmpFile = File.createTempFile("test", ".ped");
+		tmpFile.deleteOnExit();  // Ensure the file is deleted when the JVM exits
+
+		PedFileWriter writer = new PedFileWriter(tmpFile);
+		writer.write(pedFileContents);
+
+		String fileContents = Files.readString(tmpFile.toPath());
+
+		String expectedContents = """
+                #PEDIGREE\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE
+                fam\tfather\t0\t0\t1\t0
+                fam\tmother\t0\t0\t2\t0
+                fam\tson\tfather\tmother\t1\t0
+                fam\tdaughter\tfather\tmother\t2\t0
+                """;
+
+		Assertions.assertEquals(expectedContents, fileContents);
+	}
+
+	@Test
+	public void testWriteChannel() throws IOException {
+		List<PedPerson> individuals = List.of(
+			new PedPerson("fam", "vater", "0", "0", Sex.MALE, Disease.UNAFFECTED, List.of("42", "x")),
+			new PedPerson("fam", "m\u00fctter", "0", "0", Sex.FEMALE, Disease.UNKNOWN, List.of("40", "y")),
+			new PedPerson("fam", "sohn", "vater", "m\u00fctter", Sex.UNKNOWN, Disease.AFFECTED, List.of("7", "z"))
+			);
+		PedFileContents pedFileContents = new PedFileContents(List.of("AGE", "SITE"), individuals);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PedFileWriter.write(pedFileContents, Channels.newChannel(out));
+
+		String expectedContents = """
+                #PEDIGREE\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE\tAGE\tSITE
+                fam\tvater\t0\t0\t1\t1\t42\tx
+                fam\tm\u00fctter\t0\t0\t2\t0\t40\ty
+                fam\tsohn\tvater\tm\u00fctter\t0\t2\t7\tz
+                """;
+		Assertions.assertEquals(expectedContents, out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testWriteAll() throws IOException, PedParseException {
+		Map<Path, PedFileContents> files = new LinkedHashMap<>();
+		for (int i = 0; i < 3; ++i) {
+			List<PedPerson> individuals = new ArrayList<>();
+			// enough records to need several buffer flushes
+			for (int j = 0; j < 5000; ++j)
+				individuals.add(new PedPerson("fam" + i, "person" + j, "0", "0", Sex.MALE, Disease.AFFECTED));
+			File file = File.createTempFile("test" + i, ".ped");
+			file.deleteOnExit();
+			files.put(file.toPath(), new PedFileContents(List.of(), individuals));
+		}
+
+		PedFileWriter.writeAll(files);
+
+		for (Map.Entry<Path, PedFileContents> entry : files.entrySet())
+			Assertions.assertEquals(entry.getValue().getIndividuals(),
+				PedFileReader.read(entry.getKey()).getIndividuals());
+	}
+
+	@Test
+	public void testWritePedigrees() throws IOException, PedParseException {
+		Person father = new Person("father", null, null, Sex.MALE, Disease.UNAFFECTED);
+		Person mother = new Person("mother", null, null, Sex.FEMALE, Disease.UNAFFECTED);
+		Person son = new Person("son", father, mother, Sex.MALE, Disease.AFFECTED);
+		Person index = new Person("index", null, null, Sex.FEMALE, Disease.AFFECTED);
+		List<Pedigree> pedigrees = List.of(new Pedigree("fam1", List.of(father, mother, son)),
+			new Pedigree("fam2", List.of(index)));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PedFileWriter.writePedigrees(pedigrees, List.of(), Channels.newChannel(out));
+
+		String expectedContents = """
+                #PEDIGREE\tNAME\tFATHER\tMOTHER\tSEX\tDISEASE
+                fam1\tfather\t0\t0\t1\t1
+                fam1\tmother\t0\t0\t2\t1
+                fam1\tson\tfather\tmother\t1\t2
+                fam2\tindex\t0\t0\t2\t2
+                """;
+		Assertions.assertEquals(expectedContents, out.toString(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,277 @@
+package org.monarchinitiative.gregor.store;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.gregor.mendel.*;
+import org.monarchinitiative.gregor.pedigree.Disease;
+import org.monarchinitiative.gregor.pedigree.PedFileContents;
+import org.monarchinitiative.gregor.pedigree.PedParseException;
+import org.monarchinitiative.gregor.pedigree.PedPerson;
+import org.monarchinitiative.gregor.pedigree.Pedigree;
+import org.monarchinitiative.gregor.pedigree.Sex;
+import org.monarchinitiative.gregor.vcf.VcfParseException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class GenotypeStoreTest {
+
+	@TempDir
+	Path tmpDir;
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		List<String> samples = List.of("s1", "s2", "s3");
+		List<GenotypeCalls> calls = List.of(
+			new GenotypeCalls(ChromosomeType.AUTOSOMAL, Map.of(
+				"s1", new Genotype(List.of(0, 1)),
+				"s2", new Genotype(List.of(1, 1)),
+				"s3", new Genotype(List.of(0, Genotype.NO_CALL))).entrySet()),
+			new GenotypeCalls(ChromosomeType.X_CHROMOSOMAL, Map.of(
+				"s1", new Genotype(List.of(1)),
+				"s3", new Genotype(List.of(0, 0))).entrySet())
+		);
+
+		Path path = tmpDir.resolve("test.gts");
+		try (GenotypeStoreWriter writer = new GenotypeStoreWriter(path, samples)) {
+			for (GenotypeCalls gc : calls)
+				writer.add(gc);
+		}
+
+		GenotypeStore store = GenotypeStore.open(path);
+		Assertions.assertEquals(samples, store.getSampleNames());
+		Assertions.assertEquals(2, store.getNSites());
+		for (int site = 0; site < calls.size(); ++site) {
+			Assertions.assertEquals(calls.get(site).getChromType(), store.getChromType(site));
+			for (int column = 0; column < samples.size(); ++column)
+				Assertions.assertEquals(GenotypeClass.of(calls.get(site).getGenotypeForSample(samples.get(column))),
+					store.getGenotypeClass(site, column));
+		}
+	}
+
+	@Test
+	public void testCheckFromVcf() throws IOException, VcfParseException, PedParseException,
+		IncompatiblePedigreeException {
+		Path vcf = tmpDir.resolve("test.vcf");
+		Files.writeString(vcf, """
+			##fileformat=VCFv4.2
+			#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tother\tfather\tmother\tson
+			1\t100\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/0\t0/0\t0/1
+			1\t200\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/1\t0/1\t1/1
+			1\t300\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/1\t0/0\t0/1
+			1\t400\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/0\t0/1\t0/1
+			X\t500\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0\t0/1\t1
+			""");
+		Path path = tmpDir.resolve("test.gts");
+		Assertions.assertEquals(5, GenotypeStoreWriter.writeVcf(vcf, path));
+
+		Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.AFFECTED))), "fam");
+		MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+		GenotypeStore store = GenotypeStore.open(path);
+
+		Map<SubModeOfInheritance, int[]> result = checker.checkMendelianInheritanceSub(store.forPedigree(pedigree));
+		Assertions.assertArrayEquals(new int[]{0}, result.get(SubModeOfInheritance.AUTOSOMAL_DOMINANT));
+		Assertions.assertArrayEquals(new int[]{1}, result.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT));
+		Assertions.assertArrayEquals(new int[]{2, 3},
+			result.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET));
+		Assertions.assertArrayEquals(new int[]{4}, result.get(SubModeOfInheritance.X_RECESSIVE_HOM_ALT));
+		Assertions.assertArrayEquals(new int[]{0, 1, 2, 3, 4}, result.get(SubModeOfInheritance.ANY));
+
+		// site indices of a range view are relative to its start
+		Assertions.assertArrayEquals(new int[]{0, 1}, checker.filterCompatibleSitesSub(
+			store.forPedigree(pedigree, 2, 4), SubModeOfInheritance.AUTOSOMAL_RECESSIVE_COMP_HET));
+	}
+
+	@Test
+	public void testOffHeapSameAsFile() throws IOException {
+		List<String> samples = List.of("s1", "s2", "s3", "s4", "s5");
+		List<Genotype> genotypes = List.of(new Genotype(List.of(0, 0)), new Genotype(List.of(0, 1)),
+			new Genotype(List.of(1, 1)), new Genotype(List.of(Genotype.NO_CALL)), new Genotype(List.of(1)));
+		Random random = new Random(42);
+		// segments of at most 8 bytes hold two rows of 3 bytes, so there are many of them
+		GenotypeStoreBuilder builder = new GenotypeStoreBuilder(samples, 8);
+		Path path = tmpDir.resolve("test.gts");
+		try (GenotypeStoreWriter writer = new GenotypeStoreWriter(path, samples)) {
+			for (int site = 0; site < 101; ++site) {
+				Map<String, Genotype> map = new HashMap<>();
+				for (String sample : samples)
+					if (random.nextInt(5) > 0)
+						map.put(sample, genotypes.get(random.nextInt(genotypes.size())));
+				GenotypeCalls calls = new GenotypeCalls(
+					ChromosomeType.values()[random.nextInt(ChromosomeType.values().length)], map.entrySet());
+				builder.add(calls);
+				writer.add(calls);
+			}
+		}
+		Assertions.assertEquals(101, builder.getNSites());
+
+		GenotypeStore offHeap = builder.build();
+		GenotypeStore mapped = GenotypeStore.open(path);
+		Assertions.assertEquals(samples, offHeap.getSampleNames());
+		Assertions.assertEquals(mapped.getNSites(), offHeap.getNSites());
+		for (int site = 0; site < mapped.getNSites(); ++site) {
+			Assertions.assertEquals(mapped.getChromType(site), offHeap.getChromType(site));
+			for (int column = 0; column < samples.size(); ++column)
+				Assertions.assertEquals(mapped.getGenotypeClass(site, column), offHeap.getGenotypeClass(site, column));
+		}
+
+		Assertions.assertThrows(IllegalStateException.class, builder::build);
+		Assertions.assertThrows(IllegalStateException.class, () -> builder.add(new GenotypeCalls(
+			ChromosomeType.AUTOSOMAL, List.of())));
+	}
+
+	@Test
+	public void testOffHeapLastSegmentSize() {
+		List<String> samples = List.of("s1", "s2", "s3", "s4", "s5");
+		Genotype het = new Genotype(List.of(0, 1));
+		// rows of 3 bytes, the last segment grows past its initial size and is trimmed to its rows
+		for (long maxSegmentSize : List.of(GenotypeStoreBuilder.DEFAULT_SEGMENT_SIZE, 1L << 14, 8L)) {
+			GenotypeStoreBuilder builder = new GenotypeStoreBuilder(samples, maxSegmentSize);
+			for (int site = 0; site < 5001; ++site)
+				builder.add(new GenotypeCalls(site % 2 == 0 ? ChromosomeType.AUTOSOMAL : ChromosomeType.X_CHROMOSOMAL,
+					List.of(Map.entry(samples.get(site % samples.size()), het))));
+			GenotypeStore store = builder.build();
+			Assertions.assertEquals(5001 * 3, store.getRowsCapacity());
+			for (int site = 0; site < store.getNSites(); ++site) {
+				Assertions.assertEquals(site % 2 == 0 ? ChromosomeType.AUTOSOMAL : ChromosomeType.X_CHROMOSOMAL,
+					store.getChromType(site));
+				for (int column = 0; column < samples.size(); ++column)
+					Assertions.assertEquals(column == site % samples.size() ? GenotypeClass.HET :
+						GenotypeClass.NOT_OBSERVED, store.getGenotypeClass(site, column));
+			}
+		}
+	}
+
+	@Test
+	public void testOffHeapFromVcf() throws IOException, VcfParseException, PedParseException,
+		IncompatiblePedigreeException {
+		Path vcf = tmpDir.resolve("test.vcf");
+		Files.writeString(vcf, """
+			##fileformat=VCFv4.2
+			#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tfather\tmother\tson
+			1\t100\t.\tA\tC\t.\tPASS\t.\tGT\t0/0\t0/0\t0/1
+			1\t200\t.\tA\tC\t.\tPASS\t.\tGT\t0/1\t0/1\t1/1
+			""");
+		Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.AFFECTED))), "fam");
+
+		GenotypeStore store = GenotypeStoreBuilder.readVcf(vcf);
+		Map<SubModeOfInheritance, int[]> result = new MendelianInheritanceChecker(pedigree)
+			.checkMendelianInheritanceSub(store.forPedigree(pedigree));
+		Assertions.assertArrayEquals(new int[]{0}, result.get(SubModeOfInheritance.AUTOSOMAL_DOMINANT));
+		Assertions.assertArrayEquals(new int[]{1}, result.get(SubModeOfInheritance.AUTOSOMAL_RECESSIVE_HOM_ALT));
+	}
+
+	@Test
+	public void testQualitiesFromVcf() throws IOException, VcfParseException, PedParseException,
+		IncompatiblePedigreeException {
+		Path vcf = tmpDir.resolve("test.vcf");
+		Files.writeString(vcf, """
+			##fileformat=VCFv4.2
+			#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tfather\tmother\tson
+			1\t100\t.\tA\tC\t.\tPASS\t.\tGT:GQ:DP\t0/0:99:30\t0/0:.:300\t0/1:5:12
+			1\t200\t.\tA\tC\t.\tPASS\t.\tGT:GQ\t0/0:40\t0/0:40\t0/1:40
+			""");
+		Pedigree pedigree = new Pedigree(new PedFileContents(List.of(), List.of(
+			new PedPerson("fam", "father", "0", "0", Sex.MALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "mother", "0", "0", Sex.FEMALE, Disease.UNAFFECTED),
+			new PedPerson("fam", "son", "father", "mother", Sex.MALE, Disease.AFFECTED))), "fam");
+		MendelianInheritanceChecker checker = new MendelianInheritanceChecker(pedigree);
+
+		Path path = tmpDir.resolve("test.gts");
+		GenotypeStoreWriter.writeVcf(vcf, path, true);
+		for (GenotypeStore store : List.of(GenotypeStore.open(path), GenotypeStoreBuilder.readVcf(vcf, true))) {
+			Assertions.assertTrue(store.hasQualities());
+			Assertions.assertEquals(99, store.getGenotypeQuality(0, 0));
+			Assertions.assertEquals(GenotypeCalls.MISSING_QUALITY, store.getGenotypeQuality(0, 1));
+			Assertions.assertEquals(254, store.getReadDepth(0, 1));
+			Assertions.assertEquals(5, store.getGenotypeQuality(0, 2));
+			Assertions.assertEquals(GenotypeCalls.MISSING_QUALITY, store.getReadDepth(1, 2));
+			Assertions.assertEquals(GenotypeClass.HET, store.getGenotypeClass(0, 2));
+
+			final IndexedGenotypes genotypes = store.forPedigree(pedigree);
+			Assertions.assertArrayEquals(new int[]{0, 1}, checker.filterCompatibleSitesSub(genotypes,
+				SubModeOfInheritance.AUTOSOMAL_DOMINANT, QualityThresholds.NONE));
+			// the het. call of the son at the first site is masked
+			Assertions.assertArrayEquals(new int[]{1}, checker.filterCompatibleSitesSub(genotypes,
+				SubModeOfInheritance.AUTOSOMAL_DOMINANT, new QualityThresholds(20, 0)));
+			Assertions.assertArrayEquals(new int[]{0, 1}, checker.filterCompatibleSitesSub(genotypes,
+				SubModeOfInheritance.AUTOSOMAL_DOMINANT, new QualityThresholds(0, 10)));
+			Assertions.assertArrayEquals(new int[]{1}, checker.filterCompatibleSitesSub(genotypes,
+				SubModeOfInheritance.AUTOSOMAL_DOMINANT, new QualityThresholds(0, 13)));
+		}
+
+		GenotypeStore withoutQualities = GenotypeStoreBuilder.readVcf(vcf);
+		Assertions.assertFalse(withoutQualities.hasQualities());
+		Assertions.assertEquals(GenotypeCalls.MISSING_QUALITY, withoutQualities.getGenotypeQuality(0, 0));
+		Assertions.assertEquals(GenotypeClass.HET, withoutQualities.getGenotypeClass(0, 2));
+	}
+
+	@Test
+	public void testNotAStore() throws IOException {
+		Path path = tmpDir.resolve("bogus.gts");
+		Files.writeString(path, "this is not a genotype store, but long enough");
+		Assertions.assertThrows(IOException.class, () -> GenotypeStore.open(path));
+	}
+
+	@Test
+	public void testCorruptHeader() throws IOException {
+		// rows offset within the header
+		assertCorrupt(16, ByteBuffer.allocate(Long.BYTES).putLong(0, 8));
+		// more samples than fit into the dictionary
+		assertCorrupt(8, ByteBuffer.allocate(Integer.BYTES).putInt(0, Integer.MAX_VALUE));
+		// negative and too long length of the first sample name
+		assertCorrupt(GenotypeStoreFormat.HEADER_SIZE, ByteBuffer.allocate(Integer.BYTES).putInt(0, -1));
+		assertCorrupt(GenotypeStoreFormat.HEADER_SIZE, ByteBuffer.allocate(Integer.BYTES).putInt(0, 1000));
+	}
+
+	@Test
+	public void testCorruptChromosomeType() throws IOException {
+		// the chromosome type of the last site is the last byte of the file
+		final long size = Files.size(writeSmallStore());
+		assertCorrupt(size - 1, ByteBuffer.wrap(new byte[]{(byte) ChromosomeType.values().length}));
+		assertCorrupt(size - 1, ByteBuffer.wrap(new byte[]{-1}));
+	}
+
+	/**
+	 * Assert that opening a small store with <code>bytes</code> written at <code>position</code> fails
+	 */
+	private void assertCorrupt(long position, ByteBuffer bytes) throws IOException {
+		Path path = writeSmallStore();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.write(bytes, position);
+		}
+		IOException e = Assertions.assertThrows(IOException.class, () -> GenotypeStore.open(path));
+		Assertions.assertTrue(e.getMessage().startsWith("Corrupt genotype store"), e.getMessage());
+	}
+
+	/**
+	 * @return path to a store with two samples and two sites
+	 */
+	private Path writeSmallStore() throws IOException {
+		Path path = tmpDir.resolve("small.gts");
+		try (GenotypeStoreWriter writer = new GenotypeStoreWriter(path, List.of("s1", "s2"))) {
+			writer.add(new GenotypeCalls(ChromosomeType.AUTOSOMAL, Map.of(
+				"s1", new Genotype(List.of(0, 1)),
+				"s2", new Genotype(List.of(1, 1))).entrySet()));
+			writer.add(new GenotypeCalls(ChromosomeType.X_CHROMOSOMAL, Map.of(
+				"s1", new Genotype(List.of(1))).entrySet()));
+		}
+		return path;
+	}
+
+}
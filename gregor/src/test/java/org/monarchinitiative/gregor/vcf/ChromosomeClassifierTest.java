@@ -0,0 +1,61 @@
+package org.monarchinitiative.gregor.vcf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+
+public class ChromosomeClassifierTest {
+
+	@Test
+	public void testGrch37() {
+		final ChromosomeClassifier classifier = ChromosomeClassifier.GRCH37;
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("X", 60_000));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("X", 60_001));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chrX", 2_699_520));
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("X", 2_699_521));
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("X", 154_931_043));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("X", 154_931_044));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("X", 155_260_560));
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("X", 155_260_561));
+
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("Y", 10_001));
+		Assertions.assertEquals(ChromosomeType.Y_CHROMOSOMAL, classifier.classify("Y", 2_649_521));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chrY", 59_363_566));
+		Assertions.assertEquals(ChromosomeType.Y_CHROMOSOMAL, classifier.classify("Y", 30_000_000));
+	}
+
+	@Test
+	public void testGrch38() {
+		final ChromosomeClassifier classifier = ChromosomeClassifier.GRCH38;
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("chrX", 10_000));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chrX", 10_001));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chrX", 2_781_479));
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("chrX", 2_781_480));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chrX", 155_701_383));
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, classifier.classify("chrX", 156_030_896));
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chrY", 56_887_903));
+		Assertions.assertEquals(ChromosomeType.Y_CHROMOSOMAL, classifier.classify("chrY", 56_887_902));
+	}
+
+	@Test
+	public void testOtherContigs() {
+		for (ChromosomeClassifier classifier : ChromosomeClassifier.values()) {
+			Assertions.assertEquals(ChromosomeType.AUTOSOMAL, classifier.classify("chr1", 100_000));
+			Assertions.assertEquals(ChromosomeType.MITOCHONDRIAL, classifier.classify("MT", 100_000));
+		}
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, ChromosomeClassifier.CONTIG_NAME.classify("X", 100_000));
+		Assertions.assertEquals(ChromosomeType.Y_CHROMOSOMAL, ChromosomeClassifier.CONTIG_NAME.classify("Y", 100_000));
+	}
+
+	@Test
+	public void testSameAsLinearScan() {
+		final int[][] xRegions = {{60_001, 2_699_520}, {154_931_044, 155_260_560}};
+		for (int pos = 0; pos < 160_000_000; pos += 9_973) {
+			boolean expected = false;
+			for (int[] region : xRegions)
+				expected |= region[0] <= pos && pos <= region[1];
+			Assertions.assertEquals(expected, ChromosomeClassifier.GRCH37.isPseudoautosomalX(pos), "pos " + pos);
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package org.monarchinitiative.gregor.vcf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.gregor.mendel.ChromosomeType;
+import org.monarchinitiative.gregor.mendel.Genotype;
+import org.monarchinitiative.gregor.mendel.GenotypeCalls;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+public class VcfGenotypeReaderTest {
+
+	static final String VCF = """
+		##fileformat=VCFv4.2
+		#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tfather\tmother\tson
+		1\t100\t.\tA\tC\t.\tPASS\t.\tGT:GQ\t0/1:30\t0/0:30\t1/1:30
+		chrX\t200\trs1\tG\tT\t.\tPASS\t.\tDP:GT\t10:0|1\t10:./.\t10:1
+		MT\t300\t.\tC\tA,G\t.\tPASS\t.\tGT\t.\t0/.\t1/2
+		""";
+
+	@Test
+	public void testRead() throws IOException, VcfParseException {
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(
+			new ByteArrayInputStream(VCF.getBytes(StandardCharsets.UTF_8)))) {
+			checkRecords(reader);
+		}
+	}
+
+	@Test
+	public void testReadGzip() throws IOException, VcfParseException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(VCF.getBytes(StandardCharsets.UTF_8));
+		}
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+			checkRecords(reader);
+		}
+	}
+
+	private void checkRecords(VcfGenotypeReader reader) throws IOException, VcfParseException {
+		Assertions.assertEquals(List.of("father", "mother", "son"), reader.getSampleNames());
+
+		GenotypeCalls calls = reader.next();
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, calls.getChromType());
+		Assertions.assertEquals(new VcfVariant("1", 100, ".", "A", "C"), calls.getPayload());
+		Assertions.assertEquals(new Genotype(List.of(0, 1)), calls.getGenotypeForSample("father"));
+		Assertions.assertEquals(new Genotype(List.of(0, 0)), calls.getGenotypeForSample("mother"));
+		Assertions.assertEquals(new Genotype(List.of(1, 1)), calls.getGenotypeForSample("son"));
+		Assertions.assertEquals(30, calls.getGenotypeQualityForSample("son"));
+		Assertions.assertEquals(GenotypeCalls.MISSING_QUALITY, calls.getReadDepthForSample("son"));
+
+		calls = reader.next();
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, calls.getChromType());
+		Assertions.assertEquals(new Genotype(List.of(0, 1)), calls.getGenotypeForSample("father"));
+		Assertions.assertEquals(10, calls.getReadDepthBySampleNo(0));
+		Assertions.assertEquals(GenotypeCalls.MISSING_QUALITY, calls.getGenotypeQualityBySampleNo(0));
+		Assertions.assertTrue(calls.getGenotypeForSample("mother").isNotObserved());
+		Assertions.assertEquals(new Genotype(List.of(1)), calls.getGenotypeForSample("son"));
+
+		calls = reader.next();
+		Assertions.assertEquals(ChromosomeType.MITOCHONDRIAL, calls.getChromType());
+		Assertions.assertTrue(calls.getGenotypeForSample("father").isNotObserved());
+		Assertions.assertEquals(new Genotype(List.of(0, Genotype.NO_CALL)), calls.getGenotypeForSample("mother"));
+		Assertions.assertEquals(new Genotype(List.of(1, 2)), calls.getGenotypeForSample("son"));
+
+		Assertions.assertNull(reader.next());
+	}
+
+	@Test
+	public void testPseudoautosomal() throws IOException, VcfParseException {
+		final String vcf = String.join("\n",
+			"#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tson",
+			"chrX\t100000\t.\tA\tC\t.\tPASS\t.\tGT\t0/1",
+			"chrX\t3000000\t.\tA\tC\t.\tPASS\t.\tGT\t1");
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(
+			new ByteArrayInputStream(vcf.getBytes(StandardCharsets.UTF_8)), ChromosomeClassifier.GRCH38)) {
+			Assertions.assertEquals(ChromosomeType.AUTOSOMAL, reader.next().getChromType());
+			Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, reader.next().getChromType());
+		}
+	}
+
+	@Test
+	public void testInvalidQuality() throws IOException, VcfParseException {
+		final String vcf = String.join("\n",
+			"#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\tFORMAT\tson",
+			"1\t100\t.\tA\tC\t.\tPASS\t.\tGT:GQ\t0/1:high");
+		try (VcfGenotypeReader reader = new VcfGenotypeReader(
+			new ByteArrayInputStream(vcf.getBytes(StandardCharsets.UTF_8)))) {
+			Assertions.assertThrows(VcfParseException.class, reader::next);
+		}
+	}
+
+	@Test
+	public void testMissingHeader() {
+		Assertions.assertThrows(VcfParseException.class, () -> new VcfGenotypeReader(
+			new ByteArrayInputStream("1\t100\t.\tA\tC\n".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	public void testToChromType() {
+		Assertions.assertEquals(ChromosomeType.AUTOSOMAL, VcfGenotypeReader.toChromType("chr1"));
+		Assertions.assertEquals(ChromosomeType.X_CHROMOSOMAL, VcfGenotypeReader.toChromType("X"));
+		Assertions.assertEquals(ChromosomeType.Y_CHROMOSOMAL, VcfGenotypeReader.toChromType("chrY"));
+		Assertions.assertEquals(ChromosomeType.MITOCHONDRIAL, VcfGenotypeReader.toChromType("chrM"));
+		Assertions.assertEquals(ChromosomeType.MITOCHONDRIAL, VcfGenotypeReader.toChromType("MT"));
+	}
+
+}